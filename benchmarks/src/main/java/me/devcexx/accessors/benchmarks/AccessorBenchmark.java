@@ -0,0 +1,145 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors.benchmarks;
+
+import me.devcexx.accessors.RandomAccessor;
+import me.devcexx.accessors.TrustedRandomAccessor;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the positional access of a {@link RandomAccessor}, where the
+ * offset is tracked by the accessor, with its absolute access, writing and
+ * then reading a sequence of ints that fills a small source. Both are
+ * measured with a regular accessor and with a {@link TrustedRandomAccessor}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class AccessorBenchmark {
+    private static final int SIZE = 4096;
+    private static final int COUNT = SIZE / 4;
+
+    @State(Scope.Thread)
+    public static class Accessor extends SourceState {
+        @Param
+        public SourceKind kind;
+
+        @Param({ "true", "false" })
+        public boolean nativeOrder;
+
+        @Param({ "false", "true" })
+        public boolean trusted;
+
+        RandomAccessor accessor;
+
+        @Setup
+        public void setUp() {
+            setUp(kind, nativeOrder, SIZE);
+            accessor = trusted
+                    ? new TrustedRandomAccessor(source, 0, source.length(), order)
+                    : new RandomAccessor(source, order);
+        }
+
+        @TearDown
+        public void tearDown() {
+            super.tearDown();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Buffer extends BufferState {
+        @Param({ "true", "false" })
+        public boolean direct;
+
+        @Param({ "true", "false" })
+        public boolean nativeOrder;
+
+        @Setup
+        public void setUp() {
+            setUp(direct, nativeOrder, SIZE);
+        }
+    }
+
+    @Benchmark
+    public int positional(Accessor a) {
+        RandomAccessor accessor = a.accessor;
+
+        accessor.position(0);
+        for (int i = 0; i < COUNT; i++) {
+            accessor.put(i);
+        }
+
+        int sum = 0;
+        accessor.position(0);
+        for (int i = 0; i < COUNT; i++) {
+            sum += accessor.getInt();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int absolute(Accessor a) {
+        RandomAccessor accessor = a.accessor;
+
+        for (int i = 0; i < COUNT; i++) {
+            accessor.put(i * 4, i);
+        }
+
+        int sum = 0;
+        for (int i = 0; i < COUNT; i++) {
+            sum += accessor.getInt(i * 4);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int byteBufferPositional(Buffer b) {
+        ByteBuffer buffer = b.buffer;
+
+        buffer.clear();
+        for (int i = 0; i < COUNT; i++) {
+            buffer.putInt(i);
+        }
+
+        int sum = 0;
+        buffer.clear();
+        for (int i = 0; i < COUNT; i++) {
+            sum += buffer.getInt();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int byteBufferAbsolute(Buffer b) {
+        ByteBuffer buffer = b.buffer;
+
+        for (int i = 0; i < COUNT; i++) {
+            buffer.putInt(i * 4, i);
+        }
+
+        int sum = 0;
+        for (int i = 0; i < COUNT; i++) {
+            sum += buffer.getInt(i * 4);
+        }
+        return sum;
+    }
+}
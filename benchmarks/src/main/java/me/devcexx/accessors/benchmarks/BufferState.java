@@ -0,0 +1,34 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors.benchmarks;
+
+import me.devcexx.accessors.DataOrder;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Base of the benchmark states that hold a plain {@link ByteBuffer},
+ * used as baseline for the sources.
+ */
+public abstract class BufferState {
+    protected ByteBuffer buffer;
+
+    protected void setUp(boolean direct, boolean nativeOrder, int size) {
+        buffer = direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+        buffer.order(nativeOrder ? DataOrder.NATIVE_ORDER.nioOrder : DataOrder.NATIVE_ORDER.opposite().nioOrder);
+    }
+}
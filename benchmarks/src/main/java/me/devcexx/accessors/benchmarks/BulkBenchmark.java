@@ -0,0 +1,182 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.IntBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures array transfers from and to the sources, sweeping
+ * the size of the payload from a single word to 1 GiB. The largest
+ * sizes need a heap of at least 4 GiB, which is set on each fork.
+ * The sweep can be narrowed with the {@code -p size=...} option.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx4g")
+public class BulkBenchmark {
+
+    @State(Scope.Thread)
+    public static class Source extends SourceState {
+        @Param
+        public SourceKind kind;
+
+        @Param({ "true", "false" })
+        public boolean nativeOrder;
+
+        @Param({ "8", "64", "512", "4096", "65536", "1048576", "16777216", "268435456", "1073741824" })
+        public int size;
+
+        int[] ints;
+
+        @Setup
+        public void setUp() {
+            setUp(kind, nativeOrder, size);
+            ints = randomInts(size);
+        }
+
+        @TearDown
+        public void tearDown() {
+            super.tearDown();
+        }
+    }
+
+    /**
+     * Byte transfers don't depend on the data order, so
+     * they are measured without it.
+     */
+    @State(Scope.Thread)
+    public static class SourceBytes extends SourceState {
+        @Param
+        public SourceKind kind;
+
+        @Param({ "8", "64", "512", "4096", "65536", "1048576", "16777216", "268435456", "1073741824" })
+        public int size;
+
+        byte[] bytes;
+
+        @Setup
+        public void setUp() {
+            setUp(kind, true, size);
+            bytes = new byte[size];
+        }
+
+        @TearDown
+        public void tearDown() {
+            super.tearDown();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Buffer extends BufferState {
+        @Param({ "true", "false" })
+        public boolean direct;
+
+        @Param({ "true", "false" })
+        public boolean nativeOrder;
+
+        @Param({ "8", "64", "512", "4096", "65536", "1048576", "16777216", "268435456", "1073741824" })
+        public int size;
+
+        IntBuffer intBuffer;
+        int[] ints;
+
+        @Setup
+        public void setUp() {
+            setUp(direct, nativeOrder, size);
+            intBuffer = buffer.asIntBuffer();
+            ints = randomInts(size);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BufferBytes extends BufferState {
+        @Param({ "true", "false" })
+        public boolean direct;
+
+        @Param({ "8", "64", "512", "4096", "65536", "1048576", "16777216", "268435456", "1073741824" })
+        public int size;
+
+        byte[] bytes;
+
+        @Setup
+        public void setUp() {
+            setUp(direct, true, size);
+            bytes = new byte[size];
+        }
+    }
+
+    private static int[] randomInts(int size) {
+        Random random = new Random(size);
+        int[] ints = new int[size / 4];
+        for (int i = 0; i < ints.length; i++) {
+            ints[i] = random.nextInt();
+        }
+        return ints;
+    }
+
+    @Benchmark
+    public int[] getInts(Source s) {
+        return s.source.get(0, s.ints, s.order);
+    }
+
+    @Benchmark
+    public void putInts(Source s) {
+        s.source.put(0, s.ints, s.order);
+    }
+
+    @Benchmark
+    public byte[] getBytes(SourceBytes s) {
+        return s.source.get(0, s.bytes);
+    }
+
+    @Benchmark
+    public void putBytes(SourceBytes s) {
+        s.source.put(0, s.bytes);
+    }
+
+    @Benchmark
+    public int[] byteBufferGetInts(Buffer b) {
+        b.intBuffer.clear();
+        b.intBuffer.get(b.ints);
+        return b.ints;
+    }
+
+    @Benchmark
+    public void byteBufferPutInts(Buffer b) {
+        b.intBuffer.clear();
+        b.intBuffer.put(b.ints);
+    }
+
+    @Benchmark
+    public byte[] byteBufferGetBytes(BufferBytes b) {
+        b.buffer.clear();
+        b.buffer.get(b.bytes);
+        return b.bytes;
+    }
+
+    @Benchmark
+    public void byteBufferPutBytes(BufferBytes b) {
+        b.buffer.clear();
+        b.buffer.put(b.bytes);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors.benchmarks;
+
+import me.devcexx.accessors.CopyBatch;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the decoding of a record made of several fields of different
+ * types, either through a {@link CopyBatch} or through a bulk read for each
+ * field. The number of items of each field ranges from a single value to
+ * enough items for swapped copies to be performed by the native library.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CopyBatchBenchmark {
+
+    @State(Scope.Thread)
+    public static class Record extends SourceState {
+        @Param
+        public SourceKind kind;
+
+        @Param({ "true", "false" })
+        public boolean nativeOrder;
+
+        @Param({ "1", "16", "256" })
+        public int items;
+
+        short[] shorts;
+        int[] ints;
+        long[] longs;
+        double[] doubles;
+        long intsOff;
+        long longsOff;
+        long doublesOff;
+        CopyBatch batch;
+
+        @Setup
+        public void setUp() {
+            intsOff = items * 2L;
+            longsOff = intsOff + items * 4L;
+            doublesOff = longsOff + items * 8L;
+            setUp(kind, nativeOrder, doublesOff + items * 8L);
+
+            shorts = new short[items];
+            ints = new int[items];
+            longs = new long[items];
+            doubles = new double[items];
+            batch = new CopyBatch();
+        }
+
+        @TearDown
+        public void tearDown() {
+            batch.close();
+            super.tearDown();
+        }
+    }
+
+    @Benchmark
+    public double[] batch(Record r) {
+        r.batch.get(r.source, 0, r.shorts, 0, r.items, r.order)
+                .get(r.source, r.intsOff, r.ints, 0, r.items, r.order)
+                .get(r.source, r.longsOff, r.longs, 0, r.items, r.order)
+                .get(r.source, r.doublesOff, r.doubles, 0, r.items, r.order)
+                .execute();
+        return r.doubles;
+    }
+
+    @Benchmark
+    public double[] sequential(Record r) {
+        r.source.get(0, r.shorts, r.order);
+        r.source.get(r.intsOff, r.ints, r.order);
+        r.source.get(r.longsOff, r.longs, r.order);
+        return r.source.get(r.doublesOff, r.doubles, r.order);
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures single value reads and writes, walking a small
+ * source so the data is always on the CPU cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ScalarBenchmark {
+    private static final int SIZE = 4096;
+    private static final int MASK = SIZE - 1;
+
+    @State(Scope.Thread)
+    public static class Source extends SourceState {
+        @Param
+        public SourceKind kind;
+
+        @Param({ "true", "false" })
+        public boolean nativeOrder;
+
+        int off;
+
+        @Setup
+        public void setUp() {
+            setUp(kind, nativeOrder, SIZE);
+        }
+
+        @TearDown
+        public void tearDown() {
+            super.tearDown();
+        }
+
+        int next() {
+            return off = (off + 8) & MASK;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Buffer extends BufferState {
+        @Param({ "true", "false" })
+        public boolean direct;
+
+        @Param({ "true", "false" })
+        public boolean nativeOrder;
+
+        int off;
+
+        @Setup
+        public void setUp() {
+            setUp(direct, nativeOrder, SIZE);
+        }
+
+        int next() {
+            return off = (off + 8) & MASK;
+        }
+    }
+
+    @Benchmark
+    public int getInt(Source s) {
+        return s.source.getInt(s.next(), s.order);
+    }
+
+    @Benchmark
+    public void putInt(Source s) {
+        int off = s.next();
+        s.source.put(off, off, s.order);
+    }
+
+    @Benchmark
+    public long getLong(Source s) {
+        return s.source.getLong(s.next(), s.order);
+    }
+
+    @Benchmark
+    public void putLong(Source s) {
+        int off = s.next();
+        s.source.put(off, (long) off, s.order);
+    }
+
+    @Benchmark
+    public double getDouble(Source s) {
+        return s.source.getDouble(s.next(), s.order);
+    }
+
+    @Benchmark
+    public void putDouble(Source s) {
+        int off = s.next();
+        s.source.put(off, (double) off, s.order);
+    }
+
+    @Benchmark
+    public int byteBufferGetInt(Buffer b) {
+        return b.buffer.getInt(b.next());
+    }
+
+    @Benchmark
+    public void byteBufferPutInt(Buffer b) {
+        int off = b.next();
+        b.buffer.putInt(off, off);
+    }
+
+    @Benchmark
+    public long byteBufferGetLong(Buffer b) {
+        return b.buffer.getLong(b.next());
+    }
+
+    @Benchmark
+    public void byteBufferPutLong(Buffer b) {
+        int off = b.next();
+        b.buffer.putLong(off, off);
+    }
+
+    @Benchmark
+    public double byteBufferGetDouble(Buffer b) {
+        return b.buffer.getDouble(b.next());
+    }
+
+    @Benchmark
+    public void byteBufferPutDouble(Buffer b) {
+        int off = b.next();
+        b.buffer.putDouble(off, off);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors.benchmarks;
+
+import me.devcexx.accessors.RandomAccessSource;
+import me.devcexx.accessors.Sources;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Each one of the {@link RandomAccessSource} implementations that
+ * are measured by the benchmarks.
+ */
+public enum SourceKind {
+    DIRECT {
+        @Override
+        RandomAccessSource alloc(long size) {
+            return Sources.alloc(size);
+        }
+    },
+    BYTE_ARRAY {
+        @Override
+        RandomAccessSource alloc(long size) {
+            return Sources.fromNewArray(Math.toIntExact(size));
+        }
+    },
+    SLICED {
+        @Override
+        RandomAccessSource alloc(long size) {
+            return Sources.alloc(size + SLICE_OFFSET);
+        }
+
+        @Override
+        RandomAccessSource view(RandomAccessSource backing) {
+            return backing.slice(SLICE_OFFSET);
+        }
+    },
+    NIO_DIRECT {
+        @Override
+        RandomAccessSource alloc(long size) {
+            return Sources.fromByteBuffer(ByteBuffer.allocateDirect(Math.toIntExact(size)));
+        }
+    },
+    SHARED_MEMORY {
+        @Override
+        RandomAccessSource alloc(long size) {
+            return Sources.createSharedMemorySegment(IPC_PRIVATE, size, SHM_PERMISSIONS, false);
+        }
+    };
+
+    private static final long SLICE_OFFSET = 64;
+    private static final long IPC_PRIVATE = 0;
+    private static final int SHM_PERMISSIONS = 0600;
+
+    /**
+     * Allocates the memory that will back a source of the given size.
+     */
+    abstract RandomAccessSource alloc(long size);
+
+    /**
+     * Returns the source that will be measured over the given backing source.
+     */
+    RandomAccessSource view(RandomAccessSource backing) {
+        return backing;
+    }
+}
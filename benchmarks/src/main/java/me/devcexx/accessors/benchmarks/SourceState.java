@@ -0,0 +1,40 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors.benchmarks;
+
+import me.devcexx.accessors.DataOrder;
+import me.devcexx.accessors.RandomAccessSource;
+
+/**
+ * Base of the benchmark states that hold a source of
+ * a given kind, accessed with a given data order.
+ */
+public abstract class SourceState {
+    protected RandomAccessSource backing;
+    protected RandomAccessSource source;
+    protected DataOrder order;
+
+    protected void setUp(SourceKind kind, boolean nativeOrder, long size) {
+        backing = kind.alloc(size);
+        source = kind.view(backing);
+        order = nativeOrder ? DataOrder.NATIVE_ORDER : DataOrder.NATIVE_ORDER.opposite();
+    }
+
+    protected void tearDown() {
+        backing.dealloc();
+    }
+}
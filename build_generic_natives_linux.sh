@@ -33,5 +33,6 @@ for arch_spec in ${ARCHS}; do
     -I${JAVA_HOME}/include/linux \
     -Isrc/main/c \
     src/main/c/me_devcexx_accessors_AccessorNatives.c \
-    -o ${OUTPUT_FOLDER}/libaccessors${arch_size}.so
+    -o ${OUTPUT_FOLDER}/libaccessors${arch_size}.so \
+    -lrt
 done
@@ -28,4 +28,5 @@ gcc -g \
     -I${JAVA_HOME}/include/linux \
     -Isrc/main/c \
     src/main/c/me_devcexx_accessors_AccessorNatives.c \
-    -o ${OUTPUT_FOLDER}/libaccessors.so
+    -o ${OUTPUT_FOLDER}/libaccessors.so \
+    -lrt
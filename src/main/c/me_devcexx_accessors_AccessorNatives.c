@@ -14,15 +14,40 @@
  *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
  */
 
+#define _FILE_OFFSET_BITS 64
+
 #include "me_devcexx_accessors_AccessorNatives.h"
 #include <sys/ipc.h>
 #include <sys/shm.h>
+#include <sys/mman.h>
+#include <fcntl.h>
 #include <stdio.h>
 #include <stdlib.h>
 #include <errno.h>
 #include <unistd.h>
 #include <string.h>
 #include <stdint.h>
+#include <sys/stat.h>
+
+#ifdef __linux__
+#include <sys/syscall.h>
+#endif
+
+/*
+ * Older C libraries don't declare memfd_create, so it
+ * is invoked through its system call number instead.
+ */
+#if defined(__linux__) && defined(SYS_memfd_create)
+#define ACCESSORS_MEMFD
+#ifndef MFD_CLOEXEC
+#define MFD_CLOEXEC 0x0001U
+#endif
+#endif
+
+#if defined(__x86_64__) || defined(__i386__)
+#define ACCESSORS_X86_SIMD
+#include <immintrin.h>
+#endif
 
 /*
  * Flips the bytes of an unsigned 16-bit value.
@@ -74,7 +99,7 @@ static inline __attribute__ (( always_inline )) uint64_t flip64(uint64_t x) {
  * Copy n 16-bit items from the in pointer to the out pointer
  * reversing the bytes of each item.
  */
-void cpymem_flip16(char* out, char* in, uint64_t n) {
+static void cpymem_scalar_flip16(char* out, char* in, uint64_t n) {
   uint64_t c = n / 4;
   uint64_t* ptr_in = (uint64_t*) in;
   uint64_t* ptr_out = (uint64_t*) out;
@@ -99,7 +124,7 @@ void cpymem_flip16(char* out, char* in, uint64_t n) {
  * Copy n 32-bit items from the in pointer to the out pointer
  * reversing the bytes of each item.
  */
-void cpymem_flip32(char* out, char* in, uint64_t n) {
+static void cpymem_scalar_flip32(char* out, char* in, uint64_t n) {
   uint64_t c = n / 2;
   
   unsigned long* ptr_in = (unsigned long*) in;
@@ -120,7 +145,7 @@ void cpymem_flip32(char* out, char* in, uint64_t n) {
  * Copy n 64-bit items from the in pointer to the out pointer
  * reversing the bytes of each item.
  */
-void cpymem_flip64(char* out, char* in, uint64_t n) {
+static void cpymem_scalar_flip64(char* out, char* in, uint64_t n) {
   uint64_t* ptr_in = (uint64_t*) in;
   uint64_t* ptr_out = (uint64_t*) out;
 
@@ -129,6 +154,172 @@ void cpymem_flip64(char* out, char* in, uint64_t n) {
   }
 }
 
+#ifdef ACCESSORS_X86_SIMD
+
+/*
+ * Shuffle masks that reverse the bytes of each 16, 32 and 64-bit
+ * item of a 128-bit lane. Wider registers shuffle each 128-bit lane
+ * independently, so the same mask is repeated across the register.
+ */
+static const uint8_t flip16_mask[64] __attribute__ (( aligned(64) )) = {
+  1, 0, 3, 2, 5, 4, 7, 6, 9, 8, 11, 10, 13, 12, 15, 14,
+  1, 0, 3, 2, 5, 4, 7, 6, 9, 8, 11, 10, 13, 12, 15, 14,
+  1, 0, 3, 2, 5, 4, 7, 6, 9, 8, 11, 10, 13, 12, 15, 14,
+  1, 0, 3, 2, 5, 4, 7, 6, 9, 8, 11, 10, 13, 12, 15, 14
+};
+
+static const uint8_t flip32_mask[64] __attribute__ (( aligned(64) )) = {
+  3, 2, 1, 0, 7, 6, 5, 4, 11, 10, 9, 8, 15, 14, 13, 12,
+  3, 2, 1, 0, 7, 6, 5, 4, 11, 10, 9, 8, 15, 14, 13, 12,
+  3, 2, 1, 0, 7, 6, 5, 4, 11, 10, 9, 8, 15, 14, 13, 12,
+  3, 2, 1, 0, 7, 6, 5, 4, 11, 10, 9, 8, 15, 14, 13, 12
+};
+
+static const uint8_t flip64_mask[64] __attribute__ (( aligned(64) )) = {
+  7, 6, 5, 4, 3, 2, 1, 0, 15, 14, 13, 12, 11, 10, 9, 8,
+  7, 6, 5, 4, 3, 2, 1, 0, 15, 14, 13, 12, 11, 10, 9, 8,
+  7, 6, 5, 4, 3, 2, 1, 0, 15, 14, 13, 12, 11, 10, 9, 8,
+  7, 6, 5, 4, 3, 2, 1, 0, 15, 14, 13, 12, 11, 10, 9, 8
+};
+
+/*
+ * Each kernel shuffles as many whole registers as fit in the given
+ * number of bytes and returns the number of bytes processed, leaving
+ * the remainder to the scalar routines. Every block is completely loaded
+ * before being stored, so in and out may point to the same memory.
+ */
+typedef uint64_t (*flip_kernel)(char* out, const char* in, uint64_t bytes, const uint8_t* mask);
+
+__attribute__ (( target("ssse3") ))
+static uint64_t flip_kernel_ssse3(char* out, const char* in, uint64_t bytes, const uint8_t* mask) {
+  __m128i m = _mm_load_si128((const __m128i*) mask);
+  uint64_t i = 0;
+
+  for (; i + 32 <= bytes; i += 32) {
+    __m128i a = _mm_loadu_si128((const __m128i*) (in + i));
+    __m128i b = _mm_loadu_si128((const __m128i*) (in + i + 16));
+    _mm_storeu_si128((__m128i*) (out + i), _mm_shuffle_epi8(a, m));
+    _mm_storeu_si128((__m128i*) (out + i + 16), _mm_shuffle_epi8(b, m));
+  }
+
+  for (; i + 16 <= bytes; i += 16) {
+    __m128i a = _mm_loadu_si128((const __m128i*) (in + i));
+    _mm_storeu_si128((__m128i*) (out + i), _mm_shuffle_epi8(a, m));
+  }
+
+  return i;
+}
+
+__attribute__ (( target("avx2") ))
+static uint64_t flip_kernel_avx2(char* out, const char* in, uint64_t bytes, const uint8_t* mask) {
+  __m256i m = _mm256_load_si256((const __m256i*) mask);
+  uint64_t i = 0;
+
+  for (; i + 64 <= bytes; i += 64) {
+    __m256i a = _mm256_loadu_si256((const __m256i*) (in + i));
+    __m256i b = _mm256_loadu_si256((const __m256i*) (in + i + 32));
+    _mm256_storeu_si256((__m256i*) (out + i), _mm256_shuffle_epi8(a, m));
+    _mm256_storeu_si256((__m256i*) (out + i + 32), _mm256_shuffle_epi8(b, m));
+  }
+
+  for (; i + 32 <= bytes; i += 32) {
+    __m256i a = _mm256_loadu_si256((const __m256i*) (in + i));
+    _mm256_storeu_si256((__m256i*) (out + i), _mm256_shuffle_epi8(a, m));
+  }
+
+  _mm256_zeroupper();
+  return i;
+}
+
+__attribute__ (( target("avx512f,avx512bw") ))
+static uint64_t flip_kernel_avx512(char* out, const char* in, uint64_t bytes, const uint8_t* mask) {
+  __m512i m = _mm512_load_si512((const void*) mask);
+  uint64_t i = 0;
+
+  for (; i + 128 <= bytes; i += 128) {
+    __m512i a = _mm512_loadu_si512((const void*) (in + i));
+    __m512i b = _mm512_loadu_si512((const void*) (in + i + 64));
+    _mm512_storeu_si512((void*) (out + i), _mm512_shuffle_epi8(a, m));
+    _mm512_storeu_si512((void*) (out + i + 64), _mm512_shuffle_epi8(b, m));
+  }
+
+  for (; i + 64 <= bytes; i += 64) {
+    __m512i a = _mm512_loadu_si512((const void*) (in + i));
+    _mm512_storeu_si512((void*) (out + i), _mm512_shuffle_epi8(a, m));
+  }
+
+  _mm256_zeroupper();
+  return i;
+}
+
+/*
+ * Kernel selected for the running CPU, or NULL if no suitable
+ * extension is available and only the scalar routines can be used.
+ * Selected once when the library is loaded, so a single generic
+ * binary takes advantage of the best extension of each host.
+ */
+static flip_kernel selected_flip_kernel = NULL;
+
+__attribute__ (( constructor ))
+static void select_flip_kernel(void) {
+  __builtin_cpu_init();
+
+  if (__builtin_cpu_supports("avx512bw")) {
+    selected_flip_kernel = flip_kernel_avx512;
+  } else if (__builtin_cpu_supports("avx2")) {
+    selected_flip_kernel = flip_kernel_avx2;
+  } else if (__builtin_cpu_supports("ssse3")) {
+    selected_flip_kernel = flip_kernel_ssse3;
+  }
+}
+
+/*
+ * Flips the bytes of as many leading items as possible using the
+ * selected kernel, advancing the pointers and decreasing the number
+ * of remaining items accordingly.
+ */
+static inline __attribute__ (( always_inline )) void flip_vectorized(char** out, char** in, uint64_t* n,
+                                                                   int dataSize, const uint8_t* mask) {
+  if (selected_flip_kernel != NULL) {
+    uint64_t done = selected_flip_kernel(*out, *in, *n * dataSize, mask);
+    *out += done;
+    *in += done;
+    *n -= done / dataSize;
+  }
+}
+
+#define FLIP_VECTORIZED(out, in, n, bits) flip_vectorized(&out, &in, &n, bits / 8, flip##bits##_mask)
+#else
+#define FLIP_VECTORIZED(out, in, n, bits)
+#endif
+
+/*
+ * Copy n 16-bit items from the in pointer to the out pointer
+ * reversing the bytes of each item.
+ */
+void cpymem_flip16(char* out, char* in, uint64_t n) {
+  FLIP_VECTORIZED(out, in, n, 16);
+  cpymem_scalar_flip16(out, in, n);
+}
+
+/*
+ * Copy n 32-bit items from the in pointer to the out pointer
+ * reversing the bytes of each item.
+ */
+void cpymem_flip32(char* out, char* in, uint64_t n) {
+  FLIP_VECTORIZED(out, in, n, 32);
+  cpymem_scalar_flip32(out, in, n);
+}
+
+/*
+ * Copy n 64-bit items from the in pointer to the out pointer
+ * reversing the bytes of each item.
+ */
+void cpymem_flip64(char* out, char* in, uint64_t n) {
+  FLIP_VECTORIZED(out, in, n, 64);
+  cpymem_scalar_flip64(out, in, n);
+}
+
 /*
  * Class:     me_devcexx_accessors_AccessorNatives
  * Method:    copyMemory
@@ -183,6 +374,79 @@ JNIEXPORT jint JNICALL Java_me_devcexx_accessors_AccessorNatives_copyMemory
   return me_devcexx_accessors_AccessorNatives_CPYMEM_ERRNO_OK;
 }
 
+/*
+ * Class:     me_devcexx_accessors_AccessorNatives
+ * Method:    copyBatch
+ * Signature: ([Ljava/lang/Object;IJI)I
+ */
+JNIEXPORT jint JNICALL Java_me_devcexx_accessors_AccessorNatives_copyBatch
+(JNIEnv * env, jclass clazz, jobjectArray arrays, jint arrayCount, jlong descriptors, jint count) {
+  jobject refs[me_devcexx_accessors_AccessorNatives_COPY_BATCH_MAX_ARRAYS];
+  char* bases[me_devcexx_accessors_AccessorNatives_COPY_BATCH_MAX_ARRAYS];
+  jlong* d = (jlong *) (intptr_t) descriptors;
+  jint result = me_devcexx_accessors_AccessorNatives_CPYMEM_ERRNO_OK;
+  int i;
+
+  if (arrayCount > me_devcexx_accessors_AccessorNatives_COPY_BATCH_MAX_ARRAYS
+      || (*env)->PushLocalFrame(env, arrayCount + 1) != 0) {
+    return me_devcexx_accessors_AccessorNatives_CPYMEM_ERRNO_TOO_MANY_ARRAYS;
+  }
+
+  /* No other JNI function can be called while the arrays are pinned,
+     so all the references are retrieved first. */
+  for (i = 0; i < arrayCount; i++) {
+    refs[i] = (*env)->GetObjectArrayElement(env, arrays, i);
+  }
+
+  for (i = 0; i < arrayCount; i++) {
+    bases[i] = (char *) (*env)->GetPrimitiveArrayCritical(env, refs[i], 0);
+    if (bases[i] == NULL) {
+      while (--i >= 0) {
+        (*env)->ReleasePrimitiveArrayCritical(env, refs[i], bases[i], JNI_ABORT);
+      }
+      (*env)->PopLocalFrame(env, NULL);
+      return me_devcexx_accessors_AccessorNatives_CPYMEM_ERRNO_PIN_FAILED;
+    }
+  }
+
+  for (i = 0; i < count; i++, d += me_devcexx_accessors_AccessorNatives_COPY_BATCH_DESCRIPTOR_WORDS) {
+    char* in = (d[0] < 0 ? (char *) 0 : bases[d[0]]) + d[1];
+    char* out = (d[2] < 0 ? (char *) 0 : bases[d[2]]) + d[3];
+    jint dataSize = (jint) d[4];
+    jlong n = d[5];
+
+    if (d[6] == 0 || dataSize == 1) {
+      memmove(out, in, dataSize * n);
+    } else if (dataSize == 2) {
+      cpymem_flip16(out, in, n);
+    } else if (dataSize == 4) {
+      cpymem_flip32(out, in, n);
+    } else if (dataSize == 8) {
+      cpymem_flip64(out, in, n);
+    } else {
+      result = me_devcexx_accessors_AccessorNatives_CPYMEM_ERRNO_INVALID_DATASIZE;
+      break;
+    }
+  }
+
+  for (i = arrayCount - 1; i >= 0; i--) {
+    (*env)->ReleasePrimitiveArrayCritical(env, refs[i], bases[i], 0);
+  }
+
+  (*env)->PopLocalFrame(env, NULL);
+  return result;
+}
+
+/*
+ * Class:     me_devcexx_accessors_AccessorNatives
+ * Method:    newDirectByteBuffer
+ * Signature: (JJ)Ljava/nio/ByteBuffer;
+ */
+JNIEXPORT jobject JNICALL Java_me_devcexx_accessors_AccessorNatives_newDirectByteBuffer
+(JNIEnv * env, jclass clazz, jlong address, jlong capacity) {
+  return (*env)->NewDirectByteBuffer(env, (void*) (intptr_t) address, capacity);
+}
+
 /*
  * Class:     me_devcexx_accessors_AccessorNatives
  * Method:    native_ftok
@@ -236,6 +500,141 @@ JNIEXPORT jint JNICALL Java_me_devcexx_accessors_AccessorNatives_native_1shmctl
   return shmctl(id, cmd, NULL);
 }
 
+/*
+ * Class:     me_devcexx_accessors_AccessorNatives
+ * Method:    native_open
+ * Signature: (Ljava/lang/String;I)I
+ */
+JNIEXPORT jint JNICALL Java_me_devcexx_accessors_AccessorNatives_native_1open
+(JNIEnv * env, jclass clazz, jstring path, jint flags) {
+  const char *pathStr = (*env)->GetStringUTFChars(env, path, 0);
+  int fd = open(pathStr, flags);
+  (*env)->ReleaseStringUTFChars(env, path, pathStr);
+  return fd;
+}
+
+/*
+ * Class:     me_devcexx_accessors_AccessorNatives
+ * Method:    native_close
+ * Signature: (I)I
+ */
+JNIEXPORT jint JNICALL Java_me_devcexx_accessors_AccessorNatives_native_1close
+(JNIEnv * env, jclass clazz, jint fd) {
+  return close(fd);
+}
+
+/*
+ * Class:     me_devcexx_accessors_AccessorNatives
+ * Method:    native_shm_open
+ * Signature: (Ljava/lang/String;II)I
+ */
+JNIEXPORT jint JNICALL Java_me_devcexx_accessors_AccessorNatives_native_1shm_1open
+(JNIEnv * env, jclass clazz, jstring name, jint flags, jint mode) {
+  const char *nameStr = (*env)->GetStringUTFChars(env, name, 0);
+  int fd = shm_open(nameStr, flags, (mode_t) mode);
+  (*env)->ReleaseStringUTFChars(env, name, nameStr);
+  return fd;
+}
+
+/*
+ * Class:     me_devcexx_accessors_AccessorNatives
+ * Method:    native_shm_unlink
+ * Signature: (Ljava/lang/String;)I
+ */
+JNIEXPORT jint JNICALL Java_me_devcexx_accessors_AccessorNatives_native_1shm_1unlink
+(JNIEnv * env, jclass clazz, jstring name) {
+  const char *nameStr = (*env)->GetStringUTFChars(env, name, 0);
+  int r = shm_unlink(nameStr);
+  (*env)->ReleaseStringUTFChars(env, name, nameStr);
+  return r;
+}
+
+/*
+ * Class:     me_devcexx_accessors_AccessorNatives
+ * Method:    native_memfd_create
+ * Signature: (Ljava/lang/String;I)I
+ */
+JNIEXPORT jint JNICALL Java_me_devcexx_accessors_AccessorNatives_native_1memfd_1create
+(JNIEnv * env, jclass clazz, jstring name, jint flags) {
+#ifdef ACCESSORS_MEMFD
+  const char *nameStr = (*env)->GetStringUTFChars(env, name, 0);
+  int fd = (int) syscall(SYS_memfd_create, nameStr, (unsigned int) flags);
+  (*env)->ReleaseStringUTFChars(env, name, nameStr);
+  return fd;
+#else
+  errno = ENOSYS;
+  return -1;
+#endif
+}
+
+/*
+ * Class:     me_devcexx_accessors_AccessorNatives
+ * Method:    native_ftruncate
+ * Signature: (IJ)I
+ */
+JNIEXPORT jint JNICALL Java_me_devcexx_accessors_AccessorNatives_native_1ftruncate
+(JNIEnv * env, jclass clazz, jint fd, jlong length) {
+  return ftruncate(fd, (off_t) length);
+}
+
+/*
+ * Class:     me_devcexx_accessors_AccessorNatives
+ * Method:    native_fsize
+ * Signature: (I)J
+ */
+JNIEXPORT jlong JNICALL Java_me_devcexx_accessors_AccessorNatives_native_1fsize
+(JNIEnv * env, jclass clazz, jint fd) {
+  struct stat st;
+  if (fstat(fd, &st) == -1) {
+    return -1;
+  }
+  return (jlong) st.st_size;
+}
+
+/*
+ * Class:     me_devcexx_accessors_AccessorNatives
+ * Method:    native_mmap
+ * Signature: (JJIIIJ)J
+ */
+JNIEXPORT jlong JNICALL Java_me_devcexx_accessors_AccessorNatives_native_1mmap
+(JNIEnv * env, jclass clazz, jlong addr, jlong length, jint prot, jint flags, jint fd, jlong offset) {
+  void* r = mmap((void*) (intptr_t) addr, (size_t) length, prot, flags, fd, (off_t) offset);
+  if (r == MAP_FAILED) {
+    return -1;
+  }
+  return (jlong) (intptr_t) r;
+}
+
+/*
+ * Class:     me_devcexx_accessors_AccessorNatives
+ * Method:    native_munmap
+ * Signature: (JJ)I
+ */
+JNIEXPORT jint JNICALL Java_me_devcexx_accessors_AccessorNatives_native_1munmap
+(JNIEnv * env, jclass clazz, jlong addr, jlong length) {
+  return munmap((void*) (intptr_t) addr, (size_t) length);
+}
+
+/*
+ * Class:     me_devcexx_accessors_AccessorNatives
+ * Method:    native_msync
+ * Signature: (JJI)I
+ */
+JNIEXPORT jint JNICALL Java_me_devcexx_accessors_AccessorNatives_native_1msync
+(JNIEnv * env, jclass clazz, jlong addr, jlong length, jint flags) {
+  return msync((void*) (intptr_t) addr, (size_t) length, flags);
+}
+
+/*
+ * Class:     me_devcexx_accessors_AccessorNatives
+ * Method:    native_madvise
+ * Signature: (JJI)I
+ */
+JNIEXPORT jint JNICALL Java_me_devcexx_accessors_AccessorNatives_native_1madvise
+(JNIEnv * env, jclass clazz, jlong addr, jlong length, jint advice) {
+  return madvise((void*) (intptr_t) addr, (size_t) length, advice);
+}
+
 /*
  * Class:     me_devcexx_accessors_AccessorNatives
  * Method:    errno
@@ -254,6 +653,16 @@ JNIEXPORT jstring JNICALL Java_me_devcexx_accessors_AccessorNatives_strerror
 (JNIEnv * env, jclass clazz, jint err) {
   return (*env)->NewStringUTF(env, strerror(errno));
 }
+/*
+ * Class:     me_devcexx_accessors_AccessorNatives
+ * Method:    nativeVersion
+ * Signature: ()I
+ */
+JNIEXPORT jint JNICALL Java_me_devcexx_accessors_AccessorNatives_nativeVersion
+(JNIEnv * env, jclass clazz) {
+  return me_devcexx_accessors_AccessorNatives_NATIVE_VERSION;
+}
+
 /*
  * Class:     me_devcexx_accessors_AccessorNatives
  * Method:    constantValueOf
@@ -266,6 +675,75 @@ JNIEXPORT jint JNICALL Java_me_devcexx_accessors_AccessorNatives_constantValueOf
     return IPC_CREAT;
   case me_devcexx_accessors_AccessorNatives_CONSTANT_ID_IPC_RMID:
     return IPC_RMID;
+  case me_devcexx_accessors_AccessorNatives_CONSTANT_ID_O_RDONLY:
+    return O_RDONLY;
+  case me_devcexx_accessors_AccessorNatives_CONSTANT_ID_O_RDWR:
+    return O_RDWR;
+  case me_devcexx_accessors_AccessorNatives_CONSTANT_ID_PROT_READ:
+    return PROT_READ;
+  case me_devcexx_accessors_AccessorNatives_CONSTANT_ID_PROT_WRITE:
+    return PROT_WRITE;
+  case me_devcexx_accessors_AccessorNatives_CONSTANT_ID_MAP_SHARED:
+    return MAP_SHARED;
+  case me_devcexx_accessors_AccessorNatives_CONSTANT_ID_MAP_PRIVATE:
+    return MAP_PRIVATE;
+  case me_devcexx_accessors_AccessorNatives_CONSTANT_ID_MS_SYNC:
+    return MS_SYNC;
+  /*
+   * The following constants are not defined on every system, so
+   * 0 is returned for the missing ones, meaning unsupported.
+   */
+  case me_devcexx_accessors_AccessorNatives_CONSTANT_ID_MAP_ANONYMOUS:
+#if defined(MAP_ANONYMOUS)
+    return MAP_ANONYMOUS;
+#elif defined(MAP_ANON)
+    return MAP_ANON;
+#else
+    return 0;
+#endif
+  case me_devcexx_accessors_AccessorNatives_CONSTANT_ID_MAP_HUGETLB:
+#ifdef MAP_HUGETLB
+    return MAP_HUGETLB;
+#else
+    return 0;
+#endif
+  case me_devcexx_accessors_AccessorNatives_CONSTANT_ID_MAP_HUGE_SHIFT:
+#ifdef MAP_HUGE_SHIFT
+    return MAP_HUGE_SHIFT;
+#else
+    return 0;
+#endif
+  case me_devcexx_accessors_AccessorNatives_CONSTANT_ID_SHM_HUGETLB:
+#ifdef SHM_HUGETLB
+    return SHM_HUGETLB;
+#else
+    return 0;
+#endif
+  case me_devcexx_accessors_AccessorNatives_CONSTANT_ID_SHM_HUGE_SHIFT:
+#if defined(SHM_HUGE_SHIFT)
+    return SHM_HUGE_SHIFT;
+#elif defined(SHM_HUGETLB) && defined(__linux__)
+    /* Older C libraries don't define it, but Linux always used 26. */
+    return 26;
+#else
+    return 0;
+#endif
+  case me_devcexx_accessors_AccessorNatives_CONSTANT_ID_O_CREAT:
+    return O_CREAT;
+  case me_devcexx_accessors_AccessorNatives_CONSTANT_ID_O_EXCL:
+    return O_EXCL;
+  case me_devcexx_accessors_AccessorNatives_CONSTANT_ID_MFD_CLOEXEC:
+#ifdef ACCESSORS_MEMFD
+    return MFD_CLOEXEC;
+#else
+    return 0;
+#endif
+  case me_devcexx_accessors_AccessorNatives_CONSTANT_ID_MADV_HUGEPAGE:
+#ifdef MADV_HUGEPAGE
+    return MADV_HUGEPAGE;
+#else
+    return 0;
+#endif
   default:
     return -1;
   }
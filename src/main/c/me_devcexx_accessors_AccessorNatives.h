@@ -7,14 +7,56 @@
 #ifdef __cplusplus
 extern "C" {
 #endif
+#undef me_devcexx_accessors_AccessorNatives_NATIVE_VERSION
+#define me_devcexx_accessors_AccessorNatives_NATIVE_VERSION 1L
 #undef me_devcexx_accessors_AccessorNatives_CONSTANT_ID_IPC_CREAT
 #define me_devcexx_accessors_AccessorNatives_CONSTANT_ID_IPC_CREAT 1L
 #undef me_devcexx_accessors_AccessorNatives_CONSTANT_ID_IPC_RMID
 #define me_devcexx_accessors_AccessorNatives_CONSTANT_ID_IPC_RMID 2L
+#undef me_devcexx_accessors_AccessorNatives_CONSTANT_ID_O_RDONLY
+#define me_devcexx_accessors_AccessorNatives_CONSTANT_ID_O_RDONLY 3L
+#undef me_devcexx_accessors_AccessorNatives_CONSTANT_ID_O_RDWR
+#define me_devcexx_accessors_AccessorNatives_CONSTANT_ID_O_RDWR 4L
+#undef me_devcexx_accessors_AccessorNatives_CONSTANT_ID_PROT_READ
+#define me_devcexx_accessors_AccessorNatives_CONSTANT_ID_PROT_READ 5L
+#undef me_devcexx_accessors_AccessorNatives_CONSTANT_ID_PROT_WRITE
+#define me_devcexx_accessors_AccessorNatives_CONSTANT_ID_PROT_WRITE 6L
+#undef me_devcexx_accessors_AccessorNatives_CONSTANT_ID_MAP_SHARED
+#define me_devcexx_accessors_AccessorNatives_CONSTANT_ID_MAP_SHARED 7L
+#undef me_devcexx_accessors_AccessorNatives_CONSTANT_ID_MAP_PRIVATE
+#define me_devcexx_accessors_AccessorNatives_CONSTANT_ID_MAP_PRIVATE 8L
+#undef me_devcexx_accessors_AccessorNatives_CONSTANT_ID_MS_SYNC
+#define me_devcexx_accessors_AccessorNatives_CONSTANT_ID_MS_SYNC 9L
+#undef me_devcexx_accessors_AccessorNatives_CONSTANT_ID_MAP_ANONYMOUS
+#define me_devcexx_accessors_AccessorNatives_CONSTANT_ID_MAP_ANONYMOUS 10L
+#undef me_devcexx_accessors_AccessorNatives_CONSTANT_ID_MAP_HUGETLB
+#define me_devcexx_accessors_AccessorNatives_CONSTANT_ID_MAP_HUGETLB 11L
+#undef me_devcexx_accessors_AccessorNatives_CONSTANT_ID_MAP_HUGE_SHIFT
+#define me_devcexx_accessors_AccessorNatives_CONSTANT_ID_MAP_HUGE_SHIFT 12L
+#undef me_devcexx_accessors_AccessorNatives_CONSTANT_ID_SHM_HUGETLB
+#define me_devcexx_accessors_AccessorNatives_CONSTANT_ID_SHM_HUGETLB 13L
+#undef me_devcexx_accessors_AccessorNatives_CONSTANT_ID_SHM_HUGE_SHIFT
+#define me_devcexx_accessors_AccessorNatives_CONSTANT_ID_SHM_HUGE_SHIFT 14L
+#undef me_devcexx_accessors_AccessorNatives_CONSTANT_ID_MADV_HUGEPAGE
+#define me_devcexx_accessors_AccessorNatives_CONSTANT_ID_MADV_HUGEPAGE 15L
+#undef me_devcexx_accessors_AccessorNatives_CONSTANT_ID_O_CREAT
+#define me_devcexx_accessors_AccessorNatives_CONSTANT_ID_O_CREAT 16L
+#undef me_devcexx_accessors_AccessorNatives_CONSTANT_ID_O_EXCL
+#define me_devcexx_accessors_AccessorNatives_CONSTANT_ID_O_EXCL 17L
+#undef me_devcexx_accessors_AccessorNatives_CONSTANT_ID_MFD_CLOEXEC
+#define me_devcexx_accessors_AccessorNatives_CONSTANT_ID_MFD_CLOEXEC 18L
 #undef me_devcexx_accessors_AccessorNatives_CPYMEM_ERRNO_OK
 #define me_devcexx_accessors_AccessorNatives_CPYMEM_ERRNO_OK 0L
 #undef me_devcexx_accessors_AccessorNatives_CPYMEM_ERRNO_INVALID_DATASIZE
 #define me_devcexx_accessors_AccessorNatives_CPYMEM_ERRNO_INVALID_DATASIZE 1L
+#undef me_devcexx_accessors_AccessorNatives_CPYMEM_ERRNO_TOO_MANY_ARRAYS
+#define me_devcexx_accessors_AccessorNatives_CPYMEM_ERRNO_TOO_MANY_ARRAYS 2L
+#undef me_devcexx_accessors_AccessorNatives_CPYMEM_ERRNO_PIN_FAILED
+#define me_devcexx_accessors_AccessorNatives_CPYMEM_ERRNO_PIN_FAILED 3L
+#undef me_devcexx_accessors_AccessorNatives_COPY_BATCH_MAX_ARRAYS
+#define me_devcexx_accessors_AccessorNatives_COPY_BATCH_MAX_ARRAYS 64L
+#undef me_devcexx_accessors_AccessorNatives_COPY_BATCH_DESCRIPTOR_WORDS
+#define me_devcexx_accessors_AccessorNatives_COPY_BATCH_DESCRIPTOR_WORDS 7L
 /*
  * Class:     me_devcexx_accessors_AccessorNatives
  * Method:    copyMemory
@@ -23,6 +65,22 @@ extern "C" {
 JNIEXPORT jint JNICALL Java_me_devcexx_accessors_AccessorNatives_copyMemory
   (JNIEnv *, jclass, jobject, jlong, jlong, jobject, jlong, jlong, jint, jlong, jint, jint);
 
+/*
+ * Class:     me_devcexx_accessors_AccessorNatives
+ * Method:    copyBatch
+ * Signature: ([Ljava/lang/Object;IJI)I
+ */
+JNIEXPORT jint JNICALL Java_me_devcexx_accessors_AccessorNatives_copyBatch
+  (JNIEnv *, jclass, jobjectArray, jint, jlong, jint);
+
+/*
+ * Class:     me_devcexx_accessors_AccessorNatives
+ * Method:    newDirectByteBuffer
+ * Signature: (JJ)Ljava/nio/ByteBuffer;
+ */
+JNIEXPORT jobject JNICALL Java_me_devcexx_accessors_AccessorNatives_newDirectByteBuffer
+  (JNIEnv *, jclass, jlong, jlong);
+
 /*
  * Class:     me_devcexx_accessors_AccessorNatives
  * Method:    native_ftok
@@ -63,6 +121,94 @@ JNIEXPORT jlong JNICALL Java_me_devcexx_accessors_AccessorNatives_native_1shmdt
 JNIEXPORT jint JNICALL Java_me_devcexx_accessors_AccessorNatives_native_1shmctl
   (JNIEnv *, jclass, jint, jint, jlong);
 
+/*
+ * Class:     me_devcexx_accessors_AccessorNatives
+ * Method:    native_open
+ * Signature: (Ljava/lang/String;I)I
+ */
+JNIEXPORT jint JNICALL Java_me_devcexx_accessors_AccessorNatives_native_1open
+  (JNIEnv *, jclass, jstring, jint);
+
+/*
+ * Class:     me_devcexx_accessors_AccessorNatives
+ * Method:    native_close
+ * Signature: (I)I
+ */
+JNIEXPORT jint JNICALL Java_me_devcexx_accessors_AccessorNatives_native_1close
+  (JNIEnv *, jclass, jint);
+
+/*
+ * Class:     me_devcexx_accessors_AccessorNatives
+ * Method:    native_shm_open
+ * Signature: (Ljava/lang/String;II)I
+ */
+JNIEXPORT jint JNICALL Java_me_devcexx_accessors_AccessorNatives_native_1shm_1open
+  (JNIEnv *, jclass, jstring, jint, jint);
+
+/*
+ * Class:     me_devcexx_accessors_AccessorNatives
+ * Method:    native_shm_unlink
+ * Signature: (Ljava/lang/String;)I
+ */
+JNIEXPORT jint JNICALL Java_me_devcexx_accessors_AccessorNatives_native_1shm_1unlink
+  (JNIEnv *, jclass, jstring);
+
+/*
+ * Class:     me_devcexx_accessors_AccessorNatives
+ * Method:    native_memfd_create
+ * Signature: (Ljava/lang/String;I)I
+ */
+JNIEXPORT jint JNICALL Java_me_devcexx_accessors_AccessorNatives_native_1memfd_1create
+  (JNIEnv *, jclass, jstring, jint);
+
+/*
+ * Class:     me_devcexx_accessors_AccessorNatives
+ * Method:    native_ftruncate
+ * Signature: (IJ)I
+ */
+JNIEXPORT jint JNICALL Java_me_devcexx_accessors_AccessorNatives_native_1ftruncate
+  (JNIEnv *, jclass, jint, jlong);
+
+/*
+ * Class:     me_devcexx_accessors_AccessorNatives
+ * Method:    native_fsize
+ * Signature: (I)J
+ */
+JNIEXPORT jlong JNICALL Java_me_devcexx_accessors_AccessorNatives_native_1fsize
+  (JNIEnv *, jclass, jint);
+
+/*
+ * Class:     me_devcexx_accessors_AccessorNatives
+ * Method:    native_mmap
+ * Signature: (JJIIIJ)J
+ */
+JNIEXPORT jlong JNICALL Java_me_devcexx_accessors_AccessorNatives_native_1mmap
+  (JNIEnv *, jclass, jlong, jlong, jint, jint, jint, jlong);
+
+/*
+ * Class:     me_devcexx_accessors_AccessorNatives
+ * Method:    native_munmap
+ * Signature: (JJ)I
+ */
+JNIEXPORT jint JNICALL Java_me_devcexx_accessors_AccessorNatives_native_1munmap
+  (JNIEnv *, jclass, jlong, jlong);
+
+/*
+ * Class:     me_devcexx_accessors_AccessorNatives
+ * Method:    native_msync
+ * Signature: (JJI)I
+ */
+JNIEXPORT jint JNICALL Java_me_devcexx_accessors_AccessorNatives_native_1msync
+  (JNIEnv *, jclass, jlong, jlong, jint);
+
+/*
+ * Class:     me_devcexx_accessors_AccessorNatives
+ * Method:    native_madvise
+ * Signature: (JJI)I
+ */
+JNIEXPORT jint JNICALL Java_me_devcexx_accessors_AccessorNatives_native_1madvise
+  (JNIEnv *, jclass, jlong, jlong, jint);
+
 /*
  * Class:     me_devcexx_accessors_AccessorNatives
  * Method:    errno
@@ -87,6 +233,14 @@ JNIEXPORT jstring JNICALL Java_me_devcexx_accessors_AccessorNatives_strerror
 JNIEXPORT jint JNICALL Java_me_devcexx_accessors_AccessorNatives_constantValueOf
   (JNIEnv *, jclass, jint);
 
+/*
+ * Class:     me_devcexx_accessors_AccessorNatives
+ * Method:    nativeVersion
+ * Signature: ()I
+ */
+JNIEXPORT jint JNICALL Java_me_devcexx_accessors_AccessorNatives_nativeVersion
+  (JNIEnv *, jclass);
+
 /*
  * Class:     me_devcexx_accessors_AccessorNatives
  * Method:    arrayMemset
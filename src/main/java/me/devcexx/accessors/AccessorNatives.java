@@ -15,9 +15,10 @@
  */
 package me.devcexx.accessors;
 
-import java.io.*;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
 
 /**
  * Class that gives access to the native code for raw write in direct buffers.
@@ -34,8 +35,118 @@ public class AccessorNatives {
      */
     public static final int IPC_RMID;
 
+    /**
+     * Holds the native O_RDONLY constant value.
+     */
+    public static final int O_RDONLY;
+
+    /**
+     * Holds the native O_RDWR constant value.
+     */
+    public static final int O_RDWR;
+
+    /**
+     * Holds the native O_CREAT constant value.
+     */
+    public static final int O_CREAT;
+
+    /**
+     * Holds the native O_EXCL constant value.
+     */
+    public static final int O_EXCL;
+
+    /**
+     * Holds the native MFD_CLOEXEC constant value, or 0 if
+     * the system doesn't support memfd_create.
+     */
+    public static final int MFD_CLOEXEC;
+
+    /**
+     * Holds the native PROT_READ constant value.
+     */
+    public static final int PROT_READ;
+
+    /**
+     * Holds the native PROT_WRITE constant value.
+     */
+    public static final int PROT_WRITE;
+
+    /**
+     * Holds the native MAP_SHARED constant value.
+     */
+    public static final int MAP_SHARED;
+
+    /**
+     * Holds the native MAP_PRIVATE constant value.
+     */
+    public static final int MAP_PRIVATE;
+
+    /**
+     * Holds the native MS_SYNC constant value.
+     */
+    public static final int MS_SYNC;
+
+    /**
+     * Holds the native MAP_ANONYMOUS constant value.
+     */
+    public static final int MAP_ANONYMOUS;
+
+    /**
+     * Holds the native MAP_HUGETLB constant value, or 0 if
+     * the system doesn't support it.
+     */
+    public static final int MAP_HUGETLB;
+
+    /**
+     * Holds the native MAP_HUGE_SHIFT constant value, or 0 if
+     * the system doesn't support it.
+     */
+    public static final int MAP_HUGE_SHIFT;
+
+    /**
+     * Holds the native SHM_HUGETLB constant value, or 0 if
+     * the system doesn't support it.
+     */
+    public static final int SHM_HUGETLB;
+
+    /**
+     * Holds the native SHM_HUGE_SHIFT constant value, or 0 if
+     * the system doesn't support it.
+     */
+    public static final int SHM_HUGE_SHIFT;
+
+    /**
+     * Holds the native MADV_HUGEPAGE constant value, or 0 if
+     * the system doesn't support it.
+     */
+    public static final int MADV_HUGEPAGE;
+
+    /**
+     * The version of the interface between this class and the native library, which
+     * must be increased whenever a native method is added or changed. A library built
+     * for another version, like a stale prebuilt binary that lacks some of the methods,
+     * is refused instead of failing with an {@link UnsatisfiedLinkError} on each call.
+     */
+    private static final int NATIVE_VERSION = 1;
+
     private static final int CONSTANT_ID_IPC_CREAT = 1;
     private static final int CONSTANT_ID_IPC_RMID = 2;
+    private static final int CONSTANT_ID_O_RDONLY = 3;
+    private static final int CONSTANT_ID_O_RDWR = 4;
+    private static final int CONSTANT_ID_PROT_READ = 5;
+    private static final int CONSTANT_ID_PROT_WRITE = 6;
+    private static final int CONSTANT_ID_MAP_SHARED = 7;
+    private static final int CONSTANT_ID_MAP_PRIVATE = 8;
+    private static final int CONSTANT_ID_MS_SYNC = 9;
+    private static final int CONSTANT_ID_MAP_ANONYMOUS = 10;
+    private static final int CONSTANT_ID_MAP_HUGETLB = 11;
+    private static final int CONSTANT_ID_MAP_HUGE_SHIFT = 12;
+    private static final int CONSTANT_ID_SHM_HUGETLB = 13;
+    private static final int CONSTANT_ID_SHM_HUGE_SHIFT = 14;
+    private static final int CONSTANT_ID_MADV_HUGEPAGE = 15;
+    private static final int CONSTANT_ID_O_CREAT = 16;
+    private static final int CONSTANT_ID_O_EXCL = 17;
+    private static final int CONSTANT_ID_MFD_CLOEXEC = 18;
 
     /**
      * Holds the value returned by {@link #copyMemory(Object, long, long, Object, long, long, int, long, int, int)}
@@ -49,6 +160,31 @@ public class AccessorNatives {
      */
     public static final int CPYMEM_ERRNO_INVALID_DATASIZE = 1;
 
+    /**
+     * Holds the value returned by {@link #copyBatch(Object[], int, long, int)}
+     * when it is given more arrays than {@link #COPY_BATCH_MAX_ARRAYS}, or the
+     * JVM cannot hold references to all of them.
+     */
+    public static final int CPYMEM_ERRNO_TOO_MANY_ARRAYS = 2;
+
+    /**
+     * Holds the value returned by {@link #copyBatch(Object[], int, long, int)}
+     * when the JVM cannot pin one of the given arrays. No copy is performed then.
+     */
+    public static final int CPYMEM_ERRNO_PIN_FAILED = 3;
+
+    /**
+     * The maximum number of distinct arrays that can be accessed by a
+     * single call to {@link #copyBatch(Object[], int, long, int)}.
+     */
+    public static final int COPY_BATCH_MAX_ARRAYS = 64;
+
+    /**
+     * The number of 64-bit words of each descriptor passed to
+     * {@link #copyBatch(Object[], int, long, int)}.
+     */
+    public static final int COPY_BATCH_DESCRIPTOR_WORDS = 7;
+
     /**
      * Copies a memory block.
      * @param arrayIn The java array where the data will be read. If null, the data will be copied from the specified addressIn.
@@ -68,11 +204,56 @@ public class AccessorNatives {
                                          long addressOut, long offsetOut, int dataSize, long count,
                                          int srcEndianness, int dstEndianness);
 
+    /**
+     * Performs several memory copies through a single native call, pinning each of the
+     * involved arrays just once. Each copy is described by {@link #COPY_BATCH_DESCRIPTOR_WORDS}
+     * consecutive 64-bit words, in the native order:
+     * <ol>
+     *     <li>the index, in the given array of arrays, of the source array, or -1 if
+     *     the source is an address.</li>
+     *     <li>the offset, in bytes, from the beginning of the source array, or the source address.</li>
+     *     <li>the index of the destination array, or -1 if the destination is an address.</li>
+     *     <li>the offset, in bytes, from the beginning of the destination array, or the destination address.</li>
+     *     <li>the size of each item (1, 2, 4 or 8).</li>
+     *     <li>the number of items to copy.</li>
+     *     <li>1 if the bytes of each item must be reversed, or 0 otherwise.</li>
+     * </ol>
+     * As in {@link #copyMemory(Object, long, long, Object, long, long, int, long, int, int)}, the
+     * native code doesn't check the bounds of the copies.
+     * @param arrays the arrays referenced by the descriptors.
+     * @param arrayCount the number of arrays used from the beginning of the array of arrays,
+     *                   which cannot exceed {@link #COPY_BATCH_MAX_ARRAYS}.
+     * @param descriptors the address of the descriptors.
+     * @param count the number of descriptors.
+     * @return {@link #CPYMEM_ERRNO_OK} if every copy has been performed, or an error code otherwise.
+     */
+    public static native int copyBatch(Object[] arrays, int arrayCount, long descriptors, int count);
+
+    /**
+     * Creates a direct byte buffer that operates over the specified memory region
+     * using the JNI interface.
+     * @param address the base address of the memory region.
+     * @param capacity the length of the memory region.
+     * @return a new direct buffer.
+     */
+    public static native ByteBuffer newDirectByteBuffer(long address, long capacity);
+
     private static native long native_ftok(String path, int id);
     private static native int native_shmget(long key, long size, int flags);
     private static native long native_shmat(int id, long addr, int flags);
     private static native long native_shmdt(long addr);
     private static native int native_shmctl(int id, int cmd, long ds);
+    private static native int native_open(String path, int flags);
+    private static native int native_close(int fd);
+    private static native int native_shm_open(String name, int flags, int mode);
+    private static native int native_shm_unlink(String name);
+    private static native int native_memfd_create(String name, int flags);
+    private static native int native_ftruncate(int fd, long length);
+    private static native long native_fsize(int fd);
+    private static native long native_mmap(long addr, long length, int prot, int flags, int fd, long offset);
+    private static native int native_munmap(long addr, long length);
+    private static native int native_msync(long addr, long length, int flags);
+    private static native int native_madvise(long addr, long length, int advice);
 
     /**
      * Get the last error code issued by the system for the current process.
@@ -88,6 +269,7 @@ public class AccessorNatives {
      */
     public static native String strerror(int error);
     private static native int constantValueOf(int constantId);
+    private static native int nativeVersion();
 
     private static String exLastError() {
         int errno = errno();
@@ -104,6 +286,7 @@ public class AccessorNatives {
      * @throws NativeException if the function has returned with an error.
      */
     public static long ftok(String path, int id) {
+        checkAvailable();
         long r = native_ftok(path, id);
         if (r == -1) {
             throw new NativeException(errno(), "Failed to get key for file " + path + ". " + exLastError());
@@ -122,6 +305,7 @@ public class AccessorNatives {
      * @throws NativeException if the function has returned with an error.
      */
     public static int shmget(long key, long size, int flags) {
+        checkAvailable();
         int r = native_shmget(key, size, flags);
         if (r == -1) {
             throw new SharedMemoryException(errno(), "Failed to get shared buffer. " + exLastError());
@@ -141,6 +325,7 @@ public class AccessorNatives {
      * @throws NativeException if the function has returned with an error.
      */
     public static long shmat(int id, long addr, int flags) {
+        checkAvailable();
         long r = native_shmat(id, addr, flags);
         if (r == -1) {
             throw new SharedMemoryException(errno(), "Failed to attach shared buffer. " + exLastError());
@@ -157,6 +342,7 @@ public class AccessorNatives {
      * @throws NativeException if the function has returned with an error.
      */
     public static long shmdt(long addr) {
+        checkAvailable();
         long r = native_shmdt(addr);
         if (r == -1) {
             throw new SharedMemoryException(errno(), "Failed to detach shared buffer. " + exLastError());
@@ -174,6 +360,7 @@ public class AccessorNatives {
      * @return the result of the operation.
      */
     public static long shmctl(int id, int cmd, long ds) {
+        checkAvailable();
         long r = native_shmctl(id, cmd, ds);
         if (r == -1) {
             throw new SharedMemoryException(errno(), "Failed to call shared memory control function. " + exLastError());
@@ -181,71 +368,388 @@ public class AccessorNatives {
         return r;
     }
 
-    private static String LIB_NAME = "accessors";
-    private static void loadNatives() {
+    /**
+     * Managed call to the function open of the system.
+     *
+     * Opens the file specified by the given path.
+     * @param path the path of the file.
+     * @param flags the access mode flags of the operation.
+     * @return the file descriptor of the opened file.
+     * @throws NativeException if the function has returned with an error.
+     */
+    public static int open(String path, int flags) {
+        checkAvailable();
+        int r = native_open(path, flags);
+        if (r == -1) {
+            throw new NativeException(errno(), "Failed to open file " + path + ". " + exLastError());
+        }
+        return r;
+    }
+
+    /**
+     * Managed call to the function close of the system.
+     *
+     * Closes a file descriptor.
+     * @param fd the file descriptor to close.
+     * @return the value 0.
+     * @throws NativeException if the function has returned with an error.
+     */
+    public static int close(int fd) {
+        checkAvailable();
+        int r = native_close(fd);
+        if (r == -1) {
+            throw new NativeException(errno(), "Failed to close file descriptor " + fd + ". " + exLastError());
+        }
+        return r;
+    }
+
+    /**
+     * Managed call to the function shm_open of the system.
+     *
+     * Creates or opens a POSIX shared memory object.
+     * @param name the name of the object, which should start with a slash.
+     * @param flags the access mode flags of the operation.
+     * @param mode the permissions of the object, if it is created.
+     * @return the file descriptor of the object.
+     * @throws NativeException if the function has returned with an error.
+     */
+    public static int shm_open(String name, int flags, int mode) {
+        checkAvailable();
+        int r = native_shm_open(name, flags, mode);
+        if (r == -1) {
+            throw new SharedMemoryException(errno(), "Failed to open shared memory object " + name + ". " + exLastError());
+        }
+        return r;
+    }
+
+    /**
+     * Managed call to the function shm_unlink of the system.
+     *
+     * Removes the name of a POSIX shared memory object. The object is destroyed
+     * once all the processes that have it mapped unmap it.
+     * @param name the name of the object.
+     * @return the value 0.
+     * @throws NativeException if the function has returned with an error.
+     */
+    public static int shm_unlink(String name) {
+        checkAvailable();
+        int r = native_shm_unlink(name);
+        if (r == -1) {
+            throw new SharedMemoryException(errno(), "Failed to unlink shared memory object " + name + ". " + exLastError());
+        }
+        return r;
+    }
+
+    /**
+     * Managed call to the function memfd_create of the system.
+     *
+     * Creates an anonymous file that lives in memory.
+     * @param name the name of the file, used only for debugging purposes.
+     * @param flags the flags of the operation.
+     * @return the file descriptor of the file.
+     * @throws NativeException if the function has returned with an error,
+     *                         or it is not supported by the system.
+     */
+    public static int memfd_create(String name, int flags) {
+        checkAvailable();
+        int r = native_memfd_create(name, flags);
+        if (r == -1) {
+            throw new NativeException(errno(), "Failed to create memory file " + name + ". " + exLastError());
+        }
+        return r;
+    }
+
+    /**
+     * Managed call to the function ftruncate of the system.
+     *
+     * Sets the size of the file referenced by a file descriptor.
+     * @param fd the file descriptor.
+     * @param length the new size of the file.
+     * @return the value 0.
+     * @throws NativeException if the function has returned with an error.
+     */
+    public static int ftruncate(int fd, long length) {
+        checkAvailable();
+        int r = native_ftruncate(fd, length);
+        if (r == -1) {
+            throw new NativeException(errno(), "Failed to resize file descriptor " + fd + ". " + exLastError());
+        }
+        return r;
+    }
+
+    /**
+     * Returns the size of the file referenced by a file descriptor,
+     * through the function fstat of the system.
+     * @param fd the file descriptor.
+     * @return the size of the file.
+     * @throws NativeException if the function has returned with an error.
+     */
+    public static long fsize(int fd) {
+        checkAvailable();
+        long r = native_fsize(fd);
+        if (r == -1) {
+            throw new NativeException(errno(), "Failed to get the size of file descriptor " + fd + ". " + exLastError());
+        }
+        return r;
+    }
+
+    /**
+     * Managed call to the function mmap of the system.
+     *
+     * Creates a new mapping in the virtual address space of the calling process.
+     * @param addr the hint address for the new mapping.
+     * @param length the length, in bytes, of the mapping.
+     * @param prot the memory protection of the mapping.
+     * @param flags the flags of the mapping.
+     * @param fd the file descriptor of the file that will be mapped.
+     * @param offset the offset in the file where the mapping will start.
+     *               Must be a multiple of the page size.
+     * @return the base address of the mapping.
+     * @throws NativeException if the function has returned with an error.
+     */
+    public static long mmap(long addr, long length, int prot, int flags, int fd, long offset) {
+        checkAvailable();
+        long r = native_mmap(addr, length, prot, flags, fd, offset);
+        if (r == -1) {
+            throw new NativeException(errno(), "Failed to map memory. " + exLastError());
+        }
+        return r;
+    }
+
+    /**
+     * Managed call to the function munmap of the system.
+     *
+     * Deletes the mappings for the specified address range.
+     * @param addr the base address of the range.
+     * @param length the length of the range.
+     * @return the value 0.
+     * @throws NativeException if the function has returned with an error.
+     */
+    public static int munmap(long addr, long length) {
+        checkAvailable();
+        int r = native_munmap(addr, length);
+        if (r == -1) {
+            throw new NativeException(errno(), "Failed to unmap memory. " + exLastError());
+        }
+        return r;
+    }
+
+    /**
+     * Managed call to the function msync of the system.
+     *
+     * Flushes the changes made to a file mapping back to the file.
+     * @param addr the base address of the range. Must be a multiple of the page size.
+     * @param length the length of the range.
+     * @param flags the flags of the operation.
+     * @return the value 0.
+     * @throws NativeException if the function has returned with an error.
+     */
+    public static int msync(long addr, long length, int flags) {
+        checkAvailable();
+        int r = native_msync(addr, length, flags);
+        if (r == -1) {
+            throw new NativeException(errno(), "Failed to synchronize mapped memory. " + exLastError());
+        }
+        return r;
+    }
+
+    /**
+     * Managed call to the function madvise of the system.
+     *
+     * Gives the kernel advice about the use of a memory range.
+     * @param addr the base address of the range. Must be a multiple of the page size.
+     * @param length the length of the range.
+     * @param advice the advice.
+     * @return the value 0.
+     * @throws NativeException if the function has returned with an error.
+     */
+    public static int madvise(long addr, long length, int advice) {
+        checkAvailable();
+        int r = native_madvise(addr, length, advice);
+        if (r == -1) {
+            throw new NativeException(errno(), "Failed to advise memory usage. " + exLastError());
+        }
+        return r;
+    }
+
+    /**
+     * The system property that sets the directory where the bundled native library is
+     * extracted when it is not found in the {@code java.library.path}. By default, it is
+     * a directory of the current user inside the temporary directory of the system. If that
+     * directory is not owned by the current user or can be written by others, the library is
+     * extracted into a fresh directory private to this run instead.
+     */
+    public static final String CACHE_DIR_PROPERTY = "me.devcexx.accessors.nativeCacheDir";
+
+    /**
+     * The system property that, if set to true, prevents the native library from being
+     * loaded, so only the pure Java implementation of the library is used.
+     */
+    public static final String DISABLE_PROPERTY = "me.devcexx.accessors.disableNatives";
+
+    private static final String LIB_NAME = "accessors";
+    private static final boolean AVAILABLE;
+    private static final long LOAD_TIME_NANOS;
+    private static String libraryPath;
+    private static Throwable loadError;
+
+    /**
+     * Returns true if the native library has been loaded. If it couldn't be loaded,
+     * the library falls back to pure Java implementations, and all the operations
+     * that need the system calls exposed by this class, like mapping files or attaching
+     * to shared memory segments, throw an {@link UnsupportedOperationException}.
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * Returns the time, in nanoseconds, that it took to locate, extract
+     * and load the native library when this class was initialized.
+     */
+    public static long loadTimeNanos() {
+        return LOAD_TIME_NANOS;
+    }
+
+    /**
+     * Returns the path of the file the native library was loaded from, or
+     * null if it was loaded from the {@code java.library.path} or it
+     * couldn't be loaded.
+     */
+    public static String libraryPath() {
+        return libraryPath;
+    }
+
+    /**
+     * Returns the error that prevented the native library from being
+     * loaded, or null if it was loaded or disabled.
+     */
+    public static Throwable loadError() {
+        return loadError;
+    }
+
+    private static void checkAvailable() {
+        if (!AVAILABLE) {
+            throw new UnsupportedOperationException("The native library of the accessors is not available", loadError);
+        }
+    }
+
+    /**
+     * Checks that the loaded native library implements the interface this class
+     * expects. Libraries older than this check don't export its version at all.
+     */
+    private static boolean checkNativeVersion() {
+        int version;
+        try {
+            version = nativeVersion();
+        } catch (UnsatisfiedLinkError e) {
+            version = 0;
+        }
+
+        if (version != NATIVE_VERSION) {
+            loadError = new UnsatisfiedLinkError("The native library "
+                    + (libraryPath != null ? libraryPath : "in the java.library.path")
+                    + " implements version " + version + " of the natives, but version "
+                    + NATIVE_VERSION + " is required");
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean loadNatives() {
+        if (Boolean.getBoolean(DISABLE_PROPERTY)) {
+            return false;
+        }
+
         //Attempt to load most specific library for this system
         //(with no arch specifier)
         try {
             System.loadLibrary(LIB_NAME);
-            return;
+            return true;
         } catch (UnsatisfiedLinkError ex) { }
         int arch = Unsafe.wordSize() * 8;
 
         //Attempt to load CPU generic library (with arch specifier)
         try {
             System.loadLibrary(LIB_NAME + arch);
-            return;
+            return true;
         } catch (UnsatisfiedLinkError ex) { }
 
-        //Library is not present on the java.library.path. Try to
-        //load it for the resources.
-        SimpleDateFormat format = new SimpleDateFormat("yyyyMMddHHmmss");
-        String tmpFolder = System.getProperty("java.io.tmpdir");
-        File outFile;
-        try {
-            outFile = File.createTempFile(System.mapLibraryName(LIB_NAME + "-" + format.format(new Date())), "");
-        } catch (IOException e) {
-            throw new ExceptionInInitializerError(e);
-        }
+        //Library is not present on the java.library.path. Extract it from
+        //the resources, or reuse the copy extracted by a previous run.
+        String cacheDir = System.getProperty(CACHE_DIR_PROPERTY);
+        NativeLibraryCache cache = new NativeLibraryCache(cacheDir != null
+                ? new File(cacheDir) : NativeLibraryCache.defaultDirectory());
 
         String[] libraryNames = { System.mapLibraryName(LIB_NAME),
                 System.mapLibraryName(LIB_NAME + arch) };
 
+        try {
+            try {
+                return loadFromCache(cache, libraryNames, false);
+            } catch (IOException e) {
+                if (cacheDir != null) {
+                    throw e;
+                }
+
+                //The shared default directory may have been taken by another
+                //user. Extract the library into a directory private to this run.
+                File privateDir = Files.createTempDirectory("random-accessors-java").toFile();
+                privateDir.deleteOnExit();
+                return loadFromCache(new NativeLibraryCache(privateDir), libraryNames, true);
+            }
+        } catch (IOException | SecurityException | UnsatisfiedLinkError e) {
+            loadError = e;
+        }
+        return false;
+    }
+
+    private static boolean loadFromCache(NativeLibraryCache cache, String[] libraryNames,
+                                         boolean deleteOnExit) throws IOException {
         for (String libraryName : libraryNames) {
-            InputStream in = AccessorNatives.class.getResourceAsStream("/" + libraryName);
-            if (in != null){
-                OutputStream out = null;
-
-                try {
-                    out = new FileOutputStream(outFile, false);
-
-                    byte[] buf = new byte[2048];
-                    int read;
-
-                    while ((read = in.read(buf)) != -1) {
-                        out.write(buf, 0, read);
-                    }
-                } catch (IOException ex2) {
-                    throw new ExceptionInInitializerError(ex2);
-                } finally {
-                    if (out != null) try { out.close(); } catch (Exception ignored) {}
-                    try { in.close(); } catch (Exception ignored) {}
+            File file = cache.extract("/" + libraryName, libraryName);
+            if (file != null) {
+                if (deleteOnExit) {
+                    file.getParentFile().deleteOnExit();
+                    file.deleteOnExit();
                 }
-                outFile.deleteOnExit();
-                System.load(outFile.toString());
-                return;
+                System.load(file.getAbsolutePath());
+                libraryPath = file.getAbsolutePath();
+                return true;
             }
         }
+        loadError = new UnsatisfiedLinkError("Cannot find the accessors native library");
+        return false;
+    }
 
-        throw new ExceptionInInitializerError("Cannot load accessors native library");
+    private static int constant(int constantId) {
+        return AVAILABLE ? constantValueOf(constantId) : -1;
     }
 
     public static native long arrayMemset(Object object, int offset, int length, byte value);
 
     static {
-        loadNatives();
+        long t = System.nanoTime();
+        AVAILABLE = loadNatives() && checkNativeVersion();
+        LOAD_TIME_NANOS = System.nanoTime() - t;
 
-        IPC_CREAT = constantValueOf(CONSTANT_ID_IPC_CREAT);
-        IPC_RMID = constantValueOf(CONSTANT_ID_IPC_RMID);
+        IPC_CREAT = constant(CONSTANT_ID_IPC_CREAT);
+        IPC_RMID = constant(CONSTANT_ID_IPC_RMID);
+        O_RDONLY = constant(CONSTANT_ID_O_RDONLY);
+        O_RDWR = constant(CONSTANT_ID_O_RDWR);
+        PROT_READ = constant(CONSTANT_ID_PROT_READ);
+        PROT_WRITE = constant(CONSTANT_ID_PROT_WRITE);
+        MAP_SHARED = constant(CONSTANT_ID_MAP_SHARED);
+        MAP_PRIVATE = constant(CONSTANT_ID_MAP_PRIVATE);
+        MS_SYNC = constant(CONSTANT_ID_MS_SYNC);
+        MAP_ANONYMOUS = constant(CONSTANT_ID_MAP_ANONYMOUS);
+        MAP_HUGETLB = constant(CONSTANT_ID_MAP_HUGETLB);
+        MAP_HUGE_SHIFT = constant(CONSTANT_ID_MAP_HUGE_SHIFT);
+        SHM_HUGETLB = constant(CONSTANT_ID_SHM_HUGETLB);
+        SHM_HUGE_SHIFT = constant(CONSTANT_ID_SHM_HUGE_SHIFT);
+        MADV_HUGEPAGE = constant(CONSTANT_ID_MADV_HUGEPAGE);
+        O_CREAT = constant(CONSTANT_ID_O_CREAT);
+        O_EXCL = constant(CONSTANT_ID_O_EXCL);
+        MFD_CLOEXEC = constant(CONSTANT_ID_MFD_CLOEXEC);
     }
 }
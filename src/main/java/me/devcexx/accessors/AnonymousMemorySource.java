@@ -0,0 +1,50 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+/**
+ * Represents a memory source that is backed by an anonymous mapping of the
+ * memory of the current process, which may be backed by huge pages.
+ */
+public class AnonymousMemorySource extends DirectMemorySource {
+    private final HugePages hugePages;
+
+    /**
+     * Creates a source over an already existing anonymous mapping.
+     * @param mappingAddress the base address of the mapping, as returned by mmap.
+     * @param mappingLength the length of the whole mapping.
+     * @param length the length of this source, which cannot exceed the length of the mapping.
+     * @param hugePages the kind of huge pages that back the mapping, or null if
+     *                  it is only backed by regular pages.
+     */
+    protected AnonymousMemorySource(long mappingAddress, long mappingLength, long length, HugePages hugePages) {
+        super(mappingAddress, length,
+                mappingLength > 0 ? new MappedFileSource.Unmap(mappingAddress, mappingLength) : null);
+        Validate.checkInRange(mappingLength, 0, length);
+        this.hugePages = hugePages;
+    }
+
+    /**
+     * Returns the kind of huge pages that back this source, which may differ from the
+     * requested ones if they were not available, or null if it is only backed by regular
+     * pages. {@link HugePages#TRANSPARENT} means that the kernel has been advised to use
+     * transparent huge pages, not that it has done it.
+     */
+    public HugePages hugePages() {
+        return hugePages;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+/**
+ * Represents a region of memory handed out by a {@link MemoryArena}. The region
+ * is deallocated along with every other region of the arena when the arena is
+ * reset or released; deallocating the region itself just prevents it from
+ * being accessed anymore.
+ */
+public class ArenaSource extends DirectMemorySource {
+    private final MemoryArena arena;
+    private final long generation;
+
+    ArenaSource(MemoryArena arena, long generation, long address, long length) {
+        super(address, length, null);
+        this.arena = arena;
+        this.generation = generation;
+    }
+
+    /**
+     * Returns the arena this region was allocated from.
+     */
+    public MemoryArena arena() {
+        return arena;
+    }
+
+    @Override
+    public boolean deallocated() {
+        return deallocated || !arena.isCurrentGeneration(generation);
+    }
+
+    @Override
+    public boolean isValid() {
+        return !deallocated();
+    }
+}
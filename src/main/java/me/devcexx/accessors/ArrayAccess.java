@@ -0,0 +1,77 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+/**
+ * Reads and writes multi-byte values from and to byte arrays. This is the
+ * implementation used on Java 8, which just relies on {@link Bits}. Newer versions
+ * of Java load the one under {@code META-INF/versions/9} of the multi-release jar,
+ * that uses VarHandles instead.
+ */
+final class ArrayAccess {
+    private ArrayAccess() { }
+
+    static short getShort(byte[] buf, int pos, DataOrder order) {
+        return Bits.decodeShort(buf[pos], buf[pos + 1], order);
+    }
+
+    static char getChar(byte[] buf, int pos, DataOrder order) {
+        return Bits.decodeChar(buf[pos], buf[pos + 1], order);
+    }
+
+    static int getInt(byte[] buf, int pos, DataOrder order) {
+        return Bits.decodeInt(buf[pos], buf[pos + 1], buf[pos + 2], buf[pos + 3], order);
+    }
+
+    static long getLong(byte[] buf, int pos, DataOrder order) {
+        return Bits.decodeLong(buf[pos], buf[pos + 1], buf[pos + 2], buf[pos + 3],
+                buf[pos + 4], buf[pos + 5], buf[pos + 6], buf[pos + 7], order);
+    }
+
+    static float getFloat(byte[] buf, int pos, DataOrder order) {
+        return Bits.decodeFloat(buf[pos], buf[pos + 1], buf[pos + 2], buf[pos + 3], order);
+    }
+
+    static double getDouble(byte[] buf, int pos, DataOrder order) {
+        return Bits.decodeDouble(buf[pos], buf[pos + 1], buf[pos + 2], buf[pos + 3],
+                buf[pos + 4], buf[pos + 5], buf[pos + 6], buf[pos + 7], order);
+    }
+
+    static void putShort(byte[] buf, int pos, short value, DataOrder order) {
+        Bits.encodeShort(value, buf, pos, order);
+    }
+
+    static void putChar(byte[] buf, int pos, char value, DataOrder order) {
+        Bits.encodeChar(value, buf, pos, order);
+    }
+
+    static void putInt(byte[] buf, int pos, int value, DataOrder order) {
+        Bits.encodeInt(value, buf, pos, order);
+    }
+
+    static void putLong(byte[] buf, int pos, long value, DataOrder order) {
+        Bits.encodeLong(value, buf, pos, order);
+    }
+
+    static void putFloat(byte[] buf, int pos, float value, DataOrder order) {
+        Bits.encodeFloat(value, buf, pos, order);
+    }
+
+    static void putDouble(byte[] buf, int pos, double value, DataOrder order) {
+        Bits.encodeDouble(value, buf, pos, order);
+    }
+}
@@ -1,6 +1,8 @@
 package me.devcexx.accessors;
 
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 public class ByteArraySource extends RandomAccessSource {
 	private byte[] buf;
@@ -34,7 +36,7 @@ public class ByteArraySource extends RandomAccessSource {
 
 	@Override
 	public ByteBuffer byteBuffer(long off, long length) {
-		Validate.checkInRange(this.length, this.off + off, length);
+		checkAbleToIO(off, length);
 
 		//The #wrap(byte[], int, int) method just return
         //an ByteBuffer initialized with a non-zero position and a limit set.
@@ -46,7 +48,7 @@ public class ByteArraySource extends RandomAccessSource {
 	@Override
 	public void clear(byte x, long off, long length) {
 	    Validate.checkInRange(this.length, off, length);
-		AccessorNatives.arrayMemset(buf, (int) (this.off + off), (int) length, x);
+		Arrays.fill(buf, (int) (this.off + off), (int) (this.off + off + length), x);
 	}
 
 	@Override
@@ -62,40 +64,32 @@ public class ByteArraySource extends RandomAccessSource {
 
 	@Override
 	public short unsafeGetShort(long off, DataOrder order) {
-		int pos = (int) (this.off + off);
-		return Bits.decodeShort(buf[pos], buf[pos + 1], order);
+        return ArrayAccess.getShort(buf, (int) (this.off + off), order);
 	}
 
 	@Override
 	public char unsafeGetChar(long off, DataOrder order) {
-		int pos = (int) (this.off + off);
-		return Bits.decodeChar(buf[pos], buf[pos + 1], order);
+        return ArrayAccess.getChar(buf, (int) (this.off + off), order);
 	}
 
 	@Override
 	public int unsafeGetInt(long off, DataOrder order) {
-        int pos = (int) (this.off + off);
-        return Bits.decodeInt(buf[pos], buf[pos + 1], buf[pos + 2], buf[pos + 3], order);
+        return ArrayAccess.getInt(buf, (int) (this.off + off), order);
 	}
 
 	@Override
 	public long unsafeGetLong(long off, DataOrder order) {
-        int pos = (int) (this.off + off);
-        return Bits.decodeLong(buf[pos], buf[pos + 1], buf[pos + 2], buf[pos + 3],
-                buf[pos + 4], buf[pos + 5], buf[pos + 6], buf[pos + 7], order);
+        return ArrayAccess.getLong(buf, (int) (this.off + off), order);
 	}
 
 	@Override
 	public float unsafeGetFloat(long off, DataOrder order) {
-        int pos = (int) (this.off + off);
-        return Bits.decodeFloat(buf[pos], buf[pos + 1], buf[pos + 2], buf[pos + 3], order);
+        return ArrayAccess.getFloat(buf, (int) (this.off + off), order);
 	}
 
 	@Override
 	public double unsafeGetDouble(long off, DataOrder order) {
-        int pos = (int) (this.off + off);
-        return Bits.decodeDouble(buf[pos], buf[pos + 1], buf[pos + 2], buf[pos + 3],
-                buf[pos + 4], buf[pos + 5], buf[pos + 6], buf[pos + 7], order);
+        return ArrayAccess.getDouble(buf, (int) (this.off + off), order);
 	}
 
 	@Override
@@ -115,7 +109,7 @@ public class ByteArraySource extends RandomAccessSource {
                     buf.array(), buf.arrayOffset() + buf.position(), 1,
                     buf.remaining(), DataOrder.NATIVE_ORDER);
         }
-        buf.position(buf.position() + buf.remaining());
+        ((Buffer) buf).position(buf.position() + buf.remaining());
 	}
 
 	@Override
@@ -161,32 +155,32 @@ public class ByteArraySource extends RandomAccessSource {
 
 	@Override
 	public void unsafePut(long off, short value, DataOrder order) {
-        Bits.encodeShort(value, buf, (int) (this.off + off), order);
+        ArrayAccess.putShort(buf, (int) (this.off + off), value, order);
 	}
 
 	@Override
 	public void unsafePut(long off, char value, DataOrder order) {
-        Bits.encodeChar(value, buf, (int) (this.off + off), order);
+        ArrayAccess.putChar(buf, (int) (this.off + off), value, order);
 	}
 
 	@Override
 	public void unsafePut(long off, int value, DataOrder order) {
-        Bits.encodeInt(value, buf, (int) (this.off + off), order);
+        ArrayAccess.putInt(buf, (int) (this.off + off), value, order);
 	}
 
 	@Override
 	public void unsafePut(long off, long value, DataOrder order) {
-        Bits.encodeLong(value, buf, (int) (this.off + off), order);
+        ArrayAccess.putLong(buf, (int) (this.off + off), value, order);
 	}
 
 	@Override
 	public void unsafePut(long off, float value, DataOrder order) {
-        Bits.encodeFloat(value, buf, (int) (this.off + off), order);
+        ArrayAccess.putFloat(buf, (int) (this.off + off), value, order);
 	}
 
 	@Override
 	public void unsafePut(long off, double value, DataOrder order) {
-        Bits.encodeDouble(value, buf, (int) (this.off + off), order);
+        ArrayAccess.putDouble(buf, (int) (this.off + off), value, order);
 	}
 
 	@Override
@@ -206,7 +200,7 @@ public class ByteArraySource extends RandomAccessSource {
                     this.buf, (int) (this.off + off), 1, buf.remaining(),
                     DataOrder.NATIVE_ORDER);
         }
-        buf.position(buf.position() + buf.remaining());
+        ((Buffer) buf).position(buf.position() + buf.remaining());
 	}
 
 	@Override
@@ -244,4 +238,108 @@ public class ByteArraySource extends RandomAccessSource {
         Unsafe.copyArrayToArray(buffer, 8 * srcOff, this.buf, (int) (this.off + off),
                 8, len, order);
 	}
+
+	@Override
+	public boolean supportsAtomicAccess() {
+		return true;
+	}
+
+	/**
+	 * Arrays are always aligned at least to 8 bytes in memory, even after being moved
+	 * by the garbage collector, so whether an offset is aligned only depends on its
+	 * distance from the start of the array.
+	 */
+	@Override
+	public boolean isAligned(long off, int size) {
+		return size <= 8 && (arrayAddressOffset(off) & (size - 1)) == 0;
+	}
+
+	private long arrayAddressOffset(long off) {
+		return Unsafe.BYTE_ARRAY_BASE_OFFSET + this.off + off;
+	}
+
+	@Override
+	public int unsafeGetIntVolatile(long off) {
+		return Unsafe.getIntVolatile(buf, arrayAddressOffset(off));
+	}
+
+	@Override
+	public void unsafePutIntVolatile(long off, int value) {
+		Unsafe.putIntVolatile(buf, arrayAddressOffset(off), value);
+	}
+
+	@Override
+	public int unsafeGetIntAcquire(long off) {
+		return Unsafe.getIntAcquire(buf, arrayAddressOffset(off));
+	}
+
+	@Override
+	public void unsafePutIntRelease(long off, int value) {
+		Unsafe.putIntRelease(buf, arrayAddressOffset(off), value);
+	}
+
+	@Override
+	public boolean unsafeCompareAndSetInt(long off, int expected, int value) {
+		return Unsafe.compareAndSetInt(buf, arrayAddressOffset(off), expected, value);
+	}
+
+	@Override
+	public int unsafeGetAndAddInt(long off, int delta) {
+		return Unsafe.getAndAddInt(buf, arrayAddressOffset(off), delta);
+	}
+
+	@Override
+	public int unsafeGetAndSetInt(long off, int value) {
+		return Unsafe.getAndSetInt(buf, arrayAddressOffset(off), value);
+	}
+
+	@Override
+	public long unsafeGetLongVolatile(long off) {
+		return Unsafe.getLongVolatile(buf, arrayAddressOffset(off));
+	}
+
+	@Override
+	public void unsafePutLongVolatile(long off, long value) {
+		Unsafe.putLongVolatile(buf, arrayAddressOffset(off), value);
+	}
+
+	@Override
+	public long unsafeGetLongAcquire(long off) {
+		return Unsafe.getLongAcquire(buf, arrayAddressOffset(off));
+	}
+
+	@Override
+	public void unsafePutLongRelease(long off, long value) {
+		Unsafe.putLongRelease(buf, arrayAddressOffset(off), value);
+	}
+
+	@Override
+	public boolean unsafeCompareAndSetLong(long off, long expected, long value) {
+		return Unsafe.compareAndSetLong(buf, arrayAddressOffset(off), expected, value);
+	}
+
+	@Override
+	public long unsafeGetAndAddLong(long off, long delta) {
+		return Unsafe.getAndAddLong(buf, arrayAddressOffset(off), delta);
+	}
+
+	@Override
+	public long unsafeGetAndSetLong(long off, long value) {
+		return Unsafe.getAndSetLong(buf, arrayAddressOffset(off), value);
+	}
+
+	@Override
+	long contiguousLength(long off) {
+		return length - off;
+	}
+
+	@Override
+	Object memoryBase(long off) {
+		return buf;
+	}
+
+	@Override
+	long memoryOffset(long off) {
+		return this.off + off;
+	}
 }
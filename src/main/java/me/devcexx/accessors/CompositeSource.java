@@ -0,0 +1,796 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Represents a source that presents an ordered list of other sources, of any kind,
+ * as a single contiguous range. Each offset is resolved to the component that contains
+ * it, first checking the component hit by the previous access and then performing a binary
+ * search over the offsets where each component starts. Values that cross the boundary
+ * between two components are reassembled byte by byte, and bulk transfers are split into
+ * a transfer per component, so no data is copied into intermediate buffers.
+ *
+ * The components are not owned by the composite source: deallocating it doesn't deallocate
+ * them, and it will become invalid as soon as any of them is deallocated. In order not to
+ * depend on the number of components, each access only checks the components it spans, so
+ * the source is known to be invalid once an access or {@link #deallocated()} finds one of
+ * them deallocated. Likewise, an access to a component that has been shrunk below the
+ * length it had when the composite source was created throws an exception.
+ */
+public class CompositeSource extends RandomAccessSource {
+    private final RandomAccessSource[] components;
+    private final long[] starts;
+    private final int permissions;
+    private int lastHit;
+
+    /**
+     * Creates a source that concatenates the given sources, in order.
+     * @param components the sources that will be concatenated.
+     */
+    public CompositeSource(RandomAccessSource... components) {
+        this(Arrays.asList(components));
+    }
+
+    /**
+     * Creates a source that concatenates the given sources, in order.
+     * @param components the sources that will be concatenated.
+     */
+    public CompositeSource(List<? extends RandomAccessSource> components) {
+        super(totalLength(components));
+
+        int permissions = AccessorPermissions.FULL_ACCESS;
+        int count = 0;
+        for (RandomAccessSource component : components) {
+            permissions &= component.getPermissions();
+            if (component.length() > 0) {
+                count++;
+            }
+        }
+
+        // Empty components are skipped, so every offset is contained
+        // in exactly one component.
+        this.components = new RandomAccessSource[count];
+        this.starts = new long[count + 1];
+        this.permissions = permissions;
+
+        int i = 0;
+        for (RandomAccessSource component : components) {
+            if (component.length() > 0) {
+                this.components[i] = component;
+                this.starts[i + 1] = this.starts[i] + component.length();
+                i++;
+            }
+        }
+    }
+
+    private static long totalLength(List<? extends RandomAccessSource> components) {
+        long length = 0;
+        for (RandomAccessSource component : components) {
+            length += component.length();
+            if (length < 0) {
+                throw new IllegalArgumentException("The total length of the components overflows");
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Returns the number of non-empty components of this source.
+     */
+    public int componentCount() {
+        return components.length;
+    }
+
+    /**
+     * Returns the non-empty component at the given index.
+     */
+    public RandomAccessSource component(int index) {
+        return components[index];
+    }
+
+    /**
+     * Returns the offset of this source where the component at the given index starts.
+     */
+    public long componentOffset(int index) {
+        return starts[index];
+    }
+
+    /**
+     * Returns the index of the component that contains the given offset,
+     * which must be within the bounds of this source.
+     */
+    public int componentIndex(long off) {
+        int hit = lastHit;
+        if (off >= starts[hit] && off < starts[hit + 1]) {
+            return hit;
+        }
+
+        hit = Arrays.binarySearch(starts, 0, components.length, off);
+        if (hit < 0) {
+            hit = -hit - 2;
+        }
+
+        lastHit = hit;
+        return hit;
+    }
+
+    @Override
+    public int getPermissions() {
+        return permissions;
+    }
+
+    /**
+     * Returns whether this source, or any of its components, has been deallocated.
+     * As the components cannot be allocated again, the first one found deallocated
+     * is remembered, so the next calls don't need to check them all again.
+     */
+    @Override
+    public boolean deallocated() {
+        if (deallocated) {
+            return true;
+        }
+
+        for (RandomAccessSource component : components) {
+            if (component.deallocated()) {
+                deallocated = true;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isValid() {
+        return !deallocated();
+    }
+
+    /**
+     * Returns a slice of the component that contains the given range, if it
+     * is entirely contained in a single one, so accesses to it don't need to
+     * resolve the component anymore.
+     */
+    @Override
+    public RandomAccessSource slice(long off, long length) {
+        checkAbleToIO(off, length);
+        if (length > 0) {
+            int index = componentIndex(off);
+            if (off + length <= starts[index + 1]) {
+                return components[index].slice(off - starts[index], length).withPermissions(permissions);
+            }
+        }
+        return new SlicedSource(this, off, length);
+    }
+
+    /**
+     * Returns a byte buffer of the given range, which must be
+     * entirely contained in a single component.
+     */
+    @Override
+    public ByteBuffer byteBuffer(long off, long length) {
+        checkAbleToIO(off, length);
+        if (length == 0) {
+            return ByteBuffer.allocate(0);
+        }
+
+        int index = componentIndex(off);
+        if (off + length > starts[index + 1]) {
+            throw new IllegalArgumentException("Cannot create a byte buffer spanning several components");
+        }
+
+        ByteBuffer buf = components[index].byteBuffer(off - starts[index], length);
+        return isWritable() ? buf : buf.asReadOnlyBuffer();
+    }
+
+    @Override
+    public void clear(byte x, long off, long length) {
+        checkAbleToWrite(off, length);
+        while (length > 0) {
+            int index = componentIndex(off);
+            long n = Math.min(length, starts[index + 1] - off);
+            components[index].clear(x, off - starts[index], n);
+            off += n;
+            length -= n;
+        }
+    }
+
+    @Override
+    public void dealloc() {
+        deallocated = true;
+    }
+
+    /**
+     * Only the components spanned by the range are checked for deallocation and
+     * shrinking, so the cost of the check doesn't depend on the number of components.
+     */
+    @Override
+    protected void checkAbleToIO(long off, long n) {
+        if (deallocated) {
+            throw deallocatedException();
+        }
+
+        Validate.checkInRange(length, off, n);
+        if (n > 0) {
+            long end = off + n;
+            for (int index = componentIndex(off); index < components.length && starts[index] < end; index++) {
+                if (components[index].deallocated()) {
+                    deallocated = true;
+                    throw deallocatedException();
+                }
+                if (components[index].length() < starts[index + 1] - starts[index]) {
+                    throw new IllegalStateException("The component " + index + " of this source "
+                            + "has been shrunk since the source was created");
+                }
+            }
+        }
+    }
+
+    private static IllegalStateException deallocatedException() {
+        return new IllegalStateException("The underlying buffer of this source has been "
+                + "deallocated and is not longer accessible");
+    }
+
+    @Override
+    protected void checkAbleToWrite(long off, long n) {
+        if (!isWritable()) {
+            throw new IllegalStateException("Cannot perform a write operation on this source");
+        }
+        super.checkAbleToWrite(off, n);
+    }
+
+    /**
+     * Writes the n lowest bytes of the given bits one by one, in the given order,
+     * so a value that straddles two components doesn't need an intermediate array.
+     */
+    private void putBytes(long off, long bits, int n, DataOrder order) {
+        for (int i = 0; i < n; i++) {
+            int shift = order == DataOrder.BIG_ENDIAN ? 8 * (n - 1 - i) : 8 * i;
+            unsafePut(off + i, (byte) (bits >>> shift));
+        }
+    }
+
+    /**
+     * Returns the number of items of the given size, up to max, that can be
+     * transferred from the given offset without leaving its component. If it
+     * is zero, the item at that offset straddles two components.
+     */
+    private int fit(int index, long off, int dataSize, int max) {
+        return (int) Math.min(max, (starts[index + 1] - off) / dataSize);
+    }
+
+    @Override
+    public byte unsafeGet(long off) {
+        int index = componentIndex(off);
+        return components[index].unsafeGet(off - starts[index]);
+    }
+
+    @Override
+    public short unsafeGetShort(long off, DataOrder order) {
+        int index = componentIndex(off);
+        if (off + 2 <= starts[index + 1]) {
+            return components[index].unsafeGetShort(off - starts[index], order);
+        }
+        return Bits.decodeShort(unsafeGet(off), unsafeGet(off + 1), order);
+    }
+
+    @Override
+    public char unsafeGetChar(long off, DataOrder order) {
+        int index = componentIndex(off);
+        if (off + 2 <= starts[index + 1]) {
+            return components[index].unsafeGetChar(off - starts[index], order);
+        }
+        return Bits.decodeChar(unsafeGet(off), unsafeGet(off + 1), order);
+    }
+
+    @Override
+    public int unsafeGetInt(long off, DataOrder order) {
+        int index = componentIndex(off);
+        if (off + 4 <= starts[index + 1]) {
+            return components[index].unsafeGetInt(off - starts[index], order);
+        }
+        return Bits.decodeInt(unsafeGet(off), unsafeGet(off + 1), unsafeGet(off + 2), unsafeGet(off + 3), order);
+    }
+
+    @Override
+    public long unsafeGetLong(long off, DataOrder order) {
+        int index = componentIndex(off);
+        if (off + 8 <= starts[index + 1]) {
+            return components[index].unsafeGetLong(off - starts[index], order);
+        }
+        return Bits.decodeLong(unsafeGet(off), unsafeGet(off + 1), unsafeGet(off + 2), unsafeGet(off + 3),
+                unsafeGet(off + 4), unsafeGet(off + 5), unsafeGet(off + 6), unsafeGet(off + 7), order);
+    }
+
+    @Override
+    public float unsafeGetFloat(long off, DataOrder order) {
+        int index = componentIndex(off);
+        if (off + 4 <= starts[index + 1]) {
+            return components[index].unsafeGetFloat(off - starts[index], order);
+        }
+        return Bits.decodeFloat(unsafeGet(off), unsafeGet(off + 1), unsafeGet(off + 2), unsafeGet(off + 3), order);
+    }
+
+    @Override
+    public double unsafeGetDouble(long off, DataOrder order) {
+        int index = componentIndex(off);
+        if (off + 8 <= starts[index + 1]) {
+            return components[index].unsafeGetDouble(off - starts[index], order);
+        }
+        return Bits.decodeDouble(unsafeGet(off), unsafeGet(off + 1), unsafeGet(off + 2), unsafeGet(off + 3),
+                unsafeGet(off + 4), unsafeGet(off + 5), unsafeGet(off + 6), unsafeGet(off + 7), order);
+    }
+
+    @Override
+    public void unsafePut(long off, byte value) {
+        int index = componentIndex(off);
+        components[index].unsafePut(off - starts[index], value);
+    }
+
+    @Override
+    public void unsafePut(long off, short value, DataOrder order) {
+        int index = componentIndex(off);
+        if (off + 2 <= starts[index + 1]) {
+            components[index].unsafePut(off - starts[index], value, order);
+        } else {
+            putBytes(off, value, 2, order);
+        }
+    }
+
+    @Override
+    public void unsafePut(long off, char value, DataOrder order) {
+        int index = componentIndex(off);
+        if (off + 2 <= starts[index + 1]) {
+            components[index].unsafePut(off - starts[index], value, order);
+        } else {
+            putBytes(off, value, 2, order);
+        }
+    }
+
+    @Override
+    public void unsafePut(long off, int value, DataOrder order) {
+        int index = componentIndex(off);
+        if (off + 4 <= starts[index + 1]) {
+            components[index].unsafePut(off - starts[index], value, order);
+        } else {
+            putBytes(off, value, 4, order);
+        }
+    }
+
+    @Override
+    public void unsafePut(long off, long value, DataOrder order) {
+        int index = componentIndex(off);
+        if (off + 8 <= starts[index + 1]) {
+            components[index].unsafePut(off - starts[index], value, order);
+        } else {
+            putBytes(off, value, 8, order);
+        }
+    }
+
+    @Override
+    public void unsafePut(long off, float value, DataOrder order) {
+        int index = componentIndex(off);
+        if (off + 4 <= starts[index + 1]) {
+            components[index].unsafePut(off - starts[index], value, order);
+        } else {
+            putBytes(off, Float.floatToIntBits(value), 4, order);
+        }
+    }
+
+    @Override
+    public void unsafePut(long off, double value, DataOrder order) {
+        int index = componentIndex(off);
+        if (off + 8 <= starts[index + 1]) {
+            components[index].unsafePut(off - starts[index], value, order);
+        } else {
+            putBytes(off, Double.doubleToLongBits(value), 8, order);
+        }
+    }
+
+    @Override
+    public void unsafeGet(long off, byte[] buffer, int dstOff, int len) {
+        while (len > 0) {
+            int index = componentIndex(off);
+            int n = fit(index, off, 1, len);
+            components[index].unsafeGet(off - starts[index], buffer, dstOff, n);
+            off += n;
+            dstOff += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void unsafeGet(long off, ByteBuffer buf) {
+        int limit = buf.limit();
+        try {
+            while (buf.hasRemaining()) {
+                int index = componentIndex(off);
+                int n = fit(index, off, 1, buf.remaining());
+                ((Buffer) buf).limit(buf.position() + n);
+                components[index].unsafeGet(off - starts[index], buf);
+                ((Buffer) buf).limit(limit);
+                off += n;
+            }
+        } finally {
+            ((Buffer) buf).limit(limit);
+        }
+    }
+
+    @Override
+    public void unsafeGet(long off, char[] buffer, int dstOff, int len, DataOrder order) {
+        while (len > 0) {
+            int index = componentIndex(off);
+            int n = fit(index, off, 2, len);
+            if (n > 0) {
+                components[index].unsafeGet(off - starts[index], buffer, dstOff, n, order);
+            } else {
+                n = 1;
+                buffer[dstOff] = unsafeGetChar(off, order);
+            }
+            off += 2L * n;
+            dstOff += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void unsafeGet(long off, short[] buffer, int dstOff, int len, DataOrder order) {
+        while (len > 0) {
+            int index = componentIndex(off);
+            int n = fit(index, off, 2, len);
+            if (n > 0) {
+                components[index].unsafeGet(off - starts[index], buffer, dstOff, n, order);
+            } else {
+                n = 1;
+                buffer[dstOff] = unsafeGetShort(off, order);
+            }
+            off += 2L * n;
+            dstOff += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void unsafeGet(long off, int[] buffer, int dstOff, int len, DataOrder order) {
+        while (len > 0) {
+            int index = componentIndex(off);
+            int n = fit(index, off, 4, len);
+            if (n > 0) {
+                components[index].unsafeGet(off - starts[index], buffer, dstOff, n, order);
+            } else {
+                n = 1;
+                buffer[dstOff] = unsafeGetInt(off, order);
+            }
+            off += 4L * n;
+            dstOff += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void unsafeGet(long off, long[] buffer, int dstOff, int len, DataOrder order) {
+        while (len > 0) {
+            int index = componentIndex(off);
+            int n = fit(index, off, 8, len);
+            if (n > 0) {
+                components[index].unsafeGet(off - starts[index], buffer, dstOff, n, order);
+            } else {
+                n = 1;
+                buffer[dstOff] = unsafeGetLong(off, order);
+            }
+            off += 8L * n;
+            dstOff += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void unsafeGet(long off, float[] buffer, int dstOff, int len, DataOrder order) {
+        while (len > 0) {
+            int index = componentIndex(off);
+            int n = fit(index, off, 4, len);
+            if (n > 0) {
+                components[index].unsafeGet(off - starts[index], buffer, dstOff, n, order);
+            } else {
+                n = 1;
+                buffer[dstOff] = unsafeGetFloat(off, order);
+            }
+            off += 4L * n;
+            dstOff += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void unsafeGet(long off, double[] buffer, int dstOff, int len, DataOrder order) {
+        while (len > 0) {
+            int index = componentIndex(off);
+            int n = fit(index, off, 8, len);
+            if (n > 0) {
+                components[index].unsafeGet(off - starts[index], buffer, dstOff, n, order);
+            } else {
+                n = 1;
+                buffer[dstOff] = unsafeGetDouble(off, order);
+            }
+            off += 8L * n;
+            dstOff += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void unsafePut(long off, byte[] buffer, int srcOff, int len) {
+        while (len > 0) {
+            int index = componentIndex(off);
+            int n = fit(index, off, 1, len);
+            components[index].unsafePut(off - starts[index], buffer, srcOff, n);
+            off += n;
+            srcOff += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void unsafePut(long off, ByteBuffer buf) {
+        int limit = buf.limit();
+        try {
+            while (buf.hasRemaining()) {
+                int index = componentIndex(off);
+                int n = fit(index, off, 1, buf.remaining());
+                ((Buffer) buf).limit(buf.position() + n);
+                components[index].unsafePut(off - starts[index], buf);
+                ((Buffer) buf).limit(limit);
+                off += n;
+            }
+        } finally {
+            ((Buffer) buf).limit(limit);
+        }
+    }
+
+    @Override
+    public void unsafePut(long off, short[] buffer, int srcOff, int len, DataOrder order) {
+        while (len > 0) {
+            int index = componentIndex(off);
+            int n = fit(index, off, 2, len);
+            if (n > 0) {
+                components[index].unsafePut(off - starts[index], buffer, srcOff, n, order);
+            } else {
+                n = 1;
+                unsafePut(off, buffer[srcOff], order);
+            }
+            off += 2L * n;
+            srcOff += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void unsafePut(long off, char[] buffer, int srcOff, int len, DataOrder order) {
+        while (len > 0) {
+            int index = componentIndex(off);
+            int n = fit(index, off, 2, len);
+            if (n > 0) {
+                components[index].unsafePut(off - starts[index], buffer, srcOff, n, order);
+            } else {
+                n = 1;
+                unsafePut(off, buffer[srcOff], order);
+            }
+            off += 2L * n;
+            srcOff += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void unsafePut(long off, int[] buffer, int srcOff, int len, DataOrder order) {
+        while (len > 0) {
+            int index = componentIndex(off);
+            int n = fit(index, off, 4, len);
+            if (n > 0) {
+                components[index].unsafePut(off - starts[index], buffer, srcOff, n, order);
+            } else {
+                n = 1;
+                unsafePut(off, buffer[srcOff], order);
+            }
+            off += 4L * n;
+            srcOff += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void unsafePut(long off, long[] buffer, int srcOff, int len, DataOrder order) {
+        while (len > 0) {
+            int index = componentIndex(off);
+            int n = fit(index, off, 8, len);
+            if (n > 0) {
+                components[index].unsafePut(off - starts[index], buffer, srcOff, n, order);
+            } else {
+                n = 1;
+                unsafePut(off, buffer[srcOff], order);
+            }
+            off += 8L * n;
+            srcOff += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void unsafePut(long off, float[] buffer, int srcOff, int len, DataOrder order) {
+        while (len > 0) {
+            int index = componentIndex(off);
+            int n = fit(index, off, 4, len);
+            if (n > 0) {
+                components[index].unsafePut(off - starts[index], buffer, srcOff, n, order);
+            } else {
+                n = 1;
+                unsafePut(off, buffer[srcOff], order);
+            }
+            off += 4L * n;
+            srcOff += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void unsafePut(long off, double[] buffer, int srcOff, int len, DataOrder order) {
+        while (len > 0) {
+            int index = componentIndex(off);
+            int n = fit(index, off, 8, len);
+            if (n > 0) {
+                components[index].unsafePut(off - starts[index], buffer, srcOff, n, order);
+            } else {
+                n = 1;
+                unsafePut(off, buffer[srcOff], order);
+            }
+            off += 8L * n;
+            srcOff += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public boolean supportsAtomicAccess() {
+        for (RandomAccessSource component : components) {
+            if (!component.supportsAtomicAccess()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * An offset is aligned if the value doesn't cross the boundary of its
+     * component, and it is aligned within that component.
+     */
+    @Override
+    public boolean isAligned(long off, int size) {
+        if (off < 0 || off >= length) {
+            return false;
+        }
+
+        int index = componentIndex(off);
+        return off + size <= starts[index + 1]
+                && components[index].supportsAtomicAccess()
+                && components[index].isAligned(off - starts[index], size);
+    }
+
+    @Override
+    public int unsafeGetIntVolatile(long off) {
+        int index = componentIndex(off);
+        return components[index].unsafeGetIntVolatile(off - starts[index]);
+    }
+
+    @Override
+    public void unsafePutIntVolatile(long off, int value) {
+        int index = componentIndex(off);
+        components[index].unsafePutIntVolatile(off - starts[index], value);
+    }
+
+    @Override
+    public int unsafeGetIntAcquire(long off) {
+        int index = componentIndex(off);
+        return components[index].unsafeGetIntAcquire(off - starts[index]);
+    }
+
+    @Override
+    public void unsafePutIntRelease(long off, int value) {
+        int index = componentIndex(off);
+        components[index].unsafePutIntRelease(off - starts[index], value);
+    }
+
+    @Override
+    public boolean unsafeCompareAndSetInt(long off, int expected, int value) {
+        int index = componentIndex(off);
+        return components[index].unsafeCompareAndSetInt(off - starts[index], expected, value);
+    }
+
+    @Override
+    public int unsafeGetAndAddInt(long off, int delta) {
+        int index = componentIndex(off);
+        return components[index].unsafeGetAndAddInt(off - starts[index], delta);
+    }
+
+    @Override
+    public int unsafeGetAndSetInt(long off, int value) {
+        int index = componentIndex(off);
+        return components[index].unsafeGetAndSetInt(off - starts[index], value);
+    }
+
+    @Override
+    public long unsafeGetLongVolatile(long off) {
+        int index = componentIndex(off);
+        return components[index].unsafeGetLongVolatile(off - starts[index]);
+    }
+
+    @Override
+    public void unsafePutLongVolatile(long off, long value) {
+        int index = componentIndex(off);
+        components[index].unsafePutLongVolatile(off - starts[index], value);
+    }
+
+    @Override
+    public long unsafeGetLongAcquire(long off) {
+        int index = componentIndex(off);
+        return components[index].unsafeGetLongAcquire(off - starts[index]);
+    }
+
+    @Override
+    public void unsafePutLongRelease(long off, long value) {
+        int index = componentIndex(off);
+        components[index].unsafePutLongRelease(off - starts[index], value);
+    }
+
+    @Override
+    public boolean unsafeCompareAndSetLong(long off, long expected, long value) {
+        int index = componentIndex(off);
+        return components[index].unsafeCompareAndSetLong(off - starts[index], expected, value);
+    }
+
+    @Override
+    public long unsafeGetAndAddLong(long off, long delta) {
+        int index = componentIndex(off);
+        return components[index].unsafeGetAndAddLong(off - starts[index], delta);
+    }
+
+    @Override
+    public long unsafeGetAndSetLong(long off, long value) {
+        int index = componentIndex(off);
+        return components[index].unsafeGetAndSetLong(off - starts[index], value);
+    }
+
+    @Override
+    long contiguousLength(long off) {
+        int index = componentIndex(off);
+        return Math.min(starts[index + 1] - off, components[index].contiguousLength(off - starts[index]));
+    }
+
+    @Override
+    Object memoryBase(long off) {
+        int index = componentIndex(off);
+        return components[index].memoryBase(off - starts[index]);
+    }
+
+    @Override
+    long memoryOffset(long off) {
+        int index = componentIndex(off);
+        return components[index].memoryOffset(off - starts[index]);
+    }
+}
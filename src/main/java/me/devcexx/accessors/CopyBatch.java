@@ -0,0 +1,591 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+import java.util.Arrays;
+
+/**
+ * Records a list of copies between sources and Java arrays, and performs all of
+ * them at once through {@link #execute()}. Each copy is resolved to the regions of
+ * memory that back its range of the source. The regions that would be copied by the
+ * native library anyway, that is, the ones whose byte order is converted and that are
+ * at least {@link Unsafe#nativeSwapThreshold()} bytes long, are described in a reusable
+ * off-heap buffer, so all of them are performed through a single call to the native
+ * library, which pins each of the involved arrays just once, instead of paying a
+ * transition for each copy. The rest are performed right away through the JVM, as
+ * they would be outside a batch.
+ *
+ * Copies are performed as if they were run in the same order as they were recorded:
+ * the pending native copies are performed before any other copy that overlaps them.
+ * Ranges that are not backed by memory that can be accessed directly are transferred
+ * through the accessors of their source, and if the native library is not available,
+ * each copy is performed on its own through the JVM. A batch is not thread safe, and it
+ * must be closed once it is no longer needed, in order to release its descriptor buffer.
+ */
+public final class CopyBatch implements AutoCloseable {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int DESCRIPTOR_SIZE = AccessorNatives.COPY_BATCH_DESCRIPTOR_WORDS * 8;
+
+    /**
+     * Frees the descriptor buffer.
+     */
+    private static class Descriptors implements Runnable {
+        private volatile long address;
+
+        private Descriptors(long address) {
+            this.address = address;
+        }
+
+        @Override
+        public void run() {
+            Unsafe.dealloc(address);
+        }
+    }
+
+    private final Descriptors descriptors;
+    private final MemoryCleaner.Cleanable cleanable;
+    private int descriptorCapacity;
+    private boolean closed;
+
+    // The recorded copies.
+    private RandomAccessSource[] sources = new RandomAccessSource[INITIAL_CAPACITY];
+    private long[] offsets = new long[INITIAL_CAPACITY];
+    private Object[] arrays = new Object[INITIAL_CAPACITY];
+    private int[] arrayOffsets = new int[INITIAL_CAPACITY];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    private int[] dataSizes = new int[INITIAL_CAPACITY];
+    private DataOrder[] orders = new DataOrder[INITIAL_CAPACITY];
+    private boolean[] puts = new boolean[INITIAL_CAPACITY];
+    private int size;
+
+    // The descriptors and arrays of the native call being prepared.
+    private final Object[] pinned = new Object[AccessorNatives.COPY_BATCH_MAX_ARRAYS];
+    private int pinnedCount;
+    private int pending;
+
+    /**
+     * Creates an empty batch.
+     */
+    public CopyBatch() {
+        this.descriptors = new Descriptors(Unsafe.alloc((long) INITIAL_CAPACITY * DESCRIPTOR_SIZE));
+        this.cleanable = MemoryCleaner.register(this, descriptors);
+        this.descriptorCapacity = INITIAL_CAPACITY;
+    }
+
+    /**
+     * Returns the number of copies recorded since the batch was created, executed or cleared.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Records a copy of bytes from a source into an array.
+     * @param src the source to read from.
+     * @param off the offset of the source where the copy starts.
+     * @param dst the array to write to.
+     * @param dstOff the index of the array where the first byte will be written.
+     * @param len the number of bytes to copy.
+     * @return this batch.
+     */
+    public CopyBatch get(RandomAccessSource src, long off, byte[] dst, int dstOff, int len) {
+        Validate.checkInRange(dst.length, dstOff, len);
+        return record(src, off, dst, dstOff, len, 1, DataOrder.NATIVE_ORDER, false);
+    }
+
+    /**
+     * Records a copy of shorts from a source into an array.
+     * @param src the source to read from.
+     * @param off the offset of the source where the copy starts.
+     * @param dst the array to write to.
+     * @param dstOff the index of the array where the first item will be written.
+     * @param len the number of items to copy.
+     * @param order the order of the items in the source.
+     * @return this batch.
+     */
+    public CopyBatch get(RandomAccessSource src, long off, short[] dst, int dstOff, int len, DataOrder order) {
+        Validate.checkInRange(dst.length, dstOff, len);
+        return record(src, off, dst, dstOff, len, 2, order, false);
+    }
+
+    /**
+     * Records a copy of chars from a source into an array.
+     * @param src the source to read from.
+     * @param off the offset of the source where the copy starts.
+     * @param dst the array to write to.
+     * @param dstOff the index of the array where the first item will be written.
+     * @param len the number of items to copy.
+     * @param order the order of the items in the source.
+     * @return this batch.
+     */
+    public CopyBatch get(RandomAccessSource src, long off, char[] dst, int dstOff, int len, DataOrder order) {
+        Validate.checkInRange(dst.length, dstOff, len);
+        return record(src, off, dst, dstOff, len, 2, order, false);
+    }
+
+    /**
+     * Records a copy of ints from a source into an array.
+     * @param src the source to read from.
+     * @param off the offset of the source where the copy starts.
+     * @param dst the array to write to.
+     * @param dstOff the index of the array where the first item will be written.
+     * @param len the number of items to copy.
+     * @param order the order of the items in the source.
+     * @return this batch.
+     */
+    public CopyBatch get(RandomAccessSource src, long off, int[] dst, int dstOff, int len, DataOrder order) {
+        Validate.checkInRange(dst.length, dstOff, len);
+        return record(src, off, dst, dstOff, len, 4, order, false);
+    }
+
+    /**
+     * Records a copy of longs from a source into an array.
+     * @param src the source to read from.
+     * @param off the offset of the source where the copy starts.
+     * @param dst the array to write to.
+     * @param dstOff the index of the array where the first item will be written.
+     * @param len the number of items to copy.
+     * @param order the order of the items in the source.
+     * @return this batch.
+     */
+    public CopyBatch get(RandomAccessSource src, long off, long[] dst, int dstOff, int len, DataOrder order) {
+        Validate.checkInRange(dst.length, dstOff, len);
+        return record(src, off, dst, dstOff, len, 8, order, false);
+    }
+
+    /**
+     * Records a copy of floats from a source into an array.
+     * @param src the source to read from.
+     * @param off the offset of the source where the copy starts.
+     * @param dst the array to write to.
+     * @param dstOff the index of the array where the first item will be written.
+     * @param len the number of items to copy.
+     * @param order the order of the items in the source.
+     * @return this batch.
+     */
+    public CopyBatch get(RandomAccessSource src, long off, float[] dst, int dstOff, int len, DataOrder order) {
+        Validate.checkInRange(dst.length, dstOff, len);
+        return record(src, off, dst, dstOff, len, 4, order, false);
+    }
+
+    /**
+     * Records a copy of doubles from a source into an array.
+     * @param src the source to read from.
+     * @param off the offset of the source where the copy starts.
+     * @param dst the array to write to.
+     * @param dstOff the index of the array where the first item will be written.
+     * @param len the number of items to copy.
+     * @param order the order of the items in the source.
+     * @return this batch.
+     */
+    public CopyBatch get(RandomAccessSource src, long off, double[] dst, int dstOff, int len, DataOrder order) {
+        Validate.checkInRange(dst.length, dstOff, len);
+        return record(src, off, dst, dstOff, len, 8, order, false);
+    }
+
+    /**
+     * Records a copy of bytes from an array into a source.
+     * @param dst the source to write to.
+     * @param off the offset of the source where the copy starts.
+     * @param src the array to read from.
+     * @param srcOff the index of the array where the first byte will be read.
+     * @param len the number of bytes to copy.
+     * @return this batch.
+     */
+    public CopyBatch put(RandomAccessSource dst, long off, byte[] src, int srcOff, int len) {
+        Validate.checkInRange(src.length, srcOff, len);
+        return record(dst, off, src, srcOff, len, 1, DataOrder.NATIVE_ORDER, true);
+    }
+
+    /**
+     * Records a copy of shorts from an array into a source.
+     * @param dst the source to write to.
+     * @param off the offset of the source where the copy starts.
+     * @param src the array to read from.
+     * @param srcOff the index of the array where the first item will be read.
+     * @param len the number of items to copy.
+     * @param order the order the items will have in the source.
+     * @return this batch.
+     */
+    public CopyBatch put(RandomAccessSource dst, long off, short[] src, int srcOff, int len, DataOrder order) {
+        Validate.checkInRange(src.length, srcOff, len);
+        return record(dst, off, src, srcOff, len, 2, order, true);
+    }
+
+    /**
+     * Records a copy of chars from an array into a source.
+     * @param dst the source to write to.
+     * @param off the offset of the source where the copy starts.
+     * @param src the array to read from.
+     * @param srcOff the index of the array where the first item will be read.
+     * @param len the number of items to copy.
+     * @param order the order the items will have in the source.
+     * @return this batch.
+     */
+    public CopyBatch put(RandomAccessSource dst, long off, char[] src, int srcOff, int len, DataOrder order) {
+        Validate.checkInRange(src.length, srcOff, len);
+        return record(dst, off, src, srcOff, len, 2, order, true);
+    }
+
+    /**
+     * Records a copy of ints from an array into a source.
+     * @param dst the source to write to.
+     * @param off the offset of the source where the copy starts.
+     * @param src the array to read from.
+     * @param srcOff the index of the array where the first item will be read.
+     * @param len the number of items to copy.
+     * @param order the order the items will have in the source.
+     * @return this batch.
+     */
+    public CopyBatch put(RandomAccessSource dst, long off, int[] src, int srcOff, int len, DataOrder order) {
+        Validate.checkInRange(src.length, srcOff, len);
+        return record(dst, off, src, srcOff, len, 4, order, true);
+    }
+
+    /**
+     * Records a copy of longs from an array into a source.
+     * @param dst the source to write to.
+     * @param off the offset of the source where the copy starts.
+     * @param src the array to read from.
+     * @param srcOff the index of the array where the first item will be read.
+     * @param len the number of items to copy.
+     * @param order the order the items will have in the source.
+     * @return this batch.
+     */
+    public CopyBatch put(RandomAccessSource dst, long off, long[] src, int srcOff, int len, DataOrder order) {
+        Validate.checkInRange(src.length, srcOff, len);
+        return record(dst, off, src, srcOff, len, 8, order, true);
+    }
+
+    /**
+     * Records a copy of floats from an array into a source.
+     * @param dst the source to write to.
+     * @param off the offset of the source where the copy starts.
+     * @param src the array to read from.
+     * @param srcOff the index of the array where the first item will be read.
+     * @param len the number of items to copy.
+     * @param order the order the items will have in the source.
+     * @return this batch.
+     */
+    public CopyBatch put(RandomAccessSource dst, long off, float[] src, int srcOff, int len, DataOrder order) {
+        Validate.checkInRange(src.length, srcOff, len);
+        return record(dst, off, src, srcOff, len, 4, order, true);
+    }
+
+    /**
+     * Records a copy of doubles from an array into a source.
+     * @param dst the source to write to.
+     * @param off the offset of the source where the copy starts.
+     * @param src the array to read from.
+     * @param srcOff the index of the array where the first item will be read.
+     * @param len the number of items to copy.
+     * @param order the order the items will have in the source.
+     * @return this batch.
+     */
+    public CopyBatch put(RandomAccessSource dst, long off, double[] src, int srcOff, int len, DataOrder order) {
+        Validate.checkInRange(src.length, srcOff, len);
+        return record(dst, off, src, srcOff, len, 8, order, true);
+    }
+
+    private CopyBatch record(RandomAccessSource source, long off, Object array, int arrayOff,
+                             int len, int dataSize, DataOrder order, boolean put) {
+        checkNotClosed();
+        check(source, off, (long) len * dataSize, put);
+
+        if (size == sources.length) {
+            int capacity = size * 2;
+            sources = Arrays.copyOf(sources, capacity);
+            offsets = Arrays.copyOf(offsets, capacity);
+            arrays = Arrays.copyOf(arrays, capacity);
+            arrayOffsets = Arrays.copyOf(arrayOffsets, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            dataSizes = Arrays.copyOf(dataSizes, capacity);
+            orders = Arrays.copyOf(orders, capacity);
+            puts = Arrays.copyOf(puts, capacity);
+        }
+
+        sources[size] = source;
+        offsets[size] = off;
+        arrays[size] = array;
+        arrayOffsets[size] = arrayOff;
+        lengths[size] = len;
+        dataSizes[size] = dataSize;
+        orders[size] = order;
+        puts[size] = put;
+        size++;
+        return this;
+    }
+
+    private static void check(RandomAccessSource source, long off, long n, boolean put) {
+        if (put) {
+            if (!source.isWritable()) {
+                throw new IllegalStateException("Cannot perform a write operation on this source");
+            }
+            source.checkAbleToWrite(off, n);
+        } else {
+            if (!source.isReadable()) {
+                throw new IllegalStateException("Cannot perform a read operation on this source");
+            }
+            source.checkAbleToIO(off, n);
+        }
+    }
+
+    /**
+     * Performs all the recorded copies, in order, and empties the batch so it can
+     * be reused. Every copy is checked again before any of them is performed, so if
+     * any of the sources has been deallocated since it was recorded, an exception is
+     * thrown and the batch is left untouched.
+     */
+    public void execute() {
+        checkNotClosed();
+        for (int i = 0; i < size; i++) {
+            check(sources[i], offsets[i], (long) lengths[i] * dataSizes[i], puts[i]);
+        }
+
+        try {
+            for (int i = 0; i < size; i++) {
+                execute(i);
+            }
+            flush();
+        } finally {
+            pending = 0;
+            Arrays.fill(pinned, 0, pinnedCount, null);
+            pinnedCount = 0;
+            clear();
+        }
+    }
+
+    /**
+     * Discards all the recorded copies.
+     */
+    public void clear() {
+        Arrays.fill(sources, 0, size, null);
+        Arrays.fill(arrays, 0, size, null);
+        Arrays.fill(orders, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Discards all the recorded copies and releases the descriptor buffer.
+     * Calling it more than once has no effect.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            clear();
+            cleanable.clean();
+        }
+    }
+
+    private void checkNotClosed() {
+        if (closed) {
+            throw new IllegalStateException("This batch has been closed");
+        }
+    }
+
+    private void execute(int entry) {
+        RandomAccessSource source = sources[entry];
+        Object array = arrays[entry];
+        int dataSize = dataSizes[entry];
+        boolean put = puts[entry];
+        boolean swap = dataSize > 1 && orders[entry] != DataOrder.NATIVE_ORDER;
+        long off = offsets[entry];
+        int index = arrayOffsets[entry];
+        int remaining = lengths[entry];
+
+        while (remaining > 0) {
+            long run = source.contiguousLength(off);
+            int n = (int) Math.min(remaining, run / dataSize);
+
+            if (n > 0) {
+                Object base = source.memoryBase(off);
+                long memoryOff = source.memoryOffset(off);
+                long arrayOff = (long) index * dataSize;
+                if (put) {
+                    copy(array, arrayOff, base, memoryOff, dataSize, n, swap);
+                } else {
+                    copy(base, memoryOff, array, arrayOff, dataSize, n, swap);
+                }
+            } else {
+                //The source doesn't expose its memory, so the rest of the copy
+                //is performed through it, or just the item that straddles two of
+                //its regions. The pending copies must be performed before.
+                n = run == 0 ? remaining : 1;
+                flush();
+                transfer(source, off, array, index, n, orders[entry], put);
+            }
+
+            off += (long) n * dataSize;
+            index += n;
+            remaining -= n;
+        }
+    }
+
+    /**
+     * Adds a copy to the native call being prepared, flushing it if it cannot
+     * reference any more arrays, or performs it right away if it wouldn't be
+     * performed by the native library outside a batch.
+     */
+    private void copy(Object src, long srcOff, Object dst, long dstOff, int dataSize, long count, boolean swap) {
+        long bytes = dataSize * count;
+        if (!swap || !Unsafe.nativeSwap(bytes)) {
+            if (overlapsPending(src, srcOff, dst, dstOff, bytes)) {
+                flush();
+            }
+            Unsafe.copy(src, srcOff, dst, dstOff, dataSize, count, swap);
+            return;
+        }
+
+        int needed = (src != null && indexOf(src) < 0 ? 1 : 0) + (dst != null && indexOf(dst) < 0 ? 1 : 0);
+        if (src == dst && needed > 0) {
+            needed = 1;
+        }
+        if (pinnedCount + needed > pinned.length) {
+            flush();
+        }
+
+        if (pending == descriptorCapacity) {
+            descriptorCapacity *= 2;
+            descriptors.address = Unsafe.realloc(descriptors.address, (long) descriptorCapacity * DESCRIPTOR_SIZE);
+        }
+
+        long address = descriptors.address + (long) pending * DESCRIPTOR_SIZE;
+        Unsafe.UNSAFE.putLong(address, pin(src));
+        Unsafe.UNSAFE.putLong(address + 8, srcOff);
+        Unsafe.UNSAFE.putLong(address + 16, pin(dst));
+        Unsafe.UNSAFE.putLong(address + 24, dstOff);
+        Unsafe.UNSAFE.putLong(address + 32, dataSize);
+        Unsafe.UNSAFE.putLong(address + 40, count);
+        Unsafe.UNSAFE.putLong(address + 48, swap ? 1 : 0);
+        pending++;
+    }
+
+    /**
+     * Returns whether a copy reads memory written by a pending copy, or
+     * writes memory read or written by one of them.
+     */
+    private boolean overlapsPending(Object src, long srcOff, Object dst, long dstOff, long bytes) {
+        for (int i = 0; i < pending; i++) {
+            long address = descriptors.address + (long) i * DESCRIPTOR_SIZE;
+            long length = Unsafe.UNSAFE.getLong(address + 32) * Unsafe.UNSAFE.getLong(address + 40);
+            Object pendingSrc = pinned((int) Unsafe.UNSAFE.getLong(address));
+            Object pendingDst = pinned((int) Unsafe.UNSAFE.getLong(address + 16));
+            long pendingSrcOff = Unsafe.UNSAFE.getLong(address + 8);
+            long pendingDstOff = Unsafe.UNSAFE.getLong(address + 24);
+
+            if (overlaps(src, srcOff, pendingDst, pendingDstOff, bytes, length)
+                    || overlaps(dst, dstOff, pendingSrc, pendingSrcOff, bytes, length)
+                    || overlaps(dst, dstOff, pendingDst, pendingDstOff, bytes, length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean overlaps(Object a, long aOff, Object b, long bOff, long aLength, long bLength) {
+        return a == b && aOff < bOff + bLength && bOff < aOff + aLength;
+    }
+
+    private Object pinned(int index) {
+        return index < 0 ? null : pinned[index];
+    }
+
+    private int indexOf(Object array) {
+        for (int i = 0; i < pinnedCount; i++) {
+            if (pinned[i] == array) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int pin(Object array) {
+        if (array == null) {
+            return -1;
+        }
+
+        int index = indexOf(array);
+        if (index < 0) {
+            index = pinnedCount++;
+            pinned[index] = array;
+        }
+        return index;
+    }
+
+    private void flush() {
+        if (pending == 0) {
+            return;
+        }
+
+        int r = AccessorNatives.copyBatch(pinned, pinnedCount, descriptors.address, pending);
+        pending = 0;
+        Arrays.fill(pinned, 0, pinnedCount, null);
+        pinnedCount = 0;
+
+        if (r != AccessorNatives.CPYMEM_ERRNO_OK) {
+            throw new IllegalStateException("The native library failed to perform the batch, error " + r);
+        }
+    }
+
+    private static void transfer(RandomAccessSource source, long off, Object array, int index,
+                                 int len, DataOrder order, boolean put) {
+        if (array instanceof byte[]) {
+            if (put) {
+                source.unsafePut(off, (byte[]) array, index, len);
+            } else {
+                source.unsafeGet(off, (byte[]) array, index, len);
+            }
+        } else if (array instanceof short[]) {
+            if (put) {
+                source.unsafePut(off, (short[]) array, index, len, order);
+            } else {
+                source.unsafeGet(off, (short[]) array, index, len, order);
+            }
+        } else if (array instanceof char[]) {
+            if (put) {
+                source.unsafePut(off, (char[]) array, index, len, order);
+            } else {
+                source.unsafeGet(off, (char[]) array, index, len, order);
+            }
+        } else if (array instanceof int[]) {
+            if (put) {
+                source.unsafePut(off, (int[]) array, index, len, order);
+            } else {
+                source.unsafeGet(off, (int[]) array, index, len, order);
+            }
+        } else if (array instanceof long[]) {
+            if (put) {
+                source.unsafePut(off, (long[]) array, index, len, order);
+            } else {
+                source.unsafeGet(off, (long[]) array, index, len, order);
+            }
+        } else if (array instanceof float[]) {
+            if (put) {
+                source.unsafePut(off, (float[]) array, index, len, order);
+            } else {
+                source.unsafeGet(off, (float[]) array, index, len, order);
+            }
+        } else if (array instanceof double[]) {
+            if (put) {
+                source.unsafePut(off, (double[]) array, index, len, order);
+            } else {
+                source.unsafeGet(off, (double[]) array, index, len, order);
+            }
+        }
+    }
+}
@@ -16,23 +16,58 @@
 
 package me.devcexx.accessors;
 
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
 
 /**
  * Represents a memory block that can be directly read or written.
  */
 public class DirectMemorySource extends RandomAccessSource {
-    protected final long address;
+    /**
+     * Frees a memory block allocated through {@link Unsafe#alloc(long)}.
+     */
+    private static class Free implements Runnable {
+        private final long address;
+
+        private Free(long address) {
+            this.address = address;
+        }
+
+        @Override
+        public void run() {
+            Unsafe.dealloc(address);
+        }
+    }
+
+    protected long address;
+    private final MemoryCleaner.Cleanable cleanable;
 
     /**
      * Creates an unsafe {@link DirectMemorySource} starting at the given address
-     * with the given length.
+     * with the given length. The memory block will be freed when the source is
+     * deallocated or becomes unreachable, so it must have been allocated through
+     * {@link Unsafe#alloc(long)}.
      * @param address the base address of the memory block.
      * @param length the length of the memory block.
      */
     public DirectMemorySource(long address, long length) {
+        this(address, length, new Free(address));
+    }
+
+    /**
+     * Creates an unsafe {@link DirectMemorySource} starting at the given address
+     * with the given length, that will release its memory with the given action.
+     * @param address the base address of the memory block.
+     * @param length the length of the memory block.
+     * @param deallocator the action that will release the memory block when the
+     *                    source is deallocated or becomes unreachable, whatever
+     *                    happens first, or null if the memory is not owned by
+     *                    the source. It must not reference the source.
+     */
+    protected DirectMemorySource(long address, long length, Runnable deallocator) {
         super(length);
         this.address = address;
+        this.cleanable = deallocator != null ? MemoryCleaner.register(this, deallocator) : null;
     }
 
 
@@ -112,7 +147,7 @@ public class DirectMemorySource extends RandomAccessSource {
         } else {
             get(off, buf.array(), buf.arrayOffset() + buf.position(), buf.remaining());
         }
-        buf.position(buf.position() + buf.remaining());
+        ((Buffer) buf).position(buf.position() + buf.remaining());
     }
 
     @Override
@@ -194,7 +229,7 @@ public class DirectMemorySource extends RandomAccessSource {
         } else {
             put(off, buf.array(), buf.arrayOffset() + buf.position(), buf.remaining());
         }
-        buf.position(buf.position() + buf.remaining());
+        ((Buffer) buf).position(buf.position() + buf.remaining());
     }
 
     @Override
@@ -228,17 +263,91 @@ public class DirectMemorySource extends RandomAccessSource {
     }
 
     @Override
-    public void dealloc() {
-        if (!deallocated) {
-            Unsafe.dealloc(address);
-            deallocated = true;
-        }
+    public boolean supportsAtomicAccess() {
+        return true;
     }
 
     @Override
-    protected void finalize() throws Throwable {
-        dealloc();
-        super.finalize();
+    public boolean isAligned(long off, int size) {
+        return ((address + off) & (size - 1)) == 0;
+    }
+
+    @Override
+    public int unsafeGetIntVolatile(long off) {
+        return Unsafe.getIntVolatile(null, address + off);
+    }
+
+    @Override
+    public void unsafePutIntVolatile(long off, int value) {
+        Unsafe.putIntVolatile(null, address + off, value);
+    }
+
+    @Override
+    public int unsafeGetIntAcquire(long off) {
+        return Unsafe.getIntAcquire(null, address + off);
+    }
+
+    @Override
+    public void unsafePutIntRelease(long off, int value) {
+        Unsafe.putIntRelease(null, address + off, value);
+    }
+
+    @Override
+    public boolean unsafeCompareAndSetInt(long off, int expected, int value) {
+        return Unsafe.compareAndSetInt(null, address + off, expected, value);
+    }
+
+    @Override
+    public int unsafeGetAndAddInt(long off, int delta) {
+        return Unsafe.getAndAddInt(null, address + off, delta);
+    }
+
+    @Override
+    public int unsafeGetAndSetInt(long off, int value) {
+        return Unsafe.getAndSetInt(null, address + off, value);
+    }
+
+    @Override
+    public long unsafeGetLongVolatile(long off) {
+        return Unsafe.getLongVolatile(null, address + off);
+    }
+
+    @Override
+    public void unsafePutLongVolatile(long off, long value) {
+        Unsafe.putLongVolatile(null, address + off, value);
+    }
+
+    @Override
+    public long unsafeGetLongAcquire(long off) {
+        return Unsafe.getLongAcquire(null, address + off);
+    }
+
+    @Override
+    public void unsafePutLongRelease(long off, long value) {
+        Unsafe.putLongRelease(null, address + off, value);
+    }
+
+    @Override
+    public boolean unsafeCompareAndSetLong(long off, long expected, long value) {
+        return Unsafe.compareAndSetLong(null, address + off, expected, value);
+    }
+
+    @Override
+    public long unsafeGetAndAddLong(long off, long delta) {
+        return Unsafe.getAndAddLong(null, address + off, delta);
+    }
+
+    @Override
+    public long unsafeGetAndSetLong(long off, long value) {
+        return Unsafe.getAndSetLong(null, address + off, value);
+    }
+
+    @Override
+    public void dealloc() {
+        deallocated = true;
+        if (cleanable != null) {
+            cleanable.clean();
+        }
     }
 
     protected void readToArray(long srcOff, Object buf, int dataSize, int dstOff, int len, DataOrder order) {
@@ -248,4 +357,19 @@ public class DirectMemorySource extends RandomAccessSource {
     protected void writeFromArray(int srcOff, Object buf, int dataSize, long dstOff, int len, DataOrder order) {
         Unsafe.copyArrayToAddress(buf, srcOff, address + dstOff, dataSize, len, order);
     }
+
+    @Override
+    long contiguousLength(long off) {
+        return length - off;
+    }
+
+    @Override
+    Object memoryBase(long off) {
+        return null;
+    }
+
+    @Override
+    long memoryOffset(long off) {
+        return address + off;
+    }
 }
@@ -16,6 +16,7 @@
 
 package me.devcexx.accessors;
 
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
 
 /**
@@ -34,7 +35,7 @@ public class DirectNioBufferSource extends DirectMemorySource {
      * @param buffer a Java NIO Direct Buffer.
      */
     public DirectNioBufferSource(ByteBuffer buffer) {
-        super(Unsafe.addressOfByteBuffer(buffer), buffer.capacity());
+        super(Unsafe.addressOfByteBuffer(buffer), buffer.capacity(), null);
         this.byteBuffer = buffer.duplicate();
     }
 
@@ -42,21 +43,15 @@ public class DirectNioBufferSource extends DirectMemorySource {
     public ByteBuffer byteBuffer(long off, long length) {
         Validate.checkInRange(length(), off, length);
 
-        byteBuffer.position((int) off);
-        byteBuffer.limit((int) length);
-        return byteBuffer.slice();
+        ByteBuffer buf = byteBuffer.duplicate();
+        ((Buffer) buf).limit((int) (off + length));
+        ((Buffer) buf).position((int) off);
+        return buf.slice();
     }
 
     @Override
     public void dealloc() {
-        //This must be overriden so the direct buffer should be cleaned through its cleaner,
-        //not a free statement, but, should I keep this empty, so the deallocation
-        //can only be performed from the byte source?
-    }
-
-    @Override
-    protected void finalize() throws Throwable {
-        //Override this method so the deallocation process depends on the
-        //byte buffer, not on this source.
+        //The memory is owned by the direct buffer, and it will be released
+        //through its own cleaner, so there's nothing to release here.
     }
 }
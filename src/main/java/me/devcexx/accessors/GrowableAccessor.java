@@ -0,0 +1,61 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+/**
+ * Represents an accessor over a {@link GrowableSource} that makes the source grow when
+ * data is written past its end, so it can be used to write data whose size is not known
+ * up front. While the limit of the accessor is set at the end of the source, writes beyond
+ * it grow the source and move the limit along with it. If a lower limit is explicitly set,
+ * the accessor behaves as a regular one until the limit is set back to the length of the source.
+ */
+public class GrowableAccessor extends RandomAccessor {
+    private final GrowableSource source;
+
+    /**
+     * Creates an accessor that will start writing at the beginning of the given source.
+     * @param source the source to use.
+     */
+    public GrowableAccessor(GrowableSource source) {
+        this(source, DataOrder.NATIVE_ORDER);
+    }
+
+    /**
+     * Creates an accessor that will start writing at the beginning of the given source.
+     * @param source the source to use.
+     * @param order the default order for the accessor.
+     */
+    public GrowableAccessor(GrowableSource source, DataOrder order) {
+        super(source, order);
+        this.source = source;
+    }
+
+    @Override
+    public GrowableSource source() {
+        return source;
+    }
+
+    @Override
+    protected void checkWriteLimit(long off, long n) {
+        long end = off + n;
+        if (off >= 0 && n >= 0 && end > limit() && limit() == source.length()) {
+            source.setLength(end);
+            limit(end);
+        }
+        super.checkWriteLimit(off, n);
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Represents an off-heap source whose length grows as data is written past its end,
+ * like a {@link java.util.ArrayList} does. The source keeps a memory block larger than its
+ * length, its capacity, which is reallocated according to a {@link GrowthPolicy} when a
+ * write needs more room, so the amortized cost of appending data is constant. The bytes
+ * between the previous end of the source and the offset of a write are filled with zeroes.
+ *
+ * Since the memory block can be moved when it is reallocated, this source refuses to hand
+ * out byte buffers, which would keep pointing to the freed block: {@link #byteBuffer(long, long)},
+ * and the one of any slice or composite source over it, throws an exception. The data can
+ * still be copied from and to byte buffers, and transferred through channels and streams.
+ * Slices and accessors keep working across reallocations, since they reach the memory through
+ * this source. However, once the length of the source is reduced, accessing a slice, a composite
+ * source or an accessor created over it beyond the new end throws an exception, except for
+ * trusted accessors, which only check it when their checks are enabled. This class is not
+ * thread safe.
+ */
+public class GrowableSource extends DirectMemorySource {
+    /**
+     * Decides the capacity of a growable source when it needs to grow.
+     */
+    public interface GrowthPolicy {
+        /**
+         * Returns the new capacity of a source.
+         * @param capacity the current capacity of the source.
+         * @param minCapacity the minimum capacity the source needs. If the
+         *                    returned value is lower, this one will be used instead.
+         */
+        long newCapacity(long capacity, long minCapacity);
+
+        /**
+         * Returns a policy that doubles the capacity of the source.
+         */
+        static GrowthPolicy doubling() {
+            return factor(2.0);
+        }
+
+        /**
+         * Returns a policy that multiplies the capacity of the source by the given factor.
+         * @param factor the growth factor, greater than 1.
+         */
+        static GrowthPolicy factor(double factor) {
+            if (!(factor > 1.0)) {
+                throw new IllegalArgumentException("Growth factor must be greater than 1");
+            }
+            return (capacity, minCapacity) -> {
+                double newCapacity = capacity * factor;
+                return newCapacity >= Long.MAX_VALUE ? Long.MAX_VALUE : (long) newCapacity;
+            };
+        }
+
+        /**
+         * Returns a policy that increases the capacity of the source by a fixed amount.
+         * @param increment the number of bytes added to the capacity.
+         */
+        static GrowthPolicy linear(long increment) {
+            if (increment <= 0) {
+                throw new IllegalArgumentException("Growth increment must be positive");
+            }
+            return (capacity, minCapacity) -> capacity > Long.MAX_VALUE - increment
+                    ? Long.MAX_VALUE : capacity + increment;
+        }
+    }
+
+    /**
+     * Keeps the address of the memory block, so it can be freed wherever it has been moved.
+     */
+    private static class Block implements Runnable {
+        private volatile long address;
+
+        private Block(long address) {
+            this.address = address;
+        }
+
+        @Override
+        public void run() {
+            Unsafe.dealloc(address);
+        }
+    }
+
+    private final Block block;
+    private final GrowthPolicy policy;
+    private long capacity;
+
+    /**
+     * Creates an empty growable source.
+     * @param initialCapacity the initial capacity of the source.
+     * @param policy the policy that will decide how the source grows.
+     */
+    public GrowableSource(long initialCapacity, GrowthPolicy policy) {
+        this(new Block(Unsafe.alloc(checkCapacity(initialCapacity))), initialCapacity, policy);
+    }
+
+    private GrowableSource(Block block, long capacity, GrowthPolicy policy) {
+        super(block.address, 0, block);
+        this.block = block;
+        this.capacity = capacity;
+        this.policy = policy;
+    }
+
+    private static long checkCapacity(long capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be less than 0");
+        }
+        return capacity;
+    }
+
+    /**
+     * Returns the size of the memory block currently reserved by this source.
+     */
+    public long capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the policy used to grow this source.
+     */
+    public GrowthPolicy policy() {
+        return policy;
+    }
+
+    /**
+     * Ensures that the source can grow up to the given length without
+     * reallocating its memory block.
+     * @param minCapacity the required capacity.
+     */
+    public void ensureCapacity(long minCapacity) {
+        checkNotDeallocated();
+        if (minCapacity > capacity) {
+            reallocate(Math.max(minCapacity, policy.newCapacity(capacity, minCapacity)));
+        }
+    }
+
+    /**
+     * Sets the length of the source. If the source grows, the new bytes are
+     * filled with zeroes. The capacity is never reduced by this method.
+     * @param newLength the new length of the source.
+     */
+    public void setLength(long newLength) {
+        checkNotDeallocated();
+        if (newLength < 0) {
+            throw new IllegalArgumentException("Length cannot be less than 0");
+        }
+
+        if (newLength > length) {
+            ensureCapacity(newLength);
+            Unsafe.memset(address + length, newLength - length, (byte) 0);
+        }
+        length = newLength;
+    }
+
+    /**
+     * Reduces the capacity of the source to its current length,
+     * releasing the memory that is not being used.
+     */
+    public void trimToSize() {
+        checkNotDeallocated();
+        if (capacity > length) {
+            reallocate(length);
+        }
+    }
+
+    private void reallocate(long newCapacity) {
+        long newAddress = Unsafe.realloc(address, newCapacity);
+        block.address = newAddress;
+        address = newAddress;
+        capacity = newCapacity;
+    }
+
+    /**
+     * Always throws an {@link UnsupportedOperationException}, as the buffer would
+     * point to freed memory as soon as the source is reallocated.
+     */
+    @Override
+    public ByteBuffer byteBuffer(long off, long length) {
+        throw new UnsupportedOperationException("Growable sources cannot be accessed through byte "
+                + "buffers, as their memory is moved when they grow");
+    }
+
+    @Override
+    ByteBuffer transientByteBuffer(long off, long length) {
+        return super.byteBuffer(off, length);
+    }
+
+    @Override
+    public void clear(byte x, long off, long length) {
+        checkAbleToWrite(off, length);
+        super.clear(x, off, length);
+    }
+
+    /**
+     * Writes past the end of the source make it grow up to the end of the write.
+     */
+    @Override
+    protected void checkAbleToWrite(long off, long n) {
+        long end = off + n;
+        if (off >= 0 && n >= 0 && end > length) {
+            setLength(end);
+        }
+        super.checkAbleToWrite(off, n);
+    }
+}
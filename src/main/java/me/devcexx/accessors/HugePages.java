@@ -0,0 +1,138 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+
+/**
+ * Represents the kind of huge pages that will back a memory region. Huge pages
+ * reduce the number of TLB entries needed to cover large regions, but explicit
+ * huge pages of a given size are only available if the system has reserved them
+ * beforehand (for example, through {@code /proc/sys/vm/nr_hugepages}).
+ */
+public enum HugePages {
+
+    /**
+     * The region is backed by regular pages, but the kernel is advised to collapse
+     * them into transparent huge pages whenever possible. This doesn't require any
+     * reservation, but it's not guaranteed either.
+     */
+    TRANSPARENT(0),
+
+    /**
+     * The region is backed by explicit huge pages of the default size of the system.
+     */
+    DEFAULT_SIZE(0),
+
+    /**
+     * The region is backed by explicit 2 MiB huge pages.
+     */
+    SIZE_2MB(21),
+
+    /**
+     * The region is backed by explicit 1 GiB huge pages.
+     */
+    SIZE_1GB(30);
+
+    private static final long DEFAULT_HUGE_PAGE_SIZE = 1L << 21;
+    private static long defaultSize;
+
+    private final int log2Size;
+
+    HugePages(int log2Size) {
+        this.log2Size = log2Size;
+    }
+
+    /**
+     * Returns true if these are explicit huge pages, and false if they are
+     * regular pages that may be collapsed into transparent huge pages.
+     */
+    public boolean isExplicit() {
+        return this != TRANSPARENT;
+    }
+
+    /**
+     * Returns the size, in bytes, of these pages. The size of the default
+     * huge pages is read from {@code /proc/meminfo}, and the size of
+     * transparent huge pages is the size of the regular pages.
+     */
+    public long size() {
+        if (this == TRANSPARENT) {
+            return Unsafe.pageSize();
+        }
+        if (this == DEFAULT_SIZE) {
+            return defaultHugePageSize();
+        }
+        return 1L << log2Size;
+    }
+
+    /**
+     * Returns the flags to pass to mmap to allocate these pages, or 0 if
+     * these pages cannot be requested through mmap in this system.
+     */
+    int mmapFlags() {
+        return hugeTlbFlags(AccessorNatives.MAP_HUGETLB, AccessorNatives.MAP_HUGE_SHIFT);
+    }
+
+    /**
+     * Returns the flags to pass to shmget to allocate these pages, or 0 if
+     * these pages cannot be requested through shmget in this system.
+     */
+    int shmFlags() {
+        return hugeTlbFlags(AccessorNatives.SHM_HUGETLB, AccessorNatives.SHM_HUGE_SHIFT);
+    }
+
+    private int hugeTlbFlags(int hugeTlb, int hugeShift) {
+        if (!isExplicit() || hugeTlb == 0) {
+            return 0;
+        }
+        if (this == DEFAULT_SIZE) {
+            return hugeTlb;
+        }
+
+        //Without a shift, the system doesn't support choosing the size of
+        //the pages, so only the default size can be requested.
+        return hugeShift != 0 ? hugeTlb | (log2Size << hugeShift) : 0;
+    }
+
+    /**
+     * Rounds up the given size to a multiple of the size of these pages.
+     */
+    long roundUp(long size) {
+        long pageSize = size();
+        return (size + pageSize - 1) / pageSize * pageSize;
+    }
+
+    private static synchronized long defaultHugePageSize() {
+        if (defaultSize == 0) {
+            defaultSize = DEFAULT_HUGE_PAGE_SIZE;
+            try (BufferedReader reader = new BufferedReader(new FileReader("/proc/meminfo"))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith("Hugepagesize:")) {
+                        String[] fields = line.substring(13).trim().split("\\s+");
+                        defaultSize = Long.parseLong(fields[0]) * 1024;
+                        break;
+                    }
+                }
+            } catch (IOException | NumberFormatException ignored) { }
+        }
+        return defaultSize;
+    }
+}
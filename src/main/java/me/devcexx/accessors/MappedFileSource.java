@@ -0,0 +1,113 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Represents a memory source that is backed by a file mapped into the
+ * memory of the current process. Unlike {@link java.nio.MappedByteBuffer},
+ * a single instance is able to map regions larger than 2 GiB.
+ */
+public class MappedFileSource extends DirectMemorySource {
+    /**
+     * Unmaps a file mapping.
+     */
+    static class Unmap implements Runnable {
+        private final long address;
+        private final long length;
+
+        Unmap(long address, long length) {
+            this.address = address;
+            this.length = length;
+        }
+
+        @Override
+        public void run() {
+            AccessorNatives.munmap(address, length);
+        }
+    }
+
+    private final long mappingAddress;
+    private final long mappingLength;
+    private final FileChannel.MapMode mode;
+
+    /**
+     * Creates a source over an already existing file mapping.
+     * @param mappingAddress the page-aligned base address of the mapping, as returned by mmap.
+     * @param mappingLength the length of the whole mapping.
+     * @param delta the offset from the beginning of the mapping where this source starts.
+     * @param length the length of this source.
+     * @param mode the mode used to map the file.
+     */
+    protected MappedFileSource(long mappingAddress, long mappingLength, long delta,
+                               long length, FileChannel.MapMode mode) {
+        super(mappingAddress + delta, length,
+                mappingLength > 0 ? new Unmap(mappingAddress, mappingLength) : null);
+        Validate.checkInRange(mappingLength, delta, length);
+        this.mappingAddress = mappingAddress;
+        this.mappingLength = mappingLength;
+        this.mode = mode;
+    }
+
+    /**
+     * Returns the mode that was used to map the underlying file.
+     */
+    public FileChannel.MapMode mode() {
+        return mode;
+    }
+
+    @Override
+    public int getPermissions() {
+        if (mode == FileChannel.MapMode.READ_ONLY) {
+            return AccessorPermissions.READ;
+        }
+        return AccessorPermissions.FULL_ACCESS;
+    }
+
+    /**
+     * Forces any change made to the source to be written to the
+     * underlying file. Has no effect on read-only or private mappings.
+     */
+    public void force() {
+        checkNotDeallocated();
+        if (mode == FileChannel.MapMode.READ_WRITE && mappingLength > 0) {
+            AccessorNatives.msync(mappingAddress, mappingLength, AccessorNatives.MS_SYNC);
+        }
+    }
+
+    @Override
+    public ByteBuffer byteBuffer(long off, long length) {
+        ByteBuffer buf = super.byteBuffer(off, length);
+        return isWritable() ? buf : buf.asReadOnlyBuffer();
+    }
+
+    @Override
+    public void clear(byte x, long off, long length) {
+        checkAbleToWrite(off, length);
+        super.clear(x, off, length);
+    }
+
+    @Override
+    protected void checkAbleToWrite(long off, long n) {
+        if (!isWritable()) {
+            throw new IllegalStateException("Cannot perform a write operation on this source");
+        }
+        super.checkAbleToWrite(off, n);
+    }
+}
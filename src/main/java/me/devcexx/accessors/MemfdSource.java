@@ -0,0 +1,92 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Represents a memory source that is backed by an anonymous memory file, created through
+ * {@code memfd_create} and mapped into the memory of the current process. The file has no
+ * name in any file system, so it is destroyed as soon as the source is deallocated and every
+ * other process that has it open closes it, even if the processes crash.
+ *
+ * The file descriptor of the file is kept open while the source is alive, so other processes
+ * can map the file through {@link #path()}. The descriptor is only inherited by child processes
+ * started through a native fork/exec, as {@link ProcessBuilder} closes every descriptor but the
+ * standard ones in the child.
+ */
+public class MemfdSource extends DirectMemorySource {
+    /**
+     * Unmaps a memory file and closes its file descriptor.
+     */
+    private static class Release implements Runnable {
+        private final int fd;
+        private final long address;
+        private final long length;
+
+        private Release(int fd, long address, long length) {
+            this.fd = fd;
+            this.address = address;
+            this.length = length;
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (length > 0) {
+                    AccessorNatives.munmap(address, length);
+                }
+            } finally {
+                AccessorNatives.close(fd);
+            }
+        }
+    }
+
+    private final int fd;
+
+    /**
+     * Creates a source over an already existing mapping of a memory file, which
+     * takes the ownership of the given file descriptor.
+     * @param fd the file descriptor of the memory file.
+     * @param address the base address of the mapping, as returned by mmap.
+     * @param length the length of the mapping.
+     */
+    public MemfdSource(int fd, long address, long length) {
+        super(address, length, new Release(fd, address, length));
+        this.fd = fd;
+    }
+
+    /**
+     * Returns the file descriptor of the underlying memory file.
+     */
+    public int fd() {
+        checkNotDeallocated();
+        return fd;
+    }
+
+    /**
+     * Returns a path, under {@code /proc}, through which any process with the same
+     * credentials can open the underlying memory file while this source is alive,
+     * for example, by mapping it through {@link Sources#mapFile(File, java.nio.channels.FileChannel.MapMode)}.
+     */
+    public File path() throws IOException {
+        checkNotDeallocated();
+        String pid = new File("/proc/self").getCanonicalFile().getName();
+        return new File("/proc/" + pid + "/fd/" + fd);
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+import java.util.Arrays;
+
+/**
+ * An off-heap allocator that reserves memory in large chunks and hands out
+ * sub-regions of them through bump-pointer allocation, so allocating a region
+ * just costs a few arithmetic operations. Regions cannot be freed
+ * individually: all of them are released at once with {@link #reset()},
+ * which keeps the chunks for later allocations, or {@link #release()}, which
+ * returns the chunks to the system. Once that happens, every region handed out
+ * before is considered deallocated and cannot be accessed anymore.
+ *
+ * <p>Arenas are not thread-safe. Each thread should use its own arena, for
+ * example through {@link #threadLocal(long)}.</p>
+ */
+public class MemoryArena implements AutoCloseable {
+    /**
+     * The default size of the chunks reserved by an arena.
+     */
+    public static final long DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    /**
+     * The default alignment of the regions, which allows them
+     * to be accessed with atomic operations.
+     */
+    public static final int DEFAULT_ALIGNMENT = 8;
+
+    /**
+     * The memory chunks owned by an arena. Regular chunks are kept until
+     * the arena is released, while the ones reserved for regions larger than
+     * a regular chunk are freed every time the arena is reset.
+     */
+    private static class Chunks implements Runnable {
+        private long[] regular = new long[4];
+        private int regularCount;
+        private long[] large = new long[4];
+        private int largeCount;
+
+        private long regular(int index) {
+            return regular[index];
+        }
+
+        private void addRegular(long address) {
+            if (regularCount == regular.length) {
+                regular = Arrays.copyOf(regular, regularCount * 2);
+            }
+            regular[regularCount++] = address;
+        }
+
+        private void addLarge(long address) {
+            if (largeCount == large.length) {
+                large = Arrays.copyOf(large, largeCount * 2);
+            }
+            large[largeCount++] = address;
+        }
+
+        private void freeLarge() {
+            for (int i = 0; i < largeCount; i++) {
+                Unsafe.dealloc(large[i]);
+            }
+            largeCount = 0;
+        }
+
+        @Override
+        public void run() {
+            freeLarge();
+            for (int i = 0; i < regularCount; i++) {
+                Unsafe.dealloc(regular[i]);
+            }
+            regularCount = 0;
+        }
+    }
+
+    private final long chunkSize;
+    private final Chunks chunks;
+    private final MemoryCleaner.Cleanable cleanable;
+
+    private int chunkIndex = -1;
+    private long chunkAddress;
+    private long chunkUsed;
+    private long chunkLimit;
+    private long reservedBytes;
+    private long generation;
+    private boolean released;
+
+    /**
+     * Creates an arena that reserves chunks of {@link #DEFAULT_CHUNK_SIZE} bytes.
+     */
+    public MemoryArena() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates an arena that reserves chunks of the given size. No memory
+     * is reserved until the first region is allocated.
+     * @param chunkSize the size of the chunks.
+     */
+    public MemoryArena(long chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be greater than 0");
+        }
+
+        this.chunkSize = chunkSize;
+        this.chunks = new Chunks();
+        this.cleanable = MemoryCleaner.register(this, chunks);
+    }
+
+    /**
+     * Creates a thread local whose value on each thread is a different arena
+     * that reserves chunks of the given size. The chunks of each arena are
+     * returned to the system once its thread ends and the arena is collected.
+     */
+    public static ThreadLocal<MemoryArena> threadLocal(final long chunkSize) {
+        return new ThreadLocal<MemoryArena>() {
+            @Override
+            protected MemoryArena initialValue() {
+                return new MemoryArena(chunkSize);
+            }
+        };
+    }
+
+    /**
+     * Returns the size of the chunks reserved by this arena.
+     */
+    public long chunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Returns the amount of memory currently reserved by this arena.
+     */
+    public long reservedBytes() {
+        return reservedBytes;
+    }
+
+    /**
+     * Allocates a region of the given size, aligned to {@link #DEFAULT_ALIGNMENT} bytes.
+     * The contents of the region are undefined.
+     */
+    public ArenaSource allocate(long size) {
+        return allocate(size, DEFAULT_ALIGNMENT);
+    }
+
+    /**
+     * Allocates a region of the given size and alignment. The contents of
+     * the region are undefined. Regions larger than the chunk size
+     * get a chunk of their own.
+     * @param size the size of the region.
+     * @param alignment the alignment of the region address, which must be a power of two.
+     */
+    public ArenaSource allocate(long size, int alignment) {
+        checkNotReleased();
+
+        if (size < 0) {
+            throw new IllegalArgumentException("Size cannot be less than 0");
+        }
+
+        if (alignment <= 0 || Integer.bitCount(alignment) != 1) {
+            throw new IllegalArgumentException("Alignment must be a power of two");
+        }
+
+        long address = align(chunkAddress + chunkUsed, alignment);
+        if (address + size > chunkAddress + chunkLimit) {
+            if (size + alignment - 1 > chunkSize) {
+                return allocateLarge(size, alignment);
+            }
+
+            nextChunk();
+            address = align(chunkAddress, alignment);
+        }
+
+        chunkUsed = address + size - chunkAddress;
+        return new ArenaSource(this, generation, address, size);
+    }
+
+    private ArenaSource allocateLarge(long size, int alignment) {
+        long reserved = size + alignment - 1;
+        long chunk = Unsafe.alloc(reserved);
+        chunks.addLarge(chunk);
+        reservedBytes += reserved;
+        return new ArenaSource(this, generation, align(chunk, alignment), size);
+    }
+
+    private void nextChunk() {
+        chunkIndex++;
+        if (chunkIndex < chunks.regularCount) {
+            chunkAddress = chunks.regular(chunkIndex);
+        } else {
+            chunkAddress = Unsafe.alloc(chunkSize);
+            chunks.addRegular(chunkAddress);
+            reservedBytes += chunkSize;
+        }
+        chunkUsed = 0;
+        chunkLimit = chunkSize;
+    }
+
+    /**
+     * Deallocates all the regions handed out by this arena at once, keeping
+     * the regular chunks for later allocations.
+     */
+    public void reset() {
+        checkNotReleased();
+        generation++;
+        chunks.freeLarge();
+        reservedBytes = chunkSize * chunks.regularCount;
+
+        chunkIndex = -1;
+        chunkAddress = 0;
+        chunkUsed = 0;
+        chunkLimit = 0;
+    }
+
+    /**
+     * Deallocates all the regions handed out by this arena and returns all
+     * its memory to the system. The arena cannot be used anymore after this.
+     * Calling it more than once has no effect.
+     */
+    public void release() {
+        if (!released) {
+            released = true;
+            generation++;
+            reservedBytes = 0;
+            cleanable.clean();
+        }
+    }
+
+    /**
+     * Releases the arena. This is the same as calling {@link #release()}.
+     */
+    @Override
+    public void close() {
+        release();
+    }
+
+    /**
+     * Gets whether the arena has been released.
+     */
+    public boolean released() {
+        return released;
+    }
+
+    boolean isCurrentGeneration(long generation) {
+        return this.generation == generation;
+    }
+
+    private void checkNotReleased() {
+        if (released) {
+            throw new IllegalStateException("The arena has been released");
+        }
+    }
+
+    private static long align(long address, int alignment) {
+        return (address + alignment - 1) & -alignment;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs the deallocation actions of the sources once they become phantom
+ * reachable, unless they were explicitly deallocated before. This is the
+ * implementation used on Java 8, which relies on a phantom reference queue
+ * polled by a daemon thread. Newer versions of Java load the one under
+ * {@code META-INF/versions/9} of the multi-release jar, that uses a
+ * {@link java.lang.ref.Cleaner} instead.
+ */
+final class MemoryCleaner {
+    /**
+     * A registered deallocation action.
+     */
+    interface Cleanable {
+        /**
+         * Runs the action if it has not been run yet. The action is run
+         * at most once, even if this method is called concurrently from
+         * different threads or by the cleaner itself.
+         */
+        void clean();
+    }
+
+    private static class PhantomCleanable extends PhantomReference<Object> implements Cleanable {
+        private final Runnable action;
+
+        private PhantomCleanable(Object owner, Runnable action) {
+            super(owner, QUEUE);
+            this.action = action;
+        }
+
+        @Override
+        public void clean() {
+            //Only the thread that removes the reference from the set runs the action.
+            if (CLEANABLES.remove(this)) {
+                clear();
+                action.run();
+            }
+        }
+    }
+
+    private static final ReferenceQueue<Object> QUEUE = new ReferenceQueue<Object>();
+
+    //Keeps the references reachable until they are cleaned.
+    private static final Set<PhantomCleanable> CLEANABLES =
+            Collections.newSetFromMap(new ConcurrentHashMap<PhantomCleanable, Boolean>());
+
+    static {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (true) {
+                    try {
+                        ((Cleanable) QUEUE.remove()).clean();
+                    } catch (Throwable e) {
+                        //Keep running; there's nobody to report the failure to.
+                    }
+                }
+            }
+        }, "random-accessors-cleaner");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private MemoryCleaner() { }
+
+    /**
+     * Registers an action that will be run once the owner becomes phantom
+     * reachable. The action must not reference the owner, or it will never
+     * be collected.
+     * @return a {@link Cleanable} that runs the action on demand.
+     */
+    static Cleanable register(Object owner, Runnable action) {
+        PhantomCleanable cleanable = new PhantomCleanable(owner, action);
+        CLEANABLES.add(cleanable);
+        return cleanable;
+    }
+}
@@ -0,0 +1,461 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A long-lived allocator that recycles off-heap blocks. Requested sizes are
+ * rounded up to a power of two size class, and the blocks of each class are
+ * kept, once deallocated, in a cache local to the deallocating thread, so most
+ * allocations don't need any synchronization. Blocks exceeding the capacity of
+ * a thread cache are moved in batches to a shared free list, from where other
+ * threads refill their caches. Sources larger than the biggest size class are
+ * not pooled.
+ *
+ * <p>The sources handed out by the pool return their block to it when
+ * {@link PooledSource#dealloc()} is called, so they must always be deallocated,
+ * preferably in a try-with-resources statement. Unlike the rest of sources,
+ * they are not deallocated when they become unreachable.</p>
+ *
+ * <p>A pool must be closed through {@link #close()} once it is not needed anymore,
+ * which returns all its free blocks, including the ones held by the thread caches,
+ * to the system. Sources handed out before closing it keep working, and their blocks
+ * are returned to the system when they are deallocated.</p>
+ */
+public class MemoryPool implements AutoCloseable {
+    /**
+     * The default size of the smallest size class.
+     */
+    public static final int DEFAULT_MIN_BLOCK_SIZE = 64;
+
+    /**
+     * The default size of the biggest size class.
+     */
+    public static final int DEFAULT_MAX_BLOCK_SIZE = 1 << 20;
+
+    /**
+     * The default amount of memory that each thread cache keeps of each size class.
+     */
+    public static final int DEFAULT_THREAD_CACHE_SIZE = 1 << 20;
+
+    private static final int MIN_CACHED_BLOCKS = 4;
+    private static final int MAX_CACHED_BLOCKS = 512;
+
+    private static class DefaultPoolHolder {
+        private static final MemoryPool POOL = new MemoryPool();
+    }
+
+    /**
+     * A stack of free blocks of a single size class.
+     */
+    private static class BlockStack {
+        private long[] blocks = new long[16];
+        private int count;
+
+        private void push(long address) {
+            if (count == blocks.length) {
+                blocks = Arrays.copyOf(blocks, count * 2);
+            }
+            blocks[count++] = address;
+        }
+
+        private long pop() {
+            return blocks[--count];
+        }
+
+        /**
+         * Returns all the blocks of this stack, of the given size, to the system.
+         */
+        private long release(long blockSize) {
+            long released = (long) count * blockSize;
+            while (count > 0) {
+                Unsafe.dealloc(pop());
+            }
+            return released;
+        }
+
+        /**
+         * Moves up to n blocks from this stack to the given one.
+         */
+        private int moveTo(BlockStack stack, int n) {
+            n = Math.min(n, count);
+            for (int i = 0; i < n; i++) {
+                stack.push(pop());
+            }
+            return n;
+        }
+    }
+
+    /**
+     * The thread cache of each thread, which is flushed to the shared
+     * free lists once the thread ends and the cache is collected. Its
+     * stacks are guarded by the lock of the array that holds them, which
+     * is only contended while the pool is being trimmed or closed.
+     */
+    private static class ThreadCache {
+        private final BlockStack[] stacks;
+
+        private ThreadCache(BlockStack[] stacks) {
+            this.stacks = stacks;
+        }
+    }
+
+    private class Flush implements Runnable {
+        private final BlockStack[] stacks;
+
+        private Flush(BlockStack[] stacks) {
+            this.stacks = stacks;
+        }
+
+        @Override
+        public void run() {
+            cacheStacks.remove(stacks);
+            synchronized (stacks) {
+                for (int i = 0; i < stacks.length; i++) {
+                    synchronized (shared[i]) {
+                        if (closed) {
+                            pooledBytes.add(-stacks[i].release(blockSize(i)));
+                        } else {
+                            stacks[i].moveTo(shared[i], stacks[i].count);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A snapshot of the statistics of a pool.
+     */
+    public static final class Stats {
+        private final long allocations;
+        private final long hits;
+        private final long pooledBytes;
+        private final long usedBytes;
+        private final long requestedBytes;
+
+        private Stats(long allocations, long hits, long pooledBytes, long usedBytes, long requestedBytes) {
+            this.allocations = allocations;
+            this.hits = hits;
+            this.pooledBytes = pooledBytes;
+            this.usedBytes = usedBytes;
+            this.requestedBytes = requestedBytes;
+        }
+
+        /**
+         * Returns the number of allocations performed by the pool.
+         */
+        public long allocations() {
+            return allocations;
+        }
+
+        /**
+         * Returns the number of allocations served with a recycled block.
+         */
+        public long hits() {
+            return hits;
+        }
+
+        /**
+         * Returns the number of allocations that needed a new block.
+         */
+        public long misses() {
+            return allocations - hits;
+        }
+
+        /**
+         * Returns the fraction of the allocations served with a recycled block.
+         */
+        public double hitRate() {
+            return allocations == 0 ? 0 : (double) hits / allocations;
+        }
+
+        /**
+         * Returns the size of the free blocks held by the pool.
+         */
+        public long pooledBytes() {
+            return pooledBytes;
+        }
+
+        /**
+         * Returns the size of the blocks currently handed out by the pool.
+         */
+        public long usedBytes() {
+            return usedBytes;
+        }
+
+        /**
+         * Returns the size requested by the sources currently handed out by the pool.
+         */
+        public long requestedBytes() {
+            return requestedBytes;
+        }
+
+        /**
+         * Returns the fraction of the blocks currently handed out that is wasted
+         * because of the rounding of the requested sizes to the size classes.
+         */
+        public double fragmentation() {
+            return usedBytes == 0 ? 0 : 1 - (double) requestedBytes / usedBytes;
+        }
+
+        @Override
+        public String toString() {
+            return "MemoryPool.Stats{allocations=" + allocations + ", hitRate=" + hitRate()
+                    + ", pooledBytes=" + pooledBytes + ", usedBytes=" + usedBytes
+                    + ", fragmentation=" + fragmentation() + "}";
+        }
+    }
+
+    private final int minShift;
+    private final int maxBlockSize;
+    private final int[] cacheCapacities;
+    private final BlockStack[] shared;
+    private final ThreadLocal<ThreadCache> caches;
+    private final Set<BlockStack[]> cacheStacks = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    private final LongAdder allocations = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder pooledBytes = new LongAdder();
+    private final LongAdder usedBytes = new LongAdder();
+    private final LongAdder requestedBytes = new LongAdder();
+
+    /**
+     * Creates a pool with the default size classes and thread cache size.
+     */
+    public MemoryPool() {
+        this(DEFAULT_MIN_BLOCK_SIZE, DEFAULT_MAX_BLOCK_SIZE, DEFAULT_THREAD_CACHE_SIZE);
+    }
+
+    /**
+     * Creates a pool.
+     * @param minBlockSize the size of the smallest size class. Must be a power of two.
+     * @param maxBlockSize the size of the biggest size class. Must be a power of two.
+     * @param threadCacheSize the amount of memory that each thread cache keeps
+     *                        of each size class, before moving blocks to the shared
+     *                        free lists.
+     */
+    public MemoryPool(int minBlockSize, int maxBlockSize, int threadCacheSize) {
+        if (minBlockSize <= 0 || Integer.bitCount(minBlockSize) != 1
+                || maxBlockSize < minBlockSize || Integer.bitCount(maxBlockSize) != 1) {
+            throw new IllegalArgumentException("Block sizes must be powers of two, and the minimum " +
+                    "cannot be greater than the maximum");
+        }
+
+        if (threadCacheSize < 0) {
+            throw new IllegalArgumentException("Thread cache size cannot be less than 0");
+        }
+
+        this.minShift = Integer.numberOfTrailingZeros(minBlockSize);
+        this.maxBlockSize = maxBlockSize;
+
+        int classes = Integer.numberOfTrailingZeros(maxBlockSize) - minShift + 1;
+        this.cacheCapacities = new int[classes];
+        this.shared = new BlockStack[classes];
+        for (int i = 0; i < classes; i++) {
+            int blocks = threadCacheSize >> (minShift + i);
+            cacheCapacities[i] = Math.max(MIN_CACHED_BLOCKS, Math.min(MAX_CACHED_BLOCKS, blocks));
+            shared[i] = new BlockStack();
+        }
+
+        this.caches = new ThreadLocal<ThreadCache>() {
+            @Override
+            protected ThreadCache initialValue() {
+                BlockStack[] stacks = new BlockStack[shared.length];
+                for (int i = 0; i < stacks.length; i++) {
+                    stacks[i] = new BlockStack();
+                }
+
+                ThreadCache cache = new ThreadCache(stacks);
+                cacheStacks.add(stacks);
+                MemoryCleaner.register(cache, new Flush(stacks));
+                return cache;
+            }
+        };
+    }
+
+    /**
+     * Returns the pool used by {@link Sources#pooled(long)}, created
+     * with the default size classes and thread cache size.
+     */
+    public static MemoryPool defaultPool() {
+        return DefaultPoolHolder.POOL;
+    }
+
+    /**
+     * Allocates a source of the given size. The contents of the source are undefined.
+     * @throws IllegalStateException if the pool has been closed.
+     */
+    public PooledSource allocate(long size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Size cannot be less than 0");
+        }
+
+        if (closed) {
+            throw new IllegalStateException("This pool has been closed");
+        }
+
+        allocations.increment();
+        requestedBytes.add(size);
+
+        if (size > maxBlockSize) {
+            usedBytes.add(size);
+            return new PooledSource(this, -1, Unsafe.alloc(size), size);
+        }
+
+        int sizeClass = sizeClassOf(size);
+        long blockSize = blockSize(sizeClass);
+        BlockStack[] stacks = caches.get().stacks;
+        long address = 0;
+
+        synchronized (stacks) {
+            BlockStack stack = stacks[sizeClass];
+            if (stack.count == 0) {
+                synchronized (shared[sizeClass]) {
+                    shared[sizeClass].moveTo(stack, cacheCapacities[sizeClass] / 2);
+                }
+            }
+
+            if (stack.count > 0) {
+                address = stack.pop();
+            }
+        }
+
+        if (address != 0) {
+            hits.increment();
+            pooledBytes.add(-blockSize);
+        } else {
+            address = Unsafe.alloc(blockSize);
+        }
+
+        usedBytes.add(blockSize);
+        return new PooledSource(this, sizeClass, address, size);
+    }
+
+    void free(long address, int sizeClass, long size) {
+        requestedBytes.add(-size);
+
+        if (sizeClass < 0) {
+            usedBytes.add(-size);
+            Unsafe.dealloc(address);
+            return;
+        }
+
+        long blockSize = blockSize(sizeClass);
+        usedBytes.add(-blockSize);
+
+        if (closed) {
+            Unsafe.dealloc(address);
+            return;
+        }
+
+        BlockStack[] stacks = caches.get().stacks;
+        synchronized (stacks) {
+            //Checked again while holding the lock, as the pool may have
+            //been closed, and this cache drained, in the meantime.
+            if (closed) {
+                Unsafe.dealloc(address);
+                return;
+            }
+
+            BlockStack stack = stacks[sizeClass];
+            if (stack.count >= cacheCapacities[sizeClass]) {
+                synchronized (shared[sizeClass]) {
+                    stack.moveTo(shared[sizeClass], cacheCapacities[sizeClass] / 2);
+                }
+            }
+            stack.push(address);
+            pooledBytes.add(blockSize);
+        }
+    }
+
+    /**
+     * Returns to the system all the free blocks held by the pool, both
+     * in the shared free lists and in the thread caches.
+     */
+    public void trim() {
+        for (int i = 0; i < shared.length; i++) {
+            synchronized (shared[i]) {
+                pooledBytes.add(-shared[i].release(blockSize(i)));
+            }
+        }
+
+        for (BlockStack[] stacks : cacheStacks) {
+            synchronized (stacks) {
+                for (int i = 0; i < stacks.length; i++) {
+                    pooledBytes.add(-stacks[i].release(blockSize(i)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Closes the pool, returning all its free blocks to the system. Further
+     * allocations will be rejected, and the blocks of the sources that are
+     * still alive will be returned to the system once they are deallocated.
+     * Calling it more than once has no effect.
+     * @throws UnsupportedOperationException if this is the {@link #defaultPool()}.
+     */
+    @Override
+    public void close() {
+        if (this == DefaultPoolHolder.POOL) {
+            throw new UnsupportedOperationException("The default pool cannot be closed");
+        }
+
+        closed = true;
+        trim();
+    }
+
+    /**
+     * Returns whether the pool has been closed.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Returns a snapshot of the statistics of the pool. As the statistics are
+     * updated concurrently, the values may not be consistent among them.
+     */
+    public Stats stats() {
+        return new Stats(allocations.sum(), hits.sum(), pooledBytes.sum(),
+                usedBytes.sum(), requestedBytes.sum());
+    }
+
+    /**
+     * Returns the size of the block that would be used for a source of the given size.
+     */
+    public long blockSizeFor(long size) {
+        return size > maxBlockSize ? size : blockSize(sizeClassOf(size));
+    }
+
+    private int sizeClassOf(long size) {
+        if (size <= (1L << minShift)) {
+            return 0;
+        }
+        return 64 - Long.numberOfLeadingZeros(size - 1) - minShift;
+    }
+
+    private long blockSize(int sizeClass) {
+        return 1L << (minShift + sizeClass);
+    }
+}
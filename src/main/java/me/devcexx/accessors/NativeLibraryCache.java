@@ -0,0 +1,210 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Set;
+
+/**
+ * Extracts the native libraries bundled as resources into a cache directory, where
+ * they are addressed by the SHA-256 hash of their contents, so every JVM that runs the
+ * same version of the library reuses the same file instead of writing a new one. A cached
+ * file is only reused if its contents still match the hash, and new files are written to a
+ * temporary file that is then atomically renamed, so concurrent JVMs never load a partially
+ * written library.
+ *
+ * As the default directory is in a place where every user can write, on POSIX systems the
+ * directories are created only accessible by the current user, and the cache refuses any
+ * directory or file that is a symbolic link, is owned by another user, or can be written by
+ * its group or by others, as that user could replace the library after it has been verified
+ * and run code inside this process.
+ */
+final class NativeLibraryCache {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final boolean POSIX = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+    private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rwx------");
+
+    private final File directory;
+
+    /**
+     * Creates a cache over the given directory, which is created when
+     * the first library is extracted, if it doesn't exist yet.
+     */
+    NativeLibraryCache(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the default cache directory, which is a directory of the user
+     * inside the temporary directory of the system.
+     */
+    static File defaultDirectory() {
+        return new File(System.getProperty("java.io.tmpdir"),
+                "random-accessors-java-" + System.getProperty("user.name", "unknown"));
+    }
+
+    File directory() {
+        return directory;
+    }
+
+    /**
+     * Returns the cached copy of the given resource, extracting it first if it's not in
+     * the cache yet, or if the cached file doesn't match the contents of the resource.
+     * @param resource the absolute name of the resource.
+     * @param fileName the name the cached file will have.
+     * @return the cached file, or null if the resource doesn't exist.
+     * @throws IOException if the cache directory cannot be created or written, or it is not secure.
+     */
+    File extract(String resource, String fileName) throws IOException {
+        byte[] contents;
+        try (InputStream in = NativeLibraryCache.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                return null;
+            }
+            contents = readFully(in);
+        }
+
+        String hash = hash(contents);
+        Path dir = directory.toPath().resolve(hash);
+        Path file = dir.resolve(fileName);
+
+        createSecureDirectory(directory.toPath());
+        createSecureDirectory(dir);
+
+        if (matches(file, hash, contents.length)) {
+            return file.toFile();
+        }
+
+        //Only the current user can write in the directory, so the file
+        //cannot be replaced once it has been moved into it.
+        Path tmp = Files.createTempFile(dir, fileName, ".tmp");
+        try {
+            try (FileOutputStream out = new FileOutputStream(tmp.toFile())) {
+                out.write(contents);
+                out.getFD().sync();
+            }
+
+            try {
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+
+        if (!matches(file, hash, contents.length)) {
+            throw new IOException("The extracted library " + file + " has been modified");
+        }
+        return file.toFile();
+    }
+
+    /**
+     * Returns whether the given file is a secure copy of the contents with the given hash.
+     */
+    private static boolean matches(Path file, String hash, long length) throws IOException {
+        return Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS) && isSecure(file)
+                && Files.size(file) == length && hash.equals(hash(Files.readAllBytes(file)));
+    }
+
+    /**
+     * Creates the given directory, and any missing parent, only accessible by
+     * the current user, and checks that the directory is secure.
+     */
+    private static void createSecureDirectory(Path dir) throws IOException {
+        if (POSIX) {
+            Files.createDirectories(dir, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+        } else {
+            Files.createDirectories(dir);
+        }
+
+        if (!Files.isDirectory(dir, LinkOption.NOFOLLOW_LINKS) || !isSecure(dir)) {
+            throw new IOException("Refusing to use the cache directory " + dir + ", as it is not a directory "
+                    + "owned by the current user and only writable by it");
+        }
+    }
+
+    /**
+     * Returns whether only the current user can modify the given file or directory:
+     * it must not be a symbolic link, must be owned by the current user, and must not
+     * be writable by its group or by others. Always true on non-POSIX systems.
+     */
+    static boolean isSecure(Path path) throws IOException {
+        if (!POSIX) {
+            return true;
+        }
+
+        PosixFileAttributes attributes = Files.readAttributes(path, PosixFileAttributes.class,
+                LinkOption.NOFOLLOW_LINKS);
+        Set<PosixFilePermission> permissions = attributes.permissions();
+        return !attributes.isSymbolicLink()
+                && attributes.owner().equals(currentUser())
+                && !permissions.contains(PosixFilePermission.GROUP_WRITE)
+                && !permissions.contains(PosixFilePermission.OTHERS_WRITE);
+    }
+
+    private static UserPrincipal currentUser() throws IOException {
+        return FileSystems.getDefault().getUserPrincipalLookupService()
+                .lookupPrincipalByName(System.getProperty("user.name"));
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 16);
+        byte[] buf = new byte[1 << 16];
+        int read;
+        while ((read = in.read(buf)) != -1) {
+            out.write(buf, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Returns the hexadecimal SHA-256 hash of the given contents.
+     */
+    static String hash(byte[] contents) {
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(contents);
+        } catch (NoSuchAlgorithmException e) {
+            //Every Java platform is required to support SHA-256.
+            throw new IllegalStateException(e);
+        }
+
+        char[] hex = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            hex[i * 2] = HEX[(digest[i] >> 4) & 0xf];
+            hex[i * 2 + 1] = HEX[digest[i] & 0xf];
+        }
+        return new String(hex);
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Gives access to parallel variants of the bulk operations of a source. Ranges larger than
+ * a threshold are recursively split in halves, and each half is processed by a task of a
+ * {@link ForkJoinPool}. When the written memory is off-heap, the halves are split at page
+ * boundaries of that memory, so the chunks written by different threads don't share a page,
+ * unless that would split an item, which happens when the range doesn't start at a multiple
+ * of the data size. Ranges below the threshold are processed sequentially by the calling thread.
+ *
+ * Instances are obtained through {@link RandomAccessSource#parallel()} and are immutable.
+ */
+public final class ParallelOperations {
+    /**
+     * The system property that sets the default threshold, in bytes,
+     * from which the operations are split into parallel tasks.
+     */
+    public static final String THRESHOLD_PROPERTY = "me.devcexx.accessors.parallelThreshold";
+
+    static final long DEFAULT_THRESHOLD = Long.getLong(THRESHOLD_PROPERTY, 1L << 24);
+
+    private final RandomAccessSource source;
+    private final ForkJoinPool pool;
+    private final long threshold;
+
+    ParallelOperations(RandomAccessSource source, ForkJoinPool pool, long threshold) {
+        if (threshold < Unsafe.pageSize()) {
+            throw new IllegalArgumentException("Threshold cannot be less than the page size");
+        }
+        this.source = source;
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Returns the source these operations are performed on.
+     */
+    public RandomAccessSource source() {
+        return source;
+    }
+
+    /**
+     * Returns the size, in bytes, from which ranges are split into parallel tasks.
+     */
+    public long threshold() {
+        return threshold;
+    }
+
+    /**
+     * Returns a copy of these operations that splits ranges from the given size.
+     * @param threshold the threshold, which cannot be less than the page size.
+     */
+    public ParallelOperations withThreshold(long threshold) {
+        return new ParallelOperations(source, pool, threshold);
+    }
+
+    /**
+     * Sets the memory of the whole source to the specified value.
+     * @param x the value that will be used to fill the memory of the source.
+     */
+    public void clear(byte x) {
+        clear(x, 0, source.length());
+    }
+
+    /**
+     * Sets the memory of the source to the specified value.
+     * @param x the value that will be used to fill the memory of the source.
+     * @param off the offset, inclusive, where the fill operation will start.
+     * @param length the total amount of bytes that will be cleared.
+     */
+    public void clear(byte x, long off, long length) {
+        source.checkAbleToWrite(off, length);
+        run(off, length, 1, source, 0, (o, n) -> source.clear(x, o, n));
+    }
+
+    /**
+     * Copies a range of the source into another source. See
+     * {@link RandomAccessSource#copyTo(long, RandomAccessSource, long, long)}.
+     * The result of copying overlapping ranges is undefined.
+     */
+    public void copyTo(long srcOff, RandomAccessSource dst, long dstOff, long length) {
+        copyTo(srcOff, dst, dstOff, length, 1, DataOrder.NATIVE_ORDER, DataOrder.NATIVE_ORDER);
+    }
+
+    /**
+     * Copies a range of the source, made of items of the given size, into another source,
+     * converting the byte order of each item. See {@link RandomAccessSource#copyTo(long,
+     * RandomAccessSource, long, long, int, DataOrder, DataOrder)}. The result of copying
+     * overlapping ranges is undefined.
+     */
+    public void copyTo(long srcOff, RandomAccessSource dst, long dstOff, long length,
+                       int dataSize, DataOrder srcOrder, DataOrder dstOrder) {
+        source.checkCopy(srcOff, dst, dstOff, length, dataSize);
+        boolean swap = srcOrder != dstOrder;
+        long delta = dstOff - srcOff;
+        run(srcOff, length, dataSize, dst, delta,
+                (o, n) -> RandomAccessSource.copy(source, o, dst, o + delta, n, dataSize, swap));
+    }
+
+    /**
+     * Reverses in place the bytes of each item of the given size in a range of the
+     * source. See {@link RandomAccessSource#flipOrder(long, long, int)}.
+     * @param off the offset where the range starts.
+     * @param length the length of the range, which must be a multiple of the data size.
+     * @param dataSize the size of each item: 1, 2, 4 or 8 bytes.
+     */
+    public void flipOrder(long off, long length, int dataSize) {
+        source.checkCopy(off, source, off, length, dataSize);
+        run(off, length, dataSize, source, 0, (o, n) -> RandomAccessSource.flip(source, o, n, dataSize));
+    }
+
+    /**
+     * An operation over a range of the source.
+     */
+    private interface RangeOperation {
+        void process(long off, long length);
+    }
+
+    /**
+     * Runs an operation over a range, whose bytes are written into the given source,
+     * displaced by the given delta.
+     */
+    private void run(long off, long length, int dataSize, RandomAccessSource written, long delta,
+                     RangeOperation operation) {
+        if (length <= threshold) {
+            operation.process(off, length);
+        } else {
+            pool.invoke(new RangeTask(operation, dataSize, written, delta, off, length));
+        }
+    }
+
+    /**
+     * Returns the offset where a range larger than a page is split in halves. The split
+     * point is moved back to the start of the page of the written memory that holds it,
+     * as long as that memory is off-heap and the move doesn't split an item. Otherwise,
+     * the range is split at a multiple of the page size from its start, which, since the
+     * page size is a multiple of every data size, doesn't split an item either.
+     */
+    static long splitPoint(RandomAccessSource written, long delta, long off, long length, int dataSize) {
+        long pageSize = Unsafe.pageSize();
+        long mid = off + Math.max(pageSize, length / 2 / pageSize * pageSize);
+
+        long target = mid + delta;
+        if (written.contiguousLength(target) > 0 && written.memoryBase(target) == null) {
+            long aligned = mid - written.memoryOffset(target) % pageSize;
+            if ((aligned - off) % dataSize == 0) {
+                return aligned;
+            }
+        }
+        return mid;
+    }
+
+    /**
+     * Processes a range, splitting it in halves while it is larger than the threshold.
+     */
+    private class RangeTask extends RecursiveAction {
+        private final RangeOperation operation;
+        private final int dataSize;
+        private final RandomAccessSource written;
+        private final long delta;
+        private final long off;
+        private final long length;
+
+        RangeTask(RangeOperation operation, int dataSize, RandomAccessSource written, long delta,
+                  long off, long length) {
+            this.operation = operation;
+            this.dataSize = dataSize;
+            this.written = written;
+            this.delta = delta;
+            this.off = off;
+            this.length = length;
+        }
+
+        @Override
+        protected void compute() {
+            if (length <= threshold) {
+                operation.process(off, length);
+                return;
+            }
+
+            long split = splitPoint(written, delta, off, length, dataSize);
+            invokeAll(new RangeTask(operation, dataSize, written, delta, off, split - off),
+                    new RangeTask(operation, dataSize, written, delta, split, off + length - split));
+        }
+    }
+}
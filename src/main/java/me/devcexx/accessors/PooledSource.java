@@ -0,0 +1,53 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Represents a memory block handed out by a {@link MemoryPool}, which is
+ * returned to the pool when the source is deallocated.
+ */
+public class PooledSource extends DirectMemorySource {
+    private static final AtomicIntegerFieldUpdater<PooledSource> RETURNED =
+            AtomicIntegerFieldUpdater.newUpdater(PooledSource.class, "returned");
+
+    private final MemoryPool pool;
+    private final int sizeClass;
+    private volatile int returned;
+
+    PooledSource(MemoryPool pool, int sizeClass, long address, long length) {
+        super(address, length, null);
+        this.pool = pool;
+        this.sizeClass = sizeClass;
+    }
+
+    /**
+     * Returns the pool this source was allocated from.
+     */
+    public MemoryPool pool() {
+        return pool;
+    }
+
+    @Override
+    public void dealloc() {
+        if (RETURNED.compareAndSet(this, 0, 1)) {
+            deallocated = true;
+            pool.free(address, sizeClass, length);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+/**
+ * Represents a memory source that is backed by a POSIX shared memory object, created
+ * through {@code shm_open} and mapped into the memory of the current process. Unlike
+ * System V segments, these objects are identified by a name chosen by the application,
+ * their size is only limited by the space available in the tmpfs that holds them, and they
+ * can be inspected and removed as regular files of {@code /dev/shm}.
+ */
+public class PosixSharedMemorySource extends DirectMemorySource {
+    /**
+     * Unmaps a shared memory object from the process, unlinking
+     * its name afterwards if requested.
+     */
+    private static class Release implements Runnable {
+        private final String name;
+        private final long address;
+        private final long length;
+        private volatile boolean unlink;
+
+        private Release(String name, long address, long length, boolean unlink) {
+            this.name = name;
+            this.address = address;
+            this.length = length;
+            this.unlink = unlink;
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (length > 0) {
+                    AccessorNatives.munmap(address, length);
+                }
+            } finally {
+                if (unlink) {
+                    AccessorNatives.shm_unlink(name);
+                }
+            }
+        }
+    }
+
+    private final Release release;
+
+    /**
+     * Creates a source over an already existing mapping of a shared memory object.
+     * @param name the name of the shared memory object.
+     * @param address the base address of the mapping, as returned by mmap.
+     * @param length the length of the mapping.
+     * @param unlinkOnDealloc whether the name of the object will be unlinked when
+     *                        the source is deallocated.
+     */
+    public PosixSharedMemorySource(String name, long address, long length, boolean unlinkOnDealloc) {
+        this(length, new Release(name, address, length, unlinkOnDealloc));
+    }
+
+    private PosixSharedMemorySource(long length, Release release) {
+        super(release.address, length, release);
+        this.release = release;
+    }
+
+    /**
+     * Returns the name of the underlying shared memory object.
+     */
+    public String name() {
+        return release.name;
+    }
+
+    /**
+     * Unmaps the shared memory object from the process and unlinks its name, so
+     * it is destroyed as soon as every other process that has it mapped unmaps it.
+     */
+    public void unlink() {
+        release.unlink = true;
+        super.dealloc();
+    }
+
+    /**
+     * Unmaps the shared memory object from the process, without unlinking it.
+     */
+    public void detach() {
+        release.unlink = false;
+        super.dealloc();
+    }
+}
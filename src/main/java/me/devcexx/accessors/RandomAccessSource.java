@@ -19,13 +19,14 @@ package me.devcexx.accessors;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Represents an access source that can read or write data from anywhere of the
  * underlying data storage at any time.
  */
-public abstract class RandomAccessSource {
-    protected final long length;
+public abstract class RandomAccessSource implements AutoCloseable {
+    protected long length;
     protected boolean deallocated;
 
     protected RandomAccessSource(long length) {
@@ -152,6 +153,32 @@ public abstract class RandomAccessSource {
      */
     public abstract ByteBuffer byteBuffer(long off, long length);
 
+    /**
+     * Returns a byte buffer of the given range, like {@link #byteBuffer(long, long)}, that is
+     * only used during a single operation of this library, like a channel transfer, and is never
+     * handed out. Sources whose memory can move, which refuse to hand out byte buffers, override
+     * it to still allow those operations.
+     */
+    ByteBuffer transientByteBuffer(long off, long length) {
+        return byteBuffer(off, length);
+    }
+
+    /**
+     * Returns the parallel variants of the bulk operations of this source, which
+     * split large ranges into chunks processed by the common {@link ForkJoinPool}.
+     */
+    public ParallelOperations parallel() {
+        return new ParallelOperations(this, ForkJoinPool.commonPool(), ParallelOperations.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Returns the parallel variants of the bulk operations of this source, which
+     * split large ranges into chunks processed by the given {@link ForkJoinPool}.
+     */
+    public ParallelOperations parallel(ForkJoinPool pool) {
+        return new ParallelOperations(this, pool, ParallelOperations.DEFAULT_THRESHOLD);
+    }
+
     /**
      * Creates an input stream backed on the current source.
      */
@@ -166,8 +193,21 @@ public abstract class RandomAccessSource {
      * @param length the total amount of bytes that the input stream will be able to read.
      */
     public InputStream inputStream(long offset, long length) {
+        return inputStream(offset, length, true);
+    }
+
+    /**
+     * Creates an input stream backed on the current source.
+     * @param offset the offset from the beginning of the current source where
+     *               the input stream will start to read, inclusive.
+     * @param length the total amount of bytes that the input stream will be able to read.
+     * @param shared whether the stream will be used by several threads at the same time.
+     *               Unshared streams don't need to synchronize their position, so they
+     *               are faster, but they can only be used by a single thread.
+     */
+    public RandomAccessSourceInputStream inputStream(long offset, long length, boolean shared) {
         checkAbleToIO(offset, length);
-        return new RandomAccessSourceInputStream(this, offset, length);
+        return new RandomAccessSourceInputStream(this, offset, length, shared);
     }
 
     /**
@@ -184,8 +224,30 @@ public abstract class RandomAccessSource {
      * @param length the total amount of bytes that the output stream will be able to write.
      */
     public OutputStream outputStream(long offset, long length) {
-        checkAbleToIO(offset, length);
-        return new RandomAccessSourceOutputStream(this, offset, length);
+        return outputStream(offset, length, true);
+    }
+
+    /**
+     * Creates an output stream backed on the current source.
+     * @param offset the offset from the beginning of the current source where
+     *               the output stream will start to write, inclusive.
+     * @param length the total amount of bytes that the output stream will be able to write.
+     * @param shared whether the stream will be used by several threads at the same time.
+     *               Unshared streams don't need to synchronize their position, so they
+     *               are faster, but they can only be used by a single thread.
+     */
+    public RandomAccessSourceOutputStream outputStream(long offset, long length, boolean shared) {
+        checkAbleToWrite(offset, length);
+        return new RandomAccessSourceOutputStream(this, offset, length, shared);
+    }
+
+    /**
+     * Creates a seekable byte channel backed on the current source, placed
+     * at its beginning. The size of the channel is the length of the source.
+     */
+    public SourceByteChannel channel() {
+        checkValid();
+        return new SourceByteChannel(this);
     }
 
 
@@ -216,11 +278,245 @@ public abstract class RandomAccessSource {
         clear(x, from, to - from);
     }
 
+    /**
+     * Copies a range of this source into another source, without staging the data through
+     * intermediate buffers whenever both sources expose their memory directly. Sliced, composite
+     * and segmented sources are copied in a chunk per contiguous region of memory.
+     * @param srcOff the offset of this source where the copied range starts.
+     * @param dst the source the data will be copied to, which may be this same source.
+     *            Overlapping ranges are only copied as if through an intermediate buffer
+     *            if both of them are backed by a single contiguous region of memory.
+     * @param dstOff the offset of the destination source where the data will be copied.
+     * @param length the number of bytes to copy.
+     */
+    public void copyTo(long srcOff, RandomAccessSource dst, long dstOff, long length) {
+        copyTo(srcOff, dst, dstOff, length, 1, DataOrder.NATIVE_ORDER, DataOrder.NATIVE_ORDER);
+    }
+
+    /**
+     * Copies a range of this source, made of items of the given size, into another source,
+     * converting the byte order of each item, without staging the data through intermediate
+     * buffers whenever both sources expose their memory directly. Sliced, composite and segmented
+     * sources are copied in a chunk per contiguous region of memory.
+     * @param srcOff the offset of this source where the copied range starts.
+     * @param dst the source the data will be copied to, which may be this same source.
+     *            Overlapping ranges are only copied as if through an intermediate buffer
+     *            if both of them are backed by a single contiguous region of memory and
+     *            the byte order is not converted.
+     * @param dstOff the offset of the destination source where the data will be copied.
+     * @param length the number of bytes to copy, which must be a multiple of the data size.
+     * @param dataSize the size of each item: 1, 2, 4 or 8 bytes.
+     * @param srcOrder the byte order of the items in this source.
+     * @param dstOrder the byte order the items will have in the destination source.
+     */
+    public void copyTo(long srcOff, RandomAccessSource dst, long dstOff, long length,
+                       int dataSize, DataOrder srcOrder, DataOrder dstOrder) {
+        checkCopy(srcOff, dst, dstOff, length, dataSize);
+        copy(this, srcOff, dst, dstOff, length, dataSize, srcOrder != dstOrder);
+    }
+
+    /**
+     * Checks that a range of this source, made of items of the
+     * given size, can be copied to the given destination range.
+     */
+    void checkCopy(long srcOff, RandomAccessSource dst, long dstOff, long length, int dataSize) {
+        if (dataSize != 1 && dataSize != 2 && dataSize != 4 && dataSize != 8) {
+            throw new IllegalArgumentException("Invalid data size: " + dataSize);
+        }
+        if (length % dataSize != 0) {
+            throw new IllegalArgumentException("Length " + length + " is not a multiple of the data size");
+        }
+        if (!isReadable()) {
+            throw new IllegalStateException("Cannot perform a read operation on this source");
+        }
+        if (!dst.isWritable()) {
+            throw new IllegalStateException("Cannot perform a write operation on this source");
+        }
+
+        checkAbleToIO(srcOff, length);
+        dst.checkAbleToWrite(dstOff, length);
+    }
+
+    /**
+     * Copies a range of another source into this source. This is the same
+     * as calling {@link #copyTo(long, RandomAccessSource, long, long)} on
+     * the other source.
+     * @param dstOff the offset of this source where the data will be copied.
+     * @param src the source the data will be copied from.
+     * @param srcOff the offset of the source where the copied range starts.
+     * @param length the number of bytes to copy.
+     */
+    public void copyFrom(long dstOff, RandomAccessSource src, long srcOff, long length) {
+        src.copyTo(srcOff, this, dstOff, length);
+    }
+
+    /**
+     * Reverses in place the bytes of each item of the given size in a range of this source,
+     * converting the items from big endian to little endian, or vice versa. Off-heap memory
+     * is converted by the native library and arrays by a Java loop, without copying the data
+     * out of the source.
+     * @param off the offset where the range starts.
+     * @param length the length of the range, which must be a multiple of the data size.
+     * @param dataSize the size of each item: 1, 2, 4 or 8 bytes.
+     */
+    public void flipOrder(long off, long length, int dataSize) {
+        checkCopy(off, this, off, length, dataSize);
+        flip(this, off, length, dataSize);
+    }
+
+    /**
+     * Reverses in place the bytes of each item of the given size in the whole source.
+     * See {@link #flipOrder(long, long, int)}.
+     * @param dataSize the size of each item: 1, 2, 4 or 8 bytes.
+     */
+    public void flipOrder(int dataSize) {
+        flipOrder(0, length, dataSize);
+    }
+
+    /**
+     * Converts in place the items of the given size in a range of this source from a
+     * byte order to another one, which has no effect if both orders are the same.
+     * See {@link #flipOrder(long, long, int)}.
+     * @param off the offset where the range starts.
+     * @param length the length of the range, which must be a multiple of the data size.
+     * @param dataSize the size of each item: 1, 2, 4 or 8 bytes.
+     * @param from the current byte order of the items.
+     * @param to the byte order the items will have.
+     */
+    public void convertOrder(long off, long length, int dataSize, DataOrder from, DataOrder to) {
+        if (from != to) {
+            flipOrder(off, length, dataSize);
+        } else {
+            checkCopy(off, this, off, length, dataSize);
+        }
+    }
+
+    /**
+     * Flips a range of a source, without checking the range or the permissions.
+     * Items that don't lie in a region of memory that can be accessed directly
+     * are flipped one by one.
+     */
+    static void flip(RandomAccessSource source, long off, long length, int dataSize) {
+        if (dataSize == 1) {
+            return;
+        }
+
+        while (length > 0) {
+            long n = Math.min(length, source.contiguousLength(off));
+            n -= n % dataSize;
+
+            if (n > 0) {
+                Unsafe.flip(source.memoryBase(off), source.memoryOffset(off), dataSize, n / dataSize);
+            } else {
+                n = dataSize;
+                switch (dataSize) {
+                    case 2:
+                        source.unsafePut(off, source.unsafeGetShort(off, DataOrder.BIG_ENDIAN), DataOrder.LITTLE_ENDIAN);
+                        break;
+                    case 4:
+                        source.unsafePut(off, source.unsafeGetInt(off, DataOrder.BIG_ENDIAN), DataOrder.LITTLE_ENDIAN);
+                        break;
+                    case 8:
+                        source.unsafePut(off, source.unsafeGetLong(off, DataOrder.BIG_ENDIAN), DataOrder.LITTLE_ENDIAN);
+                        break;
+                    default:
+                        break;
+                }
+            }
+
+            off += n;
+            length -= n;
+        }
+    }
+
+    private static final int COPY_STAGING_SIZE = 1 << 16;
+
+    /**
+     * Copies a range between two sources, without checking the ranges or the permissions.
+     * Each contiguous region of memory shared by both ranges is copied through a single
+     * call to {@link Unsafe#copy(Object, long, Object, long, int, long, boolean)}, which in
+     * turn uses either the JVM or the native library, and the regions of sources that don't
+     * expose their memory are staged through a small buffer.
+     */
+    static void copy(RandomAccessSource src, long srcOff, RandomAccessSource dst, long dstOff,
+                     long length, int dataSize, boolean swap) {
+        byte[] staging = null;
+
+        while (length > 0) {
+            long srcRun = src.contiguousLength(srcOff);
+            long dstRun = dst.contiguousLength(dstOff);
+            long n = Math.min(length, Math.min(srcRun, dstRun));
+            n -= n % dataSize;
+
+            if (n > 0) {
+                Unsafe.copy(src.memoryBase(srcOff), src.memoryOffset(srcOff),
+                        dst.memoryBase(dstOff), dst.memoryOffset(dstOff), dataSize, n / dataSize, swap);
+            } else {
+                //Either source doesn't expose its memory, or an item
+                //straddles two of its regions.
+                if (staging == null) {
+                    staging = new byte[(int) Math.min(length, COPY_STAGING_SIZE)];
+                }
+
+                n = Math.min(length, staging.length);
+                n -= n % dataSize;
+                src.unsafeGet(srcOff, staging, 0, (int) n);
+                if (swap) {
+                    Unsafe.copy(staging, 0, staging, 0, dataSize, n / dataSize, true);
+                }
+                dst.unsafePut(dstOff, staging, 0, (int) n);
+            }
+
+            srcOff += n;
+            dstOff += n;
+            length -= n;
+        }
+    }
+
+    /**
+     * Returns the number of bytes, starting at the given offset, that are backed by
+     * a single contiguous region of memory, which can be accessed directly through
+     * {@link #memoryBase(long)} and {@link #memoryOffset(long)}, or 0 if the memory
+     * of this source cannot be accessed directly.
+     */
+    long contiguousLength(long off) {
+        return 0;
+    }
+
+    /**
+     * Returns the array that holds the given offset, or null if it is off-heap. Only
+     * valid when {@link #contiguousLength(long)} is greater than 0 for the same offset;
+     * sources that don't expose their memory throw an {@link UnsupportedOperationException}.
+     */
+    Object memoryBase(long off) {
+        throw new UnsupportedOperationException("The memory of this source cannot be accessed directly");
+    }
+
+    /**
+     * Returns the offset, in bytes, of the given offset inside the array returned by
+     * {@link #memoryBase(long)}, or its address if it is off-heap. Only valid when
+     * {@link #contiguousLength(long)} is greater than 0 for the same offset; sources
+     * that don't expose their memory throw an {@link UnsupportedOperationException}.
+     */
+    long memoryOffset(long off) {
+        throw new UnsupportedOperationException("The memory of this source cannot be accessed directly");
+    }
+
     /**
      * When overriden, deallocates the underlying source from the memory.
+     * Calling it more than once, even concurrently, has no effect.
      */
     public abstract void dealloc();
 
+    /**
+     * Deallocates the source, so it can be used in try-with-resources
+     * statements. This is the same as calling {@link #dealloc()}.
+     */
+    @Override
+    public void close() {
+        dealloc();
+    }
+
     public abstract byte     unsafeGet(long off);
     public abstract short    unsafeGetShort(long off, DataOrder order);
     public abstract char     unsafeGetChar(long off, DataOrder order);
@@ -255,6 +551,67 @@ public abstract class RandomAccessSource {
     public abstract void     unsafePut(long off, float[] buffer, int srcOff, int len, DataOrder order);
     public abstract void     unsafePut(long off, double[] buffer, int srcOff, int len, DataOrder order);
 
+    // Atomic & ordered operations. Values are always read and written in the
+    // native order. The default implementations of the unsafe methods throw
+    // UnsupportedOperationException; sources able to perform these operations
+    // must override them, along with #supportsAtomicAccess and #isAligned.
+
+    public int unsafeGetIntVolatile(long off) {
+        throw unsupportedAtomicAccess();
+    }
+
+    public void unsafePutIntVolatile(long off, int value) {
+        throw unsupportedAtomicAccess();
+    }
+
+    public int unsafeGetIntAcquire(long off) {
+        throw unsupportedAtomicAccess();
+    }
+
+    public void unsafePutIntRelease(long off, int value) {
+        throw unsupportedAtomicAccess();
+    }
+
+    public boolean unsafeCompareAndSetInt(long off, int expected, int value) {
+        throw unsupportedAtomicAccess();
+    }
+
+    public int unsafeGetAndAddInt(long off, int delta) {
+        throw unsupportedAtomicAccess();
+    }
+
+    public int unsafeGetAndSetInt(long off, int value) {
+        throw unsupportedAtomicAccess();
+    }
+
+    public long unsafeGetLongVolatile(long off) {
+        throw unsupportedAtomicAccess();
+    }
+
+    public void unsafePutLongVolatile(long off, long value) {
+        throw unsupportedAtomicAccess();
+    }
+
+    public long unsafeGetLongAcquire(long off) {
+        throw unsupportedAtomicAccess();
+    }
+
+    public void unsafePutLongRelease(long off, long value) {
+        throw unsupportedAtomicAccess();
+    }
+
+    public boolean unsafeCompareAndSetLong(long off, long expected, long value) {
+        throw unsupportedAtomicAccess();
+    }
+
+    public long unsafeGetAndAddLong(long off, long delta) {
+        throw unsupportedAtomicAccess();
+    }
+
+    public long unsafeGetAndSetLong(long off, long value) {
+        throw unsupportedAtomicAccess();
+    }
+
     // Safe & convenience methods
 
     public byte get(long off) {
@@ -387,37 +744,37 @@ public abstract class RandomAccessSource {
     }
 
     public void put(long off, byte x) {
-        checkAbleToIO(off, 1);
+        checkAbleToWrite(off, 1);
         unsafePut(off, x);
     }
 
     public void put(long off, short x, DataOrder order) {
-        checkAbleToIO(off, 2);
+        checkAbleToWrite(off, 2);
         unsafePut(off, x, order);
     }
 
     public void put(long off, char x, DataOrder order) {
-        checkAbleToIO(off, 2);
+        checkAbleToWrite(off, 2);
         unsafePut(off, x, order);
     }
 
     public void put(long off, int x, DataOrder order) {
-        checkAbleToIO(off, 4);
+        checkAbleToWrite(off, 4);
         unsafePut(off, x, order);
     }
 
     public void put(long off, long x, DataOrder order) {
-        checkAbleToIO(off, 8);
+        checkAbleToWrite(off, 8);
         unsafePut(off, x, order);
     }
 
     public void put(long off, float x, DataOrder order) {
-        checkAbleToIO(off, 4);
+        checkAbleToWrite(off, 4);
         unsafePut(off, x, order);
     }
 
     public void put(long off, double x, DataOrder order) {
-        checkAbleToIO(off, 8);
+        checkAbleToWrite(off, 8);
         unsafePut(off, x, order);
     }
 
@@ -427,12 +784,12 @@ public abstract class RandomAccessSource {
 
     public void put(long off, byte[] buf, int srcOff, int length) {
         Validate.checkInRange(buf.length, srcOff, length);
-        checkAbleToIO(off, length);
+        checkAbleToWrite(off, length);
         unsafePut(off, buf, srcOff, length);
     }
 
     public void put(long off, ByteBuffer buf) {
-        checkAbleToIO(off, buf.remaining());
+        checkAbleToWrite(off, buf.remaining());
         unsafePut(off, buf);
     }
 
@@ -442,7 +799,7 @@ public abstract class RandomAccessSource {
 
     public void put(long off, short[] buf, int srcOff, int length, DataOrder order) {
         Validate.checkInRange(buf.length, srcOff, length);
-        checkAbleToIO(off, 2 * length);
+        checkAbleToWrite(off, 2 * length);
         unsafePut(off, buf, srcOff, length, order);
     }
 
@@ -452,7 +809,7 @@ public abstract class RandomAccessSource {
 
     public void put(long off, char[] buf, int srcOff, int length, DataOrder order) {
         Validate.checkInRange(buf.length, srcOff, length);
-        checkAbleToIO(off, 2 * length);
+        checkAbleToWrite(off, 2 * length);
         unsafePut(off, buf, srcOff, length, order);
     }
 
@@ -462,7 +819,7 @@ public abstract class RandomAccessSource {
 
     public void put(long off, int[] buf, int srcOff, int length, DataOrder order) {
         Validate.checkInRange(buf.length, srcOff, length);
-        checkAbleToIO(off, 4 * length);
+        checkAbleToWrite(off, 4 * length);
         unsafePut(off, buf, srcOff, length, order);
     }
 
@@ -472,7 +829,7 @@ public abstract class RandomAccessSource {
 
     public void put(long off, long[] buf, int srcOff, int length, DataOrder order) {
         Validate.checkInRange(buf.length, srcOff, length);
-        checkAbleToIO(off, 8 * length);
+        checkAbleToWrite(off, 8 * length);
         unsafePut(off, buf, srcOff, length, order);
     }
 
@@ -482,7 +839,7 @@ public abstract class RandomAccessSource {
 
     public void put(long off, float[] buf, int srcOff, int length, DataOrder order) {
         Validate.checkInRange(buf.length, srcOff, length);
-        checkAbleToIO(off, 4 * length);
+        checkAbleToWrite(off, 4 * length);
         unsafePut(off, buf, srcOff, length, order);
     }
 
@@ -492,15 +849,499 @@ public abstract class RandomAccessSource {
 
     public void put(long off, double[] buf, int srcOff, int length, DataOrder order) {
         Validate.checkInRange(buf.length, srcOff, length);
-        checkAbleToIO(off, 8 * length);
+        checkAbleToWrite(off, 8 * length);
         unsafePut(off, buf, srcOff, length, order);
     }
 
+    // Strided accesses. Each of them reads or writes count items, the first one at the
+    // given offset and each of the following ones the given stride after the previous one,
+    // so a field can be extracted from, or stored into, an array of fixed-width records.
+    // The whole range is checked once, and if it lies in a single contiguous region of
+    // memory, the items are accessed in a tight loop over that region.
+
+    /**
+     * Checks that count items of the given size, separated by
+     * the given stride, can be accessed from the given offset.
+     * @return the length of the accessed range.
+     */
+    private long checkStrided(long off, long stride, int count, int size, boolean write) {
+        if (stride < 1) {
+            throw new IllegalArgumentException("Stride must be greater than 0");
+        }
+        if (count < 0) {
+            throw new IllegalArgumentException("Count cannot be less than 0");
+        }
+
+        long span = 0;
+        if (count > 0) {
+            if (count - 1 > (Long.MAX_VALUE - size) / stride) {
+                throw new IllegalArgumentException("The strided range overflows");
+            }
+            span = (count - 1) * stride + size;
+        }
+
+        if (write) {
+            if (!isWritable()) {
+                throw new IllegalStateException("Cannot perform a write operation on this source");
+            }
+            checkAbleToWrite(off, span);
+        } else {
+            if (!isReadable()) {
+                throw new IllegalStateException("Cannot perform a read operation on this source");
+            }
+            checkAbleToIO(off, span);
+        }
+        return span;
+    }
+
+    /**
+     * Returns true if the given range lies in a single contiguous region of memory.
+     */
+    private boolean isContiguous(long off, long span) {
+        return span > 0 && contiguousLength(off) >= span;
+    }
+
+    /**
+     * Reads count bytes, separated by the given stride, into the given array.
+     * @param off the offset of the first byte.
+     * @param stride the distance, in bytes, between two consecutive bytes.
+     * @param dst the array where the bytes will be placed.
+     * @param dstOff the index of the array where the first byte will be placed.
+     * @param count the number of bytes to read.
+     */
+    public byte[] get(long off, long stride, byte[] dst, int dstOff, int count) {
+        Validate.checkInRange(dst.length, dstOff, count);
+        long span = checkStrided(off, stride, count, 1, false);
+        if (isContiguous(off, span)) {
+            Unsafe.gather(memoryBase(off), memoryOffset(off), stride, dst, dstOff, count);
+        } else {
+            for (int i = 0; i < count; i++) {
+                dst[dstOff + i] = unsafeGet(off + i * stride);
+            }
+        }
+        return dst;
+    }
+
+    /**
+     * Writes count bytes of the given array, separated by the given stride.
+     * @param off the offset of the first byte.
+     * @param stride the distance, in bytes, between two consecutive bytes.
+     * @param src the array that holds the bytes.
+     * @param srcOff the index of the array of the first byte.
+     * @param count the number of bytes to write.
+     */
+    public void put(long off, long stride, byte[] src, int srcOff, int count) {
+        Validate.checkInRange(src.length, srcOff, count);
+        long span = checkStrided(off, stride, count, 1, true);
+        if (isContiguous(off, span)) {
+            Unsafe.scatter(memoryBase(off), memoryOffset(off), stride, src, srcOff, count);
+        } else {
+            for (int i = 0; i < count; i++) {
+                unsafePut(off + i * stride, src[srcOff + i]);
+            }
+        }
+    }
+
+    /**
+     * Reads count shorts, separated by the given stride, into the given array.
+     * @param off the offset of the first short.
+     * @param stride the distance, in bytes, between the beginning of two consecutive shorts.
+     * @param dst the array where the shorts will be placed.
+     * @param dstOff the index of the array where the first short will be placed.
+     * @param count the number of shorts to read.
+     * @param order the byte order of the shorts in the source.
+     */
+    public short[] get(long off, long stride, short[] dst, int dstOff, int count, DataOrder order) {
+        Validate.checkInRange(dst.length, dstOff, count);
+        long span = checkStrided(off, stride, count, 2, false);
+        if (isContiguous(off, span)) {
+            Unsafe.gather(memoryBase(off), memoryOffset(off), stride, dst, dstOff, count, !order.isNative());
+        } else {
+            for (int i = 0; i < count; i++) {
+                dst[dstOff + i] = unsafeGetShort(off + i * stride, order);
+            }
+        }
+        return dst;
+    }
+
+    /**
+     * Writes count shorts of the given array, separated by the given stride.
+     * @param off the offset of the first short.
+     * @param stride the distance, in bytes, between the beginning of two consecutive shorts.
+     * @param src the array that holds the shorts.
+     * @param srcOff the index of the array of the first short.
+     * @param count the number of shorts to write.
+     * @param order the byte order the shorts will have in the source.
+     */
+    public void put(long off, long stride, short[] src, int srcOff, int count, DataOrder order) {
+        Validate.checkInRange(src.length, srcOff, count);
+        long span = checkStrided(off, stride, count, 2, true);
+        if (isContiguous(off, span)) {
+            Unsafe.scatter(memoryBase(off), memoryOffset(off), stride, src, srcOff, count, !order.isNative());
+        } else {
+            for (int i = 0; i < count; i++) {
+                unsafePut(off + i * stride, src[srcOff + i], order);
+            }
+        }
+    }
+
+    /**
+     * Reads count chars, separated by the given stride, into the given array.
+     * @param off the offset of the first char.
+     * @param stride the distance, in bytes, between the beginning of two consecutive chars.
+     * @param dst the array where the chars will be placed.
+     * @param dstOff the index of the array where the first char will be placed.
+     * @param count the number of chars to read.
+     * @param order the byte order of the chars in the source.
+     */
+    public char[] get(long off, long stride, char[] dst, int dstOff, int count, DataOrder order) {
+        Validate.checkInRange(dst.length, dstOff, count);
+        long span = checkStrided(off, stride, count, 2, false);
+        if (isContiguous(off, span)) {
+            Unsafe.gather(memoryBase(off), memoryOffset(off), stride, dst, dstOff, count, !order.isNative());
+        } else {
+            for (int i = 0; i < count; i++) {
+                dst[dstOff + i] = unsafeGetChar(off + i * stride, order);
+            }
+        }
+        return dst;
+    }
+
+    /**
+     * Writes count chars of the given array, separated by the given stride.
+     * @param off the offset of the first char.
+     * @param stride the distance, in bytes, between the beginning of two consecutive chars.
+     * @param src the array that holds the chars.
+     * @param srcOff the index of the array of the first char.
+     * @param count the number of chars to write.
+     * @param order the byte order the chars will have in the source.
+     */
+    public void put(long off, long stride, char[] src, int srcOff, int count, DataOrder order) {
+        Validate.checkInRange(src.length, srcOff, count);
+        long span = checkStrided(off, stride, count, 2, true);
+        if (isContiguous(off, span)) {
+            Unsafe.scatter(memoryBase(off), memoryOffset(off), stride, src, srcOff, count, !order.isNative());
+        } else {
+            for (int i = 0; i < count; i++) {
+                unsafePut(off + i * stride, src[srcOff + i], order);
+            }
+        }
+    }
+
+    /**
+     * Reads count ints, separated by the given stride, into the given array.
+     * @param off the offset of the first int.
+     * @param stride the distance, in bytes, between the beginning of two consecutive ints.
+     * @param dst the array where the ints will be placed.
+     * @param dstOff the index of the array where the first int will be placed.
+     * @param count the number of ints to read.
+     * @param order the byte order of the ints in the source.
+     */
+    public int[] get(long off, long stride, int[] dst, int dstOff, int count, DataOrder order) {
+        Validate.checkInRange(dst.length, dstOff, count);
+        long span = checkStrided(off, stride, count, 4, false);
+        if (isContiguous(off, span)) {
+            Unsafe.gather(memoryBase(off), memoryOffset(off), stride, dst, dstOff, count, !order.isNative());
+        } else {
+            for (int i = 0; i < count; i++) {
+                dst[dstOff + i] = unsafeGetInt(off + i * stride, order);
+            }
+        }
+        return dst;
+    }
+
+    /**
+     * Writes count ints of the given array, separated by the given stride.
+     * @param off the offset of the first int.
+     * @param stride the distance, in bytes, between the beginning of two consecutive ints.
+     * @param src the array that holds the ints.
+     * @param srcOff the index of the array of the first int.
+     * @param count the number of ints to write.
+     * @param order the byte order the ints will have in the source.
+     */
+    public void put(long off, long stride, int[] src, int srcOff, int count, DataOrder order) {
+        Validate.checkInRange(src.length, srcOff, count);
+        long span = checkStrided(off, stride, count, 4, true);
+        if (isContiguous(off, span)) {
+            Unsafe.scatter(memoryBase(off), memoryOffset(off), stride, src, srcOff, count, !order.isNative());
+        } else {
+            for (int i = 0; i < count; i++) {
+                unsafePut(off + i * stride, src[srcOff + i], order);
+            }
+        }
+    }
+
+    /**
+     * Reads count longs, separated by the given stride, into the given array.
+     * @param off the offset of the first long.
+     * @param stride the distance, in bytes, between the beginning of two consecutive longs.
+     * @param dst the array where the longs will be placed.
+     * @param dstOff the index of the array where the first long will be placed.
+     * @param count the number of longs to read.
+     * @param order the byte order of the longs in the source.
+     */
+    public long[] get(long off, long stride, long[] dst, int dstOff, int count, DataOrder order) {
+        Validate.checkInRange(dst.length, dstOff, count);
+        long span = checkStrided(off, stride, count, 8, false);
+        if (isContiguous(off, span)) {
+            Unsafe.gather(memoryBase(off), memoryOffset(off), stride, dst, dstOff, count, !order.isNative());
+        } else {
+            for (int i = 0; i < count; i++) {
+                dst[dstOff + i] = unsafeGetLong(off + i * stride, order);
+            }
+        }
+        return dst;
+    }
+
+    /**
+     * Writes count longs of the given array, separated by the given stride.
+     * @param off the offset of the first long.
+     * @param stride the distance, in bytes, between the beginning of two consecutive longs.
+     * @param src the array that holds the longs.
+     * @param srcOff the index of the array of the first long.
+     * @param count the number of longs to write.
+     * @param order the byte order the longs will have in the source.
+     */
+    public void put(long off, long stride, long[] src, int srcOff, int count, DataOrder order) {
+        Validate.checkInRange(src.length, srcOff, count);
+        long span = checkStrided(off, stride, count, 8, true);
+        if (isContiguous(off, span)) {
+            Unsafe.scatter(memoryBase(off), memoryOffset(off), stride, src, srcOff, count, !order.isNative());
+        } else {
+            for (int i = 0; i < count; i++) {
+                unsafePut(off + i * stride, src[srcOff + i], order);
+            }
+        }
+    }
+
+    /**
+     * Reads count floats, separated by the given stride, into the given array.
+     * @param off the offset of the first float.
+     * @param stride the distance, in bytes, between the beginning of two consecutive floats.
+     * @param dst the array where the floats will be placed.
+     * @param dstOff the index of the array where the first float will be placed.
+     * @param count the number of floats to read.
+     * @param order the byte order of the floats in the source.
+     */
+    public float[] get(long off, long stride, float[] dst, int dstOff, int count, DataOrder order) {
+        Validate.checkInRange(dst.length, dstOff, count);
+        long span = checkStrided(off, stride, count, 4, false);
+        if (isContiguous(off, span)) {
+            Unsafe.gather(memoryBase(off), memoryOffset(off), stride, dst, dstOff, count, !order.isNative());
+        } else {
+            for (int i = 0; i < count; i++) {
+                dst[dstOff + i] = unsafeGetFloat(off + i * stride, order);
+            }
+        }
+        return dst;
+    }
+
+    /**
+     * Writes count floats of the given array, separated by the given stride.
+     * @param off the offset of the first float.
+     * @param stride the distance, in bytes, between the beginning of two consecutive floats.
+     * @param src the array that holds the floats.
+     * @param srcOff the index of the array of the first float.
+     * @param count the number of floats to write.
+     * @param order the byte order the floats will have in the source.
+     */
+    public void put(long off, long stride, float[] src, int srcOff, int count, DataOrder order) {
+        Validate.checkInRange(src.length, srcOff, count);
+        long span = checkStrided(off, stride, count, 4, true);
+        if (isContiguous(off, span)) {
+            Unsafe.scatter(memoryBase(off), memoryOffset(off), stride, src, srcOff, count, !order.isNative());
+        } else {
+            for (int i = 0; i < count; i++) {
+                unsafePut(off + i * stride, src[srcOff + i], order);
+            }
+        }
+    }
+
+    /**
+     * Reads count doubles, separated by the given stride, into the given array.
+     * @param off the offset of the first double.
+     * @param stride the distance, in bytes, between the beginning of two consecutive doubles.
+     * @param dst the array where the doubles will be placed.
+     * @param dstOff the index of the array where the first double will be placed.
+     * @param count the number of doubles to read.
+     * @param order the byte order of the doubles in the source.
+     */
+    public double[] get(long off, long stride, double[] dst, int dstOff, int count, DataOrder order) {
+        Validate.checkInRange(dst.length, dstOff, count);
+        long span = checkStrided(off, stride, count, 8, false);
+        if (isContiguous(off, span)) {
+            Unsafe.gather(memoryBase(off), memoryOffset(off), stride, dst, dstOff, count, !order.isNative());
+        } else {
+            for (int i = 0; i < count; i++) {
+                dst[dstOff + i] = unsafeGetDouble(off + i * stride, order);
+            }
+        }
+        return dst;
+    }
+
+    /**
+     * Writes count doubles of the given array, separated by the given stride.
+     * @param off the offset of the first double.
+     * @param stride the distance, in bytes, between the beginning of two consecutive doubles.
+     * @param src the array that holds the doubles.
+     * @param srcOff the index of the array of the first double.
+     * @param count the number of doubles to write.
+     * @param order the byte order the doubles will have in the source.
+     */
+    public void put(long off, long stride, double[] src, int srcOff, int count, DataOrder order) {
+        Validate.checkInRange(src.length, srcOff, count);
+        long span = checkStrided(off, stride, count, 8, true);
+        if (isContiguous(off, span)) {
+            Unsafe.scatter(memoryBase(off), memoryOffset(off), stride, src, srcOff, count, !order.isNative());
+        } else {
+            for (int i = 0; i < count; i++) {
+                unsafePut(off + i * stride, src[srcOff + i], order);
+            }
+        }
+    }
+
+    /**
+     * Gets whether this source supports the atomic and ordered operations,
+     * like {@link #compareAndSetInt(long, int, int)} or {@link #putIntRelease(long, int)}.
+     */
+    public boolean supportsAtomicAccess() {
+        return false;
+    }
+
+    /**
+     * Gets whether the given offset of the source is aligned in memory
+     * to the given size, which must be a power of two. Atomic operations
+     * can only be performed over aligned offsets.
+     */
+    public boolean isAligned(long off, int size) {
+        return false;
+    }
+
+    public int getIntVolatile(long off) {
+        checkAtomicAccess(off, 4, false);
+        return unsafeGetIntVolatile(off);
+    }
+
+    public void putIntVolatile(long off, int value) {
+        checkAtomicAccess(off, 4, true);
+        unsafePutIntVolatile(off, value);
+    }
+
+    /**
+     * Reads an int with acquire semantics: no read or write after this one
+     * can be reordered before it.
+     */
+    public int getIntAcquire(long off) {
+        checkAtomicAccess(off, 4, false);
+        return unsafeGetIntAcquire(off);
+    }
+
+    /**
+     * Writes an int with release semantics (also known as lazy set or ordered
+     * write): no read or write before this one can be reordered after it.
+     */
+    public void putIntRelease(long off, int value) {
+        checkAtomicAccess(off, 4, true);
+        unsafePutIntRelease(off, value);
+    }
+
+    public boolean compareAndSetInt(long off, int expected, int value) {
+        checkAtomicAccess(off, 4, true);
+        return unsafeCompareAndSetInt(off, expected, value);
+    }
+
+    public int getAndAddInt(long off, int delta) {
+        checkAtomicAccess(off, 4, true);
+        return unsafeGetAndAddInt(off, delta);
+    }
+
+    public int getAndSetInt(long off, int value) {
+        checkAtomicAccess(off, 4, true);
+        return unsafeGetAndSetInt(off, value);
+    }
+
+    public long getLongVolatile(long off) {
+        checkAtomicAccess(off, 8, false);
+        return unsafeGetLongVolatile(off);
+    }
+
+    public void putLongVolatile(long off, long value) {
+        checkAtomicAccess(off, 8, true);
+        unsafePutLongVolatile(off, value);
+    }
+
+    /**
+     * Reads a long with acquire semantics: no read or write after this one
+     * can be reordered before it.
+     */
+    public long getLongAcquire(long off) {
+        checkAtomicAccess(off, 8, false);
+        return unsafeGetLongAcquire(off);
+    }
+
+    /**
+     * Writes a long with release semantics (also known as lazy set or ordered
+     * write): no read or write before this one can be reordered after it.
+     */
+    public void putLongRelease(long off, long value) {
+        checkAtomicAccess(off, 8, true);
+        unsafePutLongRelease(off, value);
+    }
+
+    public boolean compareAndSetLong(long off, long expected, long value) {
+        checkAtomicAccess(off, 8, true);
+        return unsafeCompareAndSetLong(off, expected, value);
+    }
+
+    public long getAndAddLong(long off, long delta) {
+        checkAtomicAccess(off, 8, true);
+        return unsafeGetAndAddLong(off, delta);
+    }
+
+    public long getAndSetLong(long off, long value) {
+        checkAtomicAccess(off, 8, true);
+        return unsafeGetAndSetLong(off, value);
+    }
+
+    /**
+     * Checks whether an atomic operation of the given size can be performed
+     * at the given offset: the source must support it, the range must be
+     * accessible and the offset must be aligned to the size of the operation.
+     */
+    protected void checkAtomicAccess(long off, int size, boolean write) {
+        if (!supportsAtomicAccess()) {
+            throw unsupportedAtomicAccess();
+        }
+
+        if (write) {
+            checkAbleToWrite(off, size);
+        } else {
+            checkAbleToIO(off, size);
+        }
+
+        if (!isAligned(off, size)) {
+            throw new IllegalArgumentException("Offset " + off + " is not aligned to " + size
+                    + " bytes, as required by atomic operations");
+        }
+    }
+
+    private UnsupportedOperationException unsupportedAtomicAccess() {
+        return new UnsupportedOperationException("Atomic operations are not supported by this source");
+    }
+
     protected void checkAbleToIO(long off, long n) {
         checkNotDeallocated();
         Validate.checkInRange(length, off, n);
     }
 
+    /**
+     * Checks whether the given range can be written. The default implementation
+     * just performs the same checks as {@link #checkAbleToIO(long, long)}.
+     */
+    protected void checkAbleToWrite(long off, long n) {
+        checkAbleToIO(off, n);
+    }
+
     protected final void checkNotDeallocated() {
         if (deallocated()) throw new IllegalStateException(
                 "The underlying buffer of this source has been deallocated and is not longer accessible");
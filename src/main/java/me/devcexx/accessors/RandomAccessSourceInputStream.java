@@ -16,33 +16,54 @@
 
 package me.devcexx.accessors;
 
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 /**
  * An implementation of an {@link InputStream} that is able to read data from an access source.
+ * The stream can be either shared, so it can be safely used by several threads at the same time
+ * without taking any lock, or unshared, which is faster but can only be used by a single thread.
  */
 public class RandomAccessSourceInputStream extends InputStream {
+    private static final int TRANSFER_BUFFER_SIZE = 8192;
+
     private final RandomAccessSource source;
     private final long length;
     private final long startOff;
     private final long endOff;
-    private long off;
+    private final StreamCursor cursor;
 
     /**
-     * Creates a new input stream for reading from the given source.
+     * Creates a new shared input stream for reading from the given source.
      * @param source the backing source.
      * @param startOffset the offset from the beginning of the source from where the input stream
      *                    will start reading.
      * @param length the total amount of bytes that this input stream will be able to read.
      */
     public RandomAccessSourceInputStream(RandomAccessSource source, long startOffset, long length) {
+        this(source, startOffset, length, true);
+    }
+
+    /**
+     * Creates a new input stream for reading from the given source.
+     * @param source the backing source.
+     * @param startOffset the offset from the beginning of the source from where the input stream
+     *                    will start reading.
+     * @param length the total amount of bytes that this input stream will be able to read.
+     * @param shared whether the stream will be used by several threads at the same time.
+     */
+    public RandomAccessSourceInputStream(RandomAccessSource source, long startOffset, long length, boolean shared) {
         Validate.checkInRange(source.length(), startOffset, length);
 
         this.source = source;
         this.startOff = startOffset;
         this.length = length;
         this.endOff = startOff + length;
-        this.off = startOff;
+        this.cursor = StreamCursor.create(startOff, endOff, shared);
     }
 
     /**
@@ -71,8 +92,8 @@ public class RandomAccessSourceInputStream extends InputStream {
      * The offset from the beginning of the source where the input stream
      * is currently placed.
      */
-    public synchronized long offset() {
-        return off;
+    public long offset() {
+        return cursor.get();
     }
 
     /**
@@ -83,25 +104,19 @@ public class RandomAccessSourceInputStream extends InputStream {
     public void seek(long offset) {
         if (offset < this.startOff) throw new IllegalArgumentException("Cannot seek beyond the start offset");
         if (offset > this.endOff) throw new IllegalArgumentException("Cannot seek beyond the limit of the source");
-        synchronized (this) {
-            this.off = offset;
-        }
+        cursor.set(offset);
     }
 
     protected long realAvailable() {
-        return this.endOff - this.off;
+        return this.endOff - cursor.get();
     }
 
     @Override
     public int read() {
         source.checkValid();
-        long readingOff;
-        synchronized (this) {
-            if (this.off != this.endOff) {
-                readingOff = this.off++;
-            } else {
-                return -1;
-            }
+        long readingOff = cursor.claimExactly(1);
+        if (readingOff < 0) {
+            return -1;
         }
         return source.unsafeGet(readingOff) & 0xff;
     }
@@ -110,44 +125,99 @@ public class RandomAccessSourceInputStream extends InputStream {
     public int read(byte[] b, int off, int len) {
         source.checkValid();
         Validate.checkInRange(b.length, off, len);
-        long readingOff;
-        int willRead;
 
-        synchronized (this) {
-            long av = realAvailable();
-            if (av < len) {
-                willRead = (int) av;
-            } else {
-                willRead = len;
-            }
-            readingOff = this.off;
-            this.off += willRead;
-        }
+        long readingOff = cursor.claim(len);
+        int willRead = (int) Math.min(len, endOff - readingOff);
 
         source.unsafeGet(readingOff, b, off, willRead);
         return willRead;
     }
 
-    @Override
-    public long skip(long n) {
-        synchronized (this) {
-            long av = realAvailable();
-            if (av < n) {
-                this.off = this.endOff;
-                return av;
+    /**
+     * Reads up to len bytes from the given offset of the source, without
+     * changing the current offset of the stream.
+     * @param pos the offset from the beginning of the source where the data will be read from.
+     * @param b the buffer where the data will be stored.
+     * @param off the offset of the buffer where the data will be stored.
+     * @param len the maximum number of bytes that will be read.
+     * @return the number of bytes read, which will be less than len if the
+     *         end of the stream is reached.
+     */
+    public int read(long pos, byte[] b, int off, int len) {
+        source.checkValid();
+        Validate.checkInRange(b.length, off, len);
+        if (pos < this.startOff || pos > this.endOff) {
+            throw new IllegalArgumentException("Cannot read out of the bounds of the stream");
+        }
+
+        int willRead = (int) Math.min(len, endOff - pos);
+        source.unsafeGet(pos, b, off, willRead);
+        return willRead;
+    }
+
+    /**
+     * Writes all the remaining bytes of this stream to the given output stream. Instead
+     * of copying the data through an intermediate buffer, the underlying memory is handed
+     * to the target whenever possible: byte array sources pass their backing array, and
+     * off-heap sources are transferred as a direct buffer to other source output streams
+     * and to file output streams.
+     * @param out the stream where the data will be written.
+     * @return the number of transferred bytes.
+     */
+    public long transferTo(OutputStream out) throws IOException {
+        source.checkValid();
+        long start = cursor.claim(Long.MAX_VALUE);
+        long n = endOff - start;
+        long done = 0;
+
+        //If the transfer fails, the bytes that have not been written
+        //are given back, so they can still be read from the stream.
+        try {
+            if (out instanceof RandomAccessSourceOutputStream) {
+                ((RandomAccessSourceOutputStream) out).transferFrom(source, start, n);
+                done = n;
+            } else if (source instanceof ByteArraySource) {
+                ByteArraySource array = (ByteArraySource) source;
+                out.write(array.array(), (int) (array.arrayOffset() + start), (int) n);
+                done = n;
+            } else if (source instanceof DirectMemorySource && out instanceof FileOutputStream) {
+                FileChannel channel = ((FileOutputStream) out).getChannel();
+                while (done < n) {
+                    ByteBuffer buf = source.transientByteBuffer(start + done, Math.min(n - done, Integer.MAX_VALUE));
+                    while (buf.hasRemaining()) {
+                        done += channel.write(buf);
+                    }
+                }
+            } else {
+                byte[] buf = new byte[(int) Math.min(n, TRANSFER_BUFFER_SIZE)];
+                while (done < n) {
+                    int chunk = (int) Math.min(n - done, buf.length);
+                    source.unsafeGet(start + done, buf, 0, chunk);
+                    out.write(buf, 0, chunk);
+                    done += chunk;
+                }
+            }
+        } finally {
+            if (done < n) {
+                cursor.unclaim(start + done, endOff);
             }
+        }
+        return n;
+    }
 
-            this.off += n;
-            return n;
+    @Override
+    public long skip(long n) {
+        if (n <= 0) {
+            return 0;
         }
+
+        long start = cursor.claim(n);
+        return Math.min(n, endOff - start);
     }
 
     @Override
     public int available() {
-        long r;
-        synchronized (this) {
-            r = realAvailable();
-        }
+        long r = realAvailable();
         if (r > Integer.MAX_VALUE) {
             return Integer.MAX_VALUE;
         } else {
@@ -17,34 +17,47 @@
 package me.devcexx.accessors;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 
 /**
  * An implementation of an {@link OutputStream} that is able to write data to an access source.
+ * The stream can be either shared, so it can be safely used by several threads at the same time
+ * without taking any lock, or unshared, which is faster but can only be used by a single thread.
  */
 public class RandomAccessSourceOutputStream extends OutputStream {
     private final RandomAccessSource source;
     private final long length;
     private final long startOff;
     private final long endOff;
-    private long off;
+    private final StreamCursor cursor;
 
     /**
-     * Creates a new output stream for writing to the given source.
+     * Creates a new shared output stream for writing to the given source.
      * @param source the backing source.
      * @param startOffset the offset from the beginning of the source from where the output stream
      *                    will start writing.
      * @param length the total amount of bytes that this input stream will be able to write.
      */
     public RandomAccessSourceOutputStream(RandomAccessSource source, long startOffset, long length) {
+        this(source, startOffset, length, true);
+    }
+
+    /**
+     * Creates a new output stream for writing to the given source.
+     * @param source the backing source.
+     * @param startOffset the offset from the beginning of the source from where the output stream
+     *                    will start writing.
+     * @param length the total amount of bytes that this input stream will be able to write.
+     * @param shared whether the stream will be used by several threads at the same time.
+     */
+    public RandomAccessSourceOutputStream(RandomAccessSource source, long startOffset, long length, boolean shared) {
         Validate.checkInRange(source.length(), startOffset, length);
 
         this.source = source;
         this.startOff = startOffset;
         this.length = length;
         this.endOff = startOff + length;
-        this.off = startOff;
+        this.cursor = StreamCursor.create(startOff, endOff, shared);
     }
 
     /**
@@ -74,8 +87,8 @@ public class RandomAccessSourceOutputStream extends OutputStream {
      * Returns the position of the stream from the beginning of the underlying
      * access source.
      */
-    public synchronized long offset() {
-        return off;
+    public long offset() {
+        return cursor.get();
     }
 
     /**
@@ -88,13 +101,11 @@ public class RandomAccessSourceOutputStream extends OutputStream {
     public void seek(long offset) {
         if (offset < this.startOff) throw new IllegalArgumentException("Cannot seek beyond the start offset");
         if (offset > this.endOff) throw new IllegalArgumentException("Cannot seek beyond the limit of the source");
-        synchronized (this) {
-            this.off = offset;
-        }
+        cursor.set(offset);
     }
 
     protected long availableSpace() {
-        return this.endOff - this.off;
+        return this.endOff - cursor.get();
     }
 
     private void raiseLimitReachedEx() throws IOException {
@@ -104,14 +115,9 @@ public class RandomAccessSourceOutputStream extends OutputStream {
     @Override
     public void write(int b) throws IOException {
         source.checkValid();
-        long writingOff;
-        synchronized (this) {
-            if (this.off != this.endOff) {
-                writingOff = this.off++;
-            } else {
-                raiseLimitReachedEx();
-                return;
-            }
+        long writingOff = cursor.claimExactly(1);
+        if (writingOff < 0) {
+            raiseLimitReachedEx();
         }
         source.unsafePut(writingOff, (byte) (b & 0xff));
     }
@@ -120,22 +126,49 @@ public class RandomAccessSourceOutputStream extends OutputStream {
     public void write(byte[] b, int off, int len) throws IOException {
         source.checkValid();
         Validate.checkInRange(b.length, off, len);
-        long writingOff;
-        int willWrite;
-
-        synchronized (this) {
-            long av = availableSpace();
-            if (av < len) {
-                raiseLimitReachedEx();
-                return;
-            } else {
-                willWrite = len;
-            }
-            writingOff = this.off;
-            this.off += willWrite;
+
+        long writingOff = cursor.claimExactly(len);
+        if (writingOff < 0) {
+            raiseLimitReachedEx();
+        }
+        source.unsafePut(writingOff, b, off, len);
+    }
+
+    /**
+     * Writes len bytes at the given offset of the source, without changing
+     * the current offset of the stream.
+     * @param pos the offset from the beginning of the source where the data will be written.
+     * @param b the buffer that contains the data.
+     * @param off the offset of the buffer where the data starts.
+     * @param len the number of bytes that will be written.
+     *
+     * @throws IOException if the data doesn't fit before the limit of the stream.
+     */
+    public void write(long pos, byte[] b, int off, int len) throws IOException {
+        source.checkValid();
+        Validate.checkInRange(b.length, off, len);
+        if (pos < this.startOff || pos > this.endOff) {
+            throw new IllegalArgumentException("Cannot write out of the bounds of the stream");
+        }
+
+        if (this.endOff - pos < len) {
+            raiseLimitReachedEx();
+        }
+        source.unsafePut(pos, b, off, len);
+    }
+
+    /**
+     * Copies n bytes from the given source into this stream, without
+     * intermediate copies if both sources expose their memory directly.
+     */
+    void transferFrom(RandomAccessSource from, long off, long n) throws IOException {
+        source.checkValid();
+        long writingOff = cursor.claimExactly(n);
+        if (writingOff < 0) {
+            raiseLimitReachedEx();
         }
 
-        source.unsafeGet(writingOff, b, off, willWrite);
+        RandomAccessSource.copy(from, off, source, writingOff, n, 1, false);
     }
 
     @Override
@@ -17,7 +17,7 @@
 package me.devcexx.accessors;
 
 import java.nio.ByteBuffer;
-import java.util.LinkedList;
+import java.util.Arrays;
 
 /**
  * Represents a class able to safely read and write from and to a {@link RandomAccessSource},
@@ -62,9 +62,17 @@ public class RandomAccessor {
         }
     }
 
+    private static final DataOrder[] ORDERS = DataOrder.values();
+    private static final int INITIAL_STACK_CAPACITY = 8;
+    private static final long[] EMPTY_LONGS = new long[0];
+    private static final byte[] EMPTY_BYTES = new byte[0];
+
     private final RandomAccessSource source;
     private final AccessorStateImpl state;
-    private LinkedList<AccessorState> stateStack;
+    private long[] stackPositions = EMPTY_LONGS;
+    private long[] stackLimits = EMPTY_LONGS;
+    private byte[] stackOrders = EMPTY_BYTES;
+    private int stackDepth;
 
     /**
      * Creates a random accessor for the specified source.
@@ -124,6 +132,14 @@ public class RandomAccessor {
         }
     }
 
+    /**
+     * Checks whether the given range can be written. The default implementation
+     * just performs the same checks as {@link #checkLimit(long, long)}.
+     */
+    protected void checkWriteLimit(long off, long n) {
+        checkLimit(off, n);
+    }
+
     /**
      * Gets the current position (the offset of the next byte to read). The value
      * of the position is included in the range [0, length]
@@ -256,12 +272,7 @@ public class RandomAccessor {
      * @return the saved state.
      */
     public AccessorState pushState() {
-        if (stateStack == null) {
-            stateStack = new LinkedList<>();
-        }
-
-        AccessorState state = this.state.copy();
-        this.stateStack.push(state);
+        saveState();
         return this.state.copy();
     }
 
@@ -271,15 +282,62 @@ public class RandomAccessor {
      * @return the popped state, or null if the state stack is empty.
      */
     public AccessorState popState() {
-        if (stateStack == null)
+        if (stackDepth == 0)
             return null;
 
-        AccessorState state = this.stateStack.pop();
-        if (state != null) {
-            this.state.position = state.position();
-            this.state.limit = state.limit();
+        restoreState();
+        return this.state.copy();
+    }
+
+    /**
+     * Pushes the current state onto the state stack, like {@link #pushState()} does,
+     * but without allocating any object. The state stack is kept in primitive arrays
+     * that only need to grow when it gets deeper than it has ever been.
+     * @return a mark that can be passed to {@link #restoreState(int)} to restore this
+     *         state, discarding any other state pushed after it.
+     */
+    public int saveState() {
+        if (stackDepth == stackPositions.length) {
+            int capacity = Math.max(INITIAL_STACK_CAPACITY, stackDepth * 2);
+            stackPositions = Arrays.copyOf(stackPositions, capacity);
+            stackLimits = Arrays.copyOf(stackLimits, capacity);
+            stackOrders = Arrays.copyOf(stackOrders, capacity);
+        }
+
+        stackPositions[stackDepth] = this.state.position;
+        stackLimits[stackDepth] = this.state.limit;
+        stackOrders[stackDepth] = (byte) this.state.order.ordinal();
+        return stackDepth++;
+    }
+
+    /**
+     * Pops the last state pushed onto the state stack and sets it as
+     * the current state for this accessor, without allocating any object.
+     * @throws IllegalStateException if the state stack is empty.
+     */
+    public void restoreState() {
+        if (stackDepth == 0) {
+            throw new IllegalStateException("The state stack is empty");
+        }
+        restoreState(stackDepth - 1);
+    }
+
+    /**
+     * Sets the state saved by the call to {@link #saveState()} that returned the given
+     * mark as the current state for this accessor, popping it and all the states pushed
+     * after it from the state stack.
+     * @param mark a mark returned by {@link #saveState()}.
+     * @throws IllegalStateException if the mark doesn't belong to a state in the stack.
+     */
+    public void restoreState(int mark) {
+        if (mark < 0 || mark >= stackDepth) {
+            throw new IllegalStateException("There is no saved state for the mark " + mark);
         }
-        return state;
+
+        this.state.position = stackPositions[mark];
+        this.state.limit = stackLimits[mark];
+        this.state.order = ORDERS[stackOrders[mark]];
+        this.stackDepth = mark;
     }
 
     /**
@@ -522,7 +580,7 @@ public class RandomAccessor {
     }
 
     public long getLong(DataOrder order) {
-        long x = getLong(position(), order());
+        long x = getLong(position(), order);
         unsafeAdvance(8);
         return x;
     }
@@ -648,7 +706,7 @@ public class RandomAccessor {
     }
 
     public short[] get(long off, short[] buf, int dstOff, int len, DataOrder order) {
-        checkLimit(off, len);
+        checkLimit(off, len * 2L);
         return source.get(off, buf, dstOff, len, order);
     }
 
@@ -687,7 +745,7 @@ public class RandomAccessor {
     }
 
     public char[] get(long off, char[] buf, int dstOff, int len, DataOrder order) {
-        checkLimit(off, len);
+        checkLimit(off, len * 2L);
         return source.get(off, buf, dstOff, len, order);
     }
 
@@ -726,7 +784,7 @@ public class RandomAccessor {
     }
 
     public int[] get(long off, int[] buf, int dstOff, int len, DataOrder order) {
-        checkLimit(off, len);
+        checkLimit(off, len * 4L);
         return source.get(off, buf, dstOff, len, order);
     }
 
@@ -765,7 +823,7 @@ public class RandomAccessor {
     }
 
     public long[] get(long off, long[] buf, int dstOff, int len, DataOrder order) {
-        checkLimit(off, len);
+        checkLimit(off, len * 8L);
         return source.get(off, buf, dstOff, len, order);
     }
 
@@ -804,7 +862,7 @@ public class RandomAccessor {
     }
 
     public float[] get(long off, float[] buf, int dstOff, int len, DataOrder order) {
-        checkLimit(off, len);
+        checkLimit(off, len * 4L);
         return source.get(off, buf, dstOff, len, order);
     }
 
@@ -843,7 +901,7 @@ public class RandomAccessor {
     }
 
     public double[] get(long off, double[] buf, int dstOff, int len, DataOrder order) {
-        checkLimit(off, len);
+        checkLimit(off, len * 8L);
         return source.get(off, buf, dstOff, len, order);
     }
 
@@ -855,7 +913,7 @@ public class RandomAccessor {
     }
 
     public void put(long off, byte x) {
-        checkLimit(off, 1);
+        checkWriteLimit(off, 1);
         source.put(off, x);
     }
 
@@ -872,11 +930,11 @@ public class RandomAccessor {
     }
 
     public void put(long off, short x) {
-        put(position(), x, order());
+        put(off, x, order());
     }
 
     public void put(long off, short x, DataOrder order) {
-        checkLimit(off, 2);
+        checkWriteLimit(off, 2);
         source.put(off, x, order);
     }
 
@@ -893,11 +951,11 @@ public class RandomAccessor {
     }
 
     public void put(long off, char x) {
-        put(position(), x, order());
+        put(off, x, order());
     }
 
     public void put(long off, char x, DataOrder order) {
-        checkLimit(off, 2);
+        checkWriteLimit(off, 2);
         source.put(off, x, order);
     }
 
@@ -914,11 +972,11 @@ public class RandomAccessor {
     }
 
     public void put(long off, int x) {
-        put(position(), x, order());
+        put(off, x, order());
     }
 
     public void put(long off, int x, DataOrder order) {
-        checkLimit(off, 4);
+        checkWriteLimit(off, 4);
         source.put(off, x, order);
     }
 
@@ -935,11 +993,11 @@ public class RandomAccessor {
     }
 
     public void put(long off, long x) {
-        put(position(), x, order());
+        put(off, x, order());
     }
 
     public void put(long off, long x, DataOrder order) {
-        checkLimit(off, 8);
+        checkWriteLimit(off, 8);
         source.put(off, x, order);
     }
 
@@ -956,11 +1014,11 @@ public class RandomAccessor {
     }
 
     public void put(long off, float x) {
-        put(position(), x, order());
+        put(off, x, order());
     }
 
     public void put(long off, float x, DataOrder order) {
-        checkLimit(off, 4);
+        checkWriteLimit(off, 4);
         source.put(off, x, order);
     }
 
@@ -977,11 +1035,11 @@ public class RandomAccessor {
     }
 
     public void put(long off, double x) {
-        put(position(), x, order());
+        put(off, x, order());
     }
 
     public void put(long off, double x, DataOrder order) {
-        checkLimit(off, 8);
+        checkWriteLimit(off, 8);
         source.put(off, x, order);
     }
 
@@ -1001,7 +1059,7 @@ public class RandomAccessor {
     }
 
     public void put(long off, byte[] buf, int srcOff, int length) {
-        checkLimit(off, length);
+        checkWriteLimit(off, length);
         source.put(off, buf, srcOff, length);
     }
 
@@ -1014,7 +1072,7 @@ public class RandomAccessor {
     }
 
     public void put(long off, ByteBuffer buf) {
-        checkLimit(off, buf.remaining());
+        checkWriteLimit(off, buf.remaining());
         source.put(off, buf);
     }
 
@@ -1051,7 +1109,7 @@ public class RandomAccessor {
     }
 
     public void put(long off, short[] buf, int srcOff, int length, DataOrder order) {
-        checkLimit(off, length);
+        checkWriteLimit(off, length * 2L);
         source.put(off, buf, srcOff, length, order);
     }
 
@@ -1088,7 +1146,7 @@ public class RandomAccessor {
     }
 
     public void put(long off, char[] buf, int srcOff, int length, DataOrder order) {
-        checkLimit(off, length);
+        checkWriteLimit(off, length * 2L);
         source.put(off, buf, srcOff, length, order);
     }
 
@@ -1125,7 +1183,7 @@ public class RandomAccessor {
     }
 
     public void put(long off, int[] buf, int srcOff, int length, DataOrder order) {
-        checkLimit(off, length);
+        checkWriteLimit(off, length * 4L);
         source.put(off, buf, srcOff, length, order);
     }
 
@@ -1162,7 +1220,7 @@ public class RandomAccessor {
     }
 
     public void put(long off, long[] buf, int srcOff, int length, DataOrder order) {
-        checkLimit(off, length);
+        checkWriteLimit(off, length * 8L);
         source.put(off, buf, srcOff, length, order);
     }
 
@@ -1199,7 +1257,7 @@ public class RandomAccessor {
     }
 
     public void put(long off, float[] buf, int srcOff, int length, DataOrder order) {
-        checkLimit(off, length);
+        checkWriteLimit(off, length * 4L);
         source.put(off, buf, srcOff, length, order);
     }
 
@@ -1236,7 +1294,81 @@ public class RandomAccessor {
     }
 
     public void put(long off, double[] buf, int srcOff, int length, DataOrder order) {
-        checkLimit(off, length);
+        checkWriteLimit(off, length * 8L);
         source.put(off, buf, srcOff, length, order);
     }
+
+    // Atomic & ordered operations. These are only available at absolute offsets,
+    // always use the native order and require the offset to be aligned to the
+    // size of the value. See RandomAccessSource#isAligned(long, int).
+
+    public int getIntVolatile(long off) {
+        checkLimit(off, 4);
+        return source.getIntVolatile(off);
+    }
+
+    public void putIntVolatile(long off, int x) {
+        checkLimit(off, 4);
+        source.putIntVolatile(off, x);
+    }
+
+    public int getIntAcquire(long off) {
+        checkLimit(off, 4);
+        return source.getIntAcquire(off);
+    }
+
+    public void putIntRelease(long off, int x) {
+        checkLimit(off, 4);
+        source.putIntRelease(off, x);
+    }
+
+    public boolean compareAndSetInt(long off, int expected, int x) {
+        checkLimit(off, 4);
+        return source.compareAndSetInt(off, expected, x);
+    }
+
+    public int getAndAddInt(long off, int delta) {
+        checkLimit(off, 4);
+        return source.getAndAddInt(off, delta);
+    }
+
+    public int getAndSetInt(long off, int x) {
+        checkLimit(off, 4);
+        return source.getAndSetInt(off, x);
+    }
+
+    public long getLongVolatile(long off) {
+        checkLimit(off, 8);
+        return source.getLongVolatile(off);
+    }
+
+    public void putLongVolatile(long off, long x) {
+        checkLimit(off, 8);
+        source.putLongVolatile(off, x);
+    }
+
+    public long getLongAcquire(long off) {
+        checkLimit(off, 8);
+        return source.getLongAcquire(off);
+    }
+
+    public void putLongRelease(long off, long x) {
+        checkLimit(off, 8);
+        source.putLongRelease(off, x);
+    }
+
+    public boolean compareAndSetLong(long off, long expected, long x) {
+        checkLimit(off, 8);
+        return source.compareAndSetLong(off, expected, x);
+    }
+
+    public long getAndAddLong(long off, long delta) {
+        checkLimit(off, 8);
+        return source.getAndAddLong(off, delta);
+    }
+
+    public long getAndSetLong(long off, long x) {
+        checkLimit(off, 8);
+        return source.getAndSetLong(off, x);
+    }
 }
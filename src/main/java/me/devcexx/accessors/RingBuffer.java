@@ -0,0 +1,297 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+/**
+ * A lock-free ring buffer of variable-length records, laid out inside a
+ * source, that supports many concurrent producers and a single consumer.
+ * Since all its state lives in the source, a ring over a
+ * {@link SharedMemorySource} can be used to exchange messages between
+ * different processes, the same way a ring over {@link Sources#alloc(long)}
+ * exchanges them between threads.
+ *
+ * <p>The source starts with the tail and head counters, each one padded to
+ * its own pair of cache lines, followed by the records area, whose capacity
+ * must be a power of two. Each record starts with an 8-byte header holding
+ * its length (header included) and its type, and is aligned to 8 bytes.
+ * Records that would not fit before the end of the area are preceded by a
+ * padding record, so every record is contiguous.</p>
+ *
+ * <p>The source must be filled with zeros before the ring is used for the first
+ * time, as {@link Sources#calloc(long)} or new shared memory segments already are.
+ * Other processes or threads just create their own instance over the same memory.</p>
+ */
+public class RingBuffer {
+    /**
+     * Handles the records read from a ring.
+     */
+    public interface MessageHandler {
+        /**
+         * Called for each read record.
+         * @param type the type of the record.
+         * @param source the source where the ring is laid out.
+         * @param off the offset of the record payload in the source.
+         * @param length the length of the record payload.
+         */
+        void onMessage(int type, RandomAccessSource source, long off, int length);
+    }
+
+    /**
+     * The offset of the tail counter, which is the total number of bytes claimed by producers.
+     */
+    public static final int TAIL_COUNTER_OFFSET = 0;
+
+    /**
+     * The offset of the head counter, which is the total number of bytes consumed.
+     */
+    public static final int HEAD_COUNTER_OFFSET = 128;
+
+    /**
+     * The length of the counters area, from where the records area starts.
+     */
+    public static final int METADATA_LENGTH = 256;
+
+    /**
+     * The length of the header of each record.
+     */
+    public static final int RECORD_HEADER_LENGTH = 8;
+
+    /**
+     * The alignment of every record.
+     */
+    public static final int RECORD_ALIGNMENT = 8;
+
+    /**
+     * The type used by padding records, never passed to the consumer.
+     * Message types must be greater than 0.
+     */
+    public static final int PADDING_TYPE = -1;
+
+    private final RandomAccessSource source;
+    private final int capacity;
+    private final int mask;
+    private final int maxMessageLength;
+
+    /**
+     * Creates a ring laid out in the given source.
+     * @param source a source supporting atomic access, whose length must be
+     *               {@link #METADATA_LENGTH} plus a power of two.
+     */
+    public RingBuffer(RandomAccessSource source) {
+        long capacity = source.length() - METADATA_LENGTH;
+        if (capacity < RECORD_ALIGNMENT || capacity > (1 << 30) || Long.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("The capacity of the ring must be a power of two between "
+                    + RECORD_ALIGNMENT + " and 2^30, but the source length " + source.length()
+                    + " gives a capacity of " + capacity);
+        }
+
+        if (!source.supportsAtomicAccess() || !source.isAligned(0, RECORD_ALIGNMENT)) {
+            throw new IllegalArgumentException("The source must support atomic access and be aligned to "
+                    + RECORD_ALIGNMENT + " bytes");
+        }
+
+        if (!source.isReadable() || !source.isWritable()) {
+            throw new IllegalArgumentException("The source must be readable and writable");
+        }
+
+        this.source = source;
+        this.capacity = (int) capacity;
+        this.mask = this.capacity - 1;
+        this.maxMessageLength = this.capacity / 8;
+    }
+
+    /**
+     * Returns the length a source must have to hold a ring with the given capacity.
+     */
+    public static long requiredLength(int capacity) {
+        return METADATA_LENGTH + (long) capacity;
+    }
+
+    /**
+     * Returns the source where this ring is laid out.
+     */
+    public RandomAccessSource source() {
+        return source;
+    }
+
+    /**
+     * Returns the capacity of the records area.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the maximum length of a record payload.
+     */
+    public int maxMessageLength() {
+        return maxMessageLength;
+    }
+
+    /**
+     * Returns the number of bytes currently claimed and not yet consumed,
+     * including record headers and padding.
+     */
+    public int size() {
+        long head = source.getLongVolatile(HEAD_COUNTER_OFFSET);
+        long tail = source.getLongVolatile(TAIL_COUNTER_OFFSET);
+        return (int) (tail - head);
+    }
+
+    /**
+     * Claims space for a record with a payload of the given length. The payload
+     * must be written at the returned offset of the {@link #source()}, and then
+     * the record must be published with {@link #commit(long)}, or discarded with
+     * {@link #abort(long)}. The consumer will not see any later record until then.
+     * @param type the type of the record. Must be greater than 0.
+     * @param length the length of the payload.
+     * @return the offset of the payload in the source, or -1 if the ring is full.
+     */
+    public long claim(int type, int length) {
+        if (type <= 0) {
+            throw new IllegalArgumentException("Message type must be greater than 0");
+        }
+
+        if (length < 0 || length > maxMessageLength) {
+            throw new IllegalArgumentException("Message length must be between 0 and " + maxMessageLength);
+        }
+
+        int recordLength = length + RECORD_HEADER_LENGTH;
+        int required = align(recordLength);
+        long tail;
+        int padding;
+
+        do {
+            long head = source.unsafeGetLongVolatile(HEAD_COUNTER_OFFSET);
+            tail = source.unsafeGetLongVolatile(TAIL_COUNTER_OFFSET);
+
+            int available = capacity - (int) (tail - head);
+            int toEnd = capacity - (int) (tail & mask);
+            padding = required > toEnd ? toEnd : 0;
+
+            if (required + padding > available) {
+                return -1;
+            }
+        } while (!source.unsafeCompareAndSetLong(TAIL_COUNTER_OFFSET, tail, tail + required + padding));
+
+        long recordOffset = recordOffset(tail);
+        if (padding != 0) {
+            source.unsafePut(recordOffset + 4, PADDING_TYPE, DataOrder.NATIVE_ORDER);
+            source.unsafePutIntRelease(recordOffset, padding);
+            recordOffset = METADATA_LENGTH;
+        }
+
+        source.unsafePut(recordOffset + 4, type, DataOrder.NATIVE_ORDER);
+        source.unsafePutIntRelease(recordOffset, -recordLength);
+        return recordOffset + RECORD_HEADER_LENGTH;
+    }
+
+    /**
+     * Publishes a record previously claimed with {@link #claim(int, int)}.
+     * @param off the offset of the payload returned by {@link #claim(int, int)}.
+     */
+    public void commit(long off) {
+        long recordOffset = off - RECORD_HEADER_LENGTH;
+        int recordLength = source.unsafeGetInt(recordOffset, DataOrder.NATIVE_ORDER);
+        source.unsafePutIntRelease(recordOffset, -recordLength);
+    }
+
+    /**
+     * Discards a record previously claimed with {@link #claim(int, int)}, so
+     * the consumer will skip it.
+     * @param off the offset of the payload returned by {@link #claim(int, int)}.
+     */
+    public void abort(long off) {
+        long recordOffset = off - RECORD_HEADER_LENGTH;
+        int recordLength = source.unsafeGetInt(recordOffset, DataOrder.NATIVE_ORDER);
+        source.unsafePut(recordOffset + 4, PADDING_TYPE, DataOrder.NATIVE_ORDER);
+        source.unsafePutIntRelease(recordOffset, -recordLength);
+    }
+
+    /**
+     * Writes a whole record.
+     * @param type the type of the record. Must be greater than 0.
+     * @param buf the array that contains the payload.
+     * @param off the offset of the payload in the array.
+     * @param length the length of the payload.
+     * @return true if the record was written, or false if the ring is full.
+     */
+    public boolean write(int type, byte[] buf, int off, int length) {
+        Validate.checkInRange(buf.length, off, length);
+        long payloadOffset = claim(type, length);
+        if (payloadOffset < 0) {
+            return false;
+        }
+
+        source.unsafePut(payloadOffset, buf, off, length);
+        commit(payloadOffset);
+        return true;
+    }
+
+    /**
+     * Reads all the available records, up to the given limit, passing them to
+     * the handler in order. Only one thread can read from the ring at once.
+     * Records are read until the end of the records area at most, so a
+     * single call never wraps around it.
+     * @param handler the handler of the records.
+     * @param limit the maximum number of records that will be read.
+     * @return the number of records read.
+     */
+    public int read(MessageHandler handler, int limit) {
+        long head = source.unsafeGetLongVolatile(HEAD_COUNTER_OFFSET);
+        int headIndex = (int) (head & mask);
+        int maxBlockLength = capacity - headIndex;
+        int bytesRead = 0;
+        int messagesRead = 0;
+
+        try {
+            while (bytesRead < maxBlockLength && messagesRead < limit) {
+                long recordOffset = METADATA_LENGTH + headIndex + bytesRead;
+                int recordLength = source.unsafeGetIntVolatile(recordOffset);
+                if (recordLength <= 0) {
+                    break;
+                }
+
+                bytesRead += align(recordLength);
+                int type = source.unsafeGetInt(recordOffset + 4, DataOrder.NATIVE_ORDER);
+                if (type == PADDING_TYPE) {
+                    continue;
+                }
+
+                messagesRead++;
+                handler.onMessage(type, source, recordOffset + RECORD_HEADER_LENGTH,
+                        recordLength - RECORD_HEADER_LENGTH);
+            }
+        } finally {
+            if (bytesRead != 0) {
+                //Zero the consumed space, so the next time it's read it doesn't look like committed records.
+                source.clear((byte) 0, METADATA_LENGTH + headIndex, bytesRead);
+                source.unsafePutLongRelease(HEAD_COUNTER_OFFSET, head + bytesRead);
+            }
+        }
+
+        return messagesRead;
+    }
+
+    private long recordOffset(long counter) {
+        return METADATA_LENGTH + (counter & mask);
+    }
+
+    private static int align(int length) {
+        return (length + RECORD_ALIGNMENT - 1) & -RECORD_ALIGNMENT;
+    }
+}
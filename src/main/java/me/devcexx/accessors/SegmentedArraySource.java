@@ -0,0 +1,506 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Represents a heap source backed by a chain of byte arrays, or segments, so it
+ * can be larger than the 2 GiB a single array can hold, while each segment stays
+ * small enough to be handled efficiently by the garbage collector. All segments
+ * have the same power of two size, except the last one, which is only as large
+ * as needed, so offsets are translated to a segment and an offset in the segment
+ * with a shift and a mask. Accesses that straddle the boundary between two
+ * segments are transparently split between them.
+ */
+public class SegmentedArraySource extends RandomAccessSource {
+    /**
+     * The default size of the segments.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 1 << 26;
+
+    private byte[][] segments;
+    private final int shift;
+    private final int mask;
+
+    /**
+     * Creates a source of the given length, allocating its segments.
+     * @param length the length of the source.
+     * @param segmentSize the size of the segments, which must be a power of two.
+     */
+    public SegmentedArraySource(long length, int segmentSize) {
+        super(length);
+
+        if (segmentSize <= 0 || Integer.bitCount(segmentSize) != 1) {
+            throw new IllegalArgumentException("Segment size must be a power of two");
+        }
+
+        this.shift = Integer.numberOfTrailingZeros(segmentSize);
+        this.mask = segmentSize - 1;
+
+        long count = (length >>> shift) + ((length & mask) != 0 ? 1 : 0);
+        if (count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many segments for a source of length " + length);
+        }
+
+        this.segments = new byte[(int) count][];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new byte[(int) Math.min(segmentSize, length - ((long) i << shift))];
+        }
+    }
+
+    /**
+     * Returns the size of the segments of this source.
+     */
+    public int segmentSize() {
+        return mask + 1;
+    }
+
+    /**
+     * Returns the number of segments of this source.
+     */
+    public int segmentCount() {
+        return segments.length;
+    }
+
+    /**
+     * Returns the segment at the given index. Changes on the segment
+     * will be reflected in the source, and vice versa.
+     */
+    public byte[] segment(int index) {
+        checkNotDeallocated();
+        return segments[index];
+    }
+
+    /**
+     * Returns a byte buffer wrapping the given range, which must be
+     * entirely contained in a single segment.
+     */
+    @Override
+    public ByteBuffer byteBuffer(long off, long length) {
+        checkAbleToIO(off, length);
+
+        int segmentOff = (int) (off & mask);
+        if (length > 0 && segmentOff + length > segmentSize()) {
+            throw new IllegalArgumentException("Cannot create a byte buffer spanning several segments");
+        }
+
+        return ByteBuffer.wrap(segmentOf(off), segmentOff, (int) length).slice();
+    }
+
+    @Override
+    public void clear(byte x, long off, long length) {
+        checkAbleToWrite(off, length);
+        while (length > 0) {
+            int segmentOff = (int) (off & mask);
+            int n = (int) Math.min(length, segmentSize() - segmentOff);
+            Arrays.fill(segmentOf(off), segmentOff, segmentOff + n, x);
+            off += n;
+            length -= n;
+        }
+    }
+
+    @Override
+    public void dealloc() {
+        segments = null;
+        deallocated = true;
+    }
+
+    private byte[] segmentOf(long off) {
+        return segments[(int) (off >>> shift)];
+    }
+
+    private boolean straddles(long off, int size) {
+        return (off & mask) > mask + 1 - size;
+    }
+
+    /**
+     * Reads a value of the given size byte by byte, so it can straddle two
+     * segments. The bytes are returned in big endian order, so they must be
+     * reversed to decode little endian values.
+     */
+    private long getStraddling(long off, int size, DataOrder order) {
+        long value = 0;
+        for (int i = 0; i < size; i++) {
+            value = (value << 8) | (unsafeGet(off + i) & 0xff);
+        }
+        return order == DataOrder.BIG_ENDIAN ? value : Long.reverseBytes(value) >>> (64 - size * 8);
+    }
+
+    private void putStraddling(long off, int size, long value, DataOrder order) {
+        if (order == DataOrder.BIG_ENDIAN) {
+            value = Long.reverseBytes(value) >>> (64 - size * 8);
+        }
+
+        for (int i = 0; i < size; i++, value >>>= 8) {
+            unsafePut(off + i, (byte) value);
+        }
+    }
+
+    @Override
+    public byte unsafeGet(long off) {
+        return segmentOf(off)[(int) (off & mask)];
+    }
+
+    @Override
+    public short unsafeGetShort(long off, DataOrder order) {
+        if (straddles(off, 2)) {
+            return (short) getStraddling(off, 2, order);
+        }
+        return ArrayAccess.getShort(segmentOf(off), (int) (off & mask), order);
+    }
+
+    @Override
+    public char unsafeGetChar(long off, DataOrder order) {
+        if (straddles(off, 2)) {
+            return (char) getStraddling(off, 2, order);
+        }
+        return ArrayAccess.getChar(segmentOf(off), (int) (off & mask), order);
+    }
+
+    @Override
+    public int unsafeGetInt(long off, DataOrder order) {
+        if (straddles(off, 4)) {
+            return (int) getStraddling(off, 4, order);
+        }
+        return ArrayAccess.getInt(segmentOf(off), (int) (off & mask), order);
+    }
+
+    @Override
+    public long unsafeGetLong(long off, DataOrder order) {
+        if (straddles(off, 8)) {
+            return getStraddling(off, 8, order);
+        }
+        return ArrayAccess.getLong(segmentOf(off), (int) (off & mask), order);
+    }
+
+    @Override
+    public float unsafeGetFloat(long off, DataOrder order) {
+        return Float.intBitsToFloat(unsafeGetInt(off, order));
+    }
+
+    @Override
+    public double unsafeGetDouble(long off, DataOrder order) {
+        return Double.longBitsToDouble(unsafeGetLong(off, order));
+    }
+
+    @Override
+    public void unsafePut(long off, byte value) {
+        segmentOf(off)[(int) (off & mask)] = value;
+    }
+
+    @Override
+    public void unsafePut(long off, short value, DataOrder order) {
+        if (straddles(off, 2)) {
+            putStraddling(off, 2, value, order);
+        } else {
+            ArrayAccess.putShort(segmentOf(off), (int) (off & mask), value, order);
+        }
+    }
+
+    @Override
+    public void unsafePut(long off, char value, DataOrder order) {
+        if (straddles(off, 2)) {
+            putStraddling(off, 2, value, order);
+        } else {
+            ArrayAccess.putChar(segmentOf(off), (int) (off & mask), value, order);
+        }
+    }
+
+    @Override
+    public void unsafePut(long off, int value, DataOrder order) {
+        if (straddles(off, 4)) {
+            putStraddling(off, 4, value, order);
+        } else {
+            ArrayAccess.putInt(segmentOf(off), (int) (off & mask), value, order);
+        }
+    }
+
+    @Override
+    public void unsafePut(long off, long value, DataOrder order) {
+        if (straddles(off, 8)) {
+            putStraddling(off, 8, value, order);
+        } else {
+            ArrayAccess.putLong(segmentOf(off), (int) (off & mask), value, order);
+        }
+    }
+
+    @Override
+    public void unsafePut(long off, float value, DataOrder order) {
+        unsafePut(off, Float.floatToRawIntBits(value), order);
+    }
+
+    @Override
+    public void unsafePut(long off, double value, DataOrder order) {
+        unsafePut(off, Double.doubleToRawLongBits(value), order);
+    }
+
+    /**
+     * Copies len items from the source to the given array, one segment at a time.
+     * Items straddling two segments are copied byte by byte.
+     */
+    private void readToArray(long off, Object buf, int dataSize, int dstOff, int len, DataOrder order) {
+        boolean swap = dataSize > 1 && !order.isNative();
+        long dst = (long) dstOff * dataSize;
+
+        while (len > 0) {
+            byte[] segment = segmentOf(off);
+            int segmentOff = (int) (off & mask);
+            int n = Math.min(len, (segmentSize() - segmentOff) / dataSize);
+
+            if (n > 0) {
+                Unsafe.copy(segment, segmentOff, buf, dst, dataSize, n, swap);
+            } else {
+                n = 1;
+                for (int i = 0; i < dataSize; i++) {
+                    long pos = off + i;
+                    Unsafe.copy(segmentOf(pos), pos & mask, buf,
+                            dst + (swap ? dataSize - 1 - i : i), 1, 1, false);
+                }
+            }
+
+            off += (long) n * dataSize;
+            dst += (long) n * dataSize;
+            len -= n;
+        }
+    }
+
+    /**
+     * Copies len items from the given array to the source, one segment at a time.
+     * Items straddling two segments are copied byte by byte.
+     */
+    private void writeFromArray(long off, Object buf, int dataSize, int srcOff, int len, DataOrder order) {
+        boolean swap = dataSize > 1 && !order.isNative();
+        long src = (long) srcOff * dataSize;
+
+        while (len > 0) {
+            byte[] segment = segmentOf(off);
+            int segmentOff = (int) (off & mask);
+            int n = Math.min(len, (segmentSize() - segmentOff) / dataSize);
+
+            if (n > 0) {
+                Unsafe.copy(buf, src, segment, segmentOff, dataSize, n, swap);
+            } else {
+                n = 1;
+                for (int i = 0; i < dataSize; i++) {
+                    long pos = off + i;
+                    Unsafe.copy(buf, src + (swap ? dataSize - 1 - i : i),
+                            segmentOf(pos), pos & mask, 1, 1, false);
+                }
+            }
+
+            off += (long) n * dataSize;
+            src += (long) n * dataSize;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void unsafeGet(long off, byte[] buffer, int dstOff, int len) {
+        readToArray(off, buffer, 1, dstOff, len, DataOrder.NATIVE_ORDER);
+    }
+
+    @Override
+    public void unsafeGet(long off, ByteBuffer buf) {
+        while (buf.hasRemaining()) {
+            int segmentOff = (int) (off & mask);
+            int n = Math.min(buf.remaining(), segmentSize() - segmentOff);
+            buf.put(segmentOf(off), segmentOff, n);
+            off += n;
+        }
+    }
+
+    @Override
+    public void unsafeGet(long off, char[] buffer, int dstOff, int len, DataOrder order) {
+        readToArray(off, buffer, 2, dstOff, len, order);
+    }
+
+    @Override
+    public void unsafeGet(long off, short[] buffer, int dstOff, int len, DataOrder order) {
+        readToArray(off, buffer, 2, dstOff, len, order);
+    }
+
+    @Override
+    public void unsafeGet(long off, int[] buffer, int dstOff, int len, DataOrder order) {
+        readToArray(off, buffer, 4, dstOff, len, order);
+    }
+
+    @Override
+    public void unsafeGet(long off, long[] buffer, int dstOff, int len, DataOrder order) {
+        readToArray(off, buffer, 8, dstOff, len, order);
+    }
+
+    @Override
+    public void unsafeGet(long off, float[] buffer, int dstOff, int len, DataOrder order) {
+        readToArray(off, buffer, 4, dstOff, len, order);
+    }
+
+    @Override
+    public void unsafeGet(long off, double[] buffer, int dstOff, int len, DataOrder order) {
+        readToArray(off, buffer, 8, dstOff, len, order);
+    }
+
+    @Override
+    public void unsafePut(long off, byte[] buffer, int srcOff, int len) {
+        writeFromArray(off, buffer, 1, srcOff, len, DataOrder.NATIVE_ORDER);
+    }
+
+    @Override
+    public void unsafePut(long off, ByteBuffer buf) {
+        while (buf.hasRemaining()) {
+            int segmentOff = (int) (off & mask);
+            int n = Math.min(buf.remaining(), segmentSize() - segmentOff);
+            buf.get(segmentOf(off), segmentOff, n);
+            off += n;
+        }
+    }
+
+    @Override
+    public void unsafePut(long off, short[] buffer, int srcOff, int len, DataOrder order) {
+        writeFromArray(off, buffer, 2, srcOff, len, order);
+    }
+
+    @Override
+    public void unsafePut(long off, char[] buffer, int srcOff, int len, DataOrder order) {
+        writeFromArray(off, buffer, 2, srcOff, len, order);
+    }
+
+    @Override
+    public void unsafePut(long off, int[] buffer, int srcOff, int len, DataOrder order) {
+        writeFromArray(off, buffer, 4, srcOff, len, order);
+    }
+
+    @Override
+    public void unsafePut(long off, long[] buffer, int srcOff, int len, DataOrder order) {
+        writeFromArray(off, buffer, 8, srcOff, len, order);
+    }
+
+    @Override
+    public void unsafePut(long off, float[] buffer, int srcOff, int len, DataOrder order) {
+        writeFromArray(off, buffer, 4, srcOff, len, order);
+    }
+
+    @Override
+    public void unsafePut(long off, double[] buffer, int srcOff, int len, DataOrder order) {
+        writeFromArray(off, buffer, 8, srcOff, len, order);
+    }
+
+    @Override
+    public boolean supportsAtomicAccess() {
+        return true;
+    }
+
+    /**
+     * Segments are arrays, which are always aligned at least to 8 bytes in memory, and
+     * have a power of two size, so aligned values never straddle two segments as long
+     * as they are not larger than a segment.
+     */
+    @Override
+    public boolean isAligned(long off, int size) {
+        return size <= 8 && size <= segmentSize() && (off & (size - 1)) == 0;
+    }
+
+    private long segmentAddressOffset(long off) {
+        return Unsafe.BYTE_ARRAY_BASE_OFFSET + (off & mask);
+    }
+
+    @Override
+    public int unsafeGetIntVolatile(long off) {
+        return Unsafe.getIntVolatile(segmentOf(off), segmentAddressOffset(off));
+    }
+
+    @Override
+    public void unsafePutIntVolatile(long off, int value) {
+        Unsafe.putIntVolatile(segmentOf(off), segmentAddressOffset(off), value);
+    }
+
+    @Override
+    public int unsafeGetIntAcquire(long off) {
+        return Unsafe.getIntAcquire(segmentOf(off), segmentAddressOffset(off));
+    }
+
+    @Override
+    public void unsafePutIntRelease(long off, int value) {
+        Unsafe.putIntRelease(segmentOf(off), segmentAddressOffset(off), value);
+    }
+
+    @Override
+    public boolean unsafeCompareAndSetInt(long off, int expected, int value) {
+        return Unsafe.compareAndSetInt(segmentOf(off), segmentAddressOffset(off), expected, value);
+    }
+
+    @Override
+    public int unsafeGetAndAddInt(long off, int delta) {
+        return Unsafe.getAndAddInt(segmentOf(off), segmentAddressOffset(off), delta);
+    }
+
+    @Override
+    public int unsafeGetAndSetInt(long off, int value) {
+        return Unsafe.getAndSetInt(segmentOf(off), segmentAddressOffset(off), value);
+    }
+
+    @Override
+    public long unsafeGetLongVolatile(long off) {
+        return Unsafe.getLongVolatile(segmentOf(off), segmentAddressOffset(off));
+    }
+
+    @Override
+    public void unsafePutLongVolatile(long off, long value) {
+        Unsafe.putLongVolatile(segmentOf(off), segmentAddressOffset(off), value);
+    }
+
+    @Override
+    public long unsafeGetLongAcquire(long off) {
+        return Unsafe.getLongAcquire(segmentOf(off), segmentAddressOffset(off));
+    }
+
+    @Override
+    public void unsafePutLongRelease(long off, long value) {
+        Unsafe.putLongRelease(segmentOf(off), segmentAddressOffset(off), value);
+    }
+
+    @Override
+    public boolean unsafeCompareAndSetLong(long off, long expected, long value) {
+        return Unsafe.compareAndSetLong(segmentOf(off), segmentAddressOffset(off), expected, value);
+    }
+
+    @Override
+    public long unsafeGetAndAddLong(long off, long delta) {
+        return Unsafe.getAndAddLong(segmentOf(off), segmentAddressOffset(off), delta);
+    }
+
+    @Override
+    public long unsafeGetAndSetLong(long off, long value) {
+        return Unsafe.getAndSetLong(segmentOf(off), segmentAddressOffset(off), value);
+    }
+
+    @Override
+    long contiguousLength(long off) {
+        return Math.min(length - off, segmentSize() - (off & mask));
+    }
+
+    @Override
+    Object memoryBase(long off) {
+        return segmentOf(off);
+    }
+
+    @Override
+    long memoryOffset(long off) {
+        return off & mask;
+    }
+}
@@ -20,23 +20,47 @@ package me.devcexx.accessors;
  * Represents a memory source that is backend in a System V shared memory region.
  */
 public class SharedMemorySource extends DirectMemorySource {
-    private final int shmid;
-    private final boolean destroyOnDealloc;
+    /**
+     * Detaches a shared memory region from the process, destroying it
+     * afterwards if requested.
+     */
+    private static class Detach implements Runnable {
+        private final int shmid;
+        private final long address;
+        private volatile boolean destroy;
+
+        private Detach(int shmid, long address, boolean destroy) {
+            this.shmid = shmid;
+            this.address = address;
+            this.destroy = destroy;
+        }
+
+        @Override
+        public void run() {
+            AccessorNatives.shmdt(address);
+            if (destroy) {
+                AccessorNatives.shmctl(shmid, AccessorNatives.IPC_RMID, 0);
+            }
+        }
+    }
+
+    private final Detach detach;
+
     public SharedMemorySource(int shmid, long address, long length, boolean destroyOnDealloc) {
-        super(address, length);
-        this.destroyOnDealloc = destroyOnDealloc;
-        this.shmid = shmid;
+        this(length, new Detach(shmid, address, destroyOnDealloc));
+    }
+
+    private SharedMemorySource(long length, Detach detach) {
+        super(detach.address, length, detach);
+        this.detach = detach;
     }
 
     /**
      * Detaches and destroys the current attached region from the system.
      */
     public void destroyRegion() {
-        if (!deallocated) {
-            detach();
-            AccessorNatives.shmctl(shmid, AccessorNatives.IPC_RMID, 0);
-            deallocated = true;
-        }
+        detach.destroy = true;
+        super.dealloc();
     }
 
     /**
@@ -44,21 +68,7 @@ public class SharedMemorySource extends DirectMemorySource {
      * removing it.
      */
     public void detach() {
-        if (!deallocated) {
-            AccessorNatives.shmdt(address());
-            deallocated = true;
-        }
-    }
-
-    @Override
-    public void dealloc() {
-        if (!deallocated) {
-            if (destroyOnDealloc) {
-                destroyRegion();
-            } else {
-                detach();
-            }
-            deallocated = true;
-        }
+        detach.destroy = false;
+        super.dealloc();
     }
 }
@@ -48,6 +48,20 @@ public class SlicedSource extends RandomAccessSource {
         this.permissions = source.getPermissions() & permMask;
     }
 
+    /**
+     * Returns the source this one is backed on.
+     */
+    RandomAccessSource underlying() {
+        return source;
+    }
+
+    /**
+     * Returns the offset of the underlying source where this one starts.
+     */
+    long underlyingOffset() {
+        return pf;
+    }
+
     @Override
     public final int getPermissions() {
         return permissions;
@@ -63,11 +77,12 @@ public class SlicedSource extends RandomAccessSource {
 
     @Override
     public RandomAccessSource withPermissions(int mask) {
-        return new SlicedSource(source, 0, length(), permissions & mask);
+        return new SlicedSource(source, pf, length(), permissions & mask);
     }
 
     @Override
     public RandomAccessSource slice(long off, long length) {
+        checkAbleToIO(off, length);
         return source.slice(pf + off, length);
     }
 
@@ -78,9 +93,23 @@ public class SlicedSource extends RandomAccessSource {
 
     @Override
     public void clear(byte x, long off, long length) {
+        checkAbleToWrite(off, length);
         source.clear(x, pf + off, length);
     }
 
+    /**
+     * Also checks the range against the current length of the underlying source,
+     * as sources like {@link GrowableSource} can be shrunk after the slice is created.
+     */
+    @Override
+    protected void checkAbleToIO(long off, long n) {
+        super.checkAbleToIO(off, n);
+        if (source.length() - pf < off + n) {
+            throw new IllegalStateException("The range [" + off + ", " + (off + n) + ") of this slice "
+                    + "goes beyond the current end of the underlying source");
+        }
+    }
+
     @Override
     public void dealloc() {
 
@@ -270,4 +299,119 @@ public class SlicedSource extends RandomAccessSource {
         checkPermissions(AccessorPermissions.WRITE);
         source.unsafePut(pf + off, buffer, srcOff, len, order);
     }
+
+    @Override
+    public boolean supportsAtomicAccess() {
+        return source.supportsAtomicAccess();
+    }
+
+    @Override
+    public boolean isAligned(long off, int size) {
+        return source.isAligned(pf + off, size);
+    }
+
+    @Override
+    public final int unsafeGetIntVolatile(long off) {
+        checkPermissions(AccessorPermissions.READ);
+        return source.unsafeGetIntVolatile(pf + off);
+    }
+
+    @Override
+    public final void unsafePutIntVolatile(long off, int value) {
+        checkPermissions(AccessorPermissions.WRITE);
+        source.unsafePutIntVolatile(pf + off, value);
+    }
+
+    @Override
+    public final int unsafeGetIntAcquire(long off) {
+        checkPermissions(AccessorPermissions.READ);
+        return source.unsafeGetIntAcquire(pf + off);
+    }
+
+    @Override
+    public final void unsafePutIntRelease(long off, int value) {
+        checkPermissions(AccessorPermissions.WRITE);
+        source.unsafePutIntRelease(pf + off, value);
+    }
+
+    @Override
+    public final boolean unsafeCompareAndSetInt(long off, int expected, int value) {
+        checkPermissions(AccessorPermissions.READ);
+        checkPermissions(AccessorPermissions.WRITE);
+        return source.unsafeCompareAndSetInt(pf + off, expected, value);
+    }
+
+    @Override
+    public final int unsafeGetAndAddInt(long off, int delta) {
+        checkPermissions(AccessorPermissions.READ);
+        checkPermissions(AccessorPermissions.WRITE);
+        return source.unsafeGetAndAddInt(pf + off, delta);
+    }
+
+    @Override
+    public final int unsafeGetAndSetInt(long off, int value) {
+        checkPermissions(AccessorPermissions.READ);
+        checkPermissions(AccessorPermissions.WRITE);
+        return source.unsafeGetAndSetInt(pf + off, value);
+    }
+
+    @Override
+    public final long unsafeGetLongVolatile(long off) {
+        checkPermissions(AccessorPermissions.READ);
+        return source.unsafeGetLongVolatile(pf + off);
+    }
+
+    @Override
+    public final void unsafePutLongVolatile(long off, long value) {
+        checkPermissions(AccessorPermissions.WRITE);
+        source.unsafePutLongVolatile(pf + off, value);
+    }
+
+    @Override
+    public final long unsafeGetLongAcquire(long off) {
+        checkPermissions(AccessorPermissions.READ);
+        return source.unsafeGetLongAcquire(pf + off);
+    }
+
+    @Override
+    public final void unsafePutLongRelease(long off, long value) {
+        checkPermissions(AccessorPermissions.WRITE);
+        source.unsafePutLongRelease(pf + off, value);
+    }
+
+    @Override
+    public final boolean unsafeCompareAndSetLong(long off, long expected, long value) {
+        checkPermissions(AccessorPermissions.READ);
+        checkPermissions(AccessorPermissions.WRITE);
+        return source.unsafeCompareAndSetLong(pf + off, expected, value);
+    }
+
+    @Override
+    public final long unsafeGetAndAddLong(long off, long delta) {
+        checkPermissions(AccessorPermissions.READ);
+        checkPermissions(AccessorPermissions.WRITE);
+        return source.unsafeGetAndAddLong(pf + off, delta);
+    }
+
+    @Override
+    public final long unsafeGetAndSetLong(long off, long value) {
+        checkPermissions(AccessorPermissions.READ);
+        checkPermissions(AccessorPermissions.WRITE);
+        return source.unsafeGetAndSetLong(pf + off, value);
+    }
+
+    @Override
+    long contiguousLength(long off) {
+        return Math.min(length() - off, source.contiguousLength(pf + off));
+    }
+
+    @Override
+    Object memoryBase(long off) {
+        return source.memoryBase(pf + off);
+    }
+
+    @Override
+    long memoryOffset(long off) {
+        return source.memoryOffset(pf + off);
+    }
 }
@@ -0,0 +1,359 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.ScatteringByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An implementation of a {@link SeekableByteChannel}, that also supports scattering
+ * reads and gathering writes, over an access source. The size of the channel is the
+ * length of the source, so writes past its end fail, unless the source is a
+ * {@link GrowableSource}, which grows to fit them. Closing the channel doesn't
+ * deallocate the source.
+ *
+ * Data can also be moved from the source to other channels with {@link #transferTo(long, long,
+ * WritableByteChannel)} and {@link #write(GatheringByteChannel, RandomAccessSource...)}, which
+ * hand the memory of the source to the target as byte buffers, without intermediate copies. Off-heap
+ * sources are wrapped as direct buffers, so file and socket channels write them directly, and regions
+ * that span several buffers are written with a single gathering write.
+ */
+public class SourceByteChannel implements SeekableByteChannel, ScatteringByteChannel, GatheringByteChannel {
+    private final RandomAccessSource source;
+    private long position;
+    private volatile boolean open = true;
+
+    /**
+     * Creates a channel over the given source, placed at its beginning.
+     * @param source the backing source.
+     */
+    public SourceByteChannel(RandomAccessSource source) {
+        this.source = source;
+    }
+
+    /**
+     * Returns the underlying source of this channel.
+     */
+    public RandomAccessSource underlyingSource() {
+        return source;
+    }
+
+    private void checkOpen() throws ClosedChannelException {
+        if (!open) {
+            throw new ClosedChannelException();
+        }
+        source.checkValid();
+    }
+
+    @Override
+    public synchronized int read(ByteBuffer dst) throws IOException {
+        checkOpen();
+        long available = source.length() - position;
+        if (available <= 0) {
+            return dst.hasRemaining() ? -1 : 0;
+        }
+
+        int n = (int) Math.min(dst.remaining(), available);
+        int limit = dst.limit();
+        ((Buffer) dst).limit(dst.position() + n);
+        try {
+            source.get(position, dst);
+        } finally {
+            ((Buffer) dst).limit(limit);
+        }
+
+        position += n;
+        return n;
+    }
+
+    @Override
+    public synchronized long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+        Validate.checkInRange(dsts.length, offset, length);
+        checkOpen();
+        if (position >= source.length()) {
+            return -1;
+        }
+
+        long total = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int n = read(dsts[i]);
+            if (n < 0) {
+                break;
+            }
+            total += n;
+        }
+        return total;
+    }
+
+    @Override
+    public long read(ByteBuffer[] dsts) throws IOException {
+        return read(dsts, 0, dsts.length);
+    }
+
+    @Override
+    public synchronized int write(ByteBuffer src) throws IOException {
+        checkOpen();
+        int n = src.remaining();
+        if (!(source instanceof GrowableSource)) {
+            long available = source.length() - position;
+            if (n > available) {
+                throw new IOException("The end of the underlying source has been reached");
+            }
+        }
+
+        source.put(position, src);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public synchronized long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+        Validate.checkInRange(srcs.length, offset, length);
+        checkOpen();
+
+        long total = 0;
+        for (int i = offset; i < offset + length; i++) {
+            total += srcs[i].remaining();
+        }
+        if (!(source instanceof GrowableSource) && total > source.length() - position) {
+            throw new IOException("The end of the underlying source has been reached");
+        }
+
+        for (int i = offset; i < offset + length; i++) {
+            write(srcs[i]);
+        }
+        return total;
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs) throws IOException {
+        return write(srcs, 0, srcs.length);
+    }
+
+    @Override
+    public synchronized long position() throws IOException {
+        checkOpen();
+        return position;
+    }
+
+    @Override
+    public synchronized SourceByteChannel position(long newPosition) throws IOException {
+        checkOpen();
+        if (newPosition < 0) {
+            throw new IllegalArgumentException("Position cannot be less than 0");
+        }
+        position = newPosition;
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+        checkOpen();
+        return source.length();
+    }
+
+    /**
+     * Truncates the underlying source, which is only supported by {@link GrowableSource}s.
+     * As required by {@link SeekableByteChannel}, if the size is greater than or equal to
+     * the current size of the channel, it is not modified.
+     */
+    @Override
+    public synchronized SourceByteChannel truncate(long size) throws IOException {
+        checkOpen();
+        if (size < 0) {
+            throw new IllegalArgumentException("Size cannot be less than 0");
+        }
+
+        if (size < source.length()) {
+            if (!(source instanceof GrowableSource)) {
+                throw new UnsupportedOperationException("The underlying source cannot be truncated");
+            }
+            ((GrowableSource) source).setLength(size);
+        }
+
+        if (position > size) {
+            position = size;
+        }
+        return this;
+    }
+
+    /**
+     * Writes up to count bytes, starting at the given position of the source, to the given
+     * channel, without modifying the position of this channel. The memory of the source is
+     * handed to the target as byte buffers, through a single gathering write if the target
+     * supports it and the region spans several buffers.
+     * @param position the position of the source where the transfer will start.
+     * @param count the maximum number of bytes that will be transferred.
+     * @param target the channel where the data will be written.
+     * @return the number of bytes transferred, which may be less than requested if
+     *         the end of the source is reached or the target is non-blocking.
+     */
+    public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+        checkOpen();
+        if (position < 0 || count < 0) {
+            throw new IllegalArgumentException("Position and count cannot be less than 0");
+        }
+
+        long n = Math.max(0, Math.min(count, source.length() - position));
+        List<ByteBuffer> buffers = new ArrayList<>();
+        byteBuffers(source, position, n, buffers);
+        return write(target, buffers.toArray(new ByteBuffer[0]));
+    }
+
+    /**
+     * Reads up to count bytes from the given channel and writes them at the given
+     * position of the source, without modifying the position of this channel. The
+     * data is read directly into the memory of the source.
+     * @param src the channel the data will be read from.
+     * @param position the position of the source where the data will be written.
+     * @param count the maximum number of bytes that will be transferred.
+     * @return the number of bytes transferred.
+     */
+    public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+        checkOpen();
+        if (!source.isWritable()) {
+            throw new IllegalStateException("Cannot perform a write operation on this source");
+        }
+        if (position < 0 || count < 0) {
+            throw new IllegalArgumentException("Position and count cannot be less than 0");
+        }
+
+        long n = Math.max(0, Math.min(count, source.length() - position));
+        List<ByteBuffer> buffers = new ArrayList<>();
+        byteBuffers(source, position, n, buffers);
+
+        long total = 0;
+        for (ByteBuffer buffer : buffers) {
+            while (buffer.hasRemaining()) {
+                int read = src.read(buffer);
+                if (read <= 0) {
+                    return total;
+                }
+                total += read;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Writes the whole contents of the given sources to a channel, through a single
+     * gathering write, so file and socket channels issue a single {@code writev}
+     * call for all of them whenever the operating system allows it.
+     * @param target the channel where the data will be written.
+     * @param sources the sources that will be written, in order.
+     * @return the number of bytes written, which may be less than the total length
+     *         of the sources if the target is non-blocking.
+     */
+    public static long write(GatheringByteChannel target, RandomAccessSource... sources) throws IOException {
+        List<ByteBuffer> buffers = new ArrayList<>();
+        for (RandomAccessSource source : sources) {
+            source.checkValid();
+            byteBuffers(source, 0, source.length(), buffers);
+        }
+        return write(target, buffers.toArray(new ByteBuffer[0]));
+    }
+
+    private static long write(WritableByteChannel target, ByteBuffer[] buffers) throws IOException {
+        long total = 0;
+        if (target instanceof GatheringByteChannel && buffers.length > 1) {
+            GatheringByteChannel gathering = (GatheringByteChannel) target;
+            int first = 0;
+            while (first < buffers.length) {
+                long written = gathering.write(buffers, first, buffers.length - first);
+                if (written <= 0) {
+                    break;
+                }
+                total += written;
+                while (first < buffers.length && !buffers[first].hasRemaining()) {
+                    first++;
+                }
+            }
+        } else {
+            for (ByteBuffer buffer : buffers) {
+                while (buffer.hasRemaining()) {
+                    int written = target.write(buffer);
+                    if (written <= 0) {
+                        return total;
+                    }
+                    total += written;
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Collects the byte buffers that give direct access to the given range of a source.
+     * Sources that cannot expose a range as a single buffer, like composite or segmented
+     * sources, or ranges larger than 2 GiB, are split into several buffers.
+     */
+    static void byteBuffers(RandomAccessSource source, long off, long length, List<ByteBuffer> out) {
+        Validate.checkInRange(source.length(), off, length);
+
+        if (source instanceof SlicedSource) {
+            SlicedSource sliced = (SlicedSource) source;
+            if (!sliced.isReadable()) {
+                throw new IllegalStateException("Cannot perform a read operation on this source");
+            }
+            byteBuffers(sliced.underlying(), sliced.underlyingOffset() + off, length, out);
+        } else if (source instanceof CompositeSource) {
+            CompositeSource composite = (CompositeSource) source;
+            while (length > 0) {
+                int index = composite.componentIndex(off);
+                long start = composite.componentOffset(index);
+                long n = Math.min(length, start + composite.component(index).length() - off);
+                byteBuffers(composite.component(index), off - start, n, out);
+                off += n;
+                length -= n;
+            }
+        } else if (source instanceof SegmentedArraySource) {
+            int segmentSize = ((SegmentedArraySource) source).segmentSize();
+            while (length > 0) {
+                long n = Math.min(length, segmentSize - (off & (segmentSize - 1)));
+                out.add(source.transientByteBuffer(off, n));
+                off += n;
+                length -= n;
+            }
+        } else {
+            do {
+                long n = Math.min(length, Integer.MAX_VALUE);
+                out.add(source.transientByteBuffer(off, n));
+                off += n;
+                length -= n;
+            } while (length > 0);
+        }
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() {
+        open = false;
+    }
+}
@@ -1,6 +1,10 @@
 package me.devcexx.accessors;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 /**
  * Helper class for creating sources
@@ -37,6 +41,103 @@ public class Sources {
         return new DirectMemorySource(Unsafe.allocAndSet(size, data), size);
     }
 
+    /**
+     * Allocates an anonymous memory mapping backed by huge pages. If explicit huge pages of
+     * the requested size are not available, the mapping falls back to regular pages, advising
+     * the kernel to use transparent huge pages for it. The kind of pages actually used can be
+     * checked through {@link AnonymousMemorySource#hugePages()}. The contents of the new source
+     * are initialized to zero.
+     * @param size the size of the source.
+     * @param pages the kind of huge pages that will back the source.
+     */
+    public static AnonymousMemorySource alloc(long size, HugePages pages) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Size cannot be less than 0");
+        }
+
+        if (size == 0) {
+            return new AnonymousMemorySource(0, 0, 0, null);
+        }
+
+        int prot = AccessorNatives.PROT_READ | AccessorNatives.PROT_WRITE;
+        int flags = AccessorNatives.MAP_PRIVATE | AccessorNatives.MAP_ANONYMOUS;
+
+        int hugeFlags = pages.mmapFlags();
+        if (hugeFlags != 0) {
+            long mappingLength = pages.roundUp(size);
+            try {
+                long address = AccessorNatives.mmap(0, mappingLength, prot, flags | hugeFlags, -1, 0);
+                return new AnonymousMemorySource(address, mappingLength, size, pages);
+            } catch (NativeException e) {
+                //There are no huge pages of the requested size available.
+            }
+        }
+
+        long mappingLength = HugePages.TRANSPARENT.roundUp(size);
+        long address = AccessorNatives.mmap(0, mappingLength, prot, flags, -1, 0);
+        return new AnonymousMemorySource(address, mappingLength, size,
+                adviseHugePages(address, mappingLength) ? HugePages.TRANSPARENT : null);
+    }
+
+    /**
+     * Advises the kernel to use transparent huge pages for the given range.
+     * @return true if the advice has been accepted.
+     */
+    private static boolean adviseHugePages(long address, long length) {
+        if (AccessorNatives.MADV_HUGEPAGE == 0) {
+            return false;
+        }
+
+        try {
+            AccessorNatives.madvise(address, length, AccessorNatives.MADV_HUGEPAGE);
+            return true;
+        } catch (NativeException e) {
+            //Transparent huge pages are disabled, or not supported for this kind of memory.
+            return false;
+        }
+    }
+
+    /**
+     * Creates an empty off-heap source that grows as data is written past its
+     * end, doubling its capacity each time it runs out of space.
+     * @param initialCapacity the number of bytes initially reserved for the source.
+     * @return a new {@link GrowableSource}.
+     */
+    public static GrowableSource growable(long initialCapacity) {
+        return new GrowableSource(initialCapacity, GrowableSource.GrowthPolicy.doubling());
+    }
+
+    /**
+     * Creates an empty off-heap source that grows as data is written past its end.
+     * @param initialCapacity the number of bytes initially reserved for the source.
+     * @param policy the policy that decides the new capacity of the source when it grows.
+     * @return a new {@link GrowableSource}.
+     */
+    public static GrowableSource growable(long initialCapacity, GrowableSource.GrowthPolicy policy) {
+        return new GrowableSource(initialCapacity, policy);
+    }
+
+    /**
+     * Allocates a new source of the specified size from the default {@link MemoryPool},
+     * which recycles the memory blocks of the deallocated sources. The source must
+     * always be deallocated, so its block can be returned to the pool.
+     * @param size the size of the source as a non negative long value.
+     * @return a new {@link PooledSource}.
+     */
+    public static PooledSource pooled(long size) {
+        return MemoryPool.defaultPool().allocate(size);
+    }
+
+    /**
+     * Creates an arena that hands out off-heap regions from chunks of the
+     * given size through bump-pointer allocation.
+     * @param chunkSize the size of the chunks reserved by the arena.
+     * @see MemoryArena
+     */
+    public static MemoryArena arena(long chunkSize) {
+        return new MemoryArena(chunkSize);
+    }
+
     /**
      * Creates a source from a whole byte buffer. This call is equivalent
      * to the call to {@code #fromByteBuffer(bf, false)}.
@@ -104,6 +205,34 @@ public class Sources {
         return new ByteArraySource(new byte[size], 0, size);
     }
 
+    /**
+     * Creates a heap source backed by a chain of byte arrays of
+     * {@link SegmentedArraySource#DEFAULT_SEGMENT_SIZE} bytes, so it
+     * can be larger than a single array.
+     * @param size the length of the source.
+     */
+    public static SegmentedArraySource segmented(long size) {
+        return new SegmentedArraySource(size, SegmentedArraySource.DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Creates a heap source backed by a chain of byte arrays.
+     * @param size the length of the source.
+     * @param segmentSize the size of each array, which must be a power of two.
+     */
+    public static SegmentedArraySource segmented(long size, int segmentSize) {
+        return new SegmentedArraySource(size, segmentSize);
+    }
+
+    /**
+     * Creates a source that presents the given sources, in order, as a single
+     * contiguous range, without copying their contents.
+     * @param sources the sources that will be concatenated.
+     */
+    public static CompositeSource concat(RandomAccessSource... sources) {
+        return new CompositeSource(sources);
+    }
+
     /**
      * Maps a shared memory block to the current process memory and returns a {@link SharedMemorySource}
      * able to read/write it.
@@ -147,6 +276,50 @@ public class Sources {
         return new SharedMemorySource(shmid, address, size, !persistant);
     }
 
+    /**
+     * Creates a new shared memory block in the system backed by huge pages, and returns a
+     * {@link SharedMemorySource} able to read/write it. If explicit huge pages of the requested
+     * size are not available, the block falls back to regular pages, advising the kernel to use
+     * transparent huge pages for it.
+     * @param key the key of the memory region.
+     * @param size the size of the memory block that will be attached. The size of the block
+     *             is rounded up to a multiple of the size of the huge pages.
+     * @param flags the system flags that will be used in the attach operation.
+     * @param persistant a value indicating if the memory block should be destroyed after the
+     *                   deallocation of the current accessor, or should keep existing after that.
+     * @param pages the kind of huge pages that will back the memory block.
+     * @return a {@link SharedMemorySource} attached to the memory region just attached to the process.
+     */
+    public static SharedMemorySource createSharedMemorySegment(long key, long size, int flags, boolean persistant,
+                                                               HugePages pages) {
+        int hugeFlags = pages.shmFlags();
+        if (hugeFlags != 0) {
+            int shmid = -1;
+            try {
+                shmid = AccessorNatives.shmget(key, pages.roundUp(size),
+                        flags | AccessorNatives.IPC_CREAT | hugeFlags);
+            } catch (SharedMemoryException e) {
+                //There are no huge pages of the requested size available.
+            }
+
+            if (shmid != -1) {
+                long address;
+                try {
+                    address = AccessorNatives.shmat(shmid, 0, 0);
+                } catch (SharedMemoryException e) {
+                    //Don't leak the segment just created.
+                    AccessorNatives.shmctl(shmid, AccessorNatives.IPC_RMID, 0);
+                    throw e;
+                }
+                return new SharedMemorySource(shmid, address, size, !persistant);
+            }
+        }
+
+        SharedMemorySource source = createSharedMemorySegment(key, size, flags, persistant);
+        adviseHugePages(source.address(), HugePages.TRANSPARENT.roundUp(size));
+        return source;
+    }
+
     /**
      * Creates a new shared memory block in the system and returns a {@link SharedMemorySource}
      * able to read/write it, using as region key the result of a {@code ftok} syscall.
@@ -161,4 +334,173 @@ public class Sources {
     public static SharedMemorySource createSharedMemorySegment(String fkey, int kid, long size, int flags, boolean persistant) {
         return createSharedMemorySegment(AccessorNatives.ftok(fkey, kid), size, flags, !persistant);
     }
+
+    /**
+     * Creates a new POSIX shared memory object and returns a {@link PosixSharedMemorySource}
+     * able to read/write it. The creation fails if an object with the same name already exists.
+     * @param name the name of the object, which must start with a slash and contain no other one.
+     * @param size the size of the object.
+     * @param persistant a value indicating if the object should be unlinked after the
+     *                   deallocation of the current source, or should keep existing after that.
+     * @return a {@link PosixSharedMemorySource} attached to the object just created.
+     */
+    public static PosixSharedMemorySource createPosixSharedMemory(String name, long size, boolean persistant) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Size cannot be less than 0");
+        }
+
+        int fd = AccessorNatives.shm_open(name, AccessorNatives.O_RDWR | AccessorNatives.O_CREAT
+                | AccessorNatives.O_EXCL, 0600);
+        try {
+            AccessorNatives.ftruncate(fd, size);
+            return new PosixSharedMemorySource(name, mapShared(fd, size), size, !persistant);
+        } catch (RuntimeException e) {
+            AccessorNatives.shm_unlink(name);
+            throw e;
+        } finally {
+            AccessorNatives.close(fd);
+        }
+    }
+
+    /**
+     * Attaches to an existing POSIX shared memory object and returns a
+     * {@link PosixSharedMemorySource} able to read/write the whole object.
+     * @param name the name of the object.
+     * @return a {@link PosixSharedMemorySource} attached to the object.
+     */
+    public static PosixSharedMemorySource attachToPosixSharedMemory(String name) {
+        int fd = AccessorNatives.shm_open(name, AccessorNatives.O_RDWR, 0);
+        try {
+            long size = AccessorNatives.fsize(fd);
+            return new PosixSharedMemorySource(name, mapShared(fd, size), size, false);
+        } finally {
+            AccessorNatives.close(fd);
+        }
+    }
+
+    /**
+     * Creates a new anonymous memory file and returns a {@link MemfdSource} able to
+     * read/write it. Other processes can map the file through {@link MemfdSource#path()}.
+     * @param name the name of the file, used only for debugging purposes.
+     * @param size the size of the file.
+     * @return a {@link MemfdSource} attached to the file just created.
+     */
+    public static MemfdSource createMemfd(String name, long size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Size cannot be less than 0");
+        }
+
+        int fd = AccessorNatives.memfd_create(name, 0);
+        try {
+            AccessorNatives.ftruncate(fd, size);
+            return new MemfdSource(fd, mapShared(fd, size), size);
+        } catch (RuntimeException e) {
+            AccessorNatives.close(fd);
+            throw e;
+        }
+    }
+
+    /**
+     * Maps the given file descriptor in shared read-write mode, or returns
+     * 0 if the size is zero, since empty mappings are not allowed.
+     */
+    private static long mapShared(int fd, long size) {
+        if (size == 0) {
+            return 0;
+        }
+        return AccessorNatives.mmap(0, size, AccessorNatives.PROT_READ | AccessorNatives.PROT_WRITE,
+                AccessorNatives.MAP_SHARED, fd, 0);
+    }
+
+    /**
+     * Maps a whole file into the memory of the current process and returns
+     * a {@link MappedFileSource} able to access it.
+     * @param file the file that will be mapped.
+     * @param mode the mode of the mapping. Read-only sources will reject any write
+     *             operation, and private mappings will never propagate the changes
+     *             to the file (copy-on-write).
+     * @return a {@link MappedFileSource} attached to the mapped region.
+     * @throws IOException if the file cannot be accessed.
+     */
+    public static MappedFileSource mapFile(File file, FileChannel.MapMode mode) throws IOException {
+        return mapFile(file, mode, 0, file.length());
+    }
+
+    /**
+     * Maps a region of a file into the memory of the current process and returns
+     * a {@link MappedFileSource} able to access it. If the file is mapped in
+     * read-write mode and the requested region goes beyond the end of the file,
+     * the file will be enlarged to fit it. Otherwise, the region must be entirely
+     * contained in the file.
+     * @param file the file that will be mapped.
+     * @param mode the mode of the mapping. Read-only sources will reject any write
+     *             operation, and private mappings will never propagate the changes
+     *             to the file (copy-on-write).
+     * @param position the offset from the beginning of the file where the mapped region starts.
+     * @param size the size of the mapped region.
+     * @return a {@link MappedFileSource} attached to the mapped region.
+     * @throws IOException if the file cannot be accessed, or the region goes beyond
+     * the end of a file that is not mapped in read-write mode.
+     */
+    public static MappedFileSource mapFile(File file, FileChannel.MapMode mode, long position, long size)
+            throws IOException {
+        if (position < 0) {
+            throw new IllegalArgumentException("Position cannot be less than 0");
+        }
+
+        if (size < 0) {
+            throw new IllegalArgumentException("Size cannot be less than 0");
+        }
+
+        if (mode == FileChannel.MapMode.READ_WRITE) {
+            RandomAccessFile raf = new RandomAccessFile(file, "rw");
+            try {
+                if (raf.length() < position + size) {
+                    raf.setLength(position + size);
+                }
+            } finally {
+                raf.close();
+            }
+        } else if (!file.canRead()) {
+            throw new IOException("Cannot read file " + file);
+        } else if (position + size > file.length()) {
+            //Accessing a page of the mapping beyond the end of the file
+            //would raise SIGBUS, killing the whole process.
+            throw new IOException("The region [" + position + ", " + (position + size)
+                    + ") goes beyond the end of the file " + file + " (" + file.length() + " bytes)");
+        }
+
+        if (size == 0) {
+            return new MappedFileSource(0, 0, 0, 0, mode);
+        }
+
+        //mmap requires the offset to be a multiple of the page size, so the
+        //mapping must start a bit before the requested position.
+        long delta = position % Unsafe.pageSize();
+        long mappingLength = size + delta;
+
+        int prot = AccessorNatives.PROT_READ;
+        int flags = AccessorNatives.MAP_SHARED;
+        int openFlags = AccessorNatives.O_RDONLY;
+
+        if (mode == FileChannel.MapMode.READ_WRITE) {
+            prot |= AccessorNatives.PROT_WRITE;
+            openFlags = AccessorNatives.O_RDWR;
+        } else if (mode == FileChannel.MapMode.PRIVATE) {
+            prot |= AccessorNatives.PROT_WRITE;
+            flags = AccessorNatives.MAP_PRIVATE;
+        }
+
+        int fd = AccessorNatives.open(file.getPath(), openFlags);
+        long address;
+        try {
+            address = AccessorNatives.mmap(0, mappingLength, prot, flags, fd, position - delta);
+        } finally {
+            //The mapping keeps its own reference to the file, so the descriptor
+            //is not needed anymore.
+            AccessorNatives.close(fd);
+        }
+
+        return new MappedFileSource(address, mappingLength, delta, size, mode);
+    }
 }
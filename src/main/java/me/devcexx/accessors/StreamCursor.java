@@ -0,0 +1,164 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps track of the offset of a stream over a source, within the range
+ * [start, end]. There are two implementations: a plain one, for streams that
+ * are used by a single thread, and a lock-free one, for streams shared between
+ * threads, where each read or write atomically claims the range it operates on.
+ */
+abstract class StreamCursor {
+    protected final long end;
+
+    private StreamCursor(long end) {
+        this.end = end;
+    }
+
+    /**
+     * Creates a cursor placed at the given start offset.
+     * @param start the initial offset of the cursor.
+     * @param end the offset the cursor cannot go beyond.
+     * @param shared whether the cursor will be used by several threads.
+     */
+    static StreamCursor create(long start, long end, boolean shared) {
+        return shared ? new Atomic(start, end) : new Plain(start, end);
+    }
+
+    /**
+     * Returns the current offset of the cursor.
+     */
+    abstract long get();
+
+    /**
+     * Moves the cursor to the given offset.
+     */
+    abstract void set(long off);
+
+    /**
+     * Advances the cursor by n bytes, or up to the end if there are fewer bytes left.
+     * @return the offset of the cursor before advancing. The number of claimed
+     *         bytes is the lesser of n and the distance from it to the end.
+     */
+    abstract long claim(long n);
+
+    /**
+     * Advances the cursor by n bytes only if there are, at least, n bytes left.
+     * @return the offset of the cursor before advancing, or -1 if there were
+     *         not enough bytes left.
+     */
+    abstract long claimExactly(long n);
+
+    /**
+     * Moves the cursor back from the given offset to an earlier one, giving back a range
+     * that was claimed but couldn't be processed. Nothing is done if the cursor has been
+     * moved since it was left at that offset.
+     * @param off the offset the cursor will be moved back to.
+     * @param claimed the offset the cursor was left at when the range was claimed.
+     */
+    abstract void unclaim(long off, long claimed);
+
+    private static final class Plain extends StreamCursor {
+        private long off;
+
+        private Plain(long start, long end) {
+            super(end);
+            this.off = start;
+        }
+
+        @Override
+        long get() {
+            return off;
+        }
+
+        @Override
+        void set(long off) {
+            this.off = off;
+        }
+
+        @Override
+        long claim(long n) {
+            long start = off;
+            off = start + Math.min(n, end - start);
+            return start;
+        }
+
+        @Override
+        long claimExactly(long n) {
+            long start = off;
+            if (end - start < n) {
+                return -1;
+            }
+            off = start + n;
+            return start;
+        }
+
+        @Override
+        void unclaim(long off, long claimed) {
+            if (this.off == claimed) {
+                this.off = off;
+            }
+        }
+    }
+
+    private static final class Atomic extends StreamCursor {
+        private final AtomicLong off;
+
+        private Atomic(long start, long end) {
+            super(end);
+            this.off = new AtomicLong(start);
+        }
+
+        @Override
+        long get() {
+            return off.get();
+        }
+
+        @Override
+        void set(long off) {
+            this.off.set(off);
+        }
+
+        @Override
+        long claim(long n) {
+            long start;
+            do {
+                start = off.get();
+            } while (!off.compareAndSet(start, start + Math.min(n, end - start)));
+            return start;
+        }
+
+        @Override
+        long claimExactly(long n) {
+            long start;
+            do {
+                start = off.get();
+                if (end - start < n) {
+                    return -1;
+                }
+            } while (!off.compareAndSet(start, start + n));
+            return start;
+        }
+
+        @Override
+        void unclaim(long off, long claimed) {
+            this.off.compareAndSet(claimed, off);
+        }
+    }
+}
@@ -0,0 +1,345 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Represents an accessor that validates its whole window of the source once, when it is
+ * created, and then reads and writes it without checking, on each access, whether the source
+ * has been deallocated or whether the access is within the limit of the accessor. Sliced sources
+ * are resolved to the source they are backed on, so their permissions are also checked just once.
+ *
+ * This accessor is meant for hot loops over regions that have already been validated. Accessing
+ * it out of its limit, or after the source has been deallocated, has undefined results, which may
+ * include corrupting the memory of the process or crashing it. The same applies to accessing it
+ * after the source, or the one its slice is backed on, has been shrunk below the end of the window,
+ * as a {@link GrowableSource} can be. Setting the system property
+ * {@value #CHECKS_PROPERTY} to true enables the checks back, so the code that uses the
+ * accessor can be debugged without changing it.
+ */
+public class TrustedRandomAccessor extends RandomAccessor {
+    /**
+     * The name of the system property that enables the checks of the trusted accessors.
+     */
+    public static final String CHECKS_PROPERTY = "me.devcexx.accessors.checkTrustedAccess";
+
+    static final boolean CHECKS = Boolean.getBoolean(CHECKS_PROPERTY);
+
+    private final RandomAccessSource target;
+    private final long base;
+    private final boolean writable;
+
+    /**
+     * Creates a trusted accessor over the whole given source.
+     * @param source the source to use.
+     */
+    public TrustedRandomAccessor(RandomAccessSource source) {
+        this(source, 0, source.length(), DataOrder.NATIVE_ORDER);
+    }
+
+    /**
+     * Creates a trusted accessor over the given window of the source. The
+     * position 0 of the accessor will be at the beginning of the window.
+     * @param source the source to use.
+     * @param off the offset of the source where the window starts.
+     * @param length the length of the window.
+     */
+    public TrustedRandomAccessor(RandomAccessSource source, long off, long length) {
+        this(source, off, length, DataOrder.NATIVE_ORDER);
+    }
+
+    /**
+     * Creates a trusted accessor over the given window of the source. The
+     * position 0 of the accessor will be at the beginning of the window.
+     * @param source the source to use.
+     * @param off the offset of the source where the window starts.
+     * @param length the length of the window.
+     * @param order the default order for the accessor.
+     */
+    public TrustedRandomAccessor(RandomAccessSource source, long off, long length, DataOrder order) {
+        super(source.slice(off, length), order);
+
+        if (!source.isReadable()) {
+            throw new IllegalStateException("Cannot create a trusted accessor over a non readable source");
+        }
+
+        this.writable = source.isWritable();
+
+        while (source instanceof SlicedSource) {
+            SlicedSource sliced = (SlicedSource) source;
+            off += sliced.underlyingOffset();
+            source = sliced.underlying();
+        }
+
+        this.target = source;
+        this.base = off;
+    }
+
+    private void check(long off, long n) {
+        if (target.deallocated()) {
+            throw new IllegalStateException("The underlying buffer of this source has been "
+                    + "deallocated and is not longer accessible");
+        }
+        checkLimit(off, n);
+        if (target.length() - base < off + n) {
+            throw new IllegalStateException("The window of this accessor goes beyond the current end of the source");
+        }
+    }
+
+    private void checkWrite(long off, long n) {
+        if (!writable) {
+            throw new IllegalStateException("Cannot perform a write operation on this source");
+        }
+        if (CHECKS) {
+            check(off, n);
+        }
+    }
+
+    @Override
+    public byte get(long off) {
+        if (CHECKS) {
+            check(off, 1);
+        }
+        return target.unsafeGet(base + off);
+    }
+
+    @Override
+    public int getUnsignedByte(long off) {
+        return get(off) & 0xff;
+    }
+
+    @Override
+    public short getShort(long off, DataOrder order) {
+        if (CHECKS) {
+            check(off, 2);
+        }
+        return target.unsafeGetShort(base + off, order);
+    }
+
+    @Override
+    public int getUnsignedShort(long off, DataOrder order) {
+        return getShort(off, order) & 0xffff;
+    }
+
+    @Override
+    public char getChar(long off, DataOrder order) {
+        if (CHECKS) {
+            check(off, 2);
+        }
+        return target.unsafeGetChar(base + off, order);
+    }
+
+    @Override
+    public int getInt(long off, DataOrder order) {
+        if (CHECKS) {
+            check(off, 4);
+        }
+        return target.unsafeGetInt(base + off, order);
+    }
+
+    @Override
+    public long getUnsignedInt(long off, DataOrder order) {
+        return getInt(off, order) & 0xffffffffL;
+    }
+
+    @Override
+    public long getLong(long off, DataOrder order) {
+        if (CHECKS) {
+            check(off, 8);
+        }
+        return target.unsafeGetLong(base + off, order);
+    }
+
+    @Override
+    public float getFloat(long off, DataOrder order) {
+        if (CHECKS) {
+            check(off, 4);
+        }
+        return target.unsafeGetFloat(base + off, order);
+    }
+
+    @Override
+    public double getDouble(long off, DataOrder order) {
+        if (CHECKS) {
+            check(off, 8);
+        }
+        return target.unsafeGetDouble(base + off, order);
+    }
+
+    @Override
+    public byte[] get(long off, byte[] buf, int dstOff, int len) {
+        if (CHECKS) {
+            check(off, len);
+        }
+        target.unsafeGet(base + off, buf, dstOff, len);
+        return buf;
+    }
+
+    @Override
+    public ByteBuffer get(long off, ByteBuffer buf) {
+        if (CHECKS) {
+            check(off, buf.remaining());
+        }
+        target.unsafeGet(base + off, buf);
+        return buf;
+    }
+
+    @Override
+    public short[] get(long off, short[] buf, int dstOff, int len, DataOrder order) {
+        if (CHECKS) {
+            check(off, len * 2L);
+        }
+        target.unsafeGet(base + off, buf, dstOff, len, order);
+        return buf;
+    }
+
+    @Override
+    public char[] get(long off, char[] buf, int dstOff, int len, DataOrder order) {
+        if (CHECKS) {
+            check(off, len * 2L);
+        }
+        target.unsafeGet(base + off, buf, dstOff, len, order);
+        return buf;
+    }
+
+    @Override
+    public int[] get(long off, int[] buf, int dstOff, int len, DataOrder order) {
+        if (CHECKS) {
+            check(off, len * 4L);
+        }
+        target.unsafeGet(base + off, buf, dstOff, len, order);
+        return buf;
+    }
+
+    @Override
+    public long[] get(long off, long[] buf, int dstOff, int len, DataOrder order) {
+        if (CHECKS) {
+            check(off, len * 8L);
+        }
+        target.unsafeGet(base + off, buf, dstOff, len, order);
+        return buf;
+    }
+
+    @Override
+    public float[] get(long off, float[] buf, int dstOff, int len, DataOrder order) {
+        if (CHECKS) {
+            check(off, len * 4L);
+        }
+        target.unsafeGet(base + off, buf, dstOff, len, order);
+        return buf;
+    }
+
+    @Override
+    public double[] get(long off, double[] buf, int dstOff, int len, DataOrder order) {
+        if (CHECKS) {
+            check(off, len * 8L);
+        }
+        target.unsafeGet(base + off, buf, dstOff, len, order);
+        return buf;
+    }
+
+    @Override
+    public void put(long off, byte x) {
+        checkWrite(off, 1);
+        target.unsafePut(base + off, x);
+    }
+
+    @Override
+    public void put(long off, short x, DataOrder order) {
+        checkWrite(off, 2);
+        target.unsafePut(base + off, x, order);
+    }
+
+    @Override
+    public void put(long off, char x, DataOrder order) {
+        checkWrite(off, 2);
+        target.unsafePut(base + off, x, order);
+    }
+
+    @Override
+    public void put(long off, int x, DataOrder order) {
+        checkWrite(off, 4);
+        target.unsafePut(base + off, x, order);
+    }
+
+    @Override
+    public void put(long off, long x, DataOrder order) {
+        checkWrite(off, 8);
+        target.unsafePut(base + off, x, order);
+    }
+
+    @Override
+    public void put(long off, float x, DataOrder order) {
+        checkWrite(off, 4);
+        target.unsafePut(base + off, x, order);
+    }
+
+    @Override
+    public void put(long off, double x, DataOrder order) {
+        checkWrite(off, 8);
+        target.unsafePut(base + off, x, order);
+    }
+
+    @Override
+    public void put(long off, byte[] buf, int srcOff, int length) {
+        checkWrite(off, length);
+        target.unsafePut(base + off, buf, srcOff, length);
+    }
+
+    @Override
+    public void put(long off, ByteBuffer buf) {
+        checkWrite(off, buf.remaining());
+        target.unsafePut(base + off, buf);
+    }
+
+    @Override
+    public void put(long off, short[] buf, int srcOff, int length, DataOrder order) {
+        checkWrite(off, length * 2L);
+        target.unsafePut(base + off, buf, srcOff, length, order);
+    }
+
+    @Override
+    public void put(long off, char[] buf, int srcOff, int length, DataOrder order) {
+        checkWrite(off, length * 2L);
+        target.unsafePut(base + off, buf, srcOff, length, order);
+    }
+
+    @Override
+    public void put(long off, int[] buf, int srcOff, int length, DataOrder order) {
+        checkWrite(off, length * 4L);
+        target.unsafePut(base + off, buf, srcOff, length, order);
+    }
+
+    @Override
+    public void put(long off, long[] buf, int srcOff, int length, DataOrder order) {
+        checkWrite(off, length * 8L);
+        target.unsafePut(base + off, buf, srcOff, length, order);
+    }
+
+    @Override
+    public void put(long off, float[] buf, int srcOff, int length, DataOrder order) {
+        checkWrite(off, length * 4L);
+        target.unsafePut(base + off, buf, srcOff, length, order);
+    }
+
+    @Override
+    public void put(long off, double[] buf, int srcOff, int length, DataOrder order) {
+        checkWrite(off, length * 8L);
+        target.unsafePut(base + off, buf, srcOff, length, order);
+    }
+}
@@ -16,53 +16,180 @@
 
 package me.devcexx.accessors;
 
-import sun.nio.ch.DirectBuffer;
-
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.nio.Buffer;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class Unsafe {
     public static final sun.misc.Unsafe UNSAFE;
+
+    /**
+     * The private constructor of the JDK direct buffers. It is only accessible
+     * on Java 8 and older versions, so it will be null on newer ones.
+     */
     public static final Constructor<? extends ByteBuffer> BYTE_BUF_CTOR;
 
+    private static final long BUFFER_ADDRESS_OFFSET;
+    private static final long BUFFER_CAPACITY_OFFSET;
+    private static final ByteBuffer DIRECT_BUFFER_TEMPLATE = ByteBuffer.allocateDirect(1);
+
+    static final long BYTE_ARRAY_BASE_OFFSET;
+    private static final long SHORT_ARRAY_BASE_OFFSET;
+    private static final long CHAR_ARRAY_BASE_OFFSET;
+    private static final long INT_ARRAY_BASE_OFFSET;
+    private static final long LONG_ARRAY_BASE_OFFSET;
+    private static final long FLOAT_ARRAY_BASE_OFFSET;
+    private static final long DOUBLE_ARRAY_BASE_OFFSET;
+
+    /**
+     * The system property that sets the size, in bytes, from which byte-swapped copies
+     * are performed by the native library. It can be either a number, which disables the
+     * calibration, or {@code auto}, to calibrate it on startup instead of on the first
+     * byte-swapped copy that reaches the default threshold.
+     */
+    public static final String NATIVE_SWAP_THRESHOLD_PROPERTY = "me.devcexx.accessors.nativeSwapThreshold";
+    private static final int DEFAULT_NATIVE_SWAP_THRESHOLD = 512;
+    private static int nativeSwapThreshold = DEFAULT_NATIVE_SWAP_THRESHOLD;
+    private static volatile boolean nativeSwapThresholdFixed;
+
+    /**
+     * Direct buffers created through JNI cannot reference the object that owns their memory,
+     * so that reference is kept here until the buffer is garbage collected.
+     */
+    private static class BufferAttachment extends WeakReference<ByteBuffer> {
+        private final Object attachment;
+
+        private BufferAttachment(ByteBuffer buffer, Object attachment, ReferenceQueue<ByteBuffer> queue) {
+            super(buffer, queue);
+            this.attachment = attachment;
+        }
+    }
+
+    private static final ReferenceQueue<ByteBuffer> ATTACHMENTS_QUEUE = new ReferenceQueue<ByteBuffer>();
+    private static final Set<BufferAttachment> ATTACHMENTS =
+            Collections.newSetFromMap(new ConcurrentHashMap<BufferAttachment, Boolean>());
+
     static {
         try {
             Field theUnsafe = sun.misc.Unsafe.class.getDeclaredField("theUnsafe");
             theUnsafe.setAccessible(true);
             UNSAFE = (sun.misc.Unsafe) theUnsafe.get(null);
-            BYTE_BUF_CTOR = (Constructor<? extends ByteBuffer>) Class.forName("java.nio.DirectByteBuffer")
-                    .getDeclaredConstructor(long.class, int.class, Object.class);
-            BYTE_BUF_CTOR.setAccessible(true);
+            BUFFER_ADDRESS_OFFSET = UNSAFE.objectFieldOffset(Buffer.class.getDeclaredField("address"));
+            BUFFER_CAPACITY_OFFSET = UNSAFE.objectFieldOffset(Buffer.class.getDeclaredField("capacity"));
         } catch (Exception e) {
             throw new ExceptionInInitializerError("Cannot access AccessorsUtils");
         }
+
+        BYTE_ARRAY_BASE_OFFSET = UNSAFE.arrayBaseOffset(byte[].class);
+        SHORT_ARRAY_BASE_OFFSET = UNSAFE.arrayBaseOffset(short[].class);
+        CHAR_ARRAY_BASE_OFFSET = UNSAFE.arrayBaseOffset(char[].class);
+        INT_ARRAY_BASE_OFFSET = UNSAFE.arrayBaseOffset(int[].class);
+        LONG_ARRAY_BASE_OFFSET = UNSAFE.arrayBaseOffset(long[].class);
+        FLOAT_ARRAY_BASE_OFFSET = UNSAFE.arrayBaseOffset(float[].class);
+        DOUBLE_ARRAY_BASE_OFFSET = UNSAFE.arrayBaseOffset(double[].class);
+
+        BYTE_BUF_CTOR = isLegacyJvm() ? lookupByteBufferConstructor() : null;
+
+        String threshold = System.getProperty(NATIVE_SWAP_THRESHOLD_PROPERTY);
+        if ("auto".equals(threshold)) {
+            calibrateNativeSwapThreshold();
+        } else if (threshold != null) {
+            nativeSwapThreshold(Integer.parseInt(threshold));
+        }
     }
 
-    public static ByteBuffer createDirectBuffer(long addr, long length, Object obj) {
+    /**
+     * Returns true if the current JVM implements a Java version older than 9,
+     * where the JDK internals can be still freely accessed through reflection.
+     */
+    private static boolean isLegacyJvm() {
+        return System.getProperty("java.specification.version", "").startsWith("1.");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Constructor<? extends ByteBuffer> lookupByteBufferConstructor() {
         try {
-            if (length > Integer.MAX_VALUE) {
-                throw new BufferOverflowException();
-            }
+            Constructor<? extends ByteBuffer> ctor = (Constructor<? extends ByteBuffer>)
+                    Class.forName("java.nio.DirectByteBuffer")
+                            .getDeclaredConstructor(long.class, int.class, Object.class);
+            ctor.setAccessible(true);
+            return ctor;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    public static ByteBuffer createDirectBuffer(long addr, long length, Object obj) {
+        if (length > Integer.MAX_VALUE) {
+            throw new BufferOverflowException();
+        }
 
+        if (BYTE_BUF_CTOR == null) {
+            return AccessorNatives.isAvailable()
+                    ? createDirectBufferThroughJni(addr, length, obj)
+                    : createDirectBufferThroughTemplate(addr, length, obj);
+        }
+
+        try {
             return BYTE_BUF_CTOR.newInstance(addr, (int) length, obj);
         } catch (Exception e) {
             throw new RuntimeException("Unable to instantiate DirectByteBuffer: " + e);
         }
     }
 
+    private static ByteBuffer createDirectBufferThroughJni(long addr, long length, Object obj) {
+        ByteBuffer buf = AccessorNatives.newDirectByteBuffer(addr, length);
+        attach(buf, obj);
+        return buf;
+    }
+
+    /**
+     * Creates a direct buffer without the native library, by duplicating an empty direct
+     * buffer and overwriting the address and the capacity of the duplicate.
+     */
+    static ByteBuffer createDirectBufferThroughTemplate(long addr, long length, Object obj) {
+        ByteBuffer buf = DIRECT_BUFFER_TEMPLATE.duplicate();
+        UNSAFE.putLong(buf, BUFFER_ADDRESS_OFFSET, addr);
+        UNSAFE.putInt(buf, BUFFER_CAPACITY_OFFSET, (int) length);
+        ((Buffer) buf).limit((int) length);
+        attach(buf, obj);
+        return buf;
+    }
+
+    private static void attach(ByteBuffer buf, Object obj) {
+        Reference<? extends ByteBuffer> ref;
+        while ((ref = ATTACHMENTS_QUEUE.poll()) != null) {
+            ATTACHMENTS.remove(ref);
+        }
+
+        if (obj != null) {
+            ATTACHMENTS.add(new BufferAttachment(buf, obj, ATTACHMENTS_QUEUE));
+        }
+    }
+
     public static long addressOfByteBuffer(ByteBuffer buf) {
-        if (!(buf instanceof DirectBuffer)) {
+        if (!buf.isDirect()) {
             throw new IllegalArgumentException("Given ByteBuffer is not a direct memory buffer");
         }
-        return ((DirectBuffer) buf).address();
+        return UNSAFE.getLong(buf, BUFFER_ADDRESS_OFFSET);
     }
 
     public static int wordSize() {
         return UNSAFE.addressSize();
     }
 
+    public static int pageSize() {
+        return UNSAFE.pageSize();
+    }
+
     public static boolean getBoolean(long address) {
         return UNSAFE.getByte(address) == 1;
     }
@@ -175,27 +302,449 @@ public class Unsafe {
         }
     }
 
+    // Atomic & ordered operations. The base is either an array, or null when
+    // the offset is an absolute address. Values are always in native order.
+
+    public static int getIntVolatile(Object base, long offset) {
+        return UNSAFE.getIntVolatile(base, offset);
+    }
+
+    public static void putIntVolatile(Object base, long offset, int value) {
+        UNSAFE.putIntVolatile(base, offset, value);
+    }
+
+    public static int getIntAcquire(Object base, long offset) {
+        int value = UNSAFE.getInt(base, offset);
+        UNSAFE.loadFence();
+        return value;
+    }
+
+    public static void putIntRelease(Object base, long offset, int value) {
+        UNSAFE.putOrderedInt(base, offset, value);
+    }
+
+    public static boolean compareAndSetInt(Object base, long offset, int expected, int value) {
+        return UNSAFE.compareAndSwapInt(base, offset, expected, value);
+    }
+
+    public static int getAndAddInt(Object base, long offset, int delta) {
+        return UNSAFE.getAndAddInt(base, offset, delta);
+    }
+
+    public static int getAndSetInt(Object base, long offset, int value) {
+        return UNSAFE.getAndSetInt(base, offset, value);
+    }
+
+    public static long getLongVolatile(Object base, long offset) {
+        return UNSAFE.getLongVolatile(base, offset);
+    }
+
+    public static void putLongVolatile(Object base, long offset, long value) {
+        UNSAFE.putLongVolatile(base, offset, value);
+    }
+
+    public static long getLongAcquire(Object base, long offset) {
+        long value = UNSAFE.getLong(base, offset);
+        UNSAFE.loadFence();
+        return value;
+    }
+
+    public static void putLongRelease(Object base, long offset, long value) {
+        UNSAFE.putOrderedLong(base, offset, value);
+    }
+
+    public static boolean compareAndSetLong(Object base, long offset, long expected, long value) {
+        return UNSAFE.compareAndSwapLong(base, offset, expected, value);
+    }
+
+    public static long getAndAddLong(Object base, long offset, long delta) {
+        return UNSAFE.getAndAddLong(base, offset, delta);
+    }
+
+    public static long getAndSetLong(Object base, long offset, long value) {
+        return UNSAFE.getAndSetLong(base, offset, value);
+    }
+
     public static void copyArrayToArray(Object srcArray, int srcOff, Object dstArray,
                                         int dstOff, int dataSize, int count, DataOrder order) {
-        AccessorNatives.copyMemory(srcArray, 0, srcOff, dstArray, 0,
-                dstOff, dataSize, count,
-                DataOrder.NATIVE_ORDER.id, order.id);
+        copy(srcArray, srcOff, dstArray, dstOff, dataSize, count, !order.isNative());
     }
 
     public static void copyMemBlockToArray(long srcAddr, Object dstArray, int dstOff,
                                            int dataSize, long count, DataOrder order) {
-        AccessorNatives.copyMemory(null, srcAddr, 0, dstArray, 0, dstOff * dataSize,
-                dataSize, count, order.id, DataOrder.NATIVE_ORDER.id);
+        copy(null, srcAddr, dstArray, (long) dstOff * dataSize, dataSize, count, !order.isNative());
     }
 
     public static void copyMemBlockToAddress(long srcAddr, long dstAddr, long count) {
-        AccessorNatives.copyMemory(null, srcAddr, 0, null, dstAddr, 0, 1, count, 0, 0);
+        copy(null, srcAddr, null, dstAddr, 1, count, false);
     }
 
     public static void copyArrayToAddress(Object srcArray, int srcOff, long dstAddress,
                                           int dataSize, long count, DataOrder order) {
-        AccessorNatives.copyMemory(srcArray, 0, dataSize * srcOff, null, dstAddress,
-                0, dataSize, count, DataOrder.NATIVE_ORDER.id, order.id);
+        copy(srcArray, (long) dataSize * srcOff, null, dstAddress, dataSize, count, !order.isNative());
+    }
+
+    /**
+     * Copies count items of the given size from a source to a destination.
+     * @param src the source array, or null if the source is an off-heap address.
+     * @param srcOff the offset, in bytes, from the beginning of the source array, or the source
+     *               address if the source array is null.
+     * @param dst the destination array, or null if the destination is an off-heap address.
+     * @param dstOff the offset, in bytes, from the beginning of the destination array, or the
+     *               destination address if the destination array is null.
+     * @param dataSize the size of each item.
+     * @param count the number of items to copy.
+     * @param swap whether the bytes of each item must be reversed.
+     */
+    static void copy(Object src, long srcOff, Object dst, long dstOff, int dataSize, long count, boolean swap) {
+        long bytes = dataSize * count;
+
+        if (!swap || dataSize == 1) {
+            UNSAFE.copyMemory(src, arrayBaseOffset(src) + srcOff, dst, arrayBaseOffset(dst) + dstOff, bytes);
+        } else if (!nativeSwap(bytes)) {
+            swapCopy(src, arrayBaseOffset(src) + srcOff, dst, arrayBaseOffset(dst) + dstOff, dataSize, count);
+        } else {
+            AccessorNatives.copyMemory(src, 0, srcOff, dst, 0, dstOff, dataSize, count,
+                    DataOrder.NATIVE_ORDER.id, DataOrder.NATIVE_ORDER.opposite().id);
+        }
+    }
+
+    /**
+     * Reverses in place the bytes of count items of the given size. Off-heap blocks
+     * above the native swap threshold are flipped by the native library, whose kernels
+     * support overlapping input and output, while arrays are always flipped in Java,
+     * so the JVM doesn't need to pin them.
+     * @param base the array that holds the items, or null if they are off-heap.
+     * @param off the offset, in bytes, from the beginning of the array, or the
+     *            address of the items if the array is null.
+     * @param dataSize the size of each item.
+     * @param count the number of items to flip.
+     */
+    static void flip(Object base, long off, int dataSize, long count) {
+        if (dataSize == 1) {
+            return;
+        }
+
+        if (base == null && nativeSwap(dataSize * count)) {
+            AccessorNatives.copyMemory(null, off, 0, null, off, 0, dataSize, count,
+                    DataOrder.NATIVE_ORDER.id, DataOrder.NATIVE_ORDER.opposite().id);
+        } else {
+            long start = arrayBaseOffset(base) + off;
+            swapCopy(base, start, base, start, dataSize, count);
+        }
+    }
+
+    // Strided gathers and scatters. The offset is relative to the beginning of the
+    // given array, or an address if the array is null, as in #copy.
+
+    static void gather(Object base, long off, long stride, byte[] dst, int dstOff, int count) {
+        long addr = arrayBaseOffset(base) + off;
+        for (int i = 0; i < count; i++, addr += stride) {
+            dst[dstOff + i] = UNSAFE.getByte(base, addr);
+        }
+    }
+
+    static void scatter(Object base, long off, long stride, byte[] src, int srcOff, int count) {
+        long addr = arrayBaseOffset(base) + off;
+        for (int i = 0; i < count; i++, addr += stride) {
+            UNSAFE.putByte(base, addr, src[srcOff + i]);
+        }
+    }
+
+    static void gather(Object base, long off, long stride, short[] dst, int dstOff, int count, boolean swap) {
+        long addr = arrayBaseOffset(base) + off;
+        if (swap) {
+            for (int i = 0; i < count; i++, addr += stride) {
+                dst[dstOff + i] = Short.reverseBytes(UNSAFE.getShort(base, addr));
+            }
+        } else {
+            for (int i = 0; i < count; i++, addr += stride) {
+                dst[dstOff + i] = UNSAFE.getShort(base, addr);
+            }
+        }
+    }
+
+    static void scatter(Object base, long off, long stride, short[] src, int srcOff, int count, boolean swap) {
+        long addr = arrayBaseOffset(base) + off;
+        if (swap) {
+            for (int i = 0; i < count; i++, addr += stride) {
+                UNSAFE.putShort(base, addr, Short.reverseBytes(src[srcOff + i]));
+            }
+        } else {
+            for (int i = 0; i < count; i++, addr += stride) {
+                UNSAFE.putShort(base, addr, src[srcOff + i]);
+            }
+        }
+    }
+
+    static void gather(Object base, long off, long stride, char[] dst, int dstOff, int count, boolean swap) {
+        long addr = arrayBaseOffset(base) + off;
+        if (swap) {
+            for (int i = 0; i < count; i++, addr += stride) {
+                dst[dstOff + i] = Character.reverseBytes(UNSAFE.getChar(base, addr));
+            }
+        } else {
+            for (int i = 0; i < count; i++, addr += stride) {
+                dst[dstOff + i] = UNSAFE.getChar(base, addr);
+            }
+        }
+    }
+
+    static void scatter(Object base, long off, long stride, char[] src, int srcOff, int count, boolean swap) {
+        long addr = arrayBaseOffset(base) + off;
+        if (swap) {
+            for (int i = 0; i < count; i++, addr += stride) {
+                UNSAFE.putChar(base, addr, Character.reverseBytes(src[srcOff + i]));
+            }
+        } else {
+            for (int i = 0; i < count; i++, addr += stride) {
+                UNSAFE.putChar(base, addr, src[srcOff + i]);
+            }
+        }
+    }
+
+    static void gather(Object base, long off, long stride, int[] dst, int dstOff, int count, boolean swap) {
+        long addr = arrayBaseOffset(base) + off;
+        if (swap) {
+            for (int i = 0; i < count; i++, addr += stride) {
+                dst[dstOff + i] = Integer.reverseBytes(UNSAFE.getInt(base, addr));
+            }
+        } else {
+            for (int i = 0; i < count; i++, addr += stride) {
+                dst[dstOff + i] = UNSAFE.getInt(base, addr);
+            }
+        }
+    }
+
+    static void scatter(Object base, long off, long stride, int[] src, int srcOff, int count, boolean swap) {
+        long addr = arrayBaseOffset(base) + off;
+        if (swap) {
+            for (int i = 0; i < count; i++, addr += stride) {
+                UNSAFE.putInt(base, addr, Integer.reverseBytes(src[srcOff + i]));
+            }
+        } else {
+            for (int i = 0; i < count; i++, addr += stride) {
+                UNSAFE.putInt(base, addr, src[srcOff + i]);
+            }
+        }
+    }
+
+    static void gather(Object base, long off, long stride, long[] dst, int dstOff, int count, boolean swap) {
+        long addr = arrayBaseOffset(base) + off;
+        if (swap) {
+            for (int i = 0; i < count; i++, addr += stride) {
+                dst[dstOff + i] = Long.reverseBytes(UNSAFE.getLong(base, addr));
+            }
+        } else {
+            for (int i = 0; i < count; i++, addr += stride) {
+                dst[dstOff + i] = UNSAFE.getLong(base, addr);
+            }
+        }
+    }
+
+    static void scatter(Object base, long off, long stride, long[] src, int srcOff, int count, boolean swap) {
+        long addr = arrayBaseOffset(base) + off;
+        if (swap) {
+            for (int i = 0; i < count; i++, addr += stride) {
+                UNSAFE.putLong(base, addr, Long.reverseBytes(src[srcOff + i]));
+            }
+        } else {
+            for (int i = 0; i < count; i++, addr += stride) {
+                UNSAFE.putLong(base, addr, src[srcOff + i]);
+            }
+        }
+    }
+
+    static void gather(Object base, long off, long stride, float[] dst, int dstOff, int count, boolean swap) {
+        long addr = arrayBaseOffset(base) + off;
+        if (swap) {
+            for (int i = 0; i < count; i++, addr += stride) {
+                dst[dstOff + i] = Float.intBitsToFloat(Integer.reverseBytes(UNSAFE.getInt(base, addr)));
+            }
+        } else {
+            for (int i = 0; i < count; i++, addr += stride) {
+                dst[dstOff + i] = UNSAFE.getFloat(base, addr);
+            }
+        }
+    }
+
+    static void scatter(Object base, long off, long stride, float[] src, int srcOff, int count, boolean swap) {
+        long addr = arrayBaseOffset(base) + off;
+        if (swap) {
+            for (int i = 0; i < count; i++, addr += stride) {
+                UNSAFE.putInt(base, addr, Integer.reverseBytes(Float.floatToRawIntBits(src[srcOff + i])));
+            }
+        } else {
+            for (int i = 0; i < count; i++, addr += stride) {
+                UNSAFE.putFloat(base, addr, src[srcOff + i]);
+            }
+        }
+    }
+
+    static void gather(Object base, long off, long stride, double[] dst, int dstOff, int count, boolean swap) {
+        long addr = arrayBaseOffset(base) + off;
+        if (swap) {
+            for (int i = 0; i < count; i++, addr += stride) {
+                dst[dstOff + i] = Double.longBitsToDouble(Long.reverseBytes(UNSAFE.getLong(base, addr)));
+            }
+        } else {
+            for (int i = 0; i < count; i++, addr += stride) {
+                dst[dstOff + i] = UNSAFE.getDouble(base, addr);
+            }
+        }
+    }
+
+    static void scatter(Object base, long off, long stride, double[] src, int srcOff, int count, boolean swap) {
+        long addr = arrayBaseOffset(base) + off;
+        if (swap) {
+            for (int i = 0; i < count; i++, addr += stride) {
+                UNSAFE.putLong(base, addr, Long.reverseBytes(Double.doubleToRawLongBits(src[srcOff + i])));
+            }
+        } else {
+            for (int i = 0; i < count; i++, addr += stride) {
+                UNSAFE.putDouble(base, addr, src[srcOff + i]);
+            }
+        }
+    }
+
+    private static long arrayBaseOffset(Object array) {
+        if (array == null) return 0;
+        if (array instanceof byte[]) return BYTE_ARRAY_BASE_OFFSET;
+        if (array instanceof int[]) return INT_ARRAY_BASE_OFFSET;
+        if (array instanceof long[]) return LONG_ARRAY_BASE_OFFSET;
+        if (array instanceof short[]) return SHORT_ARRAY_BASE_OFFSET;
+        if (array instanceof char[]) return CHAR_ARRAY_BASE_OFFSET;
+        if (array instanceof float[]) return FLOAT_ARRAY_BASE_OFFSET;
+        if (array instanceof double[]) return DOUBLE_ARRAY_BASE_OFFSET;
+        throw new IllegalArgumentException("Unsupported array type: " + array.getClass());
+    }
+
+    /**
+     * Copies count items reversing their bytes in Java. Both
+     * {@link Short#reverseBytes(short)}, {@link Integer#reverseBytes(int)} and
+     * {@link Long#reverseBytes(long)} are JIT intrinsics, so this loop avoids
+     * the cost of a JNI transition, which dominates on small copies.
+     */
+    private static void swapCopy(Object src, long srcOff, Object dst, long dstOff, int dataSize, long count) {
+        switch (dataSize) {
+            case 2:
+                for (long i = 0; i < count; i++, srcOff += 2, dstOff += 2) {
+                    UNSAFE.putShort(dst, dstOff, Short.reverseBytes(UNSAFE.getShort(src, srcOff)));
+                }
+                break;
+            case 4:
+                for (long i = 0; i < count; i++, srcOff += 4, dstOff += 4) {
+                    UNSAFE.putInt(dst, dstOff, Integer.reverseBytes(UNSAFE.getInt(src, srcOff)));
+                }
+                break;
+            case 8:
+                for (long i = 0; i < count; i++, srcOff += 8, dstOff += 8) {
+                    UNSAFE.putLong(dst, dstOff, Long.reverseBytes(UNSAFE.getLong(src, srcOff)));
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid data size: " + dataSize);
+        }
+    }
+
+    /**
+     * Returns the size, in bytes, from which byte-swapped copies are performed
+     * by the native library instead of in Java. Until the threshold is calibrated,
+     * this is the default threshold.
+     */
+    public static int nativeSwapThreshold() {
+        return nativeSwapThreshold;
+    }
+
+    /**
+     * Sets the size, in bytes, from which byte-swapped copies are performed
+     * by the native library instead of in Java. The threshold won't be
+     * calibrated automatically after this.
+     */
+    public static void nativeSwapThreshold(int threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Threshold cannot be less than 0");
+        }
+        nativeSwapThresholdFixed = true;
+        nativeSwapThreshold = threshold;
+    }
+
+    /**
+     * Returns whether a byte-swapped copy of the given size should be performed by
+     * the native library. Copies below the default threshold never reach the native
+     * library, so the threshold is only calibrated the first time a copy reaches it,
+     * instead of making every program pay for the calibration on startup.
+     */
+    static boolean nativeSwap(long bytes) {
+        if (bytes < nativeSwapThreshold || !AccessorNatives.isAvailable()) {
+            return false;
+        }
+        if (!nativeSwapThresholdFixed) {
+            synchronized (Unsafe.class) {
+                if (!nativeSwapThresholdFixed) {
+                    calibrateNativeSwapThreshold();
+                }
+            }
+            return bytes >= nativeSwapThreshold;
+        }
+        return true;
+    }
+
+    /**
+     * Measures the cost of byte-swapped copies of increasing sizes, both in Java
+     * and through the native library, and sets as threshold the first size where
+     * the native library is faster. This takes a few tens of milliseconds on a JVM
+     * that has not warmed up yet, and it is run
+     * automatically the first time a byte-swapped copy reaches the default threshold,
+     * or on startup if the system property {@value #NATIVE_SWAP_THRESHOLD_PROPERTY}
+     * is set to {@code auto}.
+     * @return the new threshold.
+     */
+    public static int calibrateNativeSwapThreshold() {
+        nativeSwapThresholdFixed = true;
+        if (!AccessorNatives.isAvailable()) {
+            nativeSwapThreshold = Integer.MAX_VALUE;
+            return nativeSwapThreshold;
+        }
+
+        int maxSize = 1 << 16;
+        long src = alloc(maxSize);
+        long[] dst = new long[maxSize / 8];
+
+        try {
+            memset(src, maxSize, (byte) 0);
+            for (int size = 64; size <= maxSize; size <<= 1) {
+                int iterations = Math.max(16, (1 << 20) / size);
+                long count = size / 8;
+
+                //First round is just for warming up both paths.
+                long javaTime = 0, nativeTime = 0;
+                for (int round = 0; round < 2; round++) {
+                    long t = System.nanoTime();
+                    for (int i = 0; i < iterations; i++) {
+                        swapCopy(null, src, dst, LONG_ARRAY_BASE_OFFSET, 8, count);
+                    }
+                    javaTime = System.nanoTime() - t;
+
+                    t = System.nanoTime();
+                    for (int i = 0; i < iterations; i++) {
+                        AccessorNatives.copyMemory(null, src, 0, dst, 0, 0, 8, count,
+                                DataOrder.NATIVE_ORDER.id, DataOrder.NATIVE_ORDER.opposite().id);
+                    }
+                    nativeTime = System.nanoTime() - t;
+                }
+
+                if (nativeTime < javaTime) {
+                    nativeSwapThreshold = size;
+                    return size;
+                }
+            }
+        } finally {
+            dealloc(src);
+        }
+
+        nativeSwapThreshold = Integer.MAX_VALUE;
+        return nativeSwapThreshold;
     }
 
     public static long alloc(long size) {
@@ -208,6 +757,15 @@ public class Unsafe {
         return addr;
     }
 
+    /**
+     * Resizes a memory block allocated through {@link #alloc(long)}, moving it if
+     * needed. The contents are preserved up to the lesser of the old and new sizes.
+     * @return the address of the resized block.
+     */
+    public static long realloc(long addr, long size) {
+        return UNSAFE.reallocateMemory(addr, size);
+    }
+
     public static void memset(long address, long length, byte x) {
         UNSAFE.setMemory(address, length, x);
     }
@@ -0,0 +1,95 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Reads and writes multi-byte values from and to byte arrays through
+ * VarHandles, which the JIT compiles to plain (and byte swapped, if needed)
+ * memory accesses.
+ */
+final class ArrayAccess {
+    private static final VarHandle SHORT_BE = view(short[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle SHORT_LE = view(short[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle CHAR_BE = view(char[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle CHAR_LE = view(char[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INT_BE = view(int[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle INT_LE = view(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle LONG_BE = view(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle LONG_LE = view(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle FLOAT_BE = view(float[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle FLOAT_LE = view(float[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle DOUBLE_BE = view(double[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle DOUBLE_LE = view(double[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private ArrayAccess() { }
+
+    private static VarHandle view(Class<?> arrayType, ByteOrder order) {
+        return MethodHandles.byteArrayViewVarHandle(arrayType, order);
+    }
+
+    static short getShort(byte[] buf, int pos, DataOrder order) {
+        return order == DataOrder.BIG_ENDIAN ? (short) SHORT_BE.get(buf, pos) : (short) SHORT_LE.get(buf, pos);
+    }
+
+    static char getChar(byte[] buf, int pos, DataOrder order) {
+        return order == DataOrder.BIG_ENDIAN ? (char) CHAR_BE.get(buf, pos) : (char) CHAR_LE.get(buf, pos);
+    }
+
+    static int getInt(byte[] buf, int pos, DataOrder order) {
+        return order == DataOrder.BIG_ENDIAN ? (int) INT_BE.get(buf, pos) : (int) INT_LE.get(buf, pos);
+    }
+
+    static long getLong(byte[] buf, int pos, DataOrder order) {
+        return order == DataOrder.BIG_ENDIAN ? (long) LONG_BE.get(buf, pos) : (long) LONG_LE.get(buf, pos);
+    }
+
+    static float getFloat(byte[] buf, int pos, DataOrder order) {
+        return order == DataOrder.BIG_ENDIAN ? (float) FLOAT_BE.get(buf, pos) : (float) FLOAT_LE.get(buf, pos);
+    }
+
+    static double getDouble(byte[] buf, int pos, DataOrder order) {
+        return order == DataOrder.BIG_ENDIAN ? (double) DOUBLE_BE.get(buf, pos) : (double) DOUBLE_LE.get(buf, pos);
+    }
+
+    static void putShort(byte[] buf, int pos, short value, DataOrder order) {
+        if (order == DataOrder.BIG_ENDIAN) SHORT_BE.set(buf, pos, value); else SHORT_LE.set(buf, pos, value);
+    }
+
+    static void putChar(byte[] buf, int pos, char value, DataOrder order) {
+        if (order == DataOrder.BIG_ENDIAN) CHAR_BE.set(buf, pos, value); else CHAR_LE.set(buf, pos, value);
+    }
+
+    static void putInt(byte[] buf, int pos, int value, DataOrder order) {
+        if (order == DataOrder.BIG_ENDIAN) INT_BE.set(buf, pos, value); else INT_LE.set(buf, pos, value);
+    }
+
+    static void putLong(byte[] buf, int pos, long value, DataOrder order) {
+        if (order == DataOrder.BIG_ENDIAN) LONG_BE.set(buf, pos, value); else LONG_LE.set(buf, pos, value);
+    }
+
+    static void putFloat(byte[] buf, int pos, float value, DataOrder order) {
+        if (order == DataOrder.BIG_ENDIAN) FLOAT_BE.set(buf, pos, value); else FLOAT_LE.set(buf, pos, value);
+    }
+
+    static void putDouble(byte[] buf, int pos, double value, DataOrder order) {
+        if (order == DataOrder.BIG_ENDIAN) DOUBLE_BE.set(buf, pos, value); else DOUBLE_LE.set(buf, pos, value);
+    }
+}
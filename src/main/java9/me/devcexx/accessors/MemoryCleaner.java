@@ -0,0 +1,52 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+import java.lang.ref.Cleaner;
+
+/**
+ * Runs the deallocation actions of the sources once they become phantom
+ * reachable, unless they were explicitly deallocated before, through a
+ * {@link Cleaner}.
+ */
+final class MemoryCleaner {
+    /**
+     * A registered deallocation action.
+     */
+    interface Cleanable {
+        /**
+         * Runs the action if it has not been run yet. The action is run
+         * at most once, even if this method is called concurrently from
+         * different threads or by the cleaner itself.
+         */
+        void clean();
+    }
+
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private MemoryCleaner() { }
+
+    /**
+     * Registers an action that will be run once the owner becomes phantom
+     * reachable. The action must not reference the owner, or it will never
+     * be collected.
+     * @return a {@link Cleanable} that runs the action on demand.
+     */
+    static Cleanable register(Object owner, Runnable action) {
+        return CLEANER.register(owner, action)::clean;
+    }
+}
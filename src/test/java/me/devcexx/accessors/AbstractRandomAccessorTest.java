@@ -134,6 +134,112 @@ public abstract class AbstractRandomAccessorTest {
         testBuffers(DataOrder.NATIVE_ORDER.opposite());
     }
 
+    @Test
+    public void testNonNativeEndiannessLargeBuffers() {
+        DataOrder order = DataOrder.NATIVE_ORDER.opposite();
+        Random random = new Random();
+
+        //Sizes around the native swap threshold, so both copy paths are exercised.
+        for (int count : new int[] { 1, 7, 64, 511, 4096 }) {
+            RandomAccessSource source = mkSource(count * 8 + 3);
+            long[] longVals = new long[count];
+            for (int i = 0; i < count; i++) {
+                longVals[i] = random.nextLong();
+            }
+
+            source.put(3, longVals, order);
+            for (int i = 0; i < count; i++) {
+                assertEquals(longVals[i], source.getLong(3 + i * 8, order));
+            }
+            assertArrayEquals(longVals, source.get(3, new long[count], order));
+
+            int[] intVals = source.get(3, new int[count * 2], order);
+            for (int i = 0; i < intVals.length; i++) {
+                assertEquals(source.getInt(3 + i * 4, order), intVals[i]);
+            }
+
+            short[] shortVals = source.get(3, new short[count * 4], order);
+            source.put(3, shortVals, order);
+            assertArrayEquals(longVals, source.get(3, new long[count], order));
+
+            source.dealloc();
+        }
+    }
+
+    private static long alignedOffset(RandomAccessSource source, int size) {
+        for (long off = 0; off < size; off++) {
+            if (source.isAligned(off, size)) {
+                return off;
+            }
+        }
+        throw new AssertionError("No aligned offset found");
+    }
+
+    @Test
+    public void testAtomics() {
+        RandomAccessSource source = mkSource(64);
+        assertTrue(source.supportsAtomicAccess());
+
+        long intOff = alignedOffset(source, 4);
+        source.putIntVolatile(intOff, 5);
+        assertEquals(5, source.getIntVolatile(intOff));
+        assertEquals(5, source.getInt(intOff, DataOrder.NATIVE_ORDER));
+        assertTrue(source.compareAndSetInt(intOff, 5, 6));
+        assertFalse(source.compareAndSetInt(intOff, 5, 7));
+        assertEquals(6, source.getAndAddInt(intOff, 10));
+        assertEquals(16, source.getAndSetInt(intOff, 1));
+        source.putIntRelease(intOff, 2);
+        assertEquals(2, source.getIntAcquire(intOff));
+
+        long longOff = alignedOffset(source, 8) + 8;
+        source.putLongVolatile(longOff, Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, source.getLongVolatile(longOff));
+        assertTrue(source.compareAndSetLong(longOff, Long.MAX_VALUE, 1L));
+        assertFalse(source.compareAndSetLong(longOff, Long.MAX_VALUE, 2L));
+        assertEquals(1L, source.getAndAddLong(longOff, 1L << 40));
+        assertEquals(1L + (1L << 40), source.getAndSetLong(longOff, 3L));
+        source.putLongRelease(longOff, 4L);
+        assertEquals(4L, source.getLongAcquire(longOff));
+
+        assertThrows(IllegalArgumentException.class, () -> source.getAndAddInt(intOff + 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> source.compareAndSetLong(longOff + 4, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> source.getIntVolatile(64));
+
+        RandomAccessor accessor = new RandomAccessor(source, 0, longOff);
+        assertThrows(IllegalArgumentException.class, () -> accessor.getLongVolatile(longOff));
+        assertEquals(2, accessor.getAndAddInt(intOff, 1));
+
+        RandomAccessSource readOnly = source.withPermissions(AccessorPermissions.READ);
+        assertEquals(3, readOnly.getIntAcquire(intOff));
+        assertThrows(IllegalStateException.class, () -> readOnly.compareAndSetInt(intOff, 3, 4));
+        assertThrows(IllegalStateException.class, () -> readOnly.putLongRelease(longOff, 0L));
+
+        source.dealloc();
+    }
+
+    @Test
+    public void testConcurrentGetAndAdd() throws InterruptedException {
+        RandomAccessSource source = mkSource(16);
+        long off = alignedOffset(source, 8);
+        source.putLongVolatile(off, 0);
+
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    source.getAndAddLong(off, 1);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(threads.length * 10000L, source.getLongVolatile(off));
+        source.dealloc();
+    }
+
     @Test
     public void testSlicing() {
         RandomAccessSource source = mkSource(32);
@@ -336,4 +442,150 @@ public abstract class AbstractRandomAccessorTest {
             return ByteBuffer.wrap(b, 128, integer).slice();
         });
     }
+
+    private static RandomAccessSource[] copyTargets(long size) {
+        return new RandomAccessSource[] {
+                Sources.fromArray(new byte[(int) size + 16], 7, (int) size),
+                Sources.calloc(size),
+                Sources.segmented(size, 64),
+                Sources.concat(Sources.fromNewArray(33), Sources.calloc(size - 33).slice(0, size - 33))
+        };
+    }
+
+    @Test
+    public void testCopyTo() {
+        RandomAccessSource source = mkSource(4096);
+        byte[] data = new byte[4096];
+        new Random().nextBytes(data);
+        source.put(0, data);
+
+        for (RandomAccessSource target : copyTargets(4096)) {
+            source.copyTo(3, target, 5, 4000);
+            byte[] copied = target.get(5, new byte[4000]);
+            for (int i = 0; i < 4000; i++) {
+                assertEquals(data[3 + i], copied[i]);
+            }
+
+            source.clear((byte) 0);
+            source.copyFrom(1, target, 5, 4000);
+            assertEquals(0, source.get(0));
+            assertEquals(data[3], source.get(1));
+            assertEquals(data[4002], source.get(4000));
+            assertEquals(0, source.get(4001));
+            source.put(0, data);
+        }
+    }
+
+    @Test
+    public void testCopyToSwapped() {
+        RandomAccessSource source = mkSource(4096);
+        for (int i = 0; i < 1024; i++) {
+            source.put(i * 4L, i * 0x01010101, DataOrder.BIG_ENDIAN);
+        }
+
+        for (RandomAccessSource target : copyTargets(4096)) {
+            source.copyTo(0, target, 1, 4088, 4, DataOrder.BIG_ENDIAN, DataOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < 1022; i++) {
+                assertEquals(i * 0x01010101, target.getInt(1 + i * 4L, DataOrder.LITTLE_ENDIAN));
+            }
+
+            source.copyTo(8, target, 0, 8, 8, DataOrder.BIG_ENDIAN, DataOrder.LITTLE_ENDIAN);
+            assertEquals(source.getLong(8, DataOrder.BIG_ENDIAN), target.getLong(0, DataOrder.LITTLE_ENDIAN));
+        }
+
+        assertThrows(IllegalArgumentException.class, () ->
+                source.copyTo(0, source, 0, 6, 4, DataOrder.BIG_ENDIAN, DataOrder.LITTLE_ENDIAN));
+        assertThrows(IllegalArgumentException.class, () -> source.copyTo(4000, source, 0, 100));
+        assertThrows(IllegalStateException.class, () ->
+                source.copyTo(0, source.withPermissions(AccessorPermissions.READ), 0, 8));
+    }
+
+    @Test
+    public void testFlipOrder() {
+        RandomAccessSource source = mkSource(4096);
+        for (int i = 0; i < 511; i++) {
+            source.put(1 + i * 8L, i * 0x0102030405L, DataOrder.BIG_ENDIAN);
+        }
+
+        source.flipOrder(1, 4088, 8);
+        for (int i = 0; i < 511; i++) {
+            assertEquals(i * 0x0102030405L, source.getLong(1 + i * 8L, DataOrder.LITTLE_ENDIAN));
+        }
+
+        source.put(10, (short) 0x1234, DataOrder.BIG_ENDIAN);
+        source.put(12, 0x12345678, DataOrder.BIG_ENDIAN);
+        source.flipOrder(10, 2, 2);
+        source.convertOrder(12, 4, 4, DataOrder.BIG_ENDIAN, DataOrder.LITTLE_ENDIAN);
+        source.convertOrder(12, 4, 4, DataOrder.LITTLE_ENDIAN, DataOrder.LITTLE_ENDIAN);
+        assertEquals(0x1234, source.getShort(10, DataOrder.LITTLE_ENDIAN));
+        assertEquals(0x12345678, source.getInt(12, DataOrder.LITTLE_ENDIAN));
+
+        source.flipOrder(8);
+        source.flipOrder(8);
+        assertEquals(0x12345678, source.getInt(12, DataOrder.LITTLE_ENDIAN));
+
+        assertThrows(IllegalArgumentException.class, () -> source.flipOrder(0, 6, 4));
+        assertThrows(IllegalArgumentException.class, () -> source.flipOrder(0, 4, 3));
+        assertThrows(IllegalArgumentException.class, () -> source.flipOrder(4092, 8, 4));
+    }
+
+    @Test
+    public void testStridedAccess() {
+        RandomAccessSource source = mkSource(4096);
+        Random random = new Random();
+        DataOrder order = DataOrder.NATIVE_ORDER.opposite();
+
+        long[] longs = random.longs(64).toArray();
+        source.put(16, 64, longs, 0, 64, order);
+        for (int i = 0; i < 64; i++) {
+            assertEquals(longs[i], source.getLong(16 + i * 64L, order));
+        }
+        assertArrayEquals(longs, source.get(16, 64, new long[64], 0, 64, order));
+
+        //Unaligned items with an odd stride, in both orders.
+        for (DataOrder o : DataOrder.values()) {
+            int[] ints = random.ints(300).toArray();
+            source.put(3, 13, ints, 0, 300, o);
+            assertEquals(ints[7], source.getInt(3 + 7 * 13, o));
+            assertArrayEquals(ints, source.get(3, 13, new int[300], 0, 300, o));
+
+            short[] shorts = new short[200];
+            char[] chars = new char[200];
+            float[] floats = new float[200];
+            double[] doubles = new double[200];
+            byte[] bytes = new byte[200];
+            for (int i = 0; i < 200; i++) {
+                shorts[i] = (short) random.nextInt();
+                chars[i] = (char) random.nextInt();
+                floats[i] = random.nextFloat();
+                doubles[i] = random.nextDouble();
+                bytes[i] = (byte) random.nextInt();
+            }
+
+            source.put(1, 20, shorts, 0, 200, o);
+            source.put(3, 20, chars, 0, 200, o);
+            source.put(5, 20, floats, 0, 200, o);
+            source.put(9, 20, doubles, 0, 200, o);
+            source.put(17, 20, bytes, 0, 200);
+
+            assertArrayEquals(shorts, source.get(1, 20, new short[200], 0, 200, o));
+            assertArrayEquals(chars, source.get(3, 20, new char[200], 0, 200, o));
+            assertArrayEquals(floats, source.get(5, 20, new float[200], 0, 200, o));
+            assertArrayEquals(doubles, source.get(9, 20, new double[200], 0, 200, o));
+            assertArrayEquals(bytes, source.get(17, 20, new byte[200], 0, 200));
+            assertEquals(doubles[199], source.getDouble(9 + 199 * 20, o));
+        }
+
+        int[] partial = new int[10];
+        source.get(0, 8, partial, 2, 5, order);
+        assertEquals(0, partial[0]);
+        assertEquals(source.getInt(0, order), partial[2]);
+        assertEquals(source.getInt(32, order), partial[6]);
+
+        assertThrows(IllegalArgumentException.class, () -> source.get(0, 64, new long[64], 0, 65, order));
+        assertThrows(IllegalArgumentException.class, () -> source.get(4096 - 63 * 64, 64, new long[64], 0, 64, order));
+        assertThrows(IllegalArgumentException.class, () -> source.get(0, 0, new long[64], 0, 64, order));
+        assertThrows(IllegalArgumentException.class, () -> source.put(0, Long.MAX_VALUE / 2, new long[4], 0, 4, order));
+        source.get(4096, 64, new long[0], 0, 0, order);
+    }
 }
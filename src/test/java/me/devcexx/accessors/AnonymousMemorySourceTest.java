@@ -0,0 +1,87 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AnonymousMemorySourceTest extends AbstractRandomAccessorTest {
+    private static final long IPC_PRIVATE = 0;
+
+    @Override
+    protected RandomAccessSource mkSource(long size) {
+        return Sources.alloc(size, HugePages.TRANSPARENT);
+    }
+
+    @Test
+    public void testPageSizes() {
+        assertEquals(Unsafe.pageSize(), HugePages.TRANSPARENT.size());
+        assertEquals(2L << 20, HugePages.SIZE_2MB.size());
+        assertEquals(1L << 30, HugePages.SIZE_1GB.size());
+        assertTrue(HugePages.DEFAULT_SIZE.size() >= Unsafe.pageSize());
+        assertEquals(4L << 20, HugePages.SIZE_2MB.roundUp((2L << 20) + 1));
+    }
+
+    @Test
+    public void testHugePageFlags() {
+        assertEquals(0, HugePages.TRANSPARENT.mmapFlags());
+        assertEquals(0, HugePages.TRANSPARENT.shmFlags());
+        assertEquals(AccessorNatives.MAP_HUGETLB, HugePages.DEFAULT_SIZE.mmapFlags());
+        assertEquals(AccessorNatives.SHM_HUGETLB, HugePages.DEFAULT_SIZE.shmFlags());
+
+        int flags = HugePages.SIZE_1GB.mmapFlags();
+        if (AccessorNatives.MAP_HUGE_SHIFT == 0) {
+            assertEquals(0, flags);
+        } else {
+            assertEquals(AccessorNatives.MAP_HUGETLB | (30 << AccessorNatives.MAP_HUGE_SHIFT), flags);
+        }
+    }
+
+    @Test
+    public void testExplicitHugePagesFallBack() {
+        //Whether the system has reserved huge pages or not, the allocation succeeds.
+        AnonymousMemorySource source = Sources.alloc(3 << 20, HugePages.SIZE_2MB);
+        assertTrue(source.hugePages() == null || source.hugePages() == HugePages.SIZE_2MB
+                || source.hugePages() == HugePages.TRANSPARENT);
+
+        assertEquals(3 << 20, source.length());
+        assertEquals(0, source.getLong(source.length() - 8, DataOrder.NATIVE_ORDER));
+        source.put(source.length() - 8, 0x0102030405060708L, DataOrder.NATIVE_ORDER);
+        assertEquals(0x0102030405060708L, source.getLong(source.length() - 8, DataOrder.NATIVE_ORDER));
+        source.dealloc();
+    }
+
+    @Test
+    public void testEmptySource() {
+        AnonymousMemorySource source = Sources.alloc(0, HugePages.SIZE_1GB);
+        assertEquals(0, source.length());
+        assertNull(source.hugePages());
+        source.dealloc();
+    }
+
+    @Test
+    public void testHugePageSharedMemorySegment() {
+        SharedMemorySource source = Sources.createSharedMemorySegment(IPC_PRIVATE, 1 << 20, 0600,
+                false, HugePages.DEFAULT_SIZE);
+
+        assertEquals(1 << 20, source.length());
+        source.put(12345, 42, DataOrder.NATIVE_ORDER);
+        assertEquals(42, source.getInt(12345, DataOrder.NATIVE_ORDER));
+        source.destroyRegion();
+    }
+}
@@ -1,8 +1,30 @@
 package me.devcexx.accessors;
 
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+
+import static org.junit.jupiter.api.Assertions.*;
+
 public class ByteArraySourceTest extends AbstractRandomAccessorTest {
     @Override
     protected RandomAccessSource mkSource(long size) {
         return new ByteArraySource(new byte[(int) size], 0, (int) size);
     }
+
+    @Test
+    public void testMultiReleaseArrayAccess() {
+        //Only meaningful when the tests run against the multi-release jar.
+        if (!Boolean.getBoolean("me.devcexx.accessors.test.multiReleaseJar")) {
+            return;
+        }
+
+        boolean varHandles = false;
+        for (Field field : ArrayAccess.class.getDeclaredFields()) {
+            if (field.getType().getName().equals("java.lang.invoke.VarHandle")) {
+                varHandles = true;
+            }
+        }
+        assertTrue(varHandles, "The Java 9 variant of ArrayAccess was not loaded from the jar");
+    }
 }
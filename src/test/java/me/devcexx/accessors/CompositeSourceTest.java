@@ -0,0 +1,140 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompositeSourceTest extends AbstractRandomAccessorTest {
+    @Override
+    protected RandomAccessSource mkSource(long size) {
+        long heap = Math.min(size, 24);
+        long direct = Math.min(size - heap, 20);
+        return Sources.concat(
+                Sources.fromNewArray((int) heap),
+                Sources.alloc(0),
+                Sources.alloc(direct),
+                Sources.segmented(size - heap - direct, 16));
+    }
+
+    @Test
+    public void testComponentResolution() {
+        CompositeSource source = Sources.concat(Sources.fromNewArray(3), Sources.fromNewArray(0),
+                Sources.fromNewArray(5), Sources.fromNewArray(1), Sources.fromNewArray(7));
+
+        assertEquals(16, source.length());
+        assertEquals(4, source.componentCount());
+
+        int[] expected = new int[] { 0, 0, 0, 1, 1, 1, 1, 1, 2, 3, 3, 3, 3, 3, 3, 3 };
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], source.componentIndex(i));
+        }
+        for (int i = expected.length - 1; i >= 0; i--) {
+            assertEquals(expected[i], source.componentIndex(i));
+        }
+    }
+
+    @Test
+    public void testValuesAcrossComponents() {
+        ByteArraySource first = Sources.fromNewArray(3);
+        ByteArraySource second = Sources.fromNewArray(1);
+        ByteArraySource third = Sources.fromNewArray(12);
+        CompositeSource source = Sources.concat(first, second, third);
+
+        source.put(1, 0x0102030405060708L, DataOrder.BIG_ENDIAN);
+        assertArrayEquals(new byte[] { 0, 1, 2 }, first.get(0, new byte[3]));
+        assertEquals(3, second.get(0));
+        assertArrayEquals(new byte[] { 4, 5, 6, 7, 8 }, third.get(0, new byte[5]));
+        assertEquals(0x0102030405060708L, source.getLong(1, DataOrder.BIG_ENDIAN));
+        assertEquals(0x0807060504030201L, source.getLong(1, DataOrder.LITTLE_ENDIAN));
+        assertEquals(0x02030405, source.getInt(2, DataOrder.BIG_ENDIAN));
+
+        short[] shorts = new short[] { 1, 2, 3, 4, 5, 6, 7 };
+        source.put(1, shorts, DataOrder.LITTLE_ENDIAN);
+        assertEquals(2, second.get(0));
+        assertArrayEquals(shorts, source.get(1, new short[shorts.length], DataOrder.LITTLE_ENDIAN));
+    }
+
+    @Test
+    public void testSlicesAndBuffers() {
+        ByteArraySource first = Sources.fromNewArray(8);
+        CompositeSource source = Sources.concat(first, Sources.fromNewArray(8));
+
+        RandomAccessSource slice = source.slice(2, 4);
+        assertTrue(slice instanceof SlicedSource);
+        slice.put(0, (byte) 42);
+        assertEquals(42, first.get(2));
+
+        assertEquals(8, source.byteBuffer(8, 8).remaining());
+        assertThrows(IllegalArgumentException.class, () -> source.byteBuffer(4, 8));
+        assertEquals(12, source.slice(2, 12).length());
+    }
+
+    @Test
+    public void testComponentsLifecycle() {
+        DirectMemorySource component = Sources.alloc(8);
+        CompositeSource source = Sources.concat(Sources.fromNewArray(8), component);
+
+        source.dealloc();
+        assertTrue(source.deallocated());
+        assertFalse(component.deallocated());
+
+        CompositeSource other = Sources.concat(Sources.fromNewArray(8), component);
+        component.dealloc();
+        assertTrue(other.deallocated());
+        assertThrows(IllegalStateException.class, () -> other.get(0));
+
+        //Accesses only check the components they span, but once one of them is
+        //found deallocated, the whole source becomes invalid.
+        CompositeSource third = Sources.concat(Sources.fromNewArray(8), Sources.alloc(8), Sources.fromNewArray(8));
+        third.component(1).dealloc();
+        assertEquals(0, third.get(0));
+        assertThrows(IllegalStateException.class, () -> third.getLong(4, DataOrder.BIG_ENDIAN));
+        assertThrows(IllegalStateException.class, () -> third.get(0));
+    }
+
+    @Test
+    public void testStraddlingPuts() {
+        CompositeSource source = Sources.concat(Sources.fromNewArray(5), Sources.alloc(5), Sources.segmented(6, 2));
+        for (DataOrder order : new DataOrder[] { DataOrder.BIG_ENDIAN, DataOrder.LITTLE_ENDIAN }) {
+            source.put(3, (short) 0x1234, order);
+            assertEquals((short) 0x1234, source.getShort(3, order));
+            source.put(4, 'x', order);
+            assertEquals('x', source.getChar(4, order));
+            source.put(2, 0x12345678, order);
+            assertEquals(0x12345678, source.getInt(2, order));
+            source.put(1, 0x0102030405060708L, order);
+            assertEquals(0x0102030405060708L, source.getLong(1, order));
+            source.put(7, 1.25f, order);
+            assertEquals(1.25f, source.getFloat(7, order));
+            source.put(6, -3.5, order);
+            assertEquals(-3.5, source.getDouble(6, order));
+        }
+    }
+
+    @Test
+    public void testPermissions() {
+        RandomAccessSource readOnly = Sources.fromNewArray(8).withPermissions(AccessorPermissions.READ);
+        CompositeSource source = Sources.concat(readOnly, Sources.fromNewArray(8));
+
+        assertFalse(source.isWritable());
+        assertEquals(0, source.get(4));
+        assertThrows(IllegalStateException.class, () -> source.put(12, (byte) 1));
+        assertThrows(IllegalStateException.class, () -> source.clear((byte) 0));
+    }
+}
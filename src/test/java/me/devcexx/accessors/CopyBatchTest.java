@@ -0,0 +1,220 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CopyBatchTest {
+    private static void fill(RandomAccessSource source) {
+        for (long i = 0; i < source.length(); i++) {
+            source.put(i, (byte) i);
+        }
+    }
+
+    @Test
+    public void testGet() {
+        DirectMemorySource source = Sources.alloc(256);
+        fill(source);
+
+        byte[] bytes = new byte[5];
+        short[] shorts = new short[2];
+        int[] ints = new int[3];
+        long[] longs = new long[1];
+        double[] doubles = new double[2];
+
+        try (CopyBatch batch = new CopyBatch()) {
+            batch.get(source, 1, bytes, 1, 4)
+                    .get(source, 10, shorts, 0, 2, DataOrder.BIG_ENDIAN)
+                    .get(source, 20, ints, 1, 2, DataOrder.LITTLE_ENDIAN)
+                    .get(source, 40, longs, 0, 1, DataOrder.BIG_ENDIAN)
+                    .get(source, 64, doubles, 0, 2, DataOrder.NATIVE_ORDER);
+            assertEquals(5, batch.size());
+            batch.execute();
+            assertEquals(0, batch.size());
+        }
+
+        assertArrayEquals(new byte[] { 0, 1, 2, 3, 4 }, bytes);
+        assertArrayEquals(new short[] { 0x0a0b, 0x0c0d }, shorts);
+        assertArrayEquals(new int[] { 0, 0x17161514, 0x1b1a1918 }, ints);
+        assertArrayEquals(new long[] { 0x28292a2b2c2d2e2fL }, longs);
+        assertEquals(source.getDouble(64, DataOrder.NATIVE_ORDER), doubles[0]);
+        assertEquals(source.getDouble(72, DataOrder.NATIVE_ORDER), doubles[1]);
+        source.dealloc();
+    }
+
+    @Test
+    public void testPut() {
+        ByteArraySource source = Sources.fromNewArray(64);
+
+        try (CopyBatch batch = new CopyBatch()) {
+            batch.put(source, 0, new byte[] { 1, 2, 3 }, 1, 2)
+                    .put(source, 2, new char[] { 'a', 'b' }, 0, 2, DataOrder.BIG_ENDIAN)
+                    .put(source, 6, new float[] { 1.5f }, 0, 1, DataOrder.LITTLE_ENDIAN)
+                    .put(source, 10, new long[] { 0x0102030405060708L }, 0, 1, DataOrder.LITTLE_ENDIAN)
+                    .execute();
+        }
+
+        assertEquals(2, source.get(0));
+        assertEquals(3, source.get(1));
+        assertEquals('a', source.getChar(2, DataOrder.BIG_ENDIAN));
+        assertEquals('b', source.getChar(4, DataOrder.BIG_ENDIAN));
+        assertEquals(1.5f, source.getFloat(6, DataOrder.LITTLE_ENDIAN));
+        assertEquals(0x0102030405060708L, source.getLong(10, DataOrder.LITTLE_ENDIAN));
+    }
+
+    @Test
+    public void testOrderIsPreserved() {
+        DirectMemorySource source = Sources.calloc(16);
+        int[] value = new int[] { 42 };
+        int[] read = new int[1];
+
+        try (CopyBatch batch = new CopyBatch()) {
+            batch.put(source, 4, value, 0, 1, DataOrder.BIG_ENDIAN)
+                    .get(source, 4, read, 0, 1, DataOrder.BIG_ENDIAN)
+                    .execute();
+        }
+
+        assertEquals(42, read[0]);
+        source.dealloc();
+    }
+
+    @Test
+    public void testInlineCopiesKeepTheOrder() {
+        int count = Math.max(Unsafe.nativeSwapThreshold(), 8) / 8 + 1;
+        DirectMemorySource source = Sources.calloc(count * 8L);
+        long[] values = new long[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = i;
+        }
+        long[] read = new long[1];
+        byte[] bytes = new byte[8];
+        long[] unrelated = new long[1];
+
+        //The first copy may be delayed to the native call, but the ones that
+        //overlap it, which are performed inline, must see its result.
+        try (CopyBatch batch = new CopyBatch()) {
+            batch.put(source, 0, values, 0, count, DataOrder.BIG_ENDIAN)
+                    .get(Sources.fromNewArray(8), 0, unrelated, 0, 1, DataOrder.NATIVE_ORDER)
+                    .get(source, (count - 1) * 8L, read, 0, 1, DataOrder.BIG_ENDIAN)
+                    .put(source, 8, new byte[8], 0, 8)
+                    .get(source, 8, bytes, 0, 8)
+                    .execute();
+        }
+
+        assertEquals(count - 1, read[0]);
+        assertArrayEquals(new byte[8], bytes);
+        assertEquals(0, source.getLong(8, DataOrder.BIG_ENDIAN));
+        assertEquals(2, source.getLong(16, DataOrder.BIG_ENDIAN));
+        source.dealloc();
+    }
+
+    @Test
+    public void testNonContiguousSources() {
+        RandomAccessSource composite = Sources.concat(Sources.fromNewArray(7), Sources.segmented(64, 16),
+                Sources.fromByteBuffer(ByteBuffer.allocate(32)));
+        fill(composite);
+
+        long[] longs = new long[12];
+        try (CopyBatch batch = new CopyBatch()) {
+            batch.get(composite, 0, longs, 0, 12, DataOrder.BIG_ENDIAN).execute();
+        }
+        for (int i = 0; i < longs.length; i++) {
+            assertEquals(composite.getLong(i * 8L, DataOrder.BIG_ENDIAN), longs[i]);
+        }
+
+        short[] shorts = new short[51];
+        for (int i = 0; i < shorts.length; i++) {
+            shorts[i] = (short) (i * 0x0101);
+        }
+        try (CopyBatch batch = new CopyBatch()) {
+            batch.put(composite, 1, shorts, 0, shorts.length, DataOrder.LITTLE_ENDIAN).execute();
+        }
+        for (int i = 0; i < shorts.length; i++) {
+            assertEquals(shorts[i], composite.getShort(1 + i * 2L, DataOrder.LITTLE_ENDIAN));
+        }
+    }
+
+    @Test
+    public void testManyArrays() {
+        DirectMemorySource source = Sources.alloc(1024);
+        fill(source);
+
+        //Send every swapped copy to the native library.
+        int threshold = Unsafe.nativeSwapThreshold();
+        Unsafe.nativeSwapThreshold(0);
+        int[][] arrays = new int[200][1];
+        try (CopyBatch batch = new CopyBatch()) {
+            for (int i = 0; i < arrays.length; i++) {
+                batch.get(source, i * 4L, arrays[i], 0, 1, DataOrder.BIG_ENDIAN);
+            }
+            batch.execute();
+        } finally {
+            Unsafe.nativeSwapThreshold(threshold);
+        }
+
+        for (int i = 0; i < arrays.length; i++) {
+            assertEquals(source.getInt(i * 4L, DataOrder.BIG_ENDIAN), arrays[i][0]);
+        }
+        source.dealloc();
+    }
+
+    @Test
+    public void testReuse() {
+        DirectMemorySource source = Sources.alloc(8);
+        byte[] data = new byte[8];
+
+        try (CopyBatch batch = new CopyBatch()) {
+            for (int i = 0; i < 3; i++) {
+                source.clear((byte) i);
+                batch.get(source, 0, data, 0, 8).execute();
+                for (byte b : data) {
+                    assertEquals(i, b);
+                }
+            }
+
+            batch.get(source, 0, data, 0, 8);
+            batch.clear();
+            assertEquals(0, batch.size());
+        }
+        source.dealloc();
+    }
+
+    @Test
+    public void testChecks() {
+        DirectMemorySource source = Sources.alloc(16);
+        RandomAccessSource readOnly = Sources.fromNewArray(16).withPermissions(AccessorPermissions.READ);
+        CopyBatch batch = new CopyBatch();
+
+        assertThrows(IllegalArgumentException.class, () -> batch.get(source, 10, new int[4], 0, 2, DataOrder.BIG_ENDIAN));
+        assertThrows(IllegalArgumentException.class, () -> batch.get(source, 0, new byte[4], 2, 3));
+        assertThrows(IllegalStateException.class, () -> batch.put(readOnly, 0, new byte[4], 0, 4));
+
+        batch.get(source, 0, new byte[4], 0, 4);
+        source.dealloc();
+        assertThrows(IllegalStateException.class, batch::execute);
+        assertEquals(1, batch.size());
+
+        batch.close();
+        batch.close();
+        assertEquals(0, batch.size());
+        assertThrows(IllegalStateException.class, batch::execute);
+    }
+}
@@ -16,9 +16,110 @@
 
 package me.devcexx.accessors;
 
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
 public class DirectMemorySourceTest extends AbstractRandomAccessorTest {
     @Override
     protected RandomAccessSource mkSource(long size) {
         return Sources.alloc(size);
     }
+
+    @Test
+    public void testNativeAndJavaSwapPathsAgree() {
+        DataOrder order = DataOrder.NATIVE_ORDER.opposite();
+        RandomAccessSource source = mkSource(4096);
+        Random random = new Random();
+        byte[] data = new byte[4096];
+        random.nextBytes(data);
+        source.put(0, data);
+
+        int threshold = Unsafe.nativeSwapThreshold();
+        try {
+            //Lengths not multiple of any vector width, from unaligned offsets.
+            for (int count = 0; count < 300; count += 7) {
+                for (int off = 0; off < 3; off++) {
+                    Unsafe.nativeSwapThreshold(Integer.MAX_VALUE);
+                    short[] javaShorts = source.get(off, new short[count], order);
+                    int[] javaInts = source.get(off, new int[count], order);
+                    long[] javaLongs = source.get(off, new long[count], order);
+
+                    Unsafe.nativeSwapThreshold(0);
+                    assertArrayEquals(javaShorts, source.get(off, new short[count], order));
+                    assertArrayEquals(javaInts, source.get(off, new int[count], order));
+                    assertArrayEquals(javaLongs, source.get(off, new long[count], order));
+                }
+            }
+        } finally {
+            Unsafe.nativeSwapThreshold(threshold);
+        }
+
+        source.dealloc();
+    }
+
+    @Test
+    public void testFixedNativeSwapThreshold() {
+        int threshold = Unsafe.nativeSwapThreshold();
+        try {
+            //A fixed threshold is not replaced by the calibration.
+            Unsafe.nativeSwapThreshold(1024);
+            assertFalse(Unsafe.nativeSwap(1023));
+            assertEquals(AccessorNatives.isAvailable(), Unsafe.nativeSwap(1024));
+            assertEquals(1024, Unsafe.nativeSwapThreshold());
+        } finally {
+            Unsafe.nativeSwapThreshold(threshold);
+        }
+    }
+
+    @Test
+    public void testDirectBufferWithoutNatives() {
+        DirectMemorySource source = Sources.calloc(64);
+        ByteBuffer buf = Unsafe.createDirectBufferThroughTemplate(source.address(), 64, source);
+
+        assertTrue(buf.isDirect());
+        assertEquals(64, buf.capacity());
+        assertEquals(64, buf.remaining());
+        assertEquals(source.address(), Unsafe.addressOfByteBuffer(buf));
+
+        buf.putInt(60, 0x01020304);
+        assertEquals(0x01020304, source.getInt(60, DataOrder.BIG_ENDIAN));
+        source.dealloc();
+    }
+
+    @Test
+    public void testCloseDeallocates() {
+        DirectMemorySource source;
+        try (DirectMemorySource s = Sources.alloc(16)) {
+            source = s;
+            s.put(0, 1L, DataOrder.NATIVE_ORDER);
+        }
+
+        assertTrue(source.deallocated());
+        assertThrows(IllegalStateException.class, () -> source.get(0));
+
+        //Deallocating again must have no effect.
+        assertDoesNotThrow(source::dealloc);
+    }
+
+    @Test
+    public void testUnreachableSourceIsCleaned() throws InterruptedException {
+        CountDownLatch cleaned = new CountDownLatch(1);
+        long address = Unsafe.alloc(16);
+        new DirectMemorySource(address, 16, () -> {
+            Unsafe.dealloc(address);
+            cleaned.countDown();
+        }) { };
+
+        for (int i = 0; i < 50 && cleaned.getCount() > 0; i++) {
+            System.gc();
+            cleaned.await(100, TimeUnit.MILLISECONDS);
+        }
+        assertEquals(0, cleaned.getCount());
+    }
 }
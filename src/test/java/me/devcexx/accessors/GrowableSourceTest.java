@@ -0,0 +1,180 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GrowableSourceTest {
+    @Test
+    public void testGrowsOnWrite() {
+        GrowableSource source = Sources.growable(4);
+        assertEquals(0, source.length());
+        assertEquals(4, source.capacity());
+        assertThrows(IllegalArgumentException.class, () -> source.get(0));
+
+        source.put(0, 0x01020304, DataOrder.BIG_ENDIAN);
+        assertEquals(4, source.length());
+        assertEquals(4, source.capacity());
+
+        source.put(10, 0x0506070809L, DataOrder.BIG_ENDIAN);
+        assertEquals(18, source.length());
+        assertEquals(18, source.capacity());
+        assertEquals(0x01020304, source.getInt(0, DataOrder.BIG_ENDIAN));
+        assertArrayEquals(new byte[6], source.get(4, new byte[6]));
+        assertEquals(0x0506070809L, source.getLong(10, DataOrder.BIG_ENDIAN));
+
+        source.put(18, (byte) 1);
+        assertEquals(19, source.length());
+        assertEquals(36, source.capacity());
+
+        source.dealloc();
+    }
+
+    @Test
+    public void testTrimAndTruncate() {
+        GrowableSource source = Sources.growable(0, GrowableSource.GrowthPolicy.linear(100));
+        source.put(0, new int[] { 1, 2, 3 }, DataOrder.NATIVE_ORDER);
+        assertEquals(12, source.length());
+        assertEquals(100, source.capacity());
+
+        source.trimToSize();
+        assertEquals(12, source.capacity());
+        assertArrayEquals(new int[] { 1, 2, 3 }, source.get(0, new int[3], DataOrder.NATIVE_ORDER));
+
+        source.setLength(4);
+        assertEquals(4, source.length());
+        assertEquals(12, source.capacity());
+        assertThrows(IllegalArgumentException.class, () -> source.get(4));
+
+        source.setLength(8);
+        assertEquals(1, source.getInt(0, DataOrder.NATIVE_ORDER));
+        assertEquals(0, source.getInt(4, DataOrder.NATIVE_ORDER));
+
+        source.setLength(0);
+        source.trimToSize();
+        assertEquals(0, source.capacity());
+        source.put(0, (byte) 7);
+        assertEquals(7, source.get(0));
+
+        source.dealloc();
+        assertThrows(IllegalStateException.class, () -> source.put(0, (byte) 0));
+        assertThrows(IllegalStateException.class, () -> source.setLength(0));
+    }
+
+    @Test
+    public void testGrowthPolicies() {
+        assertEquals(200, GrowableSource.GrowthPolicy.doubling().newCapacity(100, 101));
+        assertEquals(150, GrowableSource.GrowthPolicy.factor(1.5).newCapacity(100, 101));
+        assertEquals(164, GrowableSource.GrowthPolicy.linear(64).newCapacity(100, 101));
+        assertEquals(Long.MAX_VALUE, GrowableSource.GrowthPolicy.doubling().newCapacity(Long.MAX_VALUE / 2 + 1, 0));
+
+        assertThrows(IllegalArgumentException.class, () -> GrowableSource.GrowthPolicy.factor(1.0));
+        assertThrows(IllegalArgumentException.class, () -> GrowableSource.GrowthPolicy.linear(0));
+        assertThrows(IllegalArgumentException.class, () -> Sources.growable(-1));
+    }
+
+    @Test
+    public void testGrowableAccessor() {
+        GrowableSource source = Sources.growable(2);
+        GrowableAccessor accessor = new GrowableAccessor(source, DataOrder.BIG_ENDIAN);
+
+        accessor.put((short) 1);
+        accessor.put(2);
+        accessor.put(new long[] { 3, 4 });
+        accessor.put(new byte[] { 5, 6, 7 });
+
+        assertEquals(25, accessor.position());
+        assertEquals(25, accessor.limit());
+        assertEquals(25, source.length());
+
+        accessor.position(0);
+        assertEquals(1, accessor.getShort());
+        assertEquals(2, accessor.getInt());
+        assertArrayEquals(new long[] { 3, 4 }, accessor.get(new long[2]));
+        assertThrows(IllegalArgumentException.class, () -> accessor.getInt(24));
+
+        accessor.limit(10);
+        assertThrows(IllegalArgumentException.class, () -> accessor.put(8, 0));
+        assertEquals(25, source.length());
+
+        accessor.limit(source.length());
+        accessor.put(24, 0L);
+        assertEquals(32, source.length());
+        assertEquals(32, accessor.limit());
+
+        source.dealloc();
+    }
+
+    @Test
+    public void testBulkWritesAreCheckedInBytes() {
+        RandomAccessor accessor = new RandomAccessor(Sources.alloc(16), 0, 8);
+        assertThrows(IllegalArgumentException.class, () -> accessor.put(0, new int[3], DataOrder.NATIVE_ORDER));
+        assertThrows(IllegalArgumentException.class, () -> accessor.get(0, new short[5], DataOrder.NATIVE_ORDER));
+        assertDoesNotThrow(() -> accessor.put(0, new int[2], DataOrder.NATIVE_ORDER));
+        accessor.source().dealloc();
+    }
+
+    @Test
+    public void testRefusesByteBuffers() throws IOException {
+        GrowableSource source = Sources.growable(4);
+        source.put(0, new byte[] { 1, 2, 3, 4 });
+
+        assertThrows(UnsupportedOperationException.class, source::byteBuffer);
+        assertThrows(UnsupportedOperationException.class, () -> source.slice(1, 2).byteBuffer());
+        assertThrows(UnsupportedOperationException.class,
+                () -> Sources.concat(source, Sources.fromNewArray(4)).byteBuffer(0, 4));
+
+        //Channels still transfer the data through transient buffers.
+        source.put(4, new byte[] { 5, 6 });
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        source.channel().transferTo(1, 4, Channels.newChannel(out));
+        assertArrayEquals(new byte[] { 2, 3, 4, 5 }, out.toByteArray());
+
+        source.dealloc();
+    }
+
+    @Test
+    public void testShrinkUnderLiveViews() {
+        GrowableSource source = Sources.growable(16);
+        source.setLength(4096);
+        RandomAccessSource slice = source.slice(0, 4096);
+        RandomAccessSource composite = Sources.concat(Sources.fromNewArray(4), source);
+
+        source.setLength(0);
+        source.trimToSize();
+
+        assertThrows(IllegalStateException.class, () -> slice.get(100));
+        assertThrows(IllegalStateException.class, () -> slice.put(100, (byte) 1));
+        assertThrows(IllegalStateException.class, () -> slice.clear((byte) 1, 0, 8));
+        assertThrows(IllegalStateException.class, () -> slice.get(0, new byte[8]));
+        assertThrows(IllegalStateException.class, () -> composite.getInt(104, DataOrder.NATIVE_ORDER));
+        assertEquals(0, composite.getInt(0, DataOrder.NATIVE_ORDER));
+        assertEquals(0, source.length());
+
+        //Once the source grows back, the views can be used again.
+        source.setLength(4096);
+        slice.put(100, (byte) 1);
+        assertEquals(1, composite.get(104));
+        source.dealloc();
+    }
+}
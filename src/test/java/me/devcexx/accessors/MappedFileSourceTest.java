@@ -0,0 +1,135 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedFileSourceTest extends AbstractRandomAccessorTest {
+    @Override
+    protected RandomAccessSource mkSource(long size) {
+        try {
+            return Sources.mapFile(tempFile(), FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static File tempFile() throws IOException {
+        File file = File.createTempFile("accessors-mapped", ".bin");
+        file.deleteOnExit();
+        return file;
+    }
+
+    private static File tempFile(byte[] contents) throws IOException {
+        File file = tempFile();
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(contents);
+        }
+        return file;
+    }
+
+    private static byte[] readFile(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            byte[] data = new byte[(int) raf.length()];
+            raf.readFully(data);
+            return data;
+        }
+    }
+
+    @Test
+    public void testReadWriteMappingUpdatesFile() throws IOException {
+        File file = tempFile();
+        MappedFileSource source = Sources.mapFile(file, FileChannel.MapMode.READ_WRITE, 0, 16);
+        assertEquals(16, file.length());
+
+        source.put(4, 0x01020304, DataOrder.BIG_ENDIAN);
+        source.force();
+        source.dealloc();
+
+        assertArrayEquals(new byte[] { 0, 0, 0, 0, 1, 2, 3, 4, 0, 0, 0, 0, 0, 0, 0, 0 }, readFile(file));
+    }
+
+    @Test
+    public void testReadOnlyMapping() throws IOException {
+        byte[] data = new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 };
+        MappedFileSource source = Sources.mapFile(tempFile(data), FileChannel.MapMode.READ_ONLY);
+
+        assertEquals(data.length, source.length());
+        assertTrue(source.isReadable());
+        assertFalse(source.isWritable());
+        assertArrayEquals(data, source.get(0, new byte[data.length]));
+
+        assertThrows(IllegalStateException.class, () -> source.put(0, (byte) 0));
+        assertThrows(IllegalStateException.class, () -> source.put(0, new byte[4]));
+        assertThrows(IllegalStateException.class, () -> source.clear((byte) 0));
+        assertTrue(source.byteBuffer().isReadOnly());
+
+        source.dealloc();
+    }
+
+    @Test
+    public void testPrivateMappingDoesNotPropagate() throws IOException {
+        byte[] data = new byte[] { 1, 2, 3, 4 };
+        File file = tempFile(data);
+        MappedFileSource source = Sources.mapFile(file, FileChannel.MapMode.PRIVATE);
+
+        source.put(0, (byte) 42);
+        assertEquals(42, source.get(0));
+        source.dealloc();
+
+        assertArrayEquals(data, readFile(file));
+    }
+
+    @Test
+    public void testUnalignedPosition() throws IOException {
+        byte[] data = new byte[Unsafe.pageSize() * 2 + 100];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+
+        int position = Unsafe.pageSize() + 33;
+        MappedFileSource source = Sources.mapFile(tempFile(data), FileChannel.MapMode.READ_ONLY, position, 50);
+
+        assertEquals(50, source.length());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(data[position + i], source.get(i));
+        }
+
+        source.dealloc();
+    }
+
+    @Test
+    public void testRegionBeyondEndOfFile() throws IOException {
+        File file = tempFile(new byte[100]);
+
+        assertThrows(IOException.class, () -> Sources.mapFile(file, FileChannel.MapMode.READ_ONLY, 50, 51));
+        assertThrows(IOException.class, () -> Sources.mapFile(file, FileChannel.MapMode.PRIVATE, 0, 101));
+        assertEquals(100, file.length());
+
+        MappedFileSource source = Sources.mapFile(file, FileChannel.MapMode.READ_ONLY, 50, 50);
+        assertEquals(50, source.length());
+        source.dealloc();
+    }
+}
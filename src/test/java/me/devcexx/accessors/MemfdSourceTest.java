@@ -0,0 +1,51 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MemfdSourceTest extends AbstractRandomAccessorTest {
+    @Override
+    protected RandomAccessSource mkSource(long size) {
+        return Sources.createMemfd("accessors-test", size);
+    }
+
+    @Test
+    public void testMapThroughPath() throws IOException {
+        MemfdSource source = Sources.createMemfd("accessors-test", 64);
+        File path = source.path();
+        assertTrue(source.fd() >= 0);
+
+        MappedFileSource mapped = Sources.mapFile(path, FileChannel.MapMode.READ_WRITE);
+        assertEquals(64, mapped.length());
+
+        source.put(8, 0x0102030405060708L, DataOrder.LITTLE_ENDIAN);
+        assertEquals(0x0102030405060708L, mapped.getLong(8, DataOrder.LITTLE_ENDIAN));
+        mapped.put(0, (byte) 7);
+        assertEquals(7, source.get(0));
+
+        mapped.dealloc();
+        source.dealloc();
+        assertThrows(IllegalStateException.class, source::fd);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MemoryArenaTest extends AbstractRandomAccessorTest {
+    private static final MemoryArena ARENA = new MemoryArena(4096);
+
+    @Override
+    protected RandomAccessSource mkSource(long size) {
+        return ARENA.allocate(size);
+    }
+
+    @Test
+    public void testAlignment() {
+        try (MemoryArena arena = new MemoryArena(4096)) {
+            arena.allocate(3);
+            assertEquals(0, arena.allocate(8).address() % 8);
+            arena.allocate(1, 1);
+            assertEquals(0, arena.allocate(16, 64).address() % 64);
+            assertThrows(IllegalArgumentException.class, () -> arena.allocate(8, 3));
+            assertThrows(IllegalArgumentException.class, () -> arena.allocate(-1));
+        }
+    }
+
+    @Test
+    public void testRegionsDoNotOverlap() {
+        try (MemoryArena arena = new MemoryArena(256)) {
+            ArenaSource[] regions = new ArenaSource[32];
+            for (int i = 0; i < regions.length; i++) {
+                regions[i] = arena.allocate(40);
+                regions[i].clear((byte) i);
+            }
+
+            for (int i = 0; i < regions.length; i++) {
+                for (int j = 0; j < 40; j++) {
+                    assertEquals(i, regions[i].get(j));
+                }
+            }
+
+            //Each chunk fits 6 regions of 40 bytes, aligned to 8.
+            assertEquals(6 * 256, arena.reservedBytes());
+        }
+    }
+
+    @Test
+    public void testLargeRegions() {
+        try (MemoryArena arena = new MemoryArena(256)) {
+            ArenaSource small = arena.allocate(16);
+            ArenaSource large = arena.allocate(1024);
+            large.clear((byte) 1);
+            small.clear((byte) 2);
+            assertEquals(1, large.get(1023));
+            assertEquals(2, small.get(0));
+
+            //The current chunk keeps being used after a large allocation.
+            assertEquals(small.address() + 16, arena.allocate(16).address());
+
+            arena.reset();
+            assertEquals(256, arena.reservedBytes());
+        }
+    }
+
+    @Test
+    public void testResetAndRelease() {
+        MemoryArena arena = new MemoryArena(256);
+        ArenaSource first = arena.allocate(64);
+        RandomAccessSource slice = first.slice(8);
+        first.put(0, 42L, DataOrder.NATIVE_ORDER);
+
+        arena.reset();
+        assertTrue(first.deallocated());
+        assertTrue(slice.deallocated());
+        assertFalse(first.isValid());
+        assertThrows(IllegalStateException.class, () -> first.getLong(0, DataOrder.NATIVE_ORDER));
+
+        //The chunk is reused after a reset.
+        ArenaSource second = arena.allocate(64);
+        assertEquals(first.address(), second.address());
+        assertFalse(second.deallocated());
+        assertEquals(256, arena.reservedBytes());
+
+        arena.release();
+        assertTrue(arena.released());
+        assertTrue(second.deallocated());
+        assertEquals(0, arena.reservedBytes());
+        assertThrows(IllegalStateException.class, () -> arena.allocate(8));
+        assertDoesNotThrow(arena::release);
+    }
+
+    @Test
+    public void testThreadLocal() throws InterruptedException {
+        ThreadLocal<MemoryArena> arenas = MemoryArena.threadLocal(1024);
+        AtomicReference<MemoryArena> other = new AtomicReference<>();
+
+        Thread thread = new Thread(() -> other.set(arenas.get()));
+        thread.start();
+        thread.join();
+
+        assertSame(arenas.get(), arenas.get());
+        assertNotSame(arenas.get(), other.get());
+        assertEquals(1024, arenas.get().chunkSize());
+        arenas.get().release();
+    }
+}
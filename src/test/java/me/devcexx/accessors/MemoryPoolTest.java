@@ -0,0 +1,147 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MemoryPoolTest extends AbstractRandomAccessorTest {
+    @Override
+    protected RandomAccessSource mkSource(long size) {
+        return Sources.pooled(size);
+    }
+
+    @Test
+    public void testBlocksAreRecycled() {
+        MemoryPool pool = new MemoryPool(64, 4096, 1 << 16);
+
+        PooledSource first = pool.allocate(100);
+        long address = first.address();
+        first.dealloc();
+        assertTrue(first.deallocated());
+
+        //Same size class, so the same block is handed out again.
+        try (PooledSource second = pool.allocate(128)) {
+            assertEquals(address, second.address());
+            assertEquals(128, second.length());
+        }
+
+        MemoryPool.Stats stats = pool.stats();
+        assertEquals(2, stats.allocations());
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(0.5, stats.hitRate());
+        assertEquals(128, stats.pooledBytes());
+        assertEquals(0, stats.usedBytes());
+        pool.close();
+    }
+
+    @Test
+    public void testDoubleDeallocReturnsBlockOnce() {
+        MemoryPool pool = new MemoryPool(64, 4096, 1 << 16);
+        PooledSource source = pool.allocate(64);
+        source.dealloc();
+        source.dealloc();
+
+        assertEquals(64, pool.stats().pooledBytes());
+        try (PooledSource a = pool.allocate(64); PooledSource b = pool.allocate(64)) {
+            assertNotEquals(a.address(), b.address());
+        }
+        pool.close();
+    }
+
+    @Test
+    public void testSizeClassesAndFragmentation() {
+        MemoryPool pool = new MemoryPool(64, 4096, 1 << 16);
+        assertEquals(64, pool.blockSizeFor(0));
+        assertEquals(64, pool.blockSizeFor(64));
+        assertEquals(128, pool.blockSizeFor(65));
+        assertEquals(4096, pool.blockSizeFor(4096));
+        assertEquals(5000, pool.blockSizeFor(5000));
+
+        PooledSource a = pool.allocate(96);
+        PooledSource b = pool.allocate(5000);
+        MemoryPool.Stats stats = pool.stats();
+        assertEquals(128 + 5000, stats.usedBytes());
+        assertEquals(96 + 5000, stats.requestedBytes());
+        assertEquals(1 - (96 + 5000) / (double) (128 + 5000), stats.fragmentation(), 1e-9);
+
+        //Sources bigger than the biggest class are not pooled.
+        b.dealloc();
+        a.dealloc();
+        assertEquals(128, pool.stats().pooledBytes());
+        pool.close();
+    }
+
+    @Test
+    public void testThreadCachesSpillToSharedLists() throws InterruptedException {
+        MemoryPool pool = new MemoryPool(64, 4096, 4096);
+        List<PooledSource> sources = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            sources.add(pool.allocate(1024));
+        }
+
+        //The cache of the deallocating thread only keeps 4 blocks of 1024 bytes, so
+        //the rest go to the shared list, from where this thread takes them.
+        Thread thread = new Thread(() -> sources.forEach(PooledSource::dealloc));
+        thread.start();
+        thread.join();
+
+        for (int i = 0; i < 90; i++) {
+            pool.allocate(1024).dealloc();
+        }
+        assertTrue(pool.stats().hits() > 0);
+
+        //Trimming also releases the blocks held by the thread caches.
+        assertTrue(pool.stats().pooledBytes() > 0);
+        pool.trim();
+        assertEquals(0, pool.stats().pooledBytes());
+        pool.close();
+    }
+
+    @Test
+    public void testClose() throws InterruptedException {
+        MemoryPool pool = new MemoryPool(64, 4096, 1 << 16);
+        PooledSource alive = pool.allocate(256);
+        pool.allocate(128).dealloc();
+
+        Thread thread = new Thread(() -> pool.allocate(64).dealloc());
+        thread.start();
+        thread.join();
+        assertEquals(128 + 64, pool.stats().pooledBytes());
+
+        pool.close();
+        pool.close();
+        assertTrue(pool.isClosed());
+        assertEquals(0, pool.stats().pooledBytes());
+        assertThrows(IllegalStateException.class, () -> pool.allocate(64));
+
+        //Sources handed out before closing the pool keep working, and
+        //their blocks are not pooled anymore.
+        alive.put(0, 42L, DataOrder.NATIVE_ORDER);
+        assertEquals(42L, alive.getLong(0, DataOrder.NATIVE_ORDER));
+        alive.dealloc();
+        assertEquals(0, pool.stats().pooledBytes());
+        assertEquals(0, pool.stats().usedBytes());
+
+        assertThrows(UnsupportedOperationException.class, () -> MemoryPool.defaultPool().close());
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NativeLibraryCacheTest {
+    private static final String RESOURCE = "/me/devcexx/accessors/NativeLibraryCache.class";
+    private static final boolean POSIX = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+
+    private static byte[] resource() throws IOException {
+        try (InputStream in = NativeLibraryCacheTest.class.getResourceAsStream(RESOURCE)) {
+            byte[] contents = new byte[in.available()];
+            int read = 0;
+            while (read < contents.length) {
+                read += in.read(contents, read, contents.length - read);
+            }
+            return contents;
+        }
+    }
+
+    @Test
+    public void testExtractIsAddressedByHash(@TempDir Path tempDir) throws IOException {
+        NativeLibraryCache cache = new NativeLibraryCache(tempDir.resolve("cache").toFile());
+        File file = cache.extract(RESOURCE, "lib.bin");
+
+        byte[] contents = resource();
+        assertEquals(NativeLibraryCache.hash(contents), file.getParentFile().getName());
+        assertArrayEquals(contents, Files.readAllBytes(file.toPath()));
+        assertEquals(1, file.getParentFile().list().length);
+        assertNull(cache.extract("/does/not/exist", "lib.bin"));
+    }
+
+    @Test
+    public void testExtractReusesCachedFile(@TempDir Path tempDir) throws IOException {
+        NativeLibraryCache cache = new NativeLibraryCache(tempDir.toFile());
+        File file = cache.extract(RESOURCE, "lib.bin");
+        assertTrue(file.setLastModified(1000));
+
+        assertEquals(file, cache.extract(RESOURCE, "lib.bin"));
+        assertEquals(1000, file.lastModified());
+    }
+
+    @Test
+    public void testExtractReplacesCorruptedFile(@TempDir Path tempDir) throws IOException {
+        NativeLibraryCache cache = new NativeLibraryCache(tempDir.toFile());
+        File file = cache.extract(RESOURCE, "lib.bin");
+
+        byte[] corrupted = resource();
+        corrupted[0] ^= 1;
+        Files.write(file.toPath(), corrupted);
+
+        assertEquals(file, cache.extract(RESOURCE, "lib.bin"));
+        assertArrayEquals(resource(), Files.readAllBytes(file.toPath()));
+    }
+
+    @Test
+    public void testExtractCreatesPrivateDirectories(@TempDir Path tempDir) throws IOException {
+        if (!POSIX) {
+            return;
+        }
+
+        Path directory = tempDir.resolve("cache");
+        File file = new NativeLibraryCache(directory.toFile()).extract(RESOURCE, "lib.bin");
+
+        assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(directory)));
+        assertEquals("rwx------", PosixFilePermissions.toString(
+                Files.getPosixFilePermissions(file.getParentFile().toPath())));
+        assertTrue(NativeLibraryCache.isSecure(file.toPath()));
+    }
+
+    @Test
+    public void testExtractRefusesInsecureDirectories(@TempDir Path tempDir) throws IOException {
+        if (!POSIX) {
+            return;
+        }
+
+        Path directory = tempDir.resolve("cache");
+        Files.createDirectory(directory);
+        Files.setPosixFilePermissions(directory, PosixFilePermissions.fromString("rwxrwxrwx"));
+        assertThrows(IOException.class, () -> new NativeLibraryCache(directory.toFile()).extract(RESOURCE, "lib.bin"));
+
+        Files.setPosixFilePermissions(directory, PosixFilePermissions.fromString("rwx------"));
+        Path link = tempDir.resolve("link");
+        Files.createSymbolicLink(link, directory);
+        assertThrows(IOException.class, () -> new NativeLibraryCache(link.toFile()).extract(RESOURCE, "lib.bin"));
+    }
+
+    @Test
+    public void testExtractReplacesWritableFile(@TempDir Path tempDir) throws IOException {
+        if (!POSIX) {
+            return;
+        }
+
+        NativeLibraryCache cache = new NativeLibraryCache(tempDir.toFile());
+        File file = cache.extract(RESOURCE, "lib.bin");
+        Files.setPosixFilePermissions(file.toPath(), PosixFilePermissions.fromString("rw-rw-rw-"));
+
+        assertEquals(file, cache.extract(RESOURCE, "lib.bin"));
+        assertTrue(NativeLibraryCache.isSecure(file.toPath()));
+    }
+
+    @Test
+    public void testNativesLoadedFromCache() {
+        if (Boolean.getBoolean(AccessorNatives.DISABLE_PROPERTY)) {
+            //Run by the test-without-natives execution: the pure Java fallback
+            //must be used, and the system calls must be refused.
+            assertFalse(AccessorNatives.isAvailable());
+            assertNull(AccessorNatives.loadError());
+            assertNull(AccessorNatives.libraryPath());
+            assertThrows(UnsupportedOperationException.class, () -> AccessorNatives.close(-1));
+
+            DirectMemorySource source = Sources.allocAndSet(4096, (byte) 1);
+            try {
+                int[] ints = source.get(0, new int[1024], DataOrder.NATIVE_ORDER == DataOrder.BIG_ENDIAN
+                        ? DataOrder.LITTLE_ENDIAN : DataOrder.BIG_ENDIAN);
+                for (int i : ints) {
+                    assertEquals(0x01010101, i);
+                }
+            } finally {
+                source.dealloc();
+            }
+            return;
+        }
+
+        assertTrue(AccessorNatives.isAvailable());
+        assertNull(AccessorNatives.loadError());
+        assertTrue(AccessorNatives.loadTimeNanos() > 0);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelOperationsTest {
+    private static final int SIZE = 1 << 20;
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @AfterAll
+    public static void shutdownPool() {
+        POOL.shutdown();
+    }
+
+    private static ParallelOperations parallel(RandomAccessSource source) {
+        return source.parallel(POOL).withThreshold(Unsafe.pageSize());
+    }
+
+    private static byte[] random(int size) {
+        byte[] data = new byte[size];
+        new Random().nextBytes(data);
+        return data;
+    }
+
+    @Test
+    public void testClear() {
+        DirectMemorySource source = Sources.calloc(SIZE);
+
+        parallel(source).clear((byte) 7, 3, SIZE - 10);
+        byte[] data = source.get(0, new byte[SIZE]);
+        assertEquals(0, data[2]);
+        for (int i = 3; i < SIZE - 7; i++) {
+            assertEquals(7, data[i]);
+        }
+        assertEquals(0, data[SIZE - 7]);
+
+        assertThrows(IllegalArgumentException.class, () -> parallel(source).clear((byte) 0, 1, SIZE));
+        source.dealloc();
+    }
+
+    @Test
+    public void testCopyTo() {
+        DirectMemorySource source = Sources.alloc(SIZE);
+        byte[] data = random(SIZE);
+        source.put(0, data);
+
+        RandomAccessSource target = Sources.concat(Sources.fromNewArray(SIZE / 3), Sources.segmented(SIZE, 1 << 12));
+        parallel(source).copyTo(5, target, 11, SIZE - 5);
+
+        byte[] copied = target.get(11, new byte[SIZE - 5]);
+        for (int i = 0; i < copied.length; i++) {
+            assertEquals(data[5 + i], copied[i]);
+        }
+        source.dealloc();
+    }
+
+    @Test
+    public void testCopyToSwapped() {
+        DirectMemorySource source = Sources.alloc(SIZE);
+        for (int i = 0; i < SIZE / 8; i++) {
+            source.put(i * 8L, (long) i * 0x0101010101L, DataOrder.LITTLE_ENDIAN);
+        }
+
+        ByteArraySource target = Sources.fromNewArray(SIZE);
+        parallel(source).copyTo(0, target, 0, SIZE, 8, DataOrder.LITTLE_ENDIAN, DataOrder.BIG_ENDIAN);
+        for (int i = 0; i < SIZE / 8; i++) {
+            assertEquals((long) i * 0x0101010101L, target.getLong(i * 8L, DataOrder.BIG_ENDIAN));
+        }
+        source.dealloc();
+    }
+
+    @Test
+    public void testFlipOrder() {
+        DirectMemorySource source = Sources.alloc(SIZE);
+        for (int i = 0; i < SIZE / 4; i++) {
+            source.put(i * 4L, i, DataOrder.LITTLE_ENDIAN);
+        }
+
+        parallel(source).flipOrder(0, SIZE, 4);
+        for (int i = 0; i < SIZE / 4; i++) {
+            assertEquals(i, source.getInt(i * 4L, DataOrder.BIG_ENDIAN));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> parallel(source).flipOrder(0, 6, 4));
+        source.dealloc();
+    }
+
+    @Test
+    public void testSplitsAtPageBoundaries() {
+        long pageSize = Unsafe.pageSize();
+        DirectMemorySource source = Sources.alloc(SIZE);
+
+        //Split at the pages of the memory, even if the range doesn't start at one.
+        long split = ParallelOperations.splitPoint(source, 0, 3, SIZE - 3, 1);
+        assertEquals(0, (source.address() + split) % pageSize);
+        assertTrue(split > 3 && split < SIZE);
+
+        //Split at the pages of the destination of a copy.
+        split = ParallelOperations.splitPoint(source, 5, 0, SIZE - 5, 1);
+        assertEquals(0, (source.address() + split + 5) % pageSize);
+
+        //A split at a page boundary would break an item.
+        split = ParallelOperations.splitPoint(source, 0, 2, SIZE - 2, 4);
+        assertEquals(0, (split - 2) % pageSize);
+
+        //Memory that is not off-heap is split from the start of the range.
+        split = ParallelOperations.splitPoint(Sources.fromNewArray(SIZE), 0, 3, SIZE - 3, 1);
+        assertEquals(0, (split - 3) % pageSize);
+        source.dealloc();
+    }
+
+    @Test
+    public void testThreshold() {
+        RandomAccessSource source = Sources.fromNewArray(16);
+        assertEquals(ParallelOperations.DEFAULT_THRESHOLD, source.parallel().threshold());
+        assertThrows(IllegalArgumentException.class, () -> source.parallel().withThreshold(1));
+
+        //Small ranges run sequentially.
+        source.parallel().clear((byte) 1);
+        assertEquals(1, source.get(15));
+    }
+}
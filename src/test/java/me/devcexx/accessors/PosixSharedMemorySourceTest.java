@@ -0,0 +1,74 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PosixSharedMemorySourceTest extends AbstractRandomAccessorTest {
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+
+    private static String uniqueName() {
+        return "/accessors-test-" + System.identityHashCode(COUNTER)
+                + "-" + System.nanoTime() + "-" + COUNTER.incrementAndGet();
+    }
+
+    @Override
+    protected RandomAccessSource mkSource(long size) {
+        return Sources.createPosixSharedMemory(uniqueName(), size, false);
+    }
+
+    @Test
+    public void testAttachSharesContents() {
+        String name = uniqueName();
+        PosixSharedMemorySource created = Sources.createPosixSharedMemory(name, 4096, false);
+        PosixSharedMemorySource attached = Sources.attachToPosixSharedMemory(name);
+
+        assertEquals(name, attached.name());
+        assertEquals(4096, attached.length());
+        assertNotEquals(created.address(), attached.address());
+
+        created.put(100, 0x11223344, DataOrder.BIG_ENDIAN);
+        assertEquals(0x11223344, attached.getInt(100, DataOrder.BIG_ENDIAN));
+
+        attached.detach();
+        created.unlink();
+    }
+
+    @Test
+    public void testCreateFailsIfExists() {
+        String name = uniqueName();
+        PosixSharedMemorySource source = Sources.createPosixSharedMemory(name, 16, false);
+        assertThrows(SharedMemoryException.class, () -> Sources.createPosixSharedMemory(name, 16, false));
+        source.dealloc();
+    }
+
+    @Test
+    public void testPersistence() {
+        String name = uniqueName();
+        Sources.createPosixSharedMemory(name, 16, true).dealloc();
+
+        PosixSharedMemorySource attached = Sources.attachToPosixSharedMemory(name);
+        assertEquals(16, attached.length());
+        attached.unlink();
+
+        assertThrows(SharedMemoryException.class, () -> Sources.attachToPosixSharedMemory(name));
+    }
+}
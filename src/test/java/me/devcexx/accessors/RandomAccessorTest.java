@@ -21,6 +21,7 @@ import java.util.Arrays;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class RandomAccessorTest {
@@ -457,4 +458,74 @@ public class RandomAccessorTest {
         assertEquals(7, accessor.alignTo(8));
         assertEquals(16, accessor.position());
     }
+
+    @Test
+    public void testStateStack() {
+        RandomAccessor accessor = new RandomAccessor(Sources.alloc(64), 0, 64, DataOrder.BIG_ENDIAN);
+        assertNull(accessor.popState());
+        assertThrows(IllegalStateException.class, accessor::restoreState);
+
+        accessor.position(4);
+        RandomAccessor.AccessorState saved = accessor.pushState();
+        assertEquals(4, saved.position());
+        assertEquals(64, saved.limit());
+        assertEquals(DataOrder.BIG_ENDIAN, saved.order());
+
+        accessor.limit(32);
+        accessor.position(8);
+        accessor.order(DataOrder.LITTLE_ENDIAN);
+        int mark = accessor.saveState();
+
+        for (int i = 0; i < 20; i++) {
+            accessor.position(i);
+            accessor.saveState();
+        }
+        accessor.restoreState();
+        assertEquals(19, accessor.position());
+
+        accessor.position(30);
+        accessor.restoreState(mark);
+        assertEquals(8, accessor.position());
+        assertEquals(32, accessor.limit());
+        assertEquals(DataOrder.LITTLE_ENDIAN, accessor.order());
+        assertThrows(IllegalStateException.class, () -> accessor.restoreState(mark));
+
+        RandomAccessor.AccessorState popped = accessor.popState();
+        assertEquals(4, popped.position());
+        assertEquals(64, popped.limit());
+        assertEquals(DataOrder.BIG_ENDIAN, popped.order());
+        assertEquals(DataOrder.BIG_ENDIAN, accessor.order());
+        assertNull(accessor.popState());
+
+        accessor.source().dealloc();
+    }
+
+    @Test
+    public void testBulkTransfersCheckTheLimitInBytes() {
+        RandomAccessor accessor = new RandomAccessor(Sources.alloc(16));
+        accessor.limit(12);
+
+        accessor.put(0, new int[3], 0, 3, DataOrder.NATIVE_ORDER);
+        assertThrows(IllegalArgumentException.class, () -> accessor.put(0, new int[4], 0, 4, DataOrder.NATIVE_ORDER));
+        assertThrows(IllegalArgumentException.class, () -> accessor.get(0, new long[2], 0, 2, DataOrder.NATIVE_ORDER));
+        assertThrows(IllegalArgumentException.class, () -> accessor.get(8, new short[3], 0, 3, DataOrder.NATIVE_ORDER));
+
+        accessor.source().dealloc();
+    }
+
+    @Test
+    public void testPutAtOffsetWithDefaultOrder() {
+        RandomAccessor accessor = new RandomAccessor(Sources.calloc(32), DataOrder.BIG_ENDIAN);
+        accessor.position(4);
+
+        accessor.put(16L, 0x01020304);
+        assertEquals(4, accessor.position());
+        assertEquals(0, accessor.getInt(4, DataOrder.BIG_ENDIAN));
+        assertEquals(0x01020304, accessor.getInt(16, DataOrder.BIG_ENDIAN));
+
+        accessor.put(24L, 1.5);
+        assertEquals(1.5, accessor.getDouble(24, DataOrder.BIG_ENDIAN));
+
+        accessor.source().dealloc();
+    }
 }
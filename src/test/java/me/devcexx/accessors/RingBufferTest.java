@@ -0,0 +1,178 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RingBufferTest {
+
+    private static RingBuffer mkRing(int capacity) {
+        return new RingBuffer(Sources.calloc(RingBuffer.requiredLength(capacity)));
+    }
+
+    private static List<byte[]> readAll(RingBuffer ring, List<Integer> types) {
+        List<byte[]> messages = new ArrayList<>();
+        ring.read((type, source, off, length) -> {
+            types.add(type);
+            messages.add(source.get(off, new byte[length]));
+        }, Integer.MAX_VALUE);
+        return messages;
+    }
+
+    @Test
+    public void testWriteAndRead() {
+        RingBuffer ring = mkRing(1024);
+        assertTrue(ring.write(1, new byte[] { 1, 2, 3 }, 0, 3));
+        assertTrue(ring.write(2, new byte[] { 4, 5, 6, 7, 8, 9, 10, 11, 12 }, 1, 8));
+        assertEquals(16 + 16, ring.size());
+
+        List<Integer> types = new ArrayList<>();
+        List<byte[]> messages = readAll(ring, types);
+
+        assertEquals(2, messages.size());
+        assertArrayEquals(new byte[] { 1, 2, 3 }, messages.get(0));
+        assertArrayEquals(new byte[] { 5, 6, 7, 8, 9, 10, 11, 12 }, messages.get(1));
+        assertEquals(1, (int) types.get(0));
+        assertEquals(2, (int) types.get(1));
+        assertEquals(0, ring.size());
+        assertEquals(0, ring.read((type, source, off, length) -> fail("No message expected"), 10));
+
+        ring.source().dealloc();
+    }
+
+    @Test
+    public void testReadLimit() {
+        RingBuffer ring = mkRing(1024);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(ring.write(1, new byte[4], 0, 4));
+        }
+
+        assertEquals(3, ring.read((type, source, off, length) -> { }, 3));
+        assertEquals(2, ring.read((type, source, off, length) -> { }, 3));
+        ring.source().dealloc();
+    }
+
+    @Test
+    public void testFullAndWrapAround() {
+        RingBuffer ring = mkRing(256);
+        byte[] payload = new byte[24];
+
+        //Each record takes 32 bytes, so the ring fits 8 of them.
+        for (int i = 0; i < 8; i++) {
+            payload[0] = (byte) i;
+            assertTrue(ring.write(1, payload, 0, payload.length));
+        }
+        assertFalse(ring.write(1, payload, 0, payload.length));
+        assertEquals(-1, ring.claim(1, 0));
+
+        List<Integer> types = new ArrayList<>();
+        assertEquals(3, ring.read((type, source, off, length) -> types.add((int) source.get(off)), 3));
+
+        //A record of 40 bytes doesn't fit at the end of the ring, so it needs a padding record.
+        assertTrue(ring.write(1, new byte[32], 0, 32));
+        assertEquals(256 - 96 + 40, ring.size());
+
+        types.clear();
+        readAll(ring, types);
+        readAll(ring, types);
+        assertEquals(6, types.size());
+        assertEquals(0, ring.size());
+
+        ring.source().dealloc();
+    }
+
+    @Test
+    public void testClaimCommitAndAbort() {
+        RingBuffer ring = mkRing(1024);
+
+        long first = ring.claim(7, 8);
+        long second = ring.claim(8, 4);
+        ring.source().put(first, 42L, DataOrder.NATIVE_ORDER);
+        ring.source().put(second, 43, DataOrder.NATIVE_ORDER);
+
+        //Nothing is visible until the first record is committed.
+        assertEquals(0, ring.read((type, source, off, length) -> fail("No message expected"), 10));
+
+        ring.abort(first);
+        ring.commit(second);
+
+        List<Integer> values = new ArrayList<>();
+        assertEquals(1, ring.read((type, source, off, length) -> {
+            assertEquals(8, type);
+            assertEquals(4, length);
+            values.add(source.getInt(off, DataOrder.NATIVE_ORDER));
+        }, 10));
+        assertEquals(43, (int) values.get(0));
+
+        ring.source().dealloc();
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        RingBuffer ring = mkRing(1024);
+        assertThrows(IllegalArgumentException.class, () -> ring.claim(0, 4));
+        assertThrows(IllegalArgumentException.class, () -> ring.claim(1, ring.maxMessageLength() + 1));
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer(Sources.calloc(RingBuffer.METADATA_LENGTH + 100)));
+        ring.source().dealloc();
+    }
+
+    @Test
+    public void testManyProducers() throws InterruptedException {
+        RingBuffer ring = mkRing(4096);
+        int producers = 3;
+        int messagesPerProducer = 20000;
+
+        Thread[] threads = new Thread[producers];
+        for (int i = 0; i < producers; i++) {
+            final int producer = i;
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < messagesPerProducer; j++) {
+                    long off;
+                    while ((off = ring.claim(producer + 1, 4)) < 0) {
+                        Thread.yield();
+                    }
+                    ring.source().put(off, j, DataOrder.NATIVE_ORDER);
+                    ring.commit(off);
+                }
+            });
+            threads[i].start();
+        }
+
+        int[] next = new int[producers];
+        int total = 0;
+        while (total < producers * messagesPerProducer) {
+            total += ring.read((type, source, off, length) -> {
+                //Records of each producer must arrive in order.
+                assertEquals(next[type - 1]++, source.getInt(off, DataOrder.NATIVE_ORDER));
+            }, 100);
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int i = 0; i < producers; i++) {
+            assertEquals(messagesPerProducer, next[i]);
+        }
+        ring.source().dealloc();
+    }
+}
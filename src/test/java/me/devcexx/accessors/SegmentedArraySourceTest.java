@@ -0,0 +1,67 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SegmentedArraySourceTest extends AbstractRandomAccessorTest {
+    @Override
+    protected RandomAccessSource mkSource(long size) {
+        return Sources.segmented(size, 16);
+    }
+
+    @Test
+    public void testSegmentLayout() {
+        SegmentedArraySource source = Sources.segmented(40, 16);
+        assertEquals(3, source.segmentCount());
+        assertEquals(16, source.segment(0).length);
+        assertEquals(16, source.segment(1).length);
+        assertEquals(8, source.segment(2).length);
+
+        assertThrows(IllegalArgumentException.class, () -> Sources.segmented(16, 0));
+        assertThrows(IllegalArgumentException.class, () -> Sources.segmented(16, 24));
+        assertThrows(IllegalArgumentException.class, () -> Sources.segmented(Long.MAX_VALUE, 1));
+    }
+
+    @Test
+    public void testStraddlingValues() {
+        SegmentedArraySource source = Sources.segmented(32, 16);
+        ByteArraySource reference = Sources.fromNewArray(32);
+
+        for (long off = 9; off < 16; off++) {
+            for (DataOrder order : new DataOrder[] { DataOrder.BIG_ENDIAN, DataOrder.LITTLE_ENDIAN }) {
+                source.put(off, 0x0102030405060708L, order);
+                reference.put(off, 0x0102030405060708L, order);
+                assertArrayEquals(reference.get(0, new byte[32]), source.get(0, new byte[32]));
+                assertEquals(0x0102030405060708L, source.getLong(off, order));
+                assertEquals(reference.getInt(off + 2, order), source.getInt(off + 2, order));
+                assertEquals(reference.getShort(off + 5, order), source.getShort(off + 5, order));
+            }
+        }
+
+        int[] ints = new int[] { 1, -2, 3, -4, 5, -6, 7 };
+        source.put(2, ints, DataOrder.BIG_ENDIAN);
+        reference.put(2, ints, DataOrder.BIG_ENDIAN);
+        assertArrayEquals(reference.get(0, new byte[32]), source.get(0, new byte[32]));
+        assertArrayEquals(ints, source.get(2, new int[ints.length], DataOrder.BIG_ENDIAN));
+
+        assertEquals(16, source.byteBuffer(16, 16).remaining());
+        assertThrows(IllegalArgumentException.class, () -> source.byteBuffer(8, 16));
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SourceByteChannelTest {
+    private static byte[] data(int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) i;
+        }
+        return data;
+    }
+
+    private static File tempFile() throws IOException {
+        File file = File.createTempFile("accessors-channel", ".bin");
+        file.deleteOnExit();
+        return file;
+    }
+
+    @Test
+    public void testReadWriteSeek() throws IOException {
+        DirectMemorySource source = Sources.calloc(16);
+
+        try (SourceByteChannel channel = source.channel()) {
+            assertEquals(16, channel.size());
+            assertEquals(8, channel.write(ByteBuffer.wrap(data(8))));
+            assertEquals(8, channel.position());
+
+            channel.position(4);
+            ByteBuffer buf = ByteBuffer.allocate(32);
+            assertEquals(12, channel.read(buf));
+            assertEquals(-1, channel.read(buf));
+            assertEquals(16, channel.position());
+
+            buf.flip();
+            assertEquals(4, buf.get(0));
+            assertEquals(7, buf.get(3));
+            assertEquals(0, buf.get(4));
+
+            channel.position(12);
+            assertThrows(IOException.class, () -> channel.write(ByteBuffer.allocate(8)));
+            assertThrows(UnsupportedOperationException.class, () -> channel.truncate(4));
+        }
+
+        source.dealloc();
+    }
+
+    @Test
+    public void testClosedChannel() throws IOException {
+        ByteArraySource source = Sources.fromArray(new byte[8]);
+        SourceByteChannel channel = source.channel();
+        channel.close();
+
+        assertFalse(channel.isOpen());
+        assertFalse(source.deallocated());
+        assertThrows(ClosedChannelException.class, () -> channel.read(ByteBuffer.allocate(1)));
+        assertThrows(ClosedChannelException.class, channel::position);
+    }
+
+    @Test
+    public void testGrowableChannel() throws IOException {
+        GrowableSource source = Sources.growable(4);
+
+        try (SourceByteChannel channel = source.channel()) {
+            channel.write(ByteBuffer.wrap(data(100)));
+            assertEquals(100, channel.size());
+            assertArrayEquals(data(100), source.get(0, new byte[100]));
+
+            channel.truncate(10);
+            assertEquals(10, channel.size());
+            assertEquals(10, channel.position());
+        }
+
+        source.dealloc();
+    }
+
+    @Test
+    public void testScatterGather() throws IOException {
+        ByteArraySource source = Sources.fromArray(new byte[12]);
+        SourceByteChannel channel = source.channel();
+
+        ByteBuffer[] srcs = { ByteBuffer.wrap(data(4)), ByteBuffer.wrap(data(8)) };
+        assertEquals(12, channel.write(srcs));
+        assertThrows(IOException.class, () -> channel.write(new ByteBuffer[] { ByteBuffer.allocate(1) }));
+
+        channel.position(0);
+        ByteBuffer[] dsts = { ByteBuffer.allocate(6), ByteBuffer.allocate(10) };
+        assertEquals(12, channel.read(dsts));
+        assertEquals(-1, channel.read(dsts));
+        assertEquals(3, dsts[0].get(3));
+        assertEquals(1, dsts[0].get(5));
+        assertEquals(7, dsts[1].get(5));
+        assertEquals(6, dsts[1].position());
+    }
+
+    @Test
+    public void testTransferToFile() throws IOException {
+        byte[] data = data(64);
+        RandomAccessSource source = Sources.concat(Sources.fromArray(data, 0, 20),
+                Sources.segmented(44, 16));
+        source.put(20, data, 20, 44);
+
+        File file = tempFile();
+        try (FileChannel out = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            assertEquals(54, source.channel().transferTo(10, 100, out));
+        }
+
+        byte[] expected = new byte[54];
+        System.arraycopy(data, 10, expected, 0, 54);
+        assertArrayEquals(expected, Files.readAllBytes(file.toPath()));
+    }
+
+    @Test
+    public void testTransferFromFile() throws IOException {
+        File file = tempFile();
+        Files.write(file.toPath(), data(32));
+        DirectMemorySource source = Sources.alloc(40);
+        source.clear((byte) 0);
+
+        try (FileChannel in = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            assertEquals(32, source.channel().transferFrom(in, 4, 64));
+        }
+
+        assertEquals(0, source.get(3));
+        assertEquals(0, source.get(4));
+        assertEquals(31, source.get(35));
+        source.dealloc();
+    }
+
+    @Test
+    public void testGatheringWrite() throws IOException {
+        DirectMemorySource direct = Sources.alloc(32);
+        direct.put(0, data(32));
+        RandomAccessSource heap = Sources.fromArray(data(16));
+
+        File file = tempFile();
+        try (FileChannel out = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            assertEquals(26, SourceByteChannel.write(out, direct.slice(8, 10), heap.slice(0, 16)));
+        }
+
+        byte[] contents = Files.readAllBytes(file.toPath());
+        assertEquals(26, contents.length);
+        assertEquals(8, contents[0]);
+        assertEquals(17, contents[9]);
+        assertEquals(0, contents[10]);
+        assertEquals(15, contents[25]);
+        direct.dealloc();
+    }
+}
@@ -18,13 +18,46 @@ package me.devcexx.accessors;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class StreamsTest {
+    /**
+     * Accepts whole writes up to a given number of bytes, and then fails.
+     */
+    private static class FailingOutputStream extends OutputStream {
+        private final long capacity;
+        private long written;
+
+        private FailingOutputStream(long capacity) {
+            this.capacity = capacity;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (written + len > capacity) {
+                throw new IOException("No space left");
+            }
+            written += len;
+        }
+    }
+
     @Test
     public void testInputStream() throws IOException {
         DirectMemorySource source = Sources.alloc(150);
@@ -87,4 +120,140 @@ public class StreamsTest {
             assertArrayEquals(data, source.get(0, new byte[150]));
         }
     }
+
+    @Test
+    public void testBulkWriteStoresData() throws IOException {
+        DirectMemorySource source = Sources.calloc(16);
+        byte[] data = new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 };
+
+        try (RandomAccessSourceOutputStream out = source.outputStream(4, 12, false)) {
+            out.write(data);
+            assertEquals(12, out.offset());
+            assertThrows(IOException.class, () -> out.write(data));
+            assertEquals(12, out.offset());
+        }
+
+        assertArrayEquals(data, source.get(4, new byte[8]));
+        source.dealloc();
+    }
+
+    @Test
+    public void testPositionalAccess() throws IOException {
+        DirectMemorySource source = Sources.calloc(32);
+        RandomAccessSourceOutputStream out = source.outputStream(8, 16, false);
+        RandomAccessSourceInputStream in = source.inputStream(8, 16, false);
+
+        out.write(20, new byte[] { 1, 2, 3, 4 }, 0, 4);
+        assertEquals(8, out.offset());
+        assertThrows(IOException.class, () -> out.write(22, new byte[4], 0, 4));
+        assertThrows(IllegalArgumentException.class, () -> out.write(4, new byte[4], 0, 4));
+
+        byte[] buf = new byte[8];
+        assertEquals(4, in.read(20, buf, 0, 8));
+        assertArrayEquals(new byte[] { 1, 2, 3, 4, 0, 0, 0, 0 }, buf);
+        assertEquals(0, in.read(24, buf, 0, 8));
+        assertEquals(8, in.offset());
+        assertThrows(IllegalArgumentException.class, () -> in.read(25, buf, 0, 1));
+
+        assertEquals(10, in.skip(10));
+        assertEquals(6, in.skip(10));
+        assertEquals(0, in.skip(-1));
+
+        source.dealloc();
+    }
+
+    @Test
+    public void testTransferTo() throws IOException {
+        byte[] data = new byte[20000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i * 7);
+        }
+
+        RandomAccessSource[] sources = new RandomAccessSource[] {
+                Sources.fromArray(data), Sources.alloc(data.length), Sources.segmented(data.length, 4096)
+        };
+
+        for (RandomAccessSource source : sources) {
+            source.put(0, data);
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            RandomAccessSourceInputStream in = source.inputStream(100, data.length - 100, false);
+            assertEquals(data.length - 100, in.transferTo(bytes));
+            assertEquals(-1, in.read());
+            assertArrayEquals(Arrays.copyOfRange(data, 100, data.length), bytes.toByteArray());
+
+            DirectMemorySource target = Sources.calloc(data.length);
+            in.seek(100);
+            assertEquals(data.length - 100, in.transferTo(target.outputStream(50, data.length - 50, false)));
+            assertArrayEquals(Arrays.copyOfRange(data, 100, data.length),
+                    target.get(50, new byte[data.length - 100]));
+
+            in.seek(100);
+            assertThrows(IOException.class, () -> in.transferTo(target.outputStream(0, 10, false)));
+            assertEquals(100, in.offset());
+
+            //The bytes that could not be written are given back to the stream.
+            FailingOutputStream failing = new FailingOutputStream(10000);
+            assertThrows(IOException.class, () -> in.transferTo(failing));
+            long written = failing.written;
+            assertEquals(100 + written, in.offset());
+            bytes.reset();
+            in.transferTo(bytes);
+            assertArrayEquals(Arrays.copyOfRange(data, (int) (100 + written), data.length), bytes.toByteArray());
+            target.dealloc();
+        }
+
+        File file = File.createTempFile("accessors-streams", ".bin");
+        file.deleteOnExit();
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            assertEquals(data.length, sources[1].inputStream(0, data.length, true).transferTo(out));
+        }
+        assertEquals(data.length, file.length());
+        assertArrayEquals(data, Files.readAllBytes(file.toPath()));
+
+        for (RandomAccessSource source : sources) {
+            source.dealloc();
+        }
+    }
+
+    @Test
+    public void testSharedStreamClaimsEachByteOnce() throws InterruptedException {
+        DirectMemorySource source = Sources.calloc(40000);
+        RandomAccessSourceOutputStream out = source.outputStream(0, source.length(), true);
+        RandomAccessSourceInputStream in = source.inputStream(0, source.length(), true);
+
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                try {
+                    for (int j = 0; j < 10000; j++) {
+                        out.write(1);
+                    }
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        AtomicLong sum = new AtomicLong();
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                int b;
+                while ((b = in.read()) != -1) {
+                    sum.addAndGet(b);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(source.length(), sum.get());
+        source.dealloc();
+    }
 }
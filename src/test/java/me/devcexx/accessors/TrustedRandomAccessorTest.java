@@ -0,0 +1,83 @@
+/*
+ *  This file is part of random-accessors-java.
+ *  random-accessors-java is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  random-accessors-java is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with random-accessors-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.devcexx.accessors;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrustedRandomAccessorTest {
+    @Test
+    public void testMatchesCheckedAccessor() {
+        RandomAccessSource source = Sources.alloc(64);
+        RandomAccessor checked = new RandomAccessor(source, DataOrder.BIG_ENDIAN);
+        TrustedRandomAccessor trusted = new TrustedRandomAccessor(source, 0, 64, DataOrder.BIG_ENDIAN);
+
+        trusted.put((short) -2);
+        trusted.put(0x01020304);
+        trusted.put(0x05060708090a0b0cL, DataOrder.LITTLE_ENDIAN);
+        trusted.put(1.5f);
+        trusted.put(new double[] { 2.5, -3.5 });
+        assertEquals(34, trusted.position());
+
+        assertEquals(-2, checked.getShort());
+        assertEquals(0x01020304, checked.getInt());
+        assertEquals(0x05060708090a0b0cL, checked.getLong(DataOrder.LITTLE_ENDIAN));
+        assertEquals(1.5f, checked.getFloat());
+        assertArrayEquals(new double[] { 2.5, -3.5 }, checked.get(new double[2]));
+
+        trusted.position(0);
+        assertEquals(0xfffe, trusted.getUnsignedShort());
+        assertEquals(0x01020304L, trusted.getUnsignedInt());
+        assertArrayEquals(checked.get(0, new long[4], DataOrder.LITTLE_ENDIAN),
+                trusted.get(0, new long[4], DataOrder.LITTLE_ENDIAN));
+
+        source.dealloc();
+    }
+
+    @Test
+    public void testWindowOverSlices() {
+        RandomAccessSource source = Sources.fromNewArray(32);
+        RandomAccessSource slice = source.slice(8, 16).withPermissions(AccessorPermissions.FULL_ACCESS);
+
+        TrustedRandomAccessor trusted = new TrustedRandomAccessor(slice, 4, 8);
+        assertEquals(8, trusted.length());
+        trusted.put(0, (byte) 1);
+        trusted.put(7, (byte) 2);
+        assertEquals(1, source.get(12));
+        assertEquals(2, source.get(19));
+        assertEquals(2, trusted.get(7));
+
+        assertThrows(IllegalArgumentException.class, () -> new TrustedRandomAccessor(slice, 12, 8));
+
+        RandomAccessSource readOnly = slice.withPermissions(AccessorPermissions.READ);
+        TrustedRandomAccessor reader = new TrustedRandomAccessor(readOnly, 4, 8);
+        assertEquals(1, reader.get(0));
+        assertThrows(IllegalStateException.class, () -> reader.put(0, (byte) 0));
+        assertThrows(IllegalStateException.class, () -> reader.put(0, new int[1], DataOrder.NATIVE_ORDER));
+
+        RandomAccessSource writeOnly = source.withPermissions(AccessorPermissions.WRITE);
+        assertThrows(IllegalStateException.class, () -> new TrustedRandomAccessor(writeOnly));
+    }
+
+    @Test
+    public void testDeallocatedSource() {
+        RandomAccessSource source = Sources.alloc(16);
+        source.dealloc();
+        assertThrows(IllegalStateException.class, () -> new TrustedRandomAccessor(source));
+    }
+}